@@ -36,11 +36,13 @@ show_help() {
     echo "命令:"
     echo "  package  打包项目 (构建包含依赖的 JAR，跳过测试)"
     echo "  test     运行所有测试（核心 + 拦截器 + SSE）"
+    echo "  bench    运行 JMH 基准测试（可追加 JMH 参数，默认 -prof gc）"
     echo "  help     显示此帮助信息"
     echo ""
     echo "示例:"
     echo "  $0 package   # 构建可执行 JAR"
     echo "  $0 test      # 运行所有测试"
+    echo "  $0 bench \"RequestBenchmark -f 1 -prof gc\"   # 运行指定基准测试"
 }
 
 # 打包
@@ -78,7 +80,7 @@ test() {
 
     # 1. 核心功能测试
     info "运行 1/3: 核心功能测试..."
-    mvn test -DskipTests=false -Dtest=TestJNetUtils,TestPair,TestRequest,TestResponse,TestJNetClient,TestConcurrency 2>&1 | tee /tmp/test1.log
+    mvn test -DskipTests=false -Dtest=TestJNetUtils,TestPair,TestRequest,TestResponse,TestJNetClient,TestConcurrency,TestParserAllocation,TestCallAllocation,TestDeadline,TestConcurrencyLimiter,TestJNetExecutor,TestHttpClientPool,TestNioTransport,TestServerPush,TestStreamResponse,TestPublisherResponse,TestJsonReader,TestJsonMapper,TestJsonPath,TestLazyJson,TestNdjson,TestBinaryCodecs,TestMultipartReader,TestMultipartBody,TestLatencyHistogram 2>&1 | tee /tmp/test1.log
     if grep -q "BUILD SUCCESS" /tmp/test1.log; then
         info "✅ 核心测试通过"
     else
@@ -122,6 +124,14 @@ test() {
     fi
 }
 
+# JMH 基准测试（jmh profile，源码位于 src/jmh/java）
+bench() {
+    section "运行 JMH 基准测试"
+    JMH_ARGS="${1:--prof gc}"
+    info "JMH 参数: ${JMH_ARGS}"
+    mvn -q -Pjmh test-compile exec:exec -Djmh.args="${JMH_ARGS}"
+}
+
 # 检查环境
 check_env() {
     if ! command -v mvn &> /dev/null; then
@@ -151,6 +161,9 @@ main() {
         test)
             test
             ;;
+        bench)
+            bench "$2"
+            ;;
         *)
             error "未知命令: $1"
             echo ""
@@ -0,0 +1,130 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.Cbor;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.JsonReader;
+import com.jnet.core.org.json.MessagePack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON / CBOR / MessagePack 编解码对比
+ * 同一份 {@link ParserCorpus#jsonModel(int)} 模型按三种格式编码，比较体积与耗时：
+ *
+ * <ul>
+ * <li>encode: Map/List 模型编码为字节</li>
+ * <li>decodeTree: 字节解码为 JSONObject</li>
+ * <li>bind: 字节直接绑定为 POJO，不建树</li>
+ * </ul>
+ *
+ * 各格式的编码体积在 setup 时打印到输出中。
+ *
+ * <pre>
+ * ./build.sh bench "BinaryCodecBenchmark -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BinaryCodecBenchmark {
+
+    @Param({"4096", "1048576"})
+    public int size;
+
+    @Param({"json", "cbor", "msgpack"})
+    public String format;
+
+    private Map<String, Object> model;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        // 约 400 字节（JSON）一个 item，与 JsonParserBenchmark 一致
+        model = ParserCorpus.jsonModel(Math.max(1, size / 400));
+        encoded = encode();
+        System.out.println(format + " size=" + size + " encoded=" + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        switch (format) {
+            case "cbor":
+                return Cbor.encode(model);
+            case "msgpack":
+                return MessagePack.encode(model);
+            default:
+                return JsonMapper.toJsonBytes(model);
+        }
+    }
+
+    @Benchmark
+    public Object decodeTree() throws IOException {
+        switch (format) {
+            case "cbor":
+                return Cbor.decode(encoded);
+            case "msgpack":
+                return MessagePack.decode(encoded);
+            default:
+                return new JsonReader(encoded).nextJSONObject();
+        }
+    }
+
+    @Benchmark
+    public Page bind() {
+        switch (format) {
+            case "cbor":
+                return Cbor.decode(encoded, Page.class);
+            case "msgpack":
+                return MessagePack.decode(encoded, Page.class);
+            default:
+                return JsonMapper.fromJson(encoded, Page.class);
+        }
+    }
+
+    // ========== 绑定模型 ==========
+
+    public static class Page {
+        public int totalCount;
+        public boolean incompleteResults;
+        public List<Repo> items;
+    }
+
+    public static class Repo {
+        public long id;
+        public String name;
+        public String fullName;
+        public Owner owner;
+        public String description;
+        public boolean fork;
+        public int stargazersCount;
+        public double score;
+        public List<String> topics;
+    }
+
+    public static class Owner {
+        public String login;
+        public long id;
+        public String type;
+        public boolean siteAdmin;
+    }
+}
@@ -0,0 +1,72 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拦截器链基准测试
+ * 链尾由固定响应的拦截器终结，不发起网络请求，只衡量 RealChain 的调度开销。
+ *
+ * <ul>
+ * <li>passThrough: 拦截器只调用 chain.proceed，衡量链本身的开销</li>
+ * <li>headerRewrite: 每一层都通过 HeaderInterceptor 重建 Request，衡量典型的改写开销</li>
+ * </ul>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark {
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private Request request;
+    private List<Interceptor> passThrough;
+    private List<Interceptor> headerRewrite;
+
+    @Setup
+    public void setup() {
+        request = JNetClient.getInstance().newGet("http://127.0.0.1:8080/chain").build();
+        Response canned = Response.success(request).code(200).body("ok").duration(0).build();
+        Interceptor terminal = chain -> canned;
+
+        passThrough = new ArrayList<>();
+        headerRewrite = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            passThrough.add(chain -> chain.proceed(chain.request()));
+            headerRewrite.add(new Interceptor.HeaderInterceptor("X-Layer-" + i, "v" + i));
+        }
+        passThrough.add(terminal);
+        headerRewrite.add(terminal);
+    }
+
+    @Benchmark
+    public Response passThrough() throws IOException {
+        return new Interceptor.RealChain(passThrough, 0, request).proceed(request);
+    }
+
+    @Benchmark
+    public Response headerRewrite() throws IOException {
+        return new Interceptor.RealChain(headerRewrite, 0, request).proceed(request);
+    }
+}
@@ -0,0 +1,84 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 解析/序列化基准测试
+ * 覆盖 org.json.JSONObject、JSONArray 的解析和 JNetUtils.toJsonString 的序列化。
+ *
+ * <p>
+ * 默认使用 {@link ParserCorpus} 生成的仿 GitHub API 语料（4KB / 1MB / 10MB），
+ * 也可以通过 {@code -p jsonFile=/path/to/real.json} 指定真实的响应文件。
+ * </p>
+ *
+ * <pre>
+ * ./build.sh bench "JsonParserBenchmark -p size=10485760 -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class JsonParserBenchmark {
+
+    @Param({"4096", "1048576", "10485760"})
+    public int size;
+
+    @Param({""})
+    public String jsonFile;
+
+    private String objectSource;
+    private String arraySource;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() throws IOException {
+        if (jsonFile != null && !jsonFile.isEmpty()) {
+            objectSource = new String(Files.readAllBytes(Paths.get(jsonFile)), StandardCharsets.UTF_8);
+        } else {
+            objectSource = ParserCorpus.json(size);
+        }
+        arraySource = ParserCorpus.jsonArray(size);
+        // 约 400 字节一个 item，使序列化输出与解析输入大小相当
+        model = ParserCorpus.jsonModel(Math.max(1, size / 400));
+    }
+
+    @Benchmark
+    public JSONObject parseObject() {
+        return new JSONObject(objectSource);
+    }
+
+    @Benchmark
+    public JSONArray parseArray() {
+        return new JSONArray(arraySource);
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return JNetUtils.toJsonString(model);
+    }
+}
@@ -0,0 +1,99 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式 JsonReader 与基于 String 的 JSONObject 解析器对比
+ * 输入均为 UTF-8 字节（响应体的原始形态），String 解析器的耗时包含解码成 String 的一步。
+ *
+ * <ul>
+ * <li>stringParser: new String(bytes) + new JSONObject(String)，现有路径</li>
+ * <li>readerTree: JsonReader 从字节直接建树，结果与现有路径相同</li>
+ * <li>readerStream: JsonReader 从 InputStream 逐个读取 items 元素的两个字段，其余跳过，不建树</li>
+ * </ul>
+ *
+ * <pre>
+ * ./build.sh bench "JsonReaderBenchmark -prof gc"
+ * ./build.sh bench "JsonReaderBenchmark -p size=104857600 -jvmArgsAppend -Xmx8g"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JsonReaderBenchmark {
+
+    @Param({"1048576", "104857600"})
+    public int size;
+
+    private byte[] source;
+
+    @Setup
+    public void setup() {
+        source = ParserCorpus.json(size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JSONObject stringParser() {
+        return new JSONObject(new String(source, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public JSONObject readerTree() throws IOException {
+        return new JsonReader(source).nextJSONObject();
+    }
+
+    @Benchmark
+    public long readerStream() throws IOException {
+        long checksum = 0;
+        try (JsonReader reader = new JsonReader(new ByteArrayInputStream(source))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"items".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if ("id".equals(name)) {
+                            checksum += reader.nextLong();
+                        } else if ("full_name".equals(name)) {
+                            checksum += reader.nextString().length();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        return checksum;
+    }
+}
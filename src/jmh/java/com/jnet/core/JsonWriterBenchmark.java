@@ -0,0 +1,166 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON 序列化为请求体字节：JNetUtils.toJsonString + getBytes 与 JsonMapper.toJsonBytes 对比
+ * 请求体最终都要编码成 UTF-8 字节，toJsonString 的耗时包含这一步。
+ *
+ * <ul>
+ * <li>toJsonString / toJsonBytes: 同一个 Map/List 模型（{@link ParserCorpus#jsonModel(int)}）</li>
+ * <li>pojoBytes: 相同字段的 POJO 列表，toJsonString 不支持 POJO，只有 toJsonBytes 一项</li>
+ * </ul>
+ *
+ * <pre>
+ * ./build.sh bench "JsonWriterBenchmark -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class JsonWriterBenchmark {
+
+    @Param({"10", "2500"})
+    public int items;
+
+    private Map<String, Object> model;
+    private List<Repo> repos;
+
+    @Setup
+    public void setup() {
+        model = ParserCorpus.jsonModel(items);
+        repos = new ArrayList<>(items);
+        for (Object item : (List<?>) model.get("items")) {
+            repos.add(Repo.of((Map<?, ?>) item));
+        }
+    }
+
+    @Benchmark
+    public byte[] toJsonString() {
+        return JNetUtils.toJsonString(model).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] toJsonBytes() {
+        return JsonMapper.toJsonBytes(model);
+    }
+
+    @Benchmark
+    public byte[] pojoBytes() {
+        return JsonMapper.toJsonBytes(repos);
+    }
+
+    public static class Owner {
+        private String login;
+        private int id;
+        private String type;
+        private boolean siteAdmin;
+
+        public String getLogin() {
+            return login;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public boolean isSiteAdmin() {
+            return siteAdmin;
+        }
+    }
+
+    public static class Repo {
+        private long id;
+        private String name;
+        private String fullName;
+        private Owner owner;
+        private String description;
+        private boolean fork;
+        private int stargazersCount;
+        private double score;
+        private List<?> topics;
+
+        static Repo of(Map<?, ?> item) {
+            Map<?, ?> o = (Map<?, ?>) item.get("owner");
+            Owner owner = new Owner();
+            owner.login = (String) o.get("login");
+            owner.id = (Integer) o.get("id");
+            owner.type = (String) o.get("type");
+            owner.siteAdmin = (Boolean) o.get("site_admin");
+            Repo repo = new Repo();
+            repo.id = (Long) item.get("id");
+            repo.name = (String) item.get("name");
+            repo.fullName = (String) item.get("full_name");
+            repo.owner = owner;
+            repo.description = (String) item.get("description");
+            repo.fork = (Boolean) item.get("fork");
+            repo.stargazersCount = (Integer) item.get("stargazers_count");
+            repo.score = (Double) item.get("score");
+            repo.topics = (List<?>) item.get("topics");
+            return repo;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public Owner getOwner() {
+            return owner;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean isFork() {
+            return fork;
+        }
+
+        public int getStargazersCount() {
+            return stargazersCount;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public List<?> getTopics() {
+            return topics;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端调用基准测试
+ * 针对进程内回环服务器执行 execute() 和 enqueue()，响应体大小固定，
+ * 结果反映 JNet + JDK HttpClient 在无真实网络延迟时的吞吐和每次调用的分配量。
+ *
+ * <pre>
+ * ./build.sh bench "LoopbackCallBenchmark -p payloadSize=1024 -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoopbackCallBenchmark {
+
+    @Param({"0", "1024", "65536"})
+    public int payloadSize;
+
+    private LoopbackHttpServer server;
+    private JNetClient client;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = LoopbackHttpServer.start();
+        client = JNetClient.newBuilder().cookieHandler(null).build();
+        url = server.bytesUrl(payloadSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Response execute() throws IOException {
+        return client.newGet(url).build().newCall().execute();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Response executeConcurrent() throws IOException {
+        return client.newGet(url).build().newCall().execute();
+    }
+
+    @Benchmark
+    public Response enqueue() throws Exception {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        client.newGet(url).build().newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
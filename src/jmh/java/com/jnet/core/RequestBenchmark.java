@@ -0,0 +1,144 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求/响应对象转换基准测试
+ * 覆盖 Request.Builder.build、JdkTransport.buildRequest 和 JdkTransport.toResponse，
+ * 均不涉及网络，只衡量 JNet 自身在一次调用中的开销。
+ *
+ * <pre>
+ * ./build.sh bench "RequestBenchmark -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+    private static final String URL = "http://127.0.0.1:8080/api/v1/users?page=1&size=20";
+
+    private JNetClient client;
+    private JdkTransport transport;
+    private Duration timeout;
+    private Request request;
+    private HttpResponse<String> jdkResponse;
+
+    @Setup
+    public void setup() {
+        client = JNetClient.newBuilder().build();
+        request = newRequest();
+        transport = (JdkTransport) client.getTransport();
+        timeout = Duration.ofMillis(client.getReadTimeout());
+        jdkResponse = new FixedHttpResponse(200, "{\"id\":1,\"name\":\"jnet\"}", HttpHeaders.of(Map.of(
+                "content-type", List.of("application/json"),
+                "content-length", List.of("22"),
+                "date", List.of("Mon, 19 Oct 2026 00:00:00 GMT"),
+                "server", List.of("loopback"),
+                "cache-control", List.of("no-cache")), (k, v) -> true));
+    }
+
+    @Benchmark
+    public Request buildRequest() {
+        return newRequest();
+    }
+
+    @Benchmark
+    public HttpRequest buildJdkRequest() {
+        return transport.buildRequest(request, timeout);
+    }
+
+    @Benchmark
+    public Response toJNetResponse() {
+        return JdkTransport.toResponse(jdkResponse, request, 1);
+    }
+
+    private Request newRequest() {
+        return client.newGet(URL)
+                .header("Accept", "application/json")
+                .header("User-Agent", "JNet/3.0")
+                .header("X-Request-Id", "bench")
+                .build();
+    }
+
+    /**
+     * 固定内容的JDK响应，避免在测量中引入网络
+     */
+    static final class FixedHttpResponse implements HttpResponse<String> {
+        private final int statusCode;
+        private final String body;
+        private final HttpHeaders headers;
+
+        FixedHttpResponse(int statusCode, String body, HttpHeaders headers) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.headers = headers;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return null;
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create(URL);
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
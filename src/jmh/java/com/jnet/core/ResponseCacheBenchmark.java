@@ -0,0 +1,81 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseCache 基准测试
+ * 分别衡量命中、未命中和写入的开销，并提供多线程命中场景。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseCacheBenchmark {
+    private static final int ENTRIES = 1024;
+
+    private ResponseCache cache;
+    private Request[] cached;
+    private Request miss;
+    private Response response;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        cache = new ResponseCache(TimeUnit.HOURS.toMillis(1));
+        JNetClient client = JNetClient.getInstance();
+        cached = new Request[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            cached[i] = client.newGet("http://127.0.0.1:8080/items/" + i).build();
+        }
+        response = Response.success(cached[0]).code(200).body("cached").duration(0).build();
+        for (Request request : cached) {
+            cache.put(request, response);
+        }
+        miss = client.newGet("http://127.0.0.1:8080/missing").build();
+    }
+
+    @Benchmark
+    public Response getHit() {
+        return cache.get(next());
+    }
+
+    @Benchmark
+    public Response getMiss() {
+        return cache.get(miss);
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put(next(), response);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Response getHitContended() {
+        // 多线程共享游标存在竞争，但只影响访问顺序，不影响命中率
+        return cache.get(next());
+    }
+
+    private Request next() {
+        int i = cursor;
+        cursor = (i + 1) & (ENTRIES - 1);
+        return cached[i];
+    }
+}
@@ -0,0 +1,71 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSE 行解析基准测试
+ * 直接向 SSEClient.SSESubscriber 推送 LLM token 流的行，不经过网络，
+ * 结果以单个事件（一个 token）为单位。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SSEParserBenchmark {
+    private static final int TOKENS = 1000;
+
+    private String[] lines;
+
+    @Setup
+    public void setup() {
+        List<String> tokenLines = ParserCorpus.sseTokenLines(TOKENS);
+        lines = tokenLines.toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public void parseTokenStream(Blackhole bh) {
+        SSEClient.SSESubscriber subscriber = new SSEClient.SSESubscriber(new SSEClient.SSEListener() {
+            @Override
+            public void onData(String data) {
+                bh.consume(data);
+            }
+
+            @Override
+            public void onEvent(String event, String data) {
+                bh.consume(event);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (String line : lines) {
+            subscriber.onNext(line);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.jnet.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 冷启动基准测试
+ * 每次测量都在新的 JVM 中只执行一次（SingleShotTime，无预热），结果包含类加载、
+ * 类初始化和解释执行的开销，对应 CLI 和 Serverless 场景下的首次调用延迟。
+ *
+ * <p>
+ * firstGet 覆盖 JNet 门面类的加载与校验（门面引用了 TCP/UDP/HLS/RTSP 全部协议）、
+ * 默认 JNetClient 和 JDK HttpClient 的创建以及首个连接；回环服务器在 Setup 中启动，
+ * 它加载的 JDK 网络类不计入测量。loadProtocols 给出门面一次性加载全部协议客户端的代价，
+ * 作为只用 HTTP 时不应支付的上限参考。
+ * </p>
+ *
+ * <pre>
+ * ./build.sh bench "StartupBenchmark"
+ * ./build.sh bench "StartupBenchmark.firstGet -f 20"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private LoopbackHttpServer server;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = LoopbackHttpServer.start();
+        url = server.bytesUrl(16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * 进程内第一次 JNet.get
+     */
+    @Benchmark
+    public String firstGet() throws IOException {
+        return JNet.get(url);
+    }
+
+    /**
+     * 只加载并初始化 JNet 门面类
+     */
+    @Benchmark
+    public Class<?> loadFacade() throws ClassNotFoundException {
+        return Class.forName("com.jnet.core.JNet", true, StartupBenchmark.class.getClassLoader());
+    }
+
+    /**
+     * 加载并初始化门面引用的全部协议客户端
+     */
+    @Benchmark
+    public int loadProtocols() throws ClassNotFoundException {
+        ClassLoader loader = StartupBenchmark.class.getClassLoader();
+        String[] classes = {
+                "com.jnet.tcp.TcpClient", "com.jnet.tcp.TcpSession", "com.jnet.tcp.TcpRequest",
+                "com.jnet.udp.UdpClient", "com.jnet.udp.UdpPacket",
+                "com.jnet.hls.HlsClient", "com.jnet.rtsp.RtspClient"
+        };
+        int loaded = 0;
+        for (String name : classes) {
+            loaded += Class.forName(name, true, loader) != null ? 1 : 0;
+        }
+        return loaded;
+    }
+
+    /**
+     * AsyncExecutor 首个任务：包含线程池的延迟创建和第一个线程的启动
+     */
+    @Benchmark
+    public Object firstAsyncTask() throws Exception {
+        return AsyncExecutor.getExecutor().submit(() -> Boolean.TRUE).get();
+    }
+}
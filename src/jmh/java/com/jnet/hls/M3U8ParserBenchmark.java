@@ -0,0 +1,47 @@
+package com.jnet.hls;
+
+import com.jnet.core.ParserCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * M3U8Parser 基准测试
+ * 直播窗口（6 个分片）、常见点播（1k 分片）和超长点播（50k 分片）三种规模。
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class M3U8ParserBenchmark {
+
+    @Param({"6", "1000", "50000"})
+    public int segments;
+
+    private String playlist;
+
+    @Setup
+    public void setup() {
+        playlist = ParserCorpus.vodPlaylist(segments);
+    }
+
+    @Benchmark
+    public M3U8Parser.HlsMediaPlaylist parse() {
+        return M3U8Parser.parse(playlist);
+    }
+}
@@ -0,0 +1,49 @@
+package com.jnet.rtsp;
+
+import com.jnet.core.ParserCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTSP 响应与 SDP 解析基准测试
+ * 语料为 IP 摄像头对 DESCRIBE 的典型响应（视频 + 音频 + ONVIF 元数据三路媒体）。
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RtspParserBenchmark {
+    private String describeResponse;
+    private String sdp;
+
+    @Setup
+    public void setup() {
+        describeResponse = ParserCorpus.rtspDescribeResponse();
+        sdp = ParserCorpus.cameraSdp();
+    }
+
+    @Benchmark
+    public RtspResponse parseResponse() {
+        return RtspResponse.parse(describeResponse);
+    }
+
+    @Benchmark
+    public SdpParser.SdpInfo parseSdp() {
+        return SdpParser.parse(sdp);
+    }
+}
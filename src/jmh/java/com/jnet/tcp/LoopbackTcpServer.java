@@ -0,0 +1,135 @@
+package com.jnet.tcp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 基准测试用的进程内回环TCP服务器
+ * 监听 127.0.0.1 的随机端口，每个连接一个线程，消息长度在启动时固定。
+ *
+ * <ul>
+ * <li>{@link Mode#ECHO_CLOSE} - 读满一条消息后原样回写并关闭连接，配合 TcpClient.execute 的"读到EOF"语义</li>
+ * <li>{@link Mode#ECHO} - 长连接，循环读满一条消息后原样回写，用于 TcpSession 往返延迟</li>
+ * <li>{@link Mode#SINK} - 长连接，读取并丢弃所有数据，用于单向流式吞吐</li>
+ * </ul>
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+final class LoopbackTcpServer implements AutoCloseable {
+
+    enum Mode {
+        ECHO_CLOSE, ECHO, SINK
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Mode mode;
+    private final int messageSize;
+
+    private LoopbackTcpServer(ServerSocket serverSocket, Mode mode, int messageSize) {
+        this.serverSocket = serverSocket;
+        this.mode = mode;
+        this.messageSize = messageSize;
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "JNet-Loopback-Tcp-" + mode);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 启动服务器
+     *
+     * @param mode        服务模式
+     * @param messageSize 每条消息的字节数（SINK 模式忽略）
+     */
+    static LoopbackTcpServer start(Mode mode, int messageSize) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        LoopbackTcpServer server = new LoopbackTcpServer(serverSocket, mode, messageSize);
+        server.executor.execute(server::acceptLoop);
+        return server;
+    }
+
+    String host() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Ignore close errors
+        }
+        executor.shutdownNow();
+    }
+
+    // ========== 内部方法 ==========
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return; // 服务器已关闭
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = s.getInputStream();
+            OutputStream out = s.getOutputStream();
+            byte[] buffer = new byte[mode == Mode.SINK ? 64 * 1024 : Math.max(1, messageSize)];
+            switch (mode) {
+                case ECHO_CLOSE:
+                    if (readFully(in, buffer, messageSize)) {
+                        out.write(buffer, 0, messageSize);
+                        out.flush();
+                    }
+                    break;
+                case ECHO:
+                    while (readFully(in, buffer, messageSize)) {
+                        out.write(buffer, 0, messageSize);
+                        out.flush();
+                    }
+                    break;
+                default:
+                    while (in.read(buffer) != -1) {
+                        // discard
+                    }
+                    break;
+            }
+        } catch (IOException ignored) {
+            // 客户端断开
+        }
+    }
+
+    private static boolean readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int n = in.read(buffer, offset, length - offset);
+            if (n == -1) {
+                return false;
+            }
+            offset += n;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,188 @@
+package com.jnet.tcp;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TCP 套接字层基准测试
+ * 针对进程内回环服务器（{@link LoopbackTcpServer}）测量：
+ *
+ * <ul>
+ * <li>clientExecute - TcpClient.execute 往返延迟（每次新建连接、读到EOF）</li>
+ * <li>sessionRoundTrip - 复用 TcpSession 的往返延迟（按消息长度读满，不依赖EOF）</li>
+ * <li>sessionStream - 通过 TcpSession 输出流单向写入 SINK 的吞吐，bytes 计数器即字节/秒</li>
+ * </ul>
+ *
+ * <p>
+ * 线程数：带 Concurrent 后缀的方法固定 8 线程，也可用 -t 覆盖全部方法，例如
+ * </p>
+ *
+ * <pre>
+ * ./build.sh bench "TcpSocketBenchmark -p payloadSize=64,65536 -t 4 -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TcpSocketBenchmark {
+
+    @Param({"64", "1024", "65536", "1048576"})
+    public int payloadSize;
+
+    private LoopbackTcpServer echoCloseServer;
+    private LoopbackTcpServer echoServer;
+    private LoopbackTcpServer sinkServer;
+    private byte[] payload;
+    private TcpRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) 'x');
+        echoCloseServer = LoopbackTcpServer.start(LoopbackTcpServer.Mode.ECHO_CLOSE, payloadSize);
+        echoServer = LoopbackTcpServer.start(LoopbackTcpServer.Mode.ECHO, payloadSize);
+        sinkServer = LoopbackTcpServer.start(LoopbackTcpServer.Mode.SINK, payloadSize);
+        request = TcpRequest.newBuilder()
+                .host(echoCloseServer.host())
+                .port(echoCloseServer.port())
+                .data(payload)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        echoCloseServer.close();
+        echoServer.close();
+        sinkServer.close();
+    }
+
+    /**
+     * 每个线程独占的长连接
+     */
+    @State(Scope.Thread)
+    public static class Sessions {
+        TcpSession echo;
+        TcpSession sink;
+        InputStream echoIn;
+        OutputStream echoOut;
+        OutputStream sinkOut;
+        byte[] response;
+
+        @Setup(Level.Trial)
+        public void connect(TcpSocketBenchmark benchmark) throws IOException {
+            echo = open(benchmark.echoServer);
+            sink = open(benchmark.sinkServer);
+            echoIn = echo.getInputStream();
+            echoOut = echo.getOutputStream();
+            sinkOut = sink.getOutputStream();
+            response = new byte[benchmark.payloadSize];
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            echo.close();
+            sink.close();
+        }
+
+        private static TcpSession open(LoopbackTcpServer server) throws IOException {
+            TcpSession session = TcpSession.newBuilder().host(server.host(), server.port()).build();
+            session.connect();
+            session.getSocket().setTcpNoDelay(true);
+            return session;
+        }
+    }
+
+    /**
+     * 流式吞吐计数器，JMH 按每秒报告
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public TcpResponse clientExecute() throws IOException {
+        return checked(TcpClient.getInstance().execute(request));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TcpResponse clientExecuteConcurrent() throws IOException {
+        return checked(TcpClient.getInstance().execute(request));
+    }
+
+    @Benchmark
+    public byte[] sessionRoundTrip(Sessions sessions) throws IOException {
+        return roundTrip(sessions);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sessionRoundTripConcurrent(Sessions sessions) throws IOException {
+        return roundTrip(sessions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void sessionStream(Sessions sessions, Bytes counter) throws IOException {
+        sessions.sinkOut.write(payload);
+        counter.bytes += payload.length;
+    }
+
+    // ========== 内部方法 ==========
+
+    private byte[] roundTrip(Sessions sessions) throws IOException {
+        sessions.echoOut.write(payload);
+        sessions.echoOut.flush();
+        byte[] response = sessions.response;
+        int offset = 0;
+        while (offset < response.length) {
+            int n = sessions.echoIn.read(response, offset, response.length - offset);
+            if (n == -1) {
+                throw new EOFException("echo server closed the connection");
+            }
+            offset += n;
+        }
+        return response;
+    }
+
+    private static TcpResponse checked(TcpResponse response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("TCP request failed: " + response.getErrorMessage());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,90 @@
+package com.jnet.udp;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * 基准测试用的进程内回环UDP服务器
+ * 监听 127.0.0.1 的随机端口，单线程收包，收包缓冲区复用，服务端不产生垃圾。
+ *
+ * <ul>
+ * <li>{@link Mode#ECHO} - 将收到的数据报原样发回来源地址</li>
+ * <li>{@link Mode#SINK} - 只收不回，统计收到的数据报个数</li>
+ * </ul>
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+final class LoopbackUdpServer implements AutoCloseable {
+    /**
+     * IPv4 下单个UDP数据报的最大负载
+     */
+    static final int MAX_DATAGRAM = 65507;
+
+    enum Mode {
+        ECHO, SINK
+    }
+
+    private final DatagramSocket socket;
+    private final Mode mode;
+    private final Thread thread;
+    private volatile long received;
+
+    private LoopbackUdpServer(DatagramSocket socket, Mode mode) {
+        this.socket = socket;
+        this.mode = mode;
+        this.thread = new Thread(this::serve, "JNet-Loopback-Udp-" + mode);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 启动服务器
+     */
+    static LoopbackUdpServer start(Mode mode) throws IOException {
+        DatagramSocket socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket.setReceiveBufferSize(4 * 1024 * 1024);
+        LoopbackUdpServer server = new LoopbackUdpServer(socket, mode);
+        server.thread.start();
+        return server;
+    }
+
+    String host() {
+        return socket.getLocalAddress().getHostAddress();
+    }
+
+    int port() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * 已收到的数据报个数（SINK 模式下可与发送数对比估算丢包）
+     */
+    long received() {
+        return received;
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+
+    private void serve() {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                received++;
+                if (mode == Mode.ECHO) {
+                    socket.send(packet);
+                }
+            } catch (IOException e) {
+                return; // 服务器已关闭
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jnet.udp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UDP 套接字层基准测试
+ * 针对进程内回环服务器（{@link LoopbackUdpServer}）测量：
+ *
+ * <ul>
+ * <li>roundTrip - UdpClient.send + receive 往返延迟（ECHO）</li>
+ * <li>send - 单向发送到 SINK 的包速率，ops/s 即 packets/s</li>
+ * </ul>
+ *
+ * <p>
+ * 单个数据报最大 65507 字节，因此负载档位止于 64KB 而不是 TCP 的 1MB。
+ * receive 每次按 SO_RCVBUF 大小分配缓冲区，-prof gc 的 gc.alloc.rate.norm 可直接反映这部分开销。
+ * </p>
+ *
+ * <pre>
+ * ./build.sh bench "UdpSocketBenchmark -p payloadSize=64 -prof gc"
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.5.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UdpSocketBenchmark {
+
+    @Param({"64", "1024", "8192", "65507"})
+    public int payloadSize;
+
+    private LoopbackUdpServer echoServer;
+    private LoopbackUdpServer sinkServer;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) 'x');
+        echoServer = LoopbackUdpServer.start(LoopbackUdpServer.Mode.ECHO);
+        sinkServer = LoopbackUdpServer.start(LoopbackUdpServer.Mode.SINK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        echoServer.close();
+        sinkServer.close();
+    }
+
+    /**
+     * 每个线程独占一个 UdpClient（一个本地端口），回包不会在线程之间错配
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        UdpClient client;
+
+        @Setup(Level.Trial)
+        public void open() {
+            client = UdpClient.create();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public UdpPacket roundTrip(Client client) throws IOException {
+        client.client.send(payload, echoServer.host(), echoServer.port());
+        return client.client.receive(5000);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UdpPacket roundTripConcurrent(Client client) throws IOException {
+        client.client.send(payload, echoServer.host(), echoServer.port());
+        return client.client.receive(5000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public UdpPacket send(Client client) throws IOException {
+        return client.client.send(payload, sinkServer.host(), sinkServer.port());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public UdpPacket sendConcurrent(Client client) throws IOException {
+        return client.client.send(payload, sinkServer.host(), sinkServer.port());
+    }
+}
@@ -5,17 +5,23 @@ import com.jnet.core.Request;
 import com.jnet.core.Response;
 
 import java.io.IOException;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 请求时序拦截器
  * 模拟人类行为延迟，避免被识别为机器人
+ *
+ * <p>
+ * 多线程下每个请求预约自己的发送时间，互不重叠；只需要按速率限流时使用
+ * {@link com.jnet.core.RateLimitInterceptor}，它按主机独立计数且支持异步等待。
+ * </p>
  */
 public class RequestTimingInterceptor implements Interceptor {
-    private final Random random = new Random();
     private final long minDelay;
     private final long maxDelay;
-    private volatile long lastRequestTime = 0;
+    // 下一个请求允许发出的时间（毫秒），0 表示尚无请求
+    private final AtomicLong nextRequestTime = new AtomicLong();
 
     /**
      * 创建请求时序拦截器
@@ -39,33 +45,27 @@ public class RequestTimingInterceptor implements Interceptor {
 
     @Override
     public Response intercept(Chain chain) throws IOException {
-        // 计算需要延迟的时间
-        long currentTime = System.currentTimeMillis();
-        long timeSinceLastRequest = currentTime - lastRequestTime;
-        
         long delay = calculateDelay();
-        
-        // 如果距离上次请求时间过短，额外延迟
-        if (lastRequestTime > 0 && timeSinceLastRequest < delay) {
-            long additionalDelay = delay - timeSinceLastRequest;
-            sleep(additionalDelay);
-        } else if (lastRequestTime > 0) {
-            // 即使时间够了，也随机增加一点延迟
-            sleep(random.nextInt((int)(delay / 2)));
-        }
+        // 即使距离上次请求已经足够久，也随机增加一点延迟
+        long jitter = ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        long now = System.currentTimeMillis();
+
+        // 原子地预约发送时间：距上一个请求至少 delay，多线程并发时依次排开
+        long sendAt = nextRequestTime.updateAndGet(previous ->
+                previous == 0 ? now : Math.max(now + jitter, previous + delay));
+        sleep(sendAt - now);
 
-        lastRequestTime = System.currentTimeMillis();
         return chain.proceed(chain.request());
     }
 
     /**
-     * 计算随机延迟
+     * 计算随机延迟，取值范围 [minDelay, maxDelay]
      */
     private long calculateDelay() {
         if (minDelay == maxDelay) {
             return minDelay;
         }
-        return minDelay + random.nextLong() % (maxDelay - minDelay);
+        return ThreadLocalRandom.current().nextLong(minDelay, maxDelay + 1);
     }
 
     private void sleep(long millis) {
@@ -84,6 +84,6 @@ public class RequestTimingInterceptor implements Interceptor {
      * 重置时序状态
      */
     public void reset() {
-        this.lastRequestTime = 0;
+        this.nextRequestTime.set(0);
     }
 }
@@ -1,7 +1,7 @@
 package com.jnet.core;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -9,51 +9,65 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * 异步执行器
  * 统一管理线程池，避免资源泄露
  *
+ * <p>
+ * 线程池在首次 {@link #getExecutor()} 时才创建，加载本类不启动任何线程；
+ * 核心 max(2, CPU) 个线程、最多 4×CPU 个，队列满后才扩容，空闲 30 秒的线程（包括核心线程）被回收；
+ * 使用守护线程，不阻止 JVM 退出，也不注册关闭钩子——需要等待任务完成时显式调用 {@link #shutdown()}。
+ * </p>
+ *
  * @author sanbo
  * @version 3.0.0
  */
 public class AsyncExecutor {
-    private static final int CORE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
 
-    // 使用静态初始化确保线程池只创建一次
-    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
-            CORE_THREADS,
-            r -> {
-                Thread t = new Thread(r, "JNet-Async-" + System.identityHashCode(r));
-                // 使用非守护线程确保重要任务完成,通过shutdown hook控制超时
-                t.setDaemon(false);
-                return t;
-            });
+    // 首次使用时创建
+    private static volatile JNetExecutor executor;
 
     // 使用原子布尔确保可见性和原子性
     private static final AtomicBoolean SHUTDOWN = new AtomicBoolean(false);
 
-    // 注册JVM关闭钩子，确保资源释放
-    static {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            if (!SHUTDOWN.get()) {
-                gracefulShutdown();
-            }
-        }, "JNet-Shutdown-Hook"));
-    }
-
     private AsyncExecutor() {
         // 防止实例化
     }
 
     /**
-     * 获取线程池实例
-     * 线程安全，无需同步
+     * 获取线程池实例，首次调用时创建
+     * 线程安全
      */
     public static ExecutorService getExecutor() {
+        JNetExecutor current = executor;
+        if (current == null) {
+            synchronized (AsyncExecutor.class) {
+                current = executor;
+                if (current == null && !SHUTDOWN.get()) {
+                    current = JNetExecutor.newBuilder()
+                            .name("JNet-Async")
+                            .coreThreads(Math.max(2, CPUS))
+                            .maxThreads(Math.max(4, CPUS * 4))
+                            .queueCapacity(1024)
+                            .keepAlive(Duration.ofSeconds(30))
+                            .build();
+                    executor = current;
+                }
+            }
+        }
         if (SHUTDOWN.get()) {
             throw new IllegalStateException("AsyncExecutor has been shut down");
         }
-        return EXECUTOR;
+        return current;
+    }
+
+    /**
+     * 线程池运行状态，尚未创建时返回 null
+     */
+    public static JNetExecutor.Metrics getMetrics() {
+        JNetExecutor current = executor;
+        return current == null ? null : current.getMetrics();
     }
 
     /**
-     * 优雅关闭线程池
+     * 优雅关闭线程池，等待已提交任务完成（最多 10 秒）
      * 使用CAS确保只执行一次
      */
     public static void shutdown() {
@@ -66,23 +80,27 @@ public class AsyncExecutor {
      * 内部优雅关闭实现
      */
     private static void gracefulShutdown() {
+        JNetExecutor current = created();
+        if (current == null) {
+            return;
+        }
         try {
             // 停止接受新任务
-            EXECUTOR.shutdown();
+            current.shutdown();
 
             // 等待已提交任务完成（最多10秒）
-            if (!EXECUTOR.awaitTermination(10, TimeUnit.SECONDS)) {
+            if (!current.awaitTermination(10, TimeUnit.SECONDS)) {
                 // 超时后强制关闭
-                EXECUTOR.shutdownNow();
+                current.shutdownNow();
 
                 // 再次等待
-                if (!EXECUTOR.awaitTermination(5, TimeUnit.SECONDS)) {
+                if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
                     System.err.println("JNet AsyncExecutor did not terminate gracefully");
                 }
             }
         } catch (InterruptedException e) {
             // 被中断，强制关闭
-            EXECUTOR.shutdownNow();
+            current.shutdownNow();
             Thread.currentThread().interrupt();
         }
     }
@@ -92,7 +110,10 @@ public class AsyncExecutor {
      */
     public static void shutdownNow() {
         if (SHUTDOWN.compareAndSet(false, true)) {
-            EXECUTOR.shutdownNow();
+            JNetExecutor current = created();
+            if (current != null) {
+                current.shutdownNow();
+            }
         }
     }
 
@@ -107,6 +128,16 @@ public class AsyncExecutor {
      * 检查线程池状态
      */
     public static boolean isTerminated() {
-        return SHUTDOWN.get() && EXECUTOR.isTerminated();
+        JNetExecutor current = created();
+        return SHUTDOWN.get() && (current == null || current.isTerminated());
+    }
+
+    /**
+     * 已创建的线程池；在锁内读取，保证与 getExecutor 中的创建互斥
+     */
+    private static JNetExecutor created() {
+        synchronized (AsyncExecutor.class) {
+            return executor;
+        }
     }
 }
@@ -0,0 +1,620 @@
+package com.jnet.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 响应体 Flow.Publisher 的操作符
+ * 处理 {@link PublisherResponse#getBody()} 这类 {@code Flow.Publisher<List<ByteBuffer>>}，全程按块处理，不把响应体读入内存。
+ *
+ * <p>
+ * 背压：操作符把下游的 request(n) 原样转给上游，每个上游元素最多产生一个下游元素；
+ * 某个元素处理后没有输出（如解压时只读到了 gzip 头）时向上游补要一个，不占用下游的需求。
+ * 每次 subscribe 都订阅一次上游，解压状态按订阅隔离。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class BodyFlows {
+    private static final int INFLATE_CHUNK = 16 * 1024;
+
+    private BodyFlows() {
+    }
+
+    /**
+     * 逐个缓冲区变换
+     *
+     * @param source 上游
+     * @param mapper 变换函数，可原地修改并返回入参，不可返回 null
+     */
+    public static Flow.Publisher<List<ByteBuffer>> map(Flow.Publisher<List<ByteBuffer>> source,
+                                                       Function<ByteBuffer, ByteBuffer> mapper) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(mapper, "mapper");
+        return stage(source, () -> new Stage() {
+            @Override
+            List<ByteBuffer> apply(List<ByteBuffer> item) {
+                List<ByteBuffer> out = new ArrayList<>(item.size());
+                for (ByteBuffer buffer : item) {
+                    out.add(Objects.requireNonNull(mapper.apply(buffer), "mapper returned null"));
+                }
+                return out;
+            }
+        });
+    }
+
+    /**
+     * 按 Content-Encoding 流式解压
+     *
+     * @param source   上游
+     * @param encoding gzip / x-gzip / deflate（zlib 格式）；null、空串或 identity 时原样返回上游
+     * @throws IllegalArgumentException 不支持的编码
+     */
+    public static Flow.Publisher<List<ByteBuffer>> decompress(Flow.Publisher<List<ByteBuffer>> source,
+                                                              String encoding) {
+        Objects.requireNonNull(source, "source");
+        String normalized = encoding == null ? "" : encoding.trim().toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "":
+            case "identity":
+                return source;
+            case "gzip":
+            case "x-gzip":
+                return stage(source, () -> new Inflating(true));
+            case "deflate":
+                return stage(source, () -> new Inflating(false));
+            default:
+                throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+        }
+    }
+
+    /**
+     * 异步写入文件（创建或截断），返回的 Future 以写入的字节数完成
+     * 每个元素写完才向上游要下一个，内存中最多停留一个元素；取消 Future 会取消订阅
+     */
+    public static CompletableFuture<Long> writeTo(Flow.Publisher<List<ByteBuffer>> source, Path path) {
+        return writeTo(source, path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 以指定选项打开文件并异步写入，完成或失败后关闭文件
+     */
+    public static CompletableFuture<Long> writeTo(Flow.Publisher<List<ByteBuffer>> source, Path path,
+                                                  OpenOption... options) {
+        Objects.requireNonNull(source, "source");
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, options);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        FileWriter writer = new FileWriter(channel, 0, true);
+        source.subscribe(writer);
+        return writer.result;
+    }
+
+    /**
+     * 从 position 开始异步写入已打开的通道，不关闭通道
+     */
+    public static CompletableFuture<Long> writeTo(Flow.Publisher<List<ByteBuffer>> source,
+                                                  AsynchronousFileChannel channel, long position) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(channel, "channel");
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be >= 0");
+        }
+        FileWriter writer = new FileWriter(channel, position, false);
+        source.subscribe(writer);
+        return writer.result;
+    }
+
+    /**
+     * 只有一个元素的 Publisher，供非流式传输层包装已读完的响应体
+     */
+    static Flow.Publisher<List<ByteBuffer>> just(ByteBuffer buffer) {
+        return subscriber -> {
+            AtomicBoolean done = new AtomicBoolean();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    if (n <= 0) {
+                        if (done.compareAndSet(false, true)) {
+                            subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+                        }
+                    } else if (done.compareAndSet(false, true)) {
+                        subscriber.onNext(Collections.singletonList(buffer.duplicate()));
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done.set(true);
+                }
+            });
+        };
+    }
+
+    /**
+     * 丢弃不再交付的响应体：订阅后立即取消，让传输层关闭交换并释放连接
+     */
+    static void discard(Flow.Publisher<List<ByteBuffer>> source) {
+        source.subscribe(new Flow.Subscriber<List<ByteBuffer>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    // ========== 内部方法 ==========
+
+    private static Flow.Publisher<List<ByteBuffer>> stage(Flow.Publisher<List<ByteBuffer>> source,
+                                                          Supplier<Stage> stages) {
+        return subscriber -> source.subscribe(new StageSubscriber(subscriber, stages.get()));
+    }
+
+    /**
+     * 一个订阅内的变换状态；apply/complete 由上游按序调用，不会并发
+     */
+    private abstract static class Stage {
+        abstract List<ByteBuffer> apply(List<ByteBuffer> item) throws IOException;
+
+        /**
+         * 上游结束，检查输入是否完整
+         */
+        void complete() throws IOException {
+        }
+
+        /**
+         * 正常或异常结束后释放资源
+         */
+        void release() {
+        }
+    }
+
+    private static final class StageSubscriber implements Flow.Subscriber<List<ByteBuffer>>, Flow.Subscription {
+        private final Flow.Subscriber<? super List<ByteBuffer>> downstream;
+        private final Stage stage;
+        private volatile Flow.Subscription upstream;
+        private boolean done; // 只在上游的信号线程中读写
+
+        StageSubscriber(Flow.Subscriber<? super List<ByteBuffer>> downstream, Stage stage) {
+            this.downstream = downstream;
+            this.stage = stage;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            if (done) {
+                return;
+            }
+            List<ByteBuffer> out;
+            try {
+                out = stage.apply(item);
+            } catch (IOException | RuntimeException e) {
+                done = true;
+                upstream.cancel();
+                stage.release();
+                downstream.onError(e);
+                return;
+            }
+            if (out.isEmpty()) {
+                upstream.request(1);
+            } else {
+                downstream.onNext(out);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            stage.release();
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                stage.complete();
+            } catch (IOException | RuntimeException e) {
+                downstream.onError(e);
+                return;
+            } finally {
+                stage.release();
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            // 不在这里释放 Inflater：cancel 可能与 onNext 并发，交给 GC 回收
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * gzip（RFC 1952，支持多成员）或 zlib（RFC 1950）流式解压
+     * gzip 头按字节解析，数据部分用 nowrap 的 Inflater 解压，尾部校验 CRC32 和长度
+     */
+    private static final class Inflating extends Stage {
+        private static final int FIXED = 0;
+        private static final int XLEN = 1;
+        private static final int EXTRA = 2;
+        private static final int NAME = 3;
+        private static final int COMMENT = 4;
+        private static final int HCRC = 5;
+        private static final int BODY = 6;
+        private static final int TRAILER = 7;
+        private static final int END = 8;
+
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private final boolean gzip;
+        private final Inflater inflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] trailer = new byte[8];
+        private int state;
+        private int count; // 当前状态已读的字节数
+        private int flags;
+        private int xlen;
+
+        Inflating(boolean gzip) {
+            this.gzip = gzip;
+            this.inflater = new Inflater(gzip);
+            this.state = gzip ? FIXED : BODY;
+        }
+
+        @Override
+        List<ByteBuffer> apply(List<ByteBuffer> item) throws IOException {
+            List<ByteBuffer> out = new ArrayList<>();
+            for (ByteBuffer in : item) {
+                while (in.hasRemaining()) {
+                    if (state == BODY) {
+                        inflate(in, out);
+                    } else if (state == TRAILER) {
+                        trailer(in.get());
+                    } else if (state == END) {
+                        // zlib 流之后的多余字节忽略
+                        in.position(in.limit());
+                    } else {
+                        header(in.get() & 0xFF);
+                    }
+                }
+            }
+            return out;
+        }
+
+        @Override
+        void complete() throws IOException {
+            boolean atMemberBoundary = gzip && state == FIXED && count == 0;
+            if (!atMemberBoundary && state != END) {
+                throw new ZipException("Unexpected end of " + (gzip ? "gzip" : "deflate") + " stream");
+            }
+        }
+
+        @Override
+        void release() {
+            inflater.end();
+        }
+
+        private void inflate(ByteBuffer in, List<ByteBuffer> out) throws IOException {
+            inflater.setInput(in);
+            try {
+                while (!inflater.finished() && !inflater.needsInput()) {
+                    ByteBuffer chunk = ByteBuffer.allocate(INFLATE_CHUNK);
+                    int n = inflater.inflate(chunk);
+                    if (n == 0 && inflater.needsDictionary()) {
+                        throw new ZipException("Preset dictionary is not supported");
+                    }
+                    if (n > 0) {
+                        chunk.flip();
+                        if (gzip) {
+                            crc.update(chunk.duplicate());
+                        }
+                        out.add(chunk);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException(e.getMessage());
+            }
+            if (inflater.finished()) {
+                state = gzip ? TRAILER : END;
+                count = 0;
+            }
+        }
+
+        private void header(int b) throws IOException {
+            switch (state) {
+                case FIXED:
+                    if ((count == 0 && b != 0x1F) || (count == 1 && b != 0x8B) || (count == 2 && b != 8)) {
+                        throw new ZipException("Not in GZIP format");
+                    }
+                    if (count == 3) {
+                        flags = b;
+                    }
+                    if (++count == 10) {
+                        next(FIXED);
+                    }
+                    break;
+                case XLEN:
+                    xlen |= b << (8 * count);
+                    if (++count == 2) {
+                        if (xlen > 0) {
+                            state = EXTRA;
+                            count = 0;
+                        } else {
+                            next(EXTRA);
+                        }
+                    }
+                    break;
+                case EXTRA:
+                    if (++count == xlen) {
+                        next(EXTRA);
+                    }
+                    break;
+                case NAME:
+                case COMMENT:
+                    if (b == 0) {
+                        next(state);
+                    }
+                    break;
+                case HCRC:
+                    if (++count == 2) {
+                        next(HCRC);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("state " + state);
+            }
+        }
+
+        /**
+         * 按标志位跳到 after 之后的下一个头部字段，没有则进入数据部分
+         */
+        private void next(int after) {
+            count = 0;
+            if (after < XLEN && (flags & FEXTRA) != 0) {
+                state = XLEN;
+            } else if (after < NAME && (flags & FNAME) != 0) {
+                state = NAME;
+            } else if (after < COMMENT && (flags & FCOMMENT) != 0) {
+                state = COMMENT;
+            } else if (after < HCRC && (flags & FHCRC) != 0) {
+                state = HCRC;
+            } else {
+                state = BODY;
+            }
+        }
+
+        private void trailer(byte b) throws IOException {
+            trailer[count++] = b;
+            if (count < trailer.length) {
+                return;
+            }
+            if (readInt(0) != crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer: CRC mismatch");
+            }
+            if (readInt(4) != (inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+                throw new ZipException("Corrupt GZIP trailer: size mismatch");
+            }
+            // 准备读下一个成员
+            inflater.reset();
+            crc.reset();
+            state = FIXED;
+            count = 0;
+            flags = 0;
+            xlen = 0;
+        }
+
+        private long readInt(int offset) {
+            return (trailer[offset] & 0xFFL)
+                    | (trailer[offset + 1] & 0xFFL) << 8
+                    | (trailer[offset + 2] & 0xFFL) << 16
+                    | (trailer[offset + 3] & 0xFFL) << 24;
+        }
+    }
+
+    /**
+     * 顺序写入 AsynchronousFileChannel：一个元素的缓冲区全部写完后才请求下一个
+     */
+    private static final class FileWriter implements Flow.Subscriber<List<ByteBuffer>>,
+            CompletionHandler<Integer, ByteBuffer> {
+        private final AsynchronousFileChannel channel;
+        private final boolean closeChannel;
+        private final long start;
+        private final CompletableFuture<Long> result = new CompletableFuture<Long>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                Flow.Subscription s = subscription;
+                if (s != null) {
+                    s.cancel();
+                }
+                closeQuietly();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        private volatile Flow.Subscription subscription;
+        private long position;
+        private List<ByteBuffer> pending;
+        private int index;
+        // 以下两个字段由 this 保护：上游完成信号可能在写入进行中到达
+        private boolean writing;
+        private boolean upstreamDone;
+
+        FileWriter(AsynchronousFileChannel channel, long position, boolean closeChannel) {
+            this.channel = channel;
+            this.start = position;
+            this.position = position;
+            this.closeChannel = closeChannel;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null || result.isDone()) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            synchronized (this) {
+                writing = true;
+            }
+            pending = item;
+            index = 0;
+            writeNext();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                upstreamDone = true;
+                if (writing) {
+                    return;
+                }
+            }
+            finish();
+        }
+
+        @Override
+        public void completed(Integer written, ByteBuffer buffer) {
+            position += written;
+            if (!buffer.hasRemaining()) {
+                index++;
+            }
+            writeNext();
+        }
+
+        @Override
+        public void failed(Throwable throwable, ByteBuffer buffer) {
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+            fail(throwable);
+        }
+
+        private void writeNext() {
+            if (result.isDone()) {
+                return;
+            }
+            while (index < pending.size() && !pending.get(index).hasRemaining()) {
+                index++;
+            }
+            if (index < pending.size()) {
+                ByteBuffer buffer = pending.get(index);
+                try {
+                    channel.write(buffer, position, buffer, this);
+                } catch (RuntimeException e) {
+                    failed(e, buffer);
+                }
+                return;
+            }
+            pending = null;
+            boolean finished;
+            synchronized (this) {
+                writing = false;
+                finished = upstreamDone;
+            }
+            if (finished) {
+                finish();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        private void finish() {
+            if (closeChannel) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+            }
+            result.complete(position - start);
+        }
+
+        private void fail(Throwable throwable) {
+            closeQuietly();
+            result.completeExceptionally(throwable);
+        }
+
+        private void closeQuietly() {
+            if (closeChannel) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // 已经在失败路径上
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.jnet.core;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 请求执行接口 - 负责实际的网络请求
@@ -16,7 +16,7 @@ import java.util.concurrent.CompletableFuture;
  * 支持拦截器
  * 
  * <p>
- * 基于JDK 11 HttpClient实现
+ * 网络交换委托给 {@link Transport}，默认基于JDK 11 HttpClient实现
  * </p>
  *
  * @author sanbo
@@ -36,6 +36,16 @@ public interface Call {
      */
     Response execute() throws IOException;
 
+    /**
+     * 流式执行请求，收到响应头即返回，响应体不读入内存
+     * 拦截器不参与（拦截器面向完整的响应体）；截止时间和读超时只约束到收到响应头为止。
+     * 调用方必须关闭返回的 StreamResponse 以释放连接
+     *
+     * @return 流式响应，状态码和响应头见 {@link StreamResponse#getResponse()}
+     * @throws IOException 网络异常
+     */
+    StreamResponse executeStreaming() throws IOException;
+
     /**
      * 异步执行请求
      *
@@ -43,6 +53,14 @@ public interface Call {
      */
     void enqueue(Callback callback);
 
+    /**
+     * 异步执行请求，收到响应头即回调，响应体以 Flow.Publisher 按订阅方的需求读取
+     * 与 {@link #executeStreaming()} 一样不经过拦截器；截止时间和读超时只约束到收到响应头为止
+     *
+     * @param callback 回调接口
+     */
+    void enqueue(PublisherCallback callback);
+
     /**
      * 取消请求
      */
@@ -67,8 +85,11 @@ public interface Call {
         private final List<Interceptor> interceptors;
         private volatile boolean executed;
         private volatile boolean canceled;
-        // JDK HttpClient的Future，用于取消异步请求
+        // 传输层的Future，用于取消异步请求
         private volatile CompletableFuture<?> pendingFuture;
+        // 整个调用的截止时间，开始执行时解析一次，null 表示不限
+        private volatile Deadline deadline;
+        private boolean deadlineResolved;
 
         public RealCall(Request request, JNetClient client) {
             this(request, client, null);
@@ -97,6 +118,7 @@ public interface Call {
             if (canceled) {
                 throw new IOException("Request canceled");
             }
+            startDeadline();
 
             try {
                 return executeWithInterceptors();
@@ -108,7 +130,51 @@ public interface Call {
         }
 
         @Override
-        public void enqueue(Callback callback) {
+        public StreamResponse executeStreaming() throws IOException {
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Call already executed");
+                }
+                executed = true;
+            }
+
+            if (canceled) {
+                throw new IOException("Request canceled");
+            }
+            startDeadline();
+            checkDeadline(request);
+
+            ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+            ConcurrencyLimiter.Permit permit = limiter != null ? limiter.acquire(request, deadline) : null;
+            try {
+                StreamResponse stream = client.getTransport().executeStreaming(request, sendTimeout());
+                if (permit != null) {
+                    // RTT 取到响应头为止，与普通请求的首字节时间可比
+                    permit.onResponse(stream.getResponse().getCode());
+                }
+                return stream;
+            } catch (HttpTimeoutException | SocketTimeoutException e) {
+                if (permit != null) {
+                    permit.onFailure(e);
+                }
+                throw toDeadlineException(e, request);
+            } catch (InterruptedException e) {
+                if (permit != null) {
+                    permit.onFailure(e);
+                }
+                Thread.currentThread().interrupt();
+                throw new IOException("Request interrupted", e);
+            } catch (IOException | RuntimeException e) {
+                if (permit != null) {
+                    permit.onFailure(e);
+                }
+                throw enhanceException(e);
+            }
+        }
+
+        @Override
+        public void enqueue(Callback userCallback) {
+            Callback callback = dispatching(userCallback);
             synchronized (this) {
                 if (executed) {
                     throw new IllegalStateException("Call already executed");
@@ -120,11 +186,13 @@ public interface Call {
                 callback.onFailure(new IOException("Request canceled"));
                 return;
             }
+            startDeadline();
 
             // 异步执行
             if (interceptors != null && !interceptors.isEmpty()) {
-                // 有拦截器的情况
-                CompletableFuture.runAsync(() -> {
+                // 有拦截器的情况：拦截器链同步执行（重试退避、限流等待都会阻塞），
+                // 与 Transport.executeAsync 的默认实现一样放到 AsyncExecutor 上，不占用公共 ForkJoin 池
+                Runnable task = () -> {
                     try {
                         Response response = executeWithInterceptors();
                         if (canceled) {
@@ -135,23 +203,51 @@ public interface Call {
                     } catch (Exception e) {
                         callback.onFailure(enhanceException(e));
                     }
-                });
+                };
+                try {
+                    AsyncExecutor.getExecutor().execute(task);
+                } catch (IllegalStateException | RejectedExecutionException e) {
+                    callback.onFailure(new IOException("AsyncExecutor is unavailable", e));
+                }
             } else {
-                // 无拦截器，直接使用HttpClient异步
+                // 无拦截器，直接使用传输层的异步发送
                 try {
-                    HttpRequest jdkRequest = buildJdkRequest(request);
-                    CompletableFuture<HttpResponse<String>> future = client.getHttpClient()
-                            .sendAsync(jdkRequest, HttpResponse.BodyHandlers.ofString());
+                    checkDeadline(request);
+                    Response pushed = pushedResponse(request);
+                    if (pushed != null) {
+                        callback.onSuccess(pushed);
+                        return;
+                    }
+                    ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+                    ConcurrencyLimiter.Permit permit = limiter != null ? limiter.tryAcquire(request) : null;
+                    CompletableFuture<Response> future;
+                    try {
+                        future = client.getTransport().executeAsync(request, sendTimeout());
+                    } catch (RuntimeException e) {
+                        if (permit != null) {
+                            permit.onFailure(e);
+                        }
+                        throw e;
+                    }
                     this.pendingFuture = future;
 
-                    future.whenComplete((httpResponse, throwable) -> {
-                        if (throwable != null) {
-                            callback.onFailure(enhanceException(toException(throwable)));
+                    future.whenComplete((response, throwable) -> {
+                        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                ? throwable.getCause() : throwable;
+                        if (permit != null) {
+                            if (cause != null) {
+                                permit.onFailure(cause);
+                            } else {
+                                permit.onResponse(response.getCode());
+                            }
+                        }
+                        if (cause != null) {
+                            callback.onFailure(asyncFailure(cause));
                         } else {
                             if (canceled) {
                                 callback.onFailure(new IOException("Request canceled"));
                             } else {
-                                callback.onSuccess(toJNetResponse(httpResponse, request, 0));
+                                callback.onSuccess(response);
                             }
                         }
                     });
@@ -161,6 +257,61 @@ public interface Call {
             }
         }
 
+        @Override
+        public void enqueue(PublisherCallback userCallback) {
+            PublisherCallback callback = dispatching(userCallback);
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Call already executed");
+                }
+                executed = true;
+            }
+
+            if (canceled) {
+                callback.onFailure(new IOException("Request canceled"));
+                return;
+            }
+            startDeadline();
+
+            try {
+                checkDeadline(request);
+                ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+                ConcurrencyLimiter.Permit permit = limiter != null ? limiter.tryAcquire(request) : null;
+                CompletableFuture<PublisherResponse> future;
+                try {
+                    future = client.getTransport().executePublisher(request, sendTimeout());
+                } catch (RuntimeException e) {
+                    if (permit != null) {
+                        permit.onFailure(e);
+                    }
+                    throw e;
+                }
+                this.pendingFuture = future;
+
+                future.whenComplete((response, throwable) -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    if (permit != null) {
+                        if (cause != null) {
+                            permit.onFailure(cause);
+                        } else {
+                            permit.onResponse(response.getResponse().getCode());
+                        }
+                    }
+                    if (cause != null) {
+                        callback.onFailure(asyncFailure(cause));
+                    } else if (canceled) {
+                        BodyFlows.discard(response.getBody());
+                        callback.onFailure(new IOException("Request canceled"));
+                    } else {
+                        callback.onResponse(response);
+                    }
+                });
+            } catch (Exception e) {
+                callback.onFailure(enhanceException(e));
+            }
+        }
+
         @Override
         public void cancel() {
             canceled = true;
@@ -181,7 +332,7 @@ public interface Call {
 
         private Response executeWithInterceptors() throws IOException {
             if (interceptors == null || interceptors.isEmpty()) {
-                return executeInternal();
+                return executeInternal(request);
             }
 
             Interceptor.Chain chain = new Interceptor.RealChain(interceptors, 0, request, this);
@@ -189,102 +340,189 @@ public interface Call {
         }
 
         /**
-         * 执行实际的网络请求（供拦截器链调用）
+         * 包装回调，使其在客户端的回调执行器上运行，慢回调不占用传输线程
          */
-        Response executeNetworkRequest(Request req) throws IOException {
-            return executeInternalWithRequest(req);
+        private Callback dispatching(Callback callback) {
+            Executor executor = client.getCallbackExecutor();
+            return new Callback() {
+                @Override
+                public void onSuccess(Response response) {
+                    dispatch(executor, () -> callback.onSuccess(response));
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    dispatch(executor, () -> callback.onFailure(e));
+                }
+            };
         }
 
-        private Response executeInternalWithRequest(Request req) throws IOException {
-            long startTime = System.currentTimeMillis();
-            try {
-                HttpRequest jdkRequest = buildJdkRequest(req);
-                HttpResponse<String> httpResponse;
-                try {
-                    httpResponse = client.getHttpClient().send(jdkRequest, HttpResponse.BodyHandlers.ofString());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Request interrupted", e);
+        private PublisherCallback dispatching(PublisherCallback callback) {
+            Executor executor = client.getCallbackExecutor();
+            return new PublisherCallback() {
+                @Override
+                public void onResponse(PublisherResponse response) {
+                    dispatch(executor, () -> callback.onResponse(response));
                 }
 
-                if (canceled) {
-                    throw new IOException("Request canceled");
+                @Override
+                public void onFailure(Exception e) {
+                    dispatch(executor, () -> callback.onFailure(e));
                 }
+            };
+        }
 
-                long duration = System.currentTimeMillis() - startTime;
-                return toJNetResponse(httpResponse, req, duration);
-            } catch (Exception e) {
-                if (e instanceof IOException)
-                    throw (IOException) e;
-                throw new IOException(e);
+        private static void dispatch(Executor executor, Runnable task) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // 执行器已关闭或饱和时仍要送达结果，否则调用方会一直等待
+                task.run();
             }
         }
 
-        private Response executeInternal() throws IOException {
-            long startTime = System.currentTimeMillis();
+        /**
+         * 本次调用的截止时间，未开始执行或不限时为 null
+         */
+        Deadline deadline() {
+            return deadline;
+        }
 
-            try {
-                HttpRequest jdkRequest = buildJdkRequest(request);
+        /**
+         * 解析并固定本次调用的截止时间，重复调用返回同一个值
+         * 调用开始前的异步等待（如 {@link RateLimitInterceptor#enqueue}）先调用它，等待时间计入同一预算
+         */
+        synchronized Deadline startDeadline() {
+            if (!deadlineResolved) {
+                deadline = resolveDeadline();
+                deadlineResolved = true;
+            }
+            return deadline;
+        }
 
-                HttpResponse<String> httpResponse;
-                try {
-                    httpResponse = client.getHttpClient().send(jdkRequest, HttpResponse.BodyHandlers.ofString());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Request interrupted", e);
-                }
+        /**
+         * 执行实际的网络请求（供拦截器链调用）
+         */
+        Response executeNetworkRequest(Request req) throws IOException {
+            return executeInternal(req);
+        }
 
-                if (canceled) {
-                    throw new IOException("Request canceled");
-                }
+        private Response executeInternal(Request req) throws IOException {
+            checkDeadline(req);
 
-                long duration = System.currentTimeMillis() - startTime;
-                return toJNetResponse(httpResponse, request, duration);
-            } catch (Exception e) {
-                if (e instanceof IOException)
-                    throw (IOException) e;
-                throw new IOException(e);
+            Response response;
+            try {
+                response = send(req);
+            } catch (HttpTimeoutException | SocketTimeoutException e) {
+                throw toDeadlineException(e, req);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Request interrupted", e);
             }
-        }
-
-        private HttpRequest buildJdkRequest(Request request) {
-            HttpRequest.Builder builder = HttpRequest.newBuilder()
-                    .uri(request.getUri());
 
-            if (client.getReadTimeout() > 0) {
-                builder.timeout(Duration.ofMillis(client.getReadTimeout()));
+            if (canceled) {
+                throw new IOException("Request canceled");
             }
+            return response;
+        }
 
-            // Headers
-            for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
-                builder.header(entry.getKey(), entry.getValue());
+        /**
+         * 发送请求；启用并发限制时先获取许可，并把结果（RTT 或丢弃信号）反馈给限制器
+         */
+        private Response send(Request req) throws IOException, InterruptedException {
+            Response pushed = pushedResponse(req);
+            if (pushed != null) {
+                return pushed;
+            }
+            Transport transport = client.getTransport();
+            ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+            if (limiter == null) {
+                return transport.execute(req, sendTimeout());
+            }
+            ConcurrencyLimiter.Permit permit = limiter.acquire(req, deadline);
+            try {
+                Response response = transport.execute(req, sendTimeout());
+                permit.onResponse(response.getCode());
+                return response;
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                permit.onFailure(e);
+                throw e;
             }
+        }
 
-            // Method & Body
-            HttpRequest.BodyPublisher bodyPublisher = request.getBodyPublisher() != null
-                    ? request.getBodyPublisher()
-                    : HttpRequest.BodyPublishers.noBody();
+        /**
+         * 服务端推送过的资源直接返回，不经过并发限制（不是一次网络往返，不应计入 RTT）
+         */
+        private Response pushedResponse(Request req) {
+            ServerPush serverPush = client.getServerPush();
+            return serverPush != null ? serverPush.lookup(req) : null;
+        }
 
-            builder.method(request.getMethod(), bodyPublisher);
+        /**
+         * 本次发送的超时：读超时与截止时间剩余中较小者（覆盖传输层内部的重定向），null 表示不限
+         */
+        Duration sendTimeout() {
+            Duration timeout = client.getReadTimeoutDuration();
+            Deadline current = deadline;
+            if (current != null) {
+                // JDK 不接受 0
+                Duration remaining = current.remaining();
+                if (timeout == null || remaining.compareTo(timeout) < 0) {
+                    timeout = remaining.isZero() ? Duration.ofMillis(1) : remaining;
+                }
+            }
+            return timeout;
+        }
 
-            return builder.build();
+        /**
+         * 解析截止时间：请求的 deadline、请求的 timeout、客户端的 callTimeout 中最早的一个
+         */
+        private Deadline resolveDeadline() {
+            Deadline resolved = request.getDeadline();
+            if (request.getTimeout() != null) {
+                resolved = Deadline.after(request.getTimeout()).min(resolved);
+            } else if (client.getCallTimeout() != null) {
+                resolved = Deadline.after(client.getCallTimeout()).min(resolved);
+            }
+            return resolved;
         }
 
-        private Response toJNetResponse(HttpResponse<String> httpResponse, Request request, long duration) {
-            boolean isSuccess = httpResponse.statusCode() >= 200 && httpResponse.statusCode() < 300;
-            Response.Builder builder = isSuccess ? Response.success(request) : Response.failure(request);
+        /**
+         * 已过期的请求在发送前直接丢弃
+         */
+        private void checkDeadline(Request req) throws DeadlineExceededException {
+            Deadline current = deadline;
+            if (current != null && current.isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded before sending "
+                        + req.getMethod() + " " + req.getUrlString());
+            }
+        }
 
-            builder.code(httpResponse.statusCode())
-                    .body(httpResponse.body())
-                    .duration(duration);
+        /**
+         * 截止时间耗尽导致的传输层超时转换为 DeadlineExceededException，普通读超时原样返回
+         */
+        private IOException toDeadlineException(IOException e, Request req) {
+            Deadline current = deadline;
+            if (!(e instanceof DeadlineExceededException) && current != null && current.isExpired()) {
+                return new DeadlineExceededException("Deadline exceeded during "
+                        + req.getMethod() + " " + req.getUrlString(), e);
+            }
+            return e;
+        }
 
-            for (Map.Entry<String, List<String>> entry : httpResponse.headers().map().entrySet()) {
-                if (!entry.getValue().isEmpty()) {
-                    builder.header(entry.getKey(), entry.getValue().get(0));
-                }
+        /**
+         * 异步发送的失败原因转换为回调的异常，截止时间耗尽导致的超时转换为 DeadlineExceededException
+         */
+        private IOException asyncFailure(Throwable cause) {
+            Exception failure = toException(cause);
+            if (isTimeout(failure)) {
+                failure = toDeadlineException((IOException) failure, request);
             }
+            return enhanceException(failure);
+        }
 
-            return builder.build();
+        private static boolean isTimeout(Exception e) {
+            return e instanceof HttpTimeoutException || e instanceof SocketTimeoutException;
         }
 
         private IOException enhanceException(Exception e) {
@@ -303,6 +541,8 @@ public interface Call {
 
     /**
      * 回调接口
+     * 在客户端的回调执行器上运行（见 {@link JNetClient.Builder#callbackExecutor}），
+     * 默认与处理 I/O 的传输线程分开
      */
     interface Callback {
         /**
@@ -315,4 +555,20 @@ public interface Call {
          */
         void onFailure(Exception e);
     }
+
+    /**
+     * Publisher 响应回调接口
+     * 与 {@link Callback} 一样在客户端的回调执行器上运行
+     */
+    interface PublisherCallback {
+        /**
+         * 收到响应头；响应体通过 {@link PublisherResponse#getBody()} 订阅
+         */
+        void onResponse(PublisherResponse response);
+
+        /**
+         * 请求失败
+         */
+        void onFailure(Exception e);
+    }
 }
@@ -0,0 +1,45 @@
+package com.jnet.core;
+
+import java.io.IOException;
+
+/**
+ * 请求超出自适应并发限制被拒绝
+ * 请求未发送到服务端，可安全重试；经 JNet 门面方法抛出时映射为
+ * {@link JNetException.ErrorType#CONCURRENCY_LIMIT_EXCEEDED}。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+    private final String origin;
+    private final int limit;
+    private final int inFlight;
+
+    public ConcurrencyLimitExceededException(String origin, int limit, int inFlight) {
+        super("Concurrency limit exceeded for " + origin + ": " + inFlight + " in flight, limit " + limit);
+        this.origin = origin;
+        this.limit = limit;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * 被限流的源（scheme://host:port）
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * 拒绝时的并发上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 拒绝时正在进行的请求数
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,448 @@
+package com.jnet.core;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应并发限制器 - 按源（scheme://host:port）估算服务端容量
+ * 通过 {@link JNetClient.Builder#concurrencyLimiter(ConcurrencyLimiter)} 启用。
+ *
+ * <p>
+ * 采用梯度算法（与 TCP Vegas 同源）：以最小 RTT 作为无排队时的基线，
+ * 平滑 RTT 升高说明服务端开始排队，按比例缩小并发上限；RTT 接近基线时上限按 √limit 增长。
+ * </p>
+ *
+ * <pre>
+ * gradient = clamp(tolerance × minRtt / smoothedRtt, 0.5, 1.0)
+ * newLimit = limit × gradient + √limit
+ * limit    = limit × (1 - smoothing) + newLimit × smoothing
+ * </pre>
+ *
+ * <p>
+ * 超时、连接失败以及 429/503 视为丢弃信号，上限按 backoffRatio 乘性减小（AIMD 中的 MD）。
+ * 最小 RTT 每隔 probeInterval 重置一次，避免服务端扩容或网络路径变化后基线过时。
+ * 超出上限的请求默认立即以 {@link ConcurrencyLimitExceededException} 拒绝（快速失败，保护后端）；
+ * 设置 maxQueueWait 后同步调用会在上限处排队等待，异步调用仍然立即拒绝，不阻塞调用线程。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class ConcurrencyLimiter {
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final long maxQueueWaitNanos;
+    private final long probeIntervalNanos;
+    private final Map<String, OriginLimit> origins = new ConcurrentHashMap<>();
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.tolerance = builder.tolerance;
+        this.smoothing = builder.smoothing;
+        this.backoffRatio = builder.backoffRatio;
+        this.maxQueueWaitNanos = builder.maxQueueWait.toNanos();
+        this.probeIntervalNanos = builder.probeInterval.toNanos();
+    }
+
+    /**
+     * 创建 Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * 使用默认参数创建（初始 20，范围 1~1000，超限立即拒绝）
+     */
+    public static ConcurrencyLimiter create() {
+        return newBuilder().build();
+    }
+
+    /**
+     * 获取许可，超限时按 maxQueueWait 排队，仍无许可则拒绝
+     *
+     * @param deadline 调用截止时间，排队不会超过它；可为 null
+     * @throws ConcurrencyLimitExceededException 超出并发上限
+     */
+    public Permit acquire(Request request, Deadline deadline) throws ConcurrencyLimitExceededException {
+        long waitNanos = maxQueueWaitNanos;
+        if (deadline != null) {
+            waitNanos = Math.min(waitNanos, Math.max(0, deadline.remainingNanos()));
+        }
+        return origin(originOf(request.getUri())).acquire(waitNanos);
+    }
+
+    /**
+     * 立即获取许可，超限直接拒绝（异步调用使用，不阻塞调用线程）
+     *
+     * @throws ConcurrencyLimitExceededException 超出并发上限
+     */
+    public Permit tryAcquire(Request request) throws ConcurrencyLimitExceededException {
+        return origin(originOf(request.getUri())).acquire(0);
+    }
+
+    /**
+     * 各源的当前状态快照，key 为 scheme://host:port
+     */
+    public Map<String, Metrics> getMetrics() {
+        Map<String, Metrics> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, OriginLimit> entry : origins.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().metrics());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * 单个源的当前状态快照，未请求过时返回 null
+     */
+    public Metrics getMetrics(String origin) {
+        OriginLimit limit = origins.get(origin);
+        return limit == null ? null : limit.metrics();
+    }
+
+    // ========== 内部方法 ==========
+
+    OriginLimit origin(String origin) {
+        return origins.computeIfAbsent(origin, OriginLimit::new);
+    }
+
+    static String originOf(URI uri) {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase();
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+        return scheme + "://" + uri.getHost() + ":" + port;
+    }
+
+    /**
+     * 超时和连接失败视为服务端过载的信号，其他异常（如请求被取消）不参与估算
+     */
+    private static boolean isDropSignal(Throwable t) {
+        return t instanceof HttpTimeoutException || t instanceof SocketTimeoutException || t instanceof ConnectException;
+    }
+
+    /**
+     * 单个源的限制状态，所有字段在自身监视器下访问
+     */
+    final class OriginLimit {
+        private final String origin;
+        private double limit = initialLimit;
+        private int inFlight;
+        private long minRtt;        // 纳秒，0 表示尚无样本
+        private double smoothedRtt; // 纳秒
+        private long minRttResetAt = System.nanoTime();
+        private long rejected;
+        private long dropped;
+
+        OriginLimit(String origin) {
+            this.origin = origin;
+        }
+
+        synchronized Permit acquire(long waitNanos) throws ConcurrencyLimitExceededException {
+            long deadline = System.nanoTime() + waitNanos;
+            while (inFlight >= currentLimit()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    rejected++;
+                    throw new ConcurrencyLimitExceededException(origin, currentLimit(), inFlight);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected++;
+                    throw new ConcurrencyLimitExceededException(origin, currentLimit(), inFlight);
+                }
+            }
+            inFlight++;
+            return new Permit(this);
+        }
+
+        /**
+         * 记录一次正常完成的 RTT 样本并更新上限
+         */
+        synchronized void onSample(long rttNanos, int inFlightAtStart) {
+            release();
+            long now = System.nanoTime();
+            if (minRtt == 0 || rttNanos < minRtt || now - minRttResetAt > probeIntervalNanos) {
+                minRtt = Math.max(1, rttNanos);
+                minRttResetAt = now;
+            }
+            smoothedRtt = smoothedRtt == 0 ? rttNanos : smoothedRtt * 0.8 + rttNanos * 0.2;
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRtt / smoothedRtt));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            // 负载远低于上限时不继续增长，避免空闲期把上限抬得过高
+            if (newLimit > limit && inFlightAtStart < limit / 2) {
+                return;
+            }
+            limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+        }
+
+        /**
+         * 记录一次丢弃（超时、连接失败、429/503），乘性减小上限
+         */
+        synchronized void onDropped() {
+            release();
+            dropped++;
+            limit = clamp(limit * backoffRatio);
+        }
+
+        /**
+         * 释放许可但不参与估算
+         */
+        synchronized void onIgnored() {
+            release();
+        }
+
+        synchronized Metrics metrics() {
+            return new Metrics(origin, currentLimit(), inFlight,
+                    minRtt / 1_000_000.0, smoothedRtt / 1_000_000.0, rejected, dropped);
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        private void release() {
+            inFlight--;
+            notifyAll();
+        }
+
+        private int currentLimit() {
+            return (int) limit;
+        }
+
+        private double clamp(double value) {
+            return Math.max(minLimit, Math.min(maxLimit, value));
+        }
+    }
+
+    /**
+     * 一次请求占用的许可，必须且只能以 onResponse / onFailure 之一释放
+     */
+    public static final class Permit {
+        private final OriginLimit origin;
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(OriginLimit origin) {
+            this.origin = origin;
+            this.inFlightAtStart = origin.inFlight;
+        }
+
+        /**
+         * 收到响应：429/503 视为丢弃，其余状态码记录 RTT 样本
+         */
+        public void onResponse(int statusCode) {
+            if (markReleased()) {
+                if (statusCode == 429 || statusCode == 503) {
+                    origin.onDropped();
+                } else {
+                    origin.onSample(System.nanoTime() - startNanos, inFlightAtStart);
+                }
+            }
+        }
+
+        /**
+         * 请求失败：超时和连接失败视为丢弃，其他异常只释放许可
+         */
+        public void onFailure(Throwable t) {
+            if (markReleased()) {
+                if (isDropSignal(t)) {
+                    origin.onDropped();
+                } else {
+                    origin.onIgnored();
+                }
+            }
+        }
+
+        private synchronized boolean markReleased() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            return true;
+        }
+    }
+
+    /**
+     * 单个源的限制器状态快照
+     */
+    public static final class Metrics {
+        private final String origin;
+        private final int limit;
+        private final int inFlight;
+        private final double minRttMillis;
+        private final double smoothedRttMillis;
+        private final long rejected;
+        private final long dropped;
+
+        Metrics(String origin, int limit, int inFlight, double minRttMillis, double smoothedRttMillis,
+                long rejected, long dropped) {
+            this.origin = origin;
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.minRttMillis = minRttMillis;
+            this.smoothedRttMillis = smoothedRttMillis;
+            this.rejected = rejected;
+            this.dropped = dropped;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        /**
+         * 当前并发上限
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * 正在进行的请求数
+         */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * 当前探测周期内的最小 RTT（毫秒）
+         */
+        public double getMinRttMillis() {
+            return minRttMillis;
+        }
+
+        /**
+         * 平滑 RTT（毫秒，EWMA α=0.2）
+         */
+        public double getSmoothedRttMillis() {
+            return smoothedRttMillis;
+        }
+
+        /**
+         * 累计拒绝的请求数
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * 累计丢弃信号数（超时、连接失败、429/503）
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{origin=" + origin + ", limit=" + limit + ", inFlight=" + inFlight
+                    + ", minRtt=" + String.format(java.util.Locale.ROOT, "%.2f", minRttMillis)
+                    + "ms, smoothedRtt=" + String.format(java.util.Locale.ROOT, "%.2f", smoothedRttMillis)
+                    + "ms, rejected=" + rejected + ", dropped=" + dropped + "}";
+        }
+    }
+
+    // ========== Builder ==========
+
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 1000;
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        private double backoffRatio = 0.9;
+        private Duration maxQueueWait = Duration.ZERO;
+        private Duration probeInterval = Duration.ofSeconds(30);
+
+        /**
+         * 初始并发上限，默认 20
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * 并发上限的取值范围，默认 1~1000
+         */
+        public Builder limitRange(int minLimit, int maxLimit) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * RTT 容忍倍数：平滑 RTT 不超过 minRtt × tolerance 时不缩小上限，默认 1.5
+         */
+        public Builder tolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * 上限变化的平滑系数（0~1），越大反应越快，默认 0.2
+         */
+        public Builder smoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * 丢弃信号时的乘性减小系数（0~1），默认 0.9
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * 同步调用在上限处最长排队时间，默认 0（立即拒绝）
+         */
+        public Builder maxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+            return this;
+        }
+
+        /**
+         * 最小 RTT 的重置周期，默认 30 秒
+         */
+        public Builder probeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        public ConcurrencyLimiter build() {
+            if (minLimit < 1 || maxLimit < minLimit) {
+                throw new IllegalArgumentException("Invalid limit range: [" + minLimit + ", " + maxLimit + "]");
+            }
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Initial limit must be within [" + minLimit + ", " + maxLimit + "]");
+            }
+            if (!(tolerance >= 1.0)) {
+                throw new IllegalArgumentException("Tolerance must be >= 1.0");
+            }
+            if (!(smoothing > 0 && smoothing <= 1) || !(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("Smoothing must be in (0, 1], backoff ratio in (0, 1)");
+            }
+            if (maxQueueWait == null || maxQueueWait.isNegative() || probeInterval == null || probeInterval.isNegative()) {
+                throw new IllegalArgumentException("Durations must be non-negative");
+            }
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.jnet.core;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求截止时间
+ * 基于 System.nanoTime 的绝对时间点，不受系统时钟调整影响，不可变，线程安全。
+ *
+ * <p>
+ * 一次调用只解析一次截止时间，并通过 {@link Interceptor.Chain#deadline()} 传递给所有拦截器：
+ * 重试与退避在预算耗尽时停止，剩余预算作为 JDK 请求超时，已过期的请求在发送前直接丢弃，
+ * 过期统一以 {@link DeadlineExceededException} 报告。
+ * </p>
+ *
+ * <pre>
+ * Request request = client.newGet(url)
+ *         .timeout(Duration.ofSeconds(3))   // 从 execute() 开始计时，覆盖重试、重定向和拦截器
+ *         .build();
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class Deadline implements Comparable<Deadline> {
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 从现在起 timeout 之后到期
+     */
+    public static Deadline after(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must be non-negative");
+        }
+        return after(saturatedNanos(timeout), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 从现在起 amount 个 unit 之后到期
+     */
+    public static Deadline after(long amount, TimeUnit unit) {
+        long now = System.nanoTime();
+        long nanos = unit.toNanos(amount);
+        // 防止溢出：超长超时视为约 292 年
+        long deadline = now + nanos < now ? Long.MAX_VALUE : now + nanos;
+        return new Deadline(deadline);
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * 剩余纳秒数，过期后为负数
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * 剩余毫秒数，过期后为 0
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos()));
+    }
+
+    /**
+     * 剩余时间，过期后为 Duration.ZERO
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    /**
+     * 取两者中更早到期的一个，other 为 null 时返回自身
+     */
+    public Deadline min(Deadline other) {
+        return other == null || compareTo(other) <= 0 ? this : other;
+    }
+
+    @Override
+    public int compareTo(Deadline other) {
+        // nanoTime 只能比较差值
+        long diff = deadlineNanos - other.deadlineNanos;
+        return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        long remaining = remainingNanos();
+        return remaining > 0
+                ? "Deadline{remaining=" + TimeUnit.NANOSECONDS.toMillis(remaining) + "ms}"
+                : "Deadline{expired " + TimeUnit.NANOSECONDS.toMillis(-remaining) + "ms ago}";
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
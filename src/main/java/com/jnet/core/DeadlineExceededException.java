@@ -0,0 +1,23 @@
+package com.jnet.core;
+
+import java.net.http.HttpTimeoutException;
+
+/**
+ * 请求截止时间已到
+ * 继承 HttpTimeoutException，按超时处理的现有代码无需修改即可捕获；
+ * 经 JNet 门面方法抛出时映射为 {@link JNetException.ErrorType#DEADLINE_EXCEEDED}。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public class DeadlineExceededException extends HttpTimeoutException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message);
+        initCause(cause);
+    }
+}
@@ -1,5 +1,7 @@
 package com.jnet.core;
 
+import com.jnet.core.org.json.JSONException;
+
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
@@ -30,11 +32,29 @@ final class ExceptionMapper {
      * @return JNetException
      */
     static JNetException map(Exception e, String method, String url) {
+        if (e instanceof JNetException) {
+            return (JNetException) e;
+        }
         JNetException.Builder builder = new JNetException.Builder()
                 .cause(e)
                 .requestUrl(url)
                 .requestMethod(method);
 
+        // 先于其他 IOException 判断：DeadlineExceededException 同时也是 HttpTimeoutException
+        if (e instanceof DeadlineExceededException) {
+            return builder
+                    .message("Deadline exceeded: " + url)
+                    .errorType(JNetException.ErrorType.DEADLINE_EXCEEDED)
+                    .build();
+        }
+
+        if (e instanceof ConcurrencyLimitExceededException) {
+            return builder
+                    .message("Concurrency limit exceeded: " + url)
+                    .errorType(JNetException.ErrorType.CONCURRENCY_LIMIT_EXCEEDED)
+                    .build();
+        }
+
         if (e instanceof ConnectException) {
             return builder
                     .message("Connection refused: " + url)
@@ -78,6 +98,13 @@ final class ExceptionMapper {
                     .build();
         }
 
+        if (e instanceof JSONException) {
+            return builder
+                    .message("Invalid JSON response: " + e.getMessage())
+                    .errorType(JNetException.ErrorType.RESPONSE_PARSING_ERROR)
+                    .build();
+        }
+
         if (e instanceof IllegalArgumentException) {
             return builder
                     .message("Invalid request configuration: " + e.getMessage())
@@ -3,6 +3,7 @@ package com.jnet.core;
 import com.jnet.core.org.json.JSONArray;
 import com.jnet.core.org.json.JSONException;
 import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.LazyJson;
 
 import java.io.File;
 import java.io.IOException;
@@ -392,7 +393,7 @@ public class GithubHelper {
             } catch (JSONException e) {
                 System.out.println("   [DEBUG] JSON对象解析失败，尝试数组: " + e.getMessage());
                 try {
-                    JSONArray arr = new JSONArray(result);
+                    JSONArray arr = LazyJson.parseArray(result);
                     System.out.println("   [DEBUG] 是数组，长度: " + arr.length());
                     for (int i = 0; i < arr.length(); i++) {
                         Object o = arr.opt(i);
@@ -0,0 +1,114 @@
+package com.jnet.core;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpClient 分片池（包级可见，由 JNetClient 持有）
+ *
+ * <p>
+ * JDK HttpClient 对同一源的 HTTP/2 请求只复用一条连接，受服务端 max-concurrent-streams
+ * 和 TCP 队头阻塞限制。分片池持有 N 个独立的 HttpClient（各自的连接池），
+ * 每个源分别统计各分片的进行中请求数，新请求选择负载最小的分片，并列时轮换起点。
+ * 只有一个分片时直接返回，不做任何统计。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class HttpClientPool {
+    private final HttpClient[] clients;
+    private final Shard single;
+    private final Map<String, Shard[]> origins = new ConcurrentHashMap<>();
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    HttpClientPool(HttpClient[] clients) {
+        this.clients = clients;
+        this.single = clients.length == 1 ? new Shard(clients[0], false) : null;
+    }
+
+    /**
+     * 第一个分片，供不经过分片选择的场景（如 SSE、WebSocket）使用
+     */
+    HttpClient primary() {
+        return clients[0];
+    }
+
+    int size() {
+        return clients.length;
+    }
+
+    /**
+     * 为 uri 所属的源选择负载最小的分片并占用，完成后必须调用 {@link Shard#release()}
+     */
+    Shard acquire(URI uri) {
+        if (single != null) {
+            return single;
+        }
+        Shard[] shards = origins.computeIfAbsent(ConcurrencyLimiter.originOf(uri), key -> newShards());
+        int n = shards.length;
+        int start = (rotation.getAndIncrement() & Integer.MAX_VALUE) % n;
+        Shard best = shards[start];
+        int bestLoad = best.inFlight.get();
+        for (int i = 1; i < n && bestLoad > 0; i++) {
+            Shard candidate = shards[(start + i) % n];
+            int load = candidate.inFlight.get();
+            if (load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        best.inFlight.incrementAndGet();
+        return best;
+    }
+
+    /**
+     * 某个源各分片的进行中请求数，未请求过时返回 null
+     */
+    int[] inFlight(String origin) {
+        Shard[] shards = origins.get(origin);
+        if (shards == null) {
+            return null;
+        }
+        int[] loads = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            loads[i] = shards[i].inFlight.get();
+        }
+        return loads;
+    }
+
+    private Shard[] newShards() {
+        Shard[] shards = new Shard[clients.length];
+        for (int i = 0; i < clients.length; i++) {
+            shards[i] = new Shard(clients[i], true);
+        }
+        return shards;
+    }
+
+    /**
+     * 一个源在某个 HttpClient 上的负载计数
+     */
+    static final class Shard {
+        private final HttpClient client;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final boolean counted;
+
+        Shard(HttpClient client, boolean counted) {
+            this.client = client;
+            this.counted = counted;
+        }
+
+        HttpClient client() {
+            return client;
+        }
+
+        void release() {
+            if (counted) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -24,6 +24,14 @@ public interface Interceptor {
     interface Chain {
         Request request();
         Response proceed(Request request) throws IOException;
+
+        /**
+         * 本次调用的截止时间，不限时为 null
+         * 重试、退避、限流等需要等待的拦截器应在预算耗尽时停止
+         */
+        default Deadline deadline() {
+            return null;
+        }
     }
 
     /**
@@ -58,6 +66,11 @@ public interface Interceptor {
             return request;
         }
 
+        @Override
+        public Deadline deadline() {
+            return call != null ? call.deadline() : null;
+        }
+
         @Override
         public Response proceed(Request request) throws IOException {
             if (index >= interceptors.size()) {
@@ -96,6 +109,8 @@ public interface Interceptor {
 
     /**
      * 重试拦截器
+     * 请求体只能发送一次时（见 {@link Request#isReplayable()}）不重试，避免重发已被消费的流
+     * 有截止时间时，剩余预算不足以完成下一次退避就停止重试，并抛出 DeadlineExceededException
      */
     class RetryInterceptor implements Interceptor {
         private final int maxRetries;
@@ -113,16 +128,27 @@ public interface Interceptor {
         @Override
         public Response intercept(Chain chain) throws IOException {
             Request request = chain.request();
+            Deadline deadline = chain.deadline();
             IOException lastException = null;
 
             for (int i = 0; i <= maxRetries; i++) {
                 try {
                     return chain.proceed(request);
+                } catch (DeadlineExceededException e) {
+                    throw e;
                 } catch (IOException e) {
                     lastException = e;
+                    if (!request.isReplayable()) {
+                        throw e;
+                    }
                     if (i < maxRetries) {
+                        long backoff = delayMs * (i + 1);
+                        if (deadline != null && deadline.remainingMillis() <= backoff) {
+                            throw new DeadlineExceededException("Deadline exceeded after " + (i + 1)
+                                    + " attempt(s) of " + request.getMethod() + " " + request.getUrlString(), e);
+                        }
                         try {
-                            Thread.sleep(delayMs * (i + 1));
+                            Thread.sleep(backoff);
                         } catch (InterruptedException ie) {
                             Thread.currentThread().interrupt();
                             throw new IOException("Interrupted during retry", ie);
@@ -8,7 +8,12 @@ import com.jnet.udp.UdpPacket;
 import com.jnet.hls.HlsClient;
 import com.jnet.rtsp.RtspClient;
 
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.JsonPath;
+import com.jnet.core.org.json.TypeReference;
+
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -16,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * JNet - 极简HTTP/TCP/UDP客户端（基于JDK 11+原生实现）
@@ -412,9 +418,10 @@ public final class JNet {
      * POST JSON请求 - 带Headers
      */
     public static String postJson(String url, Object json, Map<String, String> headers) {
-        String jsonStr = JNetUtils.toJsonString(json);
-        Map<String, String> mergedHeaders = mergeHeaders(headers, "Content-Type", "application/json");
-        return request("POST", url, jsonStr, mergedHeaders, null);
+        return ExceptionMapper.executeWithMapping(() -> jsonRequest(url, json, headers)
+                .newCall()
+                .execute()
+                .getBody(), "POST", url);
     }
 
     /**
@@ -548,9 +555,13 @@ public final class JNet {
      * 异步POST JSON请求
      */
     public static CompletableFuture<String> postJsonAsync(String url, Object json) {
-        String jsonStr = JNetUtils.toJsonString(json);
-        Map<String, String> mergedHeaders = mergeHeaders(null, "Content-Type", "application/json");
-        return requestAsync("POST", url, jsonStr, mergedHeaders, null);
+        try {
+            return enqueue(jsonRequest(url, json, null), "POST", url);
+        } catch (Exception e) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(ExceptionMapper.map(e, "POST", url));
+            return future;
+        }
     }
 
     /**
@@ -567,7 +578,6 @@ public final class JNet {
     public static CompletableFuture<String> requestAsync(String method, String url, String body,
                                        Map<String, String> headers,
                                        Map<String, String> params) {
-        CompletableFuture<String> future = new CompletableFuture<>();
         try {
             String finalUrl = JNetUtils.buildUrl(url, params);
 
@@ -577,22 +587,111 @@ public final class JNet {
                     .headers(headers)
                     .body(body)
                     .build();
-
-            request.newCall().enqueue(new Call.Callback() {
-                @Override
-                public void onSuccess(Response response) {
-                    future.complete(response.getBody());
-                }
-
-                @Override
-                public void onFailure(Exception e) {
-                    future.completeExceptionally(ExceptionMapper.map(e, method, finalUrl));
-                }
-            });
+            return enqueue(request, method, finalUrl);
         } catch (Exception e) {
+            CompletableFuture<String> future = new CompletableFuture<>();
             future.completeExceptionally(ExceptionMapper.map(e, method, url));
+            return future;
         }
-        return future;
+    }
+
+    // ========== 流式请求 ==========
+
+    /**
+     * 流式GET请求，响应体不读入内存，可按行、按字节行或按块读取；调用方负责关闭
+     * <pre>
+     * try (StreamResponse stream = JNet.stream(url)) {
+     *     stream.forEachLine((bytes, offset, length) -&gt; ...);
+     * }
+     * </pre>
+     */
+    public static StreamResponse stream(String url) {
+        return stream(url, null);
+    }
+
+    /**
+     * 流式GET请求 - 带Headers
+     */
+    public static StreamResponse stream(String url, Map<String, String> headers) {
+        return ExceptionMapper.executeWithMapping(() -> JNetClient.getInstance()
+                .newGet(url)
+                .headers(headers)
+                .build()
+                .newCall()
+                .executeStreaming(), "GET", url);
+    }
+
+    /**
+     * GET并将JSON响应体直接从字节流绑定为对象，不经过String和JSONObject
+     * <pre>
+     * Repo repo = JNet.getJson(url, Repo.class);
+     * List&lt;Repo&gt; repos = JNet.getJson(url, new TypeReference&lt;List&lt;Repo&gt;&gt;() {}.getType());
+     * </pre>
+     *
+     * @throws JNetException 非2xx状态码（HTTP_CLIENT_ERROR/HTTP_SERVER_ERROR）或JSON无法绑定（RESPONSE_PARSING_ERROR）
+     */
+    public static <T> T getJson(String url, Type type) {
+        return getJson(url, null, type);
+    }
+
+    public static <T> T getJson(String url, TypeReference<T> type) {
+        return getJson(url, null, type.getType());
+    }
+
+    /**
+     * GET JSON - 带Headers
+     */
+    public static <T> T getJson(String url, Map<String, String> headers, Type type) {
+        return ExceptionMapper.executeWithMapping(() -> {
+            try (StreamResponse stream = streamJson(url, headers, "application/json")) {
+                return JsonMapper.<T>fromJson(stream.getInputStream(), type);
+            }
+        }, "GET", url);
+    }
+
+    /**
+     * GET并按 JsonPath 边下载边提取字段，不匹配的部分直接跳过，内存占用与响应体大小无关
+     * <pre>
+     * JNet.extract(url, (path, value) -&gt; ..., "$.items[*].id", "$.next");
+     * </pre>
+     *
+     * @throws JNetException 非2xx状态码或JSON格式错误
+     * @see JsonPath
+     */
+    public static void extract(String url, JsonPath.Listener listener, String... paths) {
+        ExceptionMapper.executeWithMapping(() -> {
+            try (StreamResponse stream = streamJson(url, null, "application/json")) {
+                stream.extract(listener, paths);
+            }
+            return null;
+        }, "GET", url);
+    }
+
+    /**
+     * GET NDJSON（JSON Lines）并逐条绑定、回调，边下载边处理；回调返回后才继续读取，
+     * 消费慢时由 TCP 流控让服务端等待，内存占用与记录数无关
+     * <pre>
+     * JNet.streamNdjson(url, Event.class, event -&gt; ...);
+     * </pre>
+     *
+     * @throws JNetException 非2xx状态码，或某行无法解析/绑定（RESPONSE_PARSING_ERROR）
+     * @see StreamResponse#readNdjson(Type, Consumer)
+     */
+    public static <T> void streamNdjson(String url, Class<T> type, Consumer<? super T> consumer) {
+        streamNdjson(url, null, type, consumer);
+    }
+
+    /**
+     * GET NDJSON - 带Headers
+     */
+    public static <T> void streamNdjson(String url, Map<String, String> headers, Type type,
+                                        Consumer<? super T> consumer) {
+        ExceptionMapper.executeWithMapping(() -> {
+            try (StreamResponse stream = streamJson(url, headers, Ndjson.CONTENT_TYPE)) {
+                stream.<T>readNdjson(type, consumer);
+            }
+            return null;
+        }, "GET", url);
     }
 
     // ========== TCP Socket Methods (新增) ==========
@@ -902,6 +1001,57 @@ public final class JNet {
 
     // ========== 内部方法 ==========
 
+    /**
+     * JSON POST 请求：对象直接序列化为 UTF-8 字节作为请求体（已知长度），不经过 String
+     */
+    private static Request jsonRequest(String url, Object json, Map<String, String> headers) {
+        return JNetClient.getInstance()
+                .newGet(url)
+                .method("POST")
+                .headers(mergeHeaders(headers, "Content-Type", "application/json"))
+                .json(json)
+                .build();
+    }
+
+    /**
+     * 以给定的 Accept（调用方已设置时不覆盖）打开流式GET，非2xx时抛出带状态码的 JNetException
+     */
+    private static StreamResponse streamJson(String url, Map<String, String> headers, String accept)
+            throws IOException {
+        Map<String, String> merged = headers != null && headers.containsKey("Accept")
+                ? headers : mergeHeaders(headers, "Accept", accept);
+        StreamResponse stream = stream(url, merged);
+        int code = stream.getResponse().getCode();
+        if (code < 200 || code >= 300) {
+            stream.close();
+            throw JNetException.builder()
+                    .message("HTTP " + code + ": " + url)
+                    .statusCode(code)
+                    .requestUrl(url)
+                    .requestMethod("GET")
+                    .errorType(code >= 500 ? JNetException.ErrorType.HTTP_SERVER_ERROR
+                            : JNetException.ErrorType.HTTP_CLIENT_ERROR)
+                    .build();
+        }
+        return stream;
+    }
+
+    private static CompletableFuture<String> enqueue(Request request, String method, String url) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        request.newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response.getBody());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(ExceptionMapper.map(e, method, url));
+            }
+        });
+        return future;
+    }
+
     private static Map<String, String> mergeHeaders(Map<String, String> headers, String key, String value) {
         Map<String, String> merged = new HashMap<>();
         if (headers != null) {
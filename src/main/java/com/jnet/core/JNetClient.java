@@ -6,7 +6,13 @@ import java.net.CookiePolicy;
 import java.net.ProxySelector;
 import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JNet客户端 - 单例模式
@@ -17,23 +23,52 @@ import java.util.concurrent.TimeUnit;
  */
 public final class JNetClient {
     private static final int DEFAULT_TIMEOUT = 10_000; // 10秒
+    private static final AtomicInteger CLIENT_IDS = new AtomicInteger();
     private static volatile JNetClient instance;
 
-    private final HttpClient httpClient;
+    private final HttpClient.Builder clientBuilder; // 只在构造和 pool() 的锁内使用
+    private final int shards;
+    private volatile HttpClientPool clientPool; // 一个或多个 HttpClient，按源选择负载最小的分片；自定义传输层时按需创建
+    private final Set<String> http1Hosts; // 强制使用 HTTP/1.1 的主机（小写）
+    private final Transport transport; // 网络交换的实现，默认基于分片池的 JdkTransport
     private final int connectTimeout; // 保留供SSEClient等可能需要的地方查看
     private final int readTimeout;
+    private final Duration readTimeoutDuration; // 每次请求复用，避免重复创建
+    private final Duration callTimeout; // 整个调用的默认超时，null 表示不限
     private final com.jnet.auth.Auth auth; // 默认认证
+    private final ConcurrencyLimiter concurrencyLimiter; // null 表示不限制并发
+    private volatile Executor executor; // 传输执行器：HttpClient 的 I/O 完成和内部任务；自定义传输层时按需创建
+    private final Executor callbackExecutor; // 回调执行器，null 表示使用共享的默认执行器
+    private final ServerPush serverPush; // null 表示拒绝服务端推送
 
     private JNetClient(Builder builder) {
         this.connectTimeout = builder.connectTimeout;
         this.readTimeout = builder.readTimeout;
+        this.readTimeoutDuration = builder.readTimeout > 0 ? Duration.ofMillis(builder.readTimeout) : null;
+        this.callTimeout = builder.callTimeout > 0 ? Duration.ofMillis(builder.callTimeout) : null;
         this.auth = builder.auth;
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.executor = builder.executor;
+        this.shards = builder.shards;
+        this.callbackExecutor = builder.callbackExecutor;
+        this.serverPush = builder.pushCache != null ? new ServerPush(builder.pushCache) : null;
+        this.http1Hosts = builder.http1Hosts.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(builder.http1Hosts));
 
         HttpClient.Builder clientBuilder = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_2)
-                .connectTimeout(Duration.ofMillis(builder.connectTimeout))
-                .followRedirects(builder.followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
-                .cookieHandler(builder.cookieHandler);
+                .followRedirects(builder.followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+
+        // 0 表示不限（JDK Builder 不接受 0）
+        if (builder.connectTimeout > 0) {
+            clientBuilder.connectTimeout(Duration.ofMillis(builder.connectTimeout));
+        }
+
+        // cookieHandler 为 null 表示禁用Cookie，JDK Builder 不接受 null
+        if (builder.cookieHandler != null) {
+            clientBuilder.cookieHandler(builder.cookieHandler);
+        }
 
         if (builder.proxy != null) {
             // 验证代理类型并配置
@@ -55,7 +90,33 @@ public final class JNetClient {
             }
         }
 
-        this.httpClient = clientBuilder.build();
+        this.clientBuilder = clientBuilder;
+        // 自定义传输层用不到 HttpClient，不创建选择器线程和传输执行器，直到有人调用 getHttpClient()/getExecutor()
+        this.transport = builder.transport != null
+                ? builder.transport
+                : new JdkTransport(pool(), http1Hosts, serverPush);
+    }
+
+    /**
+     * 分片池，首次使用时创建：每个分片是独立的 HttpClient（各自的连接池和选择器线程），共享传输执行器
+     */
+    private HttpClientPool pool() {
+        HttpClientPool current = clientPool;
+        if (current == null) {
+            synchronized (this) {
+                current = clientPool;
+                if (current == null) {
+                    clientBuilder.executor(getExecutor());
+                    HttpClient[] clients = new HttpClient[shards];
+                    for (int i = 0; i < clients.length; i++) {
+                        clients[i] = clientBuilder.build();
+                    }
+                    current = new HttpClientPool(clients);
+                    clientPool = current;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -72,6 +133,18 @@ public final class JNetClient {
         return instance;
     }
 
+    /**
+     * 替换默认实例，JNet 的静态方法随后都使用该客户端（例如启用了服务端推送的客户端）
+     */
+    public static void setInstance(JNetClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client cannot be null");
+        }
+        synchronized (JNetClient.class) {
+            instance = client;
+        }
+    }
+
     /**
      * 创建新客户端实例
      */
@@ -88,9 +161,38 @@ public final class JNetClient {
 
     /**
      * 获取底层的JDK HttpClient
+     * 配置了多个分片时返回第一个分片，请求本身经 Call 在各分片间分配
      */
     public HttpClient getHttpClient() {
-        return httpClient;
+        return pool().primary();
+    }
+
+    /**
+     * HttpClient 分片数
+     */
+    public int getShardCount() {
+        return shards;
+    }
+
+    /**
+     * 强制使用 HTTP/1.1 的主机
+     */
+    public Set<String> getHttp1Hosts() {
+        return http1Hosts;
+    }
+
+    /**
+     * 传输层，未单独配置时为基于 JDK HttpClient 的默认实现
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * 分片池（包级可见，供测试检查分片负载）
+     */
+    HttpClientPool clientPool() {
+        return pool();
     }
 
     /**
@@ -136,15 +238,77 @@ public final class JNetClient {
         return readTimeout;
     }
 
+    /**
+     * 整个调用的默认超时，未设置时为 null
+     */
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    /**
+     * 传输执行器（HttpClient 的 I/O 完成和内部任务）
+     * 未配置时为每个客户端创建一个；使用自定义传输层时首次调用本方法才创建
+     */
+    public Executor getExecutor() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    current = JNetExecutor.newTransportExecutor("JNet-Http-" + CLIENT_IDS.incrementAndGet());
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 回调执行器（Call.Callback 和异步结果的后续处理）
+     */
+    public Executor getCallbackExecutor() {
+        // 默认执行器在首次异步调用时才创建，只做同步请求的进程不加载它
+        return callbackExecutor != null ? callbackExecutor : JNetExecutor.defaultCallbackExecutor();
+    }
+
+    /**
+     * 自适应并发限制器，未启用时为 null；可通过 getMetrics() 查看各源的上限与 RTT 估计
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * 服务端推送的接收状态与统计，未启用时为 null
+     */
+    public ServerPush getServerPush() {
+        return serverPush;
+    }
+
+    /**
+     * 读超时的 Duration 形式，未设置时为 null（包级可见，供 Call 构建 JDK 请求时复用）
+     */
+    Duration getReadTimeoutDuration() {
+        return readTimeoutDuration;
+    }
+
     /**
      * 客户端配置构建器
      */
     public static class Builder {
         private int connectTimeout = DEFAULT_TIMEOUT;
         private int readTimeout = DEFAULT_TIMEOUT;
+        private int callTimeout = 0; // 0 = 不限
         private java.net.Proxy proxy;
         private boolean followRedirects = true;
         private com.jnet.auth.Auth auth;
+        private ConcurrencyLimiter concurrencyLimiter;
+        private Executor executor;
+        private Executor callbackExecutor;
+        private int shards = 1;
+        private final Set<String> http1Hosts = new HashSet<>();
+        private Transport transport;
+        private ResponseCache pushCache;
         // 默认启用Cookie管理 (类似 Python requests.Session)
         private CookieHandler cookieHandler = new CookieManager(null, CookiePolicy.ACCEPT_ORIGINAL_SERVER);
 
@@ -167,6 +331,108 @@ public final class JNetClient {
             return this;
         }
 
+        /**
+         * 设置整个调用的默认超时（截止时间）
+         * 从 execute/enqueue 开始计时，覆盖拦截器、重试、退避和重定向；0 表示不限
+         * 单个请求可通过 Request.Builder.timeout 覆盖
+         */
+        public Builder callTimeout(int timeout, TimeUnit unit) {
+            this.callTimeout = (int) unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * 按 Timeout 配置连接超时、读取超时和整个调用的超时（totalTimeout）
+         */
+        public Builder timeout(Timeout timeout) {
+            if (timeout != null) {
+                this.connectTimeout = (int) timeout.getConnectTimeout().toMillis();
+                this.readTimeout = (int) timeout.getReadTimeout().toMillis();
+                this.callTimeout = (int) timeout.getTotalTimeout().toMillis();
+            }
+            return this;
+        }
+
+        /**
+         * 启用按源的自适应并发限制，超限请求以 ConcurrencyLimitExceededException 拒绝；传 null 关闭
+         */
+        public Builder concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * 使用默认参数启用自适应并发限制
+         */
+        public Builder adaptiveConcurrency() {
+            return concurrencyLimiter(ConcurrencyLimiter.create());
+        }
+
+        /**
+         * 设置传输执行器，传给 HttpClient 处理 I/O 完成和内部任务
+         * 默认每个客户端一个 JNetExecutor（守护线程、按需创建、有界队列），null 恢复默认
+         * 自定义执行器不能拒绝任务，否则请求会挂起；由调用方负责关闭
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * 设置回调执行器，运行 Call.Callback 以及 JNet 异步方法返回的 CompletableFuture 的后续阶段
+         * 与传输执行器分开，慢回调不会拖慢其他响应的处理；默认所有客户端共享一个 JNetExecutor，null 恢复默认
+         * 延迟敏感且回调不阻塞时可使用 {@link JNetExecutor#direct()}，直接在完成响应的线程上回调
+         */
+        public Builder callbackExecutor(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * 设置 HttpClient 分片数，默认 1
+         * JDK 对同一源的 HTTP/2 请求只复用一条连接，高并发时受服务端 max-concurrent-streams
+         * 和 TCP 队头阻塞限制；n 个分片各自建立连接，每个请求选择该源上进行中请求最少的分片。
+         * 每个分片有独立的连接池和选择器线程，n 建议不超过 CPU 核数
+         */
+        public Builder shards(int n) {
+            if (n < 1) {
+                throw new IllegalArgumentException("Shards must be >= 1");
+            }
+            this.shards = n;
+            return this;
+        }
+
+        /**
+         * 对这些主机强制使用 HTTP/1.1（每个请求单独一条连接，由 JDK 连接池复用）
+         * 适用于 HTTP/2 实测更慢的服务，例如流数上限很低或大响应体受单连接拥塞窗口限制
+         */
+        public Builder http1Hosts(String... hosts) {
+            for (String host : hosts) {
+                this.http1Hosts.add(host.toLowerCase(Locale.ROOT));
+            }
+            return this;
+        }
+
+        /**
+         * 替换传输层，例如 {@link com.jnet.nio.NioTransport}；null 恢复基于 JDK HttpClient 的默认实现
+         * 自定义传输层不使用本 Builder 的代理、Cookie、重定向、分片和 HTTP/1.1 主机配置，这些由传输层自行提供；
+         * 超时、截止时间、并发限制、拦截器和回调执行器仍然生效。
+         * 此时不创建 HttpClient 和传输执行器，除非调用了 {@link #getHttpClient()} 或 {@link #getExecutor()}
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * 接受 HTTP/2 服务端推送，推送的 GET 响应存入 cache，之后对同一 URL 的 GET 直接从中返回
+         * 默认拒绝所有推送；null 关闭。仅默认传输层支持，统计见 {@link JNetClient#getServerPush()}
+         */
+        public Builder serverPush(ResponseCache cache) {
+            this.pushCache = cache;
+            return this;
+        }
+
         /**
          * 设置写入超时时间 (已废弃，JDK HttpClient自动管理)
          */
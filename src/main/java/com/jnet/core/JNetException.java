@@ -153,6 +153,8 @@ public class JNetException extends RuntimeException {
         REQUEST_BUILD_ERROR("请求构建错误"),
         IO_ERROR("IO错误"),
         INTERRUPTED("请求被中断"),
+        DEADLINE_EXCEEDED("超出截止时间"),
+        CONCURRENCY_LIMIT_EXCEEDED("超出并发限制"),
         UNKNOWN("未知错误");
 
         private final String description;
@@ -0,0 +1,338 @@
+package com.jnet.core;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JNet 线程池 - 守护线程、按计数命名、有界队列、带运行指标
+ * 用于 {@link JNetClient.Builder#executor} 和 {@link JNetClient.Builder#callbackExecutor}。
+ *
+ * <p>
+ * 线程按需创建，空闲超过 keepAlive 后回收（包括核心线程），空闲客户端不占用线程；
+ * 队列满且线程数达到上限时由提交线程直接执行（CallerRuns），形成背压而不是丢弃任务——
+ * JDK HttpClient 的内部任务被拒绝会导致请求挂起。关闭后提交的任务抛出 RejectedExecutionException。
+ * </p>
+ *
+ * <pre>
+ * JNetClient client = JNetClient.newBuilder()
+ *         .executor(JNetExecutor.newBuilder().name("api-io").maxThreads(32).build())
+ *         .callbackExecutor(JNetExecutor.direct())   // 回调量小且不阻塞时省去一次线程切换
+ *         .build();
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class JNetExecutor extends ThreadPoolExecutor {
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public String toString() {
+            return "JNetExecutor.direct";
+        }
+    };
+
+    private final String name;
+    private final int queueCapacity;
+    private final AtomicLong callerRuns;
+
+    private JNetExecutor(Builder builder, AtomicLong callerRuns) {
+        super(builder.coreThreads, builder.maxThreads, builder.keepAlive.toNanos(), TimeUnit.NANOSECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity),
+                new NamedThreadFactory(builder.name, builder.daemon),
+                new CountingCallerRunsPolicy(callerRuns));
+        allowCoreThreadTimeOut(true);
+        this.name = builder.name;
+        this.queueCapacity = builder.queueCapacity;
+        this.callerRuns = callerRuns;
+    }
+
+    /**
+     * 创建 Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * 直接在当前线程执行的执行器
+     * 作为回调执行器时，回调直接运行在完成响应的线程上（JDK HttpClient 的完成线程），省去一次线程切换，
+     * 但回调中的阻塞会直接占用该线程，只适合短小、非阻塞的回调。
+     */
+    public static Executor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * 默认传输执行器：处理 HttpClient 的 I/O 完成和内部任务
+     * 核心 max(2, CPU) 个线程，最多 4×CPU 个，队列 1024
+     */
+    static JNetExecutor newTransportExecutor(String name) {
+        return newBuilder()
+                .name(name)
+                .coreThreads(Math.max(2, CPUS))
+                .maxThreads(Math.max(4, CPUS * 4))
+                .queueCapacity(1024)
+                .build();
+    }
+
+    /**
+     * 默认回调执行器，所有未单独配置的客户端共享，首次使用时创建
+     */
+    static JNetExecutor defaultCallbackExecutor() {
+        return DefaultCallbackHolder.INSTANCE;
+    }
+
+    /**
+     * 线程名前缀
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前运行状态快照
+     */
+    public Metrics getMetrics() {
+        return new Metrics(name, getPoolSize(), getLargestPoolSize(), getMaximumPoolSize(), getActiveCount(),
+                getQueue().size(), queueCapacity, getCompletedTaskCount(), callerRuns.get());
+    }
+
+    @Override
+    public String toString() {
+        return "JNetExecutor{" + getMetrics() + "}";
+    }
+
+    // ========== 内部类 ==========
+
+    private static final class DefaultCallbackHolder {
+        static final JNetExecutor INSTANCE = newBuilder()
+                .name("JNet-Callback")
+                .coreThreads(Math.max(2, CPUS))
+                .maxThreads(Math.max(4, CPUS * 2))
+                .queueCapacity(4096)
+                .build();
+    }
+
+    /**
+     * 以 "前缀-序号" 命名线程
+     */
+    static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final boolean daemon;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix, boolean daemon) {
+            this.prefix = prefix;
+            this.daemon = daemon;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(daemon);
+            return t;
+        }
+    }
+
+    /**
+     * 饱和时由提交线程执行，并计数以便观察背压；已关闭时抛出 RejectedExecutionException，
+     * 由调用方决定如何处理（Call 的回调分发会改在当前线程送达），不静默丢弃任务
+     */
+    private static final class CountingCallerRunsPolicy implements RejectedExecutionHandler {
+        private final AtomicLong callerRuns;
+
+        CountingCallerRunsPolicy(AtomicLong callerRuns) {
+            this.callerRuns = callerRuns;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor " + executor + " has been shut down");
+            }
+            callerRuns.incrementAndGet();
+            r.run();
+        }
+    }
+
+    /**
+     * 线程池运行状态快照
+     */
+    public static final class Metrics {
+        private final String name;
+        private final int poolSize;
+        private final int largestPoolSize;
+        private final int maxThreads;
+        private final int activeThreads;
+        private final int queued;
+        private final int queueCapacity;
+        private final long completed;
+        private final long callerRuns;
+
+        Metrics(String name, int poolSize, int largestPoolSize, int maxThreads, int activeThreads,
+                int queued, int queueCapacity, long completed, long callerRuns) {
+            this.name = name;
+            this.poolSize = poolSize;
+            this.largestPoolSize = largestPoolSize;
+            this.maxThreads = maxThreads;
+            this.activeThreads = activeThreads;
+            this.queued = queued;
+            this.queueCapacity = queueCapacity;
+            this.completed = completed;
+            this.callerRuns = callerRuns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 当前线程数
+         */
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * 历史最大线程数
+         */
+        public int getLargestPoolSize() {
+            return largestPoolSize;
+        }
+
+        /**
+         * 线程数上限
+         */
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        /**
+         * 正在执行任务的线程数（近似值）
+         */
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        /**
+         * 队列中等待的任务数
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * 已完成的任务数（近似值，不含 CallerRuns 执行的任务）
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * 因饱和由提交线程执行的任务数，持续增长说明线程池过小或回调阻塞
+         */
+        public long getCallerRuns() {
+            return callerRuns;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{name=" + name + ", pool=" + poolSize + "/" + maxThreads + ", largest=" + largestPoolSize
+                    + ", active=" + activeThreads + ", queued=" + queued + "/" + queueCapacity
+                    + ", completed=" + completed + ", callerRuns=" + callerRuns + "}";
+        }
+    }
+
+    // ========== Builder ==========
+
+    public static class Builder {
+        private String name = "JNet-Pool";
+        private int coreThreads = Math.max(2, CPUS);
+        private int maxThreads = Math.max(4, CPUS * 2);
+        private int queueCapacity = 1024;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private boolean daemon = true;
+
+        /**
+         * 线程名前缀，线程命名为 "前缀-序号"
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * 核心线程数：队列未满时最多保持的线程数
+         */
+        public Builder coreThreads(int coreThreads) {
+            this.coreThreads = coreThreads;
+            return this;
+        }
+
+        /**
+         * 最大线程数：队列满后扩容的上限
+         */
+        public Builder maxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        /**
+         * 队列容量
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 空闲线程的回收时间，默认 60 秒
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * 是否使用守护线程，默认 true（不阻止 JVM 退出）
+         */
+        public Builder daemon(boolean daemon) {
+            this.daemon = daemon;
+            return this;
+        }
+
+        public JNetExecutor build() {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Name must not be empty");
+            }
+            if (coreThreads < 1 || maxThreads < coreThreads) {
+                throw new IllegalArgumentException("Invalid thread range: [" + coreThreads + ", " + maxThreads + "]");
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            if (keepAlive == null || keepAlive.isNegative() || keepAlive.isZero()) {
+                throw new IllegalArgumentException("Keep-alive must be positive");
+            }
+            return new JNetExecutor(this, new AtomicLong());
+        }
+    }
+}
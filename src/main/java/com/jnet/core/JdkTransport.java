@@ -0,0 +1,239 @@
+package com.jnet.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+/**
+ * 基于 JDK HttpClient 的默认传输层（包级可见，由 JNetClient 创建）
+ * 在分片池中选择负载最小的 HttpClient 发送，对指定主机强制 HTTP/1.1；
+ * 启用服务端推送时附带 PushPromiseHandler（只有异步发送接受该参数，同步发送也走 sendAsync）。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class JdkTransport implements Transport {
+    // 无状态，可在所有请求间共享；BodyPublishers.noBody() 每次都会新建实例
+    private static final HttpRequest.BodyPublisher NO_BODY = HttpRequest.BodyPublishers.noBody();
+    // 同 BodyHandlers.ofString()，但 CBOR/MessagePack 响应按 ISO-8859-1 逐字节保存（见 Response.bodyCharset）
+    static final HttpResponse.BodyHandler<String> STRING_BODY = info -> HttpResponse.BodySubscribers.ofString(
+            Response.bodyCharset(info.headers().firstValue("Content-Type").orElse(null)));
+
+    private final HttpClientPool clientPool;
+    private final Set<String> http1Hosts;
+    private final ServerPush serverPush; // null 表示拒绝所有推送
+
+    JdkTransport(HttpClientPool clientPool, Set<String> http1Hosts, ServerPush serverPush) {
+        this.clientPool = clientPool;
+        this.http1Hosts = http1Hosts;
+        this.serverPush = serverPush;
+    }
+
+    @Override
+    public Response execute(Request request, Duration timeout) throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        HttpRequest jdkRequest = buildRequest(request, timeout);
+        HttpClientPool.Shard shard = clientPool.acquire(request.getUri());
+        HttpResponse<String> httpResponse;
+        try {
+            if (serverPush == null) {
+                httpResponse = shard.client().send(jdkRequest, STRING_BODY);
+            } else {
+                httpResponse = await(shard.client().sendAsync(jdkRequest, STRING_BODY,
+                        serverPush.handlerFor(request)));
+            }
+        } finally {
+            shard.release();
+        }
+        return toResponse(httpResponse, request, System.currentTimeMillis() - startTime);
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(Request request, Duration timeout) {
+        long startTime = System.currentTimeMillis();
+        HttpRequest jdkRequest = buildRequest(request, timeout);
+        HttpClientPool.Shard shard = clientPool.acquire(request.getUri());
+        CompletableFuture<HttpResponse<String>> source;
+        try {
+            source = serverPush == null
+                    ? shard.client().sendAsync(jdkRequest, STRING_BODY)
+                    : shard.client().sendAsync(jdkRequest, STRING_BODY,
+                    serverPush.handlerFor(request));
+        } catch (RuntimeException e) {
+            shard.release();
+            throw e;
+        }
+
+        // 取消结果时同时取消 JDK 的交换，依赖阶段的 cancel 不会传播到源
+        CompletableFuture<Response> result = new CompletableFuture<Response>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                source.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        source.whenComplete((httpResponse, throwable) -> {
+            shard.release();
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            try {
+                result.complete(toResponse(httpResponse, request, System.currentTimeMillis() - startTime));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public StreamResponse executeStreaming(Request request, Duration timeout) throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        HttpRequest jdkRequest = buildRequest(request, timeout);
+        HttpClientPool.Shard shard = clientPool.acquire(request.getUri());
+        HttpResponse<InputStream> httpResponse;
+        try {
+            // 收到响应头即返回；分片负载只统计到这里，读取响应体期间不再计入
+            httpResponse = shard.client().send(jdkRequest, HttpResponse.BodyHandlers.ofInputStream());
+        } finally {
+            shard.release();
+        }
+        Response response = toResponse(httpResponse, request, null, System.currentTimeMillis() - startTime);
+        return new StreamResponse(response, httpResponse.body(),
+                StreamResponse.charsetOf(httpResponse.headers().firstValue("Content-Type").orElse(null)));
+    }
+
+    @Override
+    public CompletableFuture<PublisherResponse> executePublisher(Request request, Duration timeout) {
+        long startTime = System.currentTimeMillis();
+        HttpRequest jdkRequest = buildRequest(request, timeout);
+        HttpClientPool.Shard shard = clientPool.acquire(request.getUri());
+        CompletableFuture<HttpResponse<Flow.Publisher<List<ByteBuffer>>>> source;
+        try {
+            source = shard.client().sendAsync(jdkRequest, HttpResponse.BodyHandlers.ofPublisher());
+        } catch (RuntimeException e) {
+            shard.release();
+            throw e;
+        }
+
+        CompletableFuture<PublisherResponse> result = new CompletableFuture<PublisherResponse>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                source.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        source.whenComplete((httpResponse, throwable) -> {
+            // 与 executeStreaming 相同，分片负载只统计到收到响应头
+            shard.release();
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            try {
+                Response response = toResponse(httpResponse, request, null,
+                        System.currentTimeMillis() - startTime);
+                if (!result.complete(new PublisherResponse(response, httpResponse.body()))) {
+                    // 调用方已取消：Java 11 上取消 source 不会中止交换，需取消响应体订阅才会释放连接
+                    BodyFlows.discard(httpResponse.body());
+                }
+            } catch (RuntimeException e) {
+                BodyFlows.discard(httpResponse.body());
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 将JNet请求转换为JDK请求（包级可见，供基准测试直接调用）
+     */
+    HttpRequest buildRequest(Request request, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(request.getUri());
+        if (isHttp1Host(request.getUri().getHost())) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+
+        // Headers
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            builder.header(entry.getKey(), entry.getValue());
+        }
+
+        // Method & Body
+        HttpRequest.BodyPublisher bodyPublisher = request.getBodyPublisher() != null
+                ? request.getBodyPublisher()
+                : NO_BODY;
+
+        builder.method(request.getMethod(), bodyPublisher);
+
+        return builder.build();
+    }
+
+    /**
+     * 将JDK响应转换为JNet响应（包级可见，供推送处理和基准测试直接调用）
+     */
+    static Response toResponse(HttpResponse<String> httpResponse, Request request, long duration) {
+        return toResponse(httpResponse, request, httpResponse.body(), duration);
+    }
+
+    private static Response toResponse(HttpResponse<?> httpResponse, Request request, String body, long duration) {
+        boolean isSuccess = httpResponse.statusCode() >= 200 && httpResponse.statusCode() < 300;
+        Response.Builder builder = isSuccess ? Response.success(request) : Response.failure(request);
+
+        Map<String, List<String>> headers = httpResponse.headers().map();
+        builder.code(httpResponse.statusCode())
+                .body(body)
+                .duration(duration)
+                .expectHeaders(headers.size());
+
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                builder.header(entry.getKey(), entry.getValue().get(0));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * 同步等待异步发送的结果，失败原因按 send 的方式抛出
+     */
+    private static HttpResponse<String> await(CompletableFuture<HttpResponse<String>> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private boolean isHttp1Host(String host) {
+        return !http1Hosts.isEmpty() && host != null && http1Hosts.contains(host.toLowerCase(Locale.ROOT));
+    }
+}
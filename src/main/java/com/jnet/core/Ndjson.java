@@ -0,0 +1,150 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JsonMapper;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * NDJSON（JSON Lines）请求体
+ * 每条记录序列化为一行 JSON（见 {@link JsonMapper#toJsonBytes(Object)}），以 '\n' 结尾，按块以 chunked 发送。
+ *
+ * <p>
+ * 背压：记录只在 HTTP 客户端 request(n) 时才从 Iterator/Stream 中取出并序列化，每个请求的块约 16KB
+ * （单条更大的记录独占一块），内存占用与记录总数无关。数据源只能消费一次，因此请求体只能发送一次；
+ * 结束、出错或取消时关闭 Stream（以及实现了 AutoCloseable 的 Iterator）。
+ * </p>
+ *
+ * <pre>
+ * Request request = Request.newBuilder().url(url).method("POST").ndjson(repository.streamAll()).build();
+ * </pre>
+ *
+ * <p>
+ * 读取 NDJSON 响应见 {@link StreamResponse#readNdjson} 与 {@link JNet#streamNdjson}。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class Ndjson {
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private Ndjson() {
+    }
+
+    /**
+     * 逐条序列化 Iterator 中的记录
+     */
+    public static HttpRequest.BodyPublisher publisher(Iterator<?> records) {
+        Objects.requireNonNull(records, "records");
+        return new RecordPublisher(records, records instanceof AutoCloseable ? (AutoCloseable) records : null);
+    }
+
+    /**
+     * 逐条序列化 Stream 中的记录，发送结束后关闭 Stream
+     */
+    public static HttpRequest.BodyPublisher publisher(Stream<?> records) {
+        Objects.requireNonNull(records, "records");
+        return new RecordPublisher(records.iterator(), records);
+    }
+
+    // ========== 内部方法 ==========
+
+    private static final class RecordPublisher implements HttpRequest.BodyPublisher {
+        private final Iterator<?> records;
+        private final AutoCloseable resource;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        RecordPublisher(Iterator<?> records, AutoCloseable resource) {
+            this.records = records;
+            this.resource = resource;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            if (!subscribed.compareAndSet(false, true)) {
+                // 重定向或重试时 HTTP 客户端会再次订阅，而记录已经被消费
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("NDJSON body can only be sent once"));
+                return;
+            }
+            RecordSubscription subscription = new RecordSubscription(subscriber, records, resource);
+            subscriber.onSubscribe(subscription);
+        }
+    }
+
+    /**
+     * 按需求逐块序列化记录，drain 循环见 {@link PullSubscription}
+     */
+    private static final class RecordSubscription extends PullSubscription {
+        private final Iterator<?> records;
+        private final AutoCloseable resource;
+        private byte[] pending; // 没放进上一块的记录
+
+        RecordSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, Iterator<?> records,
+                           AutoCloseable resource) {
+            super(subscriber);
+            this.records = records;
+            this.resource = resource;
+        }
+
+        @Override
+        protected void release() throws Exception {
+            pending = null;
+            if (resource != null) {
+                resource.close();
+            }
+        }
+
+        /**
+         * 取出记录填满一块；没有更多记录时返回 null
+         */
+        @Override
+        protected ByteBuffer next() {
+            byte[] chunk = null;
+            int size = 0;
+            while (pending != null || records.hasNext()) {
+                byte[] record = pending != null ? pending : JsonMapper.toJsonBytes(records.next());
+                pending = null;
+                if (size + record.length + 1 > CHUNK_SIZE) {
+                    if (size > 0) {
+                        pending = record;
+                        break;
+                    }
+                    // 超过一块的记录单独发送
+                    byte[] line = Arrays.copyOf(record, record.length + 1);
+                    line[record.length] = '\n';
+                    return ByteBuffer.wrap(line);
+                }
+                if (chunk == null) {
+                    chunk = new byte[CHUNK_SIZE];
+                }
+                System.arraycopy(record, 0, chunk, size, record.length);
+                size += record.length;
+                chunk[size++] = '\n';
+            }
+            return size == 0 ? null : ByteBuffer.wrap(chunk, 0, size);
+        }
+    }
+}
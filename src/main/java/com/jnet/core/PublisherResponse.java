@@ -0,0 +1,84 @@
+package com.jnet.core;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * 以 Flow.Publisher 交付响应体的响应
+ * 收到响应头即创建；响应体按订阅方的 request(n) 从连接读取，读得慢时 TCP 窗口随之收紧，适合代理转发和流水线处理。
+ *
+ * <p>
+ * 响应体只能订阅一次（底层是连接上的字节流）。不再需要时取消订阅以释放连接。
+ * 变换、解压和写文件见 {@link BodyFlows}。
+ * </p>
+ *
+ * <p>
+ * 由 {@link Call#enqueue(PublisherCallback)} 创建。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class PublisherResponse {
+    private final Response response;
+    private final Flow.Publisher<List<ByteBuffer>> body;
+
+    public PublisherResponse(Response response, Flow.Publisher<List<ByteBuffer>> body) {
+        if (response == null || body == null) {
+            throw new IllegalArgumentException("Response and body cannot be null");
+        }
+        this.response = response;
+        this.body = body;
+    }
+
+    /**
+     * 状态码和响应头，getBody() 为 null
+     */
+    public Response getResponse() {
+        return response;
+    }
+
+    /**
+     * 原始响应体（未解压）
+     */
+    public Flow.Publisher<List<ByteBuffer>> getBody() {
+        return body;
+    }
+
+    /**
+     * 按 Content-Encoding 解压后的响应体
+     *
+     * @throws IllegalArgumentException 不支持的编码
+     */
+    public Flow.Publisher<List<ByteBuffer>> getDecodedBody() {
+        return BodyFlows.decompress(body, getContentEncoding());
+    }
+
+    /**
+     * 把原始响应体异步写入文件，返回的 Future 以写入的字节数完成
+     */
+    public CompletableFuture<Long> writeTo(Path path) {
+        return BodyFlows.writeTo(body, path);
+    }
+
+    /**
+     * Content-Encoding 响应头（不区分大小写），没有时为 null
+     */
+    public String getContentEncoding() {
+        for (Map.Entry<String, String> entry : response.getHeaders().entrySet()) {
+            if ("Content-Encoding".equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "PublisherResponse{code=" + response.getCode() + "}";
+    }
+}
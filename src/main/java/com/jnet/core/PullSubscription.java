@@ -0,0 +1,114 @@
+package com.jnet.core;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按需拉取的请求体订阅：只在订阅方 request(n) 时才调用 {@link #next()} 生成下一块
+ * 用于 {@link Ndjson} 与 multipart 请求体这类自己生成数据的 BodyPublisher。
+ *
+ * <p>
+ * 串行化的 drain 循环：request/cancel 可能来自任意线程（包括 onNext 内部的重入调用），
+ * 只有进入循环的线程调用 next()/release() 和发出信号，子类的状态不需要同步。
+ * 结束、出错或取消时调用一次 {@link #release()}；取消时不再发出信号。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public abstract class PullSubscription implements Flow.Subscription {
+    private final Flow.Subscriber<? super ByteBuffer> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+    private boolean terminated;
+
+    protected PullSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * 下一个要发出的缓冲区；全部发完时返回 null
+     */
+    protected abstract ByteBuffer next() throws Exception;
+
+    /**
+     * 释放数据源，终止时调用一次；抛出的异常在正常结束时作为失败原因发出
+     */
+    protected abstract void release() throws Exception;
+
+    @Override
+    public final void request(long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("non-positive request: " + n);
+        } else {
+            demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+        }
+        drain();
+    }
+
+    @Override
+    public final void cancel() {
+        cancelled = true;
+        drain();
+    }
+
+    // ========== 内部方法 ==========
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!terminated) {
+                if (cancelled) {
+                    terminate(null, false);
+                } else if (invalidRequest != null) {
+                    terminate(invalidRequest, true);
+                } else if (demand.get() > 0) {
+                    ByteBuffer next;
+                    try {
+                        next = next();
+                    } catch (Exception e) {
+                        terminate(e, true);
+                        break;
+                    }
+                    if (next == null) {
+                        terminate(null, true);
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(next);
+                    continue;
+                }
+                break;
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void terminate(Throwable error, boolean signal) {
+        terminated = true;
+        try {
+            release();
+        } catch (Exception e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+        if (!signal) {
+            return;
+        }
+        if (error != null) {
+            subscriber.onError(error);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.jnet.core;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * 限流拦截器 - 基于 GCRA（通用信元速率算法）的令牌桶
+ * 按主机（或自定义 key）独立限流，无锁，线程安全。
+ *
+ * <p>
+ * 每个 key 只保存一个"理论到达时间"（TAT），获取许可时用 CAS 推进 TAT 并算出需要等待的时长，
+ * 等价于容量为 burst、速率为 rate 的令牌桶。等待方式有两种：
+ * </p>
+ * <ul>
+ * <li>{@link #intercept(Chain)} / {@link #acquire(Request)} - 阻塞当前线程直到许可可用</li>
+ * <li>{@link #acquireAsync(Request)} / {@link #enqueue(Call, Call.Callback)} - 通过定时器延迟完成，不占用线程</li>
+ * </ul>
+ *
+ * <p>
+ * 开启自适应（默认开启）后，会根据响应头自动调整：
+ * 429/503 的 Retry-After 使该 key 暂停到指定时间；
+ * X-RateLimit-Remaining / X-RateLimit-Reset（或不带 X- 前缀的 RateLimit-*）把速率压低到
+ * remaining / 剩余窗口，但不会超过配置的速率。
+ * </p>
+ *
+ * <p>
+ * key 的数量：每个 key 一个桶。空闲超过一个突发窗口（burst × 间隔）的桶与新建的桶等价，
+ * 在桶数量翻倍时被清理（自适应调整过的速率随之恢复为配置值），因此按用户、路径等高基数 key 限流时
+ * 内存占用取决于最近活跃的 key 数，而不是出现过的 key 总数。
+ * </p>
+ *
+ * <pre>
+ * RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+ *         .rate(10, TimeUnit.SECONDS)
+ *         .burst(5)
+ *         .maxWait(Duration.ofSeconds(30))
+ *         .build();
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class RateLimitInterceptor implements Interceptor {
+    private static final int MIN_SWEEP_SIZE = 64;
+
+    private final long intervalNanos;
+    private final int burst;
+    private final long maxWaitNanos;
+    private final boolean adaptive;
+    private final Function<Request, String> keyFunction;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger sweepAt = new AtomicInteger(MIN_SWEEP_SIZE); // 桶数达到该值时清理空闲桶
+
+    private RateLimitInterceptor(Builder builder) {
+        this.intervalNanos = builder.intervalNanos;
+        this.burst = builder.burst;
+        this.maxWaitNanos = builder.maxWaitNanos;
+        this.adaptive = builder.adaptive;
+        this.keyFunction = builder.keyFunction;
+    }
+
+    /**
+     * 创建 Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * 创建按主机限流的拦截器
+     *
+     * @param permitsPerSecond 每秒允许的请求数
+     */
+    public static RateLimitInterceptor perHost(double permitsPerSecond) {
+        return newBuilder().rate(permitsPerSecond).build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        acquire(request, chain.deadline());
+        Response response = chain.proceed(request);
+        onResponse(request, response);
+        return response;
+    }
+
+    /**
+     * 阻塞获取许可
+     *
+     * @throws IOException 等待时间超过 maxWait，或等待中被中断
+     */
+    public void acquire(Request request) throws IOException {
+        acquire(request, null);
+    }
+
+    /**
+     * 阻塞获取许可，等待不超过调用的截止时间
+     *
+     * @throws DeadlineExceededException 需要等待的时间超过剩余预算（此时不占用许可）
+     */
+    public void acquire(Request request, Deadline callDeadline) throws IOException {
+        long waitNanos = reserve(request, callDeadline);
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(this, waitNanos);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for rate limit");
+            }
+            waitNanos = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * 异步获取许可，等待期间不占用线程
+     * 返回的 Future 在许可可用时完成；等待时间超过 maxWait 时以 IOException 异常完成
+     */
+    public CompletableFuture<Void> acquireAsync(Request request) {
+        return acquireAsync(request, null);
+    }
+
+    /**
+     * 异步获取许可，等待不超过调用的截止时间
+     * 需要等待的时间超过剩余预算时立即以 {@link DeadlineExceededException} 异常完成（此时不占用许可）
+     */
+    public CompletableFuture<Void> acquireAsync(Request request, Deadline callDeadline) {
+        long waitNanos;
+        try {
+            waitNanos = reserve(request, callDeadline);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 限流后异步执行请求
+     * 先异步等待许可，再调用 {@link Call#enqueue(Call.Callback)}，响应头同样参与自适应调整；
+     * 等待计入调用的截止时间，超出剩余预算时立即以 {@link DeadlineExceededException} 回调失败
+     */
+    public void enqueue(Call call, Call.Callback callback) {
+        Request request = call.request();
+        Deadline callDeadline = call instanceof Call.RealCall
+                ? ((Call.RealCall) call).startDeadline() : request.getDeadline();
+        acquireAsync(request, callDeadline).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                callback.onFailure(cause instanceof Exception ? (Exception) cause : new IOException(cause));
+                return;
+            }
+            call.enqueue(new Call.Callback() {
+                @Override
+                public void onSuccess(Response response) {
+                    onResponse(request, response);
+                    callback.onSuccess(response);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    callback.onFailure(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * 根据响应头调整该 key 的限流状态
+     */
+    public void onResponse(Request request, Response response) {
+        if (!adaptive || response == null) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        int code = response.getCode();
+        if (code == 429 || code == 503) {
+            long retryAfterNanos = parseRetryAfter(header(response, "Retry-After"));
+            if (retryAfterNanos > 0) {
+                while (!bucket(request).pauseUntil(now + retryAfterNanos)) {
+                    // 桶刚被清理，在新桶上重试
+                }
+                return;
+            }
+        }
+
+        long remaining = parseLong(header(response, "X-RateLimit-Remaining", "RateLimit-Remaining"));
+        long resetNanos = parseReset(header(response, "X-RateLimit-Reset", "RateLimit-Reset"));
+        if (remaining < 0 || resetNanos < 0) {
+            return;
+        }
+        if (remaining == 0) {
+            while (!bucket(request).pauseUntil(now + resetNanos)) {
+                // 同上
+            }
+        } else {
+            while (!bucket(request).adjustInterval(Math.max(intervalNanos, resetNanos / remaining))) {
+                // 同上
+            }
+        }
+    }
+
+    /**
+     * 当前保存的桶数（包级可见，供测试观察清理）
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * 清除所有 key 的限流状态
+     */
+    public void reset() {
+        buckets.clear();
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 预约一个许可，返回需要等待的纳秒数
+     */
+    private long reserve(Request request, Deadline callDeadline) throws IOException {
+        if (callDeadline != null && callDeadline.remainingNanos() < maxWaitNanos) {
+            long waitNanos = reserve(request, Math.max(0, callDeadline.remainingNanos()));
+            if (waitNanos < 0) {
+                throw new DeadlineExceededException("Deadline exceeded while waiting for rate limit of "
+                        + keyFunction.apply(request));
+            }
+            return waitNanos;
+        }
+        long waitNanos = reserve(request, maxWaitNanos);
+        if (waitNanos < 0) {
+            throw new IOException("Rate limit exceeded for " + keyFunction.apply(request)
+                    + ": wait would exceed " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+        }
+        return waitNanos;
+    }
+
+    private long reserve(Request request, long maxWaitNanos) {
+        while (true) {
+            long waitNanos = bucket(request).reserve(System.nanoTime(), maxWaitNanos);
+            if (waitNanos != Bucket.RETIRED) {
+                return waitNanos;
+            }
+        }
+    }
+
+    private Bucket bucket(Request request) {
+        String key = keyFunction.apply(request);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(intervalNanos, burst));
+            if (buckets.size() >= sweepAt.get()) {
+                sweep();
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * 移除空闲超过一个突发窗口的桶；同一时间只有一个线程清理，下次在桶数再翻倍时进行
+     */
+    private void sweep() {
+        int threshold = sweepAt.get();
+        if (threshold == Integer.MAX_VALUE || !sweepAt.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            buckets.entrySet().removeIf(entry -> entry.getValue().retireIfIdle(now));
+        } finally {
+            sweepAt.set(Math.max(MIN_SWEEP_SIZE, buckets.size() * 2));
+        }
+    }
+
+    private static String header(Response response, String... names) {
+        for (Map.Entry<String, String> entry : response.getHeaders().entrySet()) {
+            for (String name : names) {
+                if (name.equalsIgnoreCase(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Retry-After: 秒数或 HTTP-date
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        long seconds = parseLong(value);
+        if (seconds >= 0) {
+            return TimeUnit.SECONDS.toNanos(seconds);
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            long millis = date.toInstant().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(millis));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * RateLimit-Reset: 距重置的秒数；大于 10 亿时按 Unix 时间戳（秒）处理（GitHub 风格）
+     */
+    static long parseReset(String value) {
+        long seconds = parseLong(value);
+        if (seconds < 0) {
+            return -1;
+        }
+        if (seconds > 1_000_000_000L) {
+            long millis = TimeUnit.SECONDS.toMillis(seconds) - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    /**
+     * 单个 key 的 GCRA 状态
+     */
+    static final class Bucket {
+        // tat 为该值表示桶已从 map 中清理，持有旧引用的线程须重新获取；reserve 返回该值
+        static final long RETIRED = Long.MAX_VALUE;
+
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final int burst;
+        volatile long interval;
+
+        Bucket(long interval, int burst) {
+            this.interval = interval;
+            this.burst = burst;
+        }
+
+        /**
+         * 推进 TAT 并返回需要等待的纳秒数；超过 maxWait 时不预约并返回 -1，桶已清理时返回 {@link #RETIRED}
+         */
+        long reserve(long now, long maxWaitNanos) {
+            while (true) {
+                long current = tat.get();
+                if (current == RETIRED) {
+                    return RETIRED;
+                }
+                long t = interval;
+                long base = current == Long.MIN_VALUE ? now : Math.max(current, now);
+                long wait = base - (t * (burst - 1)) - now;
+                if (wait > maxWaitNanos) {
+                    return -1;
+                }
+                if (tat.compareAndSet(current, base + t)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+
+        /**
+         * 调整发放间隔；已预约的下一个时间点按差值平移，新速率立即对下一个请求生效
+         *
+         * @return 桶已清理时返回 false
+         */
+        boolean adjustInterval(long newInterval) {
+            long delta = newInterval - interval;
+            interval = newInterval;
+            if (delta != 0) {
+                return tat.accumulateAndGet(delta, (current, d) ->
+                        current == Long.MIN_VALUE || current == RETIRED ? current : current + d) != RETIRED;
+            }
+            return tat.get() != RETIRED;
+        }
+
+        /**
+         * 在 until 之前不发放任何许可
+         *
+         * @return 桶已清理时返回 false
+         */
+        boolean pauseUntil(long until) {
+            long target = until + interval * (burst - 1);
+            return tat.accumulateAndGet(target, (current, next) -> current == RETIRED ? current
+                    : current == Long.MIN_VALUE ? next : Math.max(current, next)) != RETIRED;
+        }
+
+        /**
+         * TAT 早于 now 一个突发窗口以上（或从未使用）时标记为已清理并返回 true；此时桶与新建的桶等价
+         */
+        boolean retireIfIdle(long now) {
+            while (true) {
+                long current = tat.get();
+                if (current == RETIRED) {
+                    return true;
+                }
+                long window = interval > Long.MAX_VALUE / burst ? Long.MAX_VALUE : interval * burst;
+                if (current != Long.MIN_VALUE && current - now > -window) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, RETIRED)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    // ========== Builder ==========
+
+    public static class Builder {
+        private long intervalNanos = TimeUnit.SECONDS.toNanos(1) / 10;
+        private int burst = 1;
+        private long maxWaitNanos = Long.MAX_VALUE;
+        private boolean adaptive = true;
+        private Function<Request, String> keyFunction = Builder::hostKey;
+
+        /**
+         * 设置速率（每秒许可数），默认 10
+         */
+        public Builder rate(double permitsPerSecond) {
+            if (!(permitsPerSecond > 0)) {
+                throw new IllegalArgumentException("Rate must be positive");
+            }
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            return this;
+        }
+
+        /**
+         * 设置速率：每个时间单位 permits 个许可
+         */
+        public Builder rate(int permits, TimeUnit unit) {
+            if (permits <= 0) {
+                throw new IllegalArgumentException("Permits must be positive");
+            }
+            this.intervalNanos = Math.max(1, unit.toNanos(1) / permits);
+            return this;
+        }
+
+        /**
+         * 设置突发容量（可连续立即发出的请求数），默认 1
+         */
+        public Builder burst(int burst) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("Burst must be at least 1");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * 设置最长等待时间，超过则立即失败而不是排队，默认不限
+         */
+        public Builder maxWait(Duration maxWait) {
+            if (maxWait == null || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Max wait must be non-negative");
+            }
+            this.maxWaitNanos = maxWait.toNanos();
+            return this;
+        }
+
+        /**
+         * 是否根据 Retry-After / RateLimit-* 响应头自动调整，默认开启
+         */
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * 自定义限流 key，例如按 API Key 或路径前缀；默认按 host:port
+         */
+        public Builder key(Function<Request, String> keyFunction) {
+            if (keyFunction == null) {
+                throw new IllegalArgumentException("Key function cannot be null");
+            }
+            this.keyFunction = keyFunction;
+            return this;
+        }
+
+        public RateLimitInterceptor build() {
+            return new RateLimitInterceptor(this);
+        }
+
+        private static String hostKey(Request request) {
+            java.net.URI uri = request.getUri();
+            return uri.getPort() == -1 ? String.valueOf(uri.getHost()) : uri.getHost() + ":" + uri.getPort();
+        }
+    }
+}
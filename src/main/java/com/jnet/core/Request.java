@@ -1,6 +1,11 @@
 package com.jnet.core;
 
+import com.jnet.core.org.json.Cbor;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.MessagePack;
+
 import java.net.URI;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,16 +24,22 @@ public final class Request {
     private final Map<String, String> headers;
     private final String body;
     private final java.net.http.HttpRequest.BodyPublisher bodyPublisher;
+    private final boolean replayable;
     private final String tag;
+    private final Duration timeout;
+    private final Deadline deadline;
 
     private Request(Builder builder) {
         this.client = builder.client;
         this.method = builder.method;
         this.uri = builder.uri;
-        this.headers = Collections.unmodifiableMap(new HashMap<>(builder.headers));
+        this.headers = builder.takeHeaders();
         this.body = builder.body;
         this.bodyPublisher = builder.bodyPublisher;
+        this.replayable = builder.replayable;
         this.tag = builder.tag;
+        this.timeout = builder.timeout;
+        this.deadline = builder.deadline;
     }
 
     /**
@@ -44,16 +55,16 @@ public final class Request {
     public Builder toBuilder() {
         Builder builder = new Builder()
                 .client(this.client)
-                .url(this.uri.toString())
+                .uri(this.uri)
                 .method(this.method)
                 .headers(this.headers)
-                .body(this.body)
-                .tag(this.tag);
-        // Note: bodyPublisher cannot be easily copied back to builder if set directly without string body
-        // But if body string exists, builder.body(string) will recreate publisher
-        if (this.bodyPublisher != null && this.body == null) {
-             builder.body(this.bodyPublisher);
-        }
+                .tag(this.tag)
+                .timeout(this.timeout)
+                .deadline(this.deadline);
+        // 原样带上请求体及其可重放性，String 请求体不必重新编码
+        builder.body = this.body;
+        builder.bodyPublisher = this.bodyPublisher;
+        builder.replayable = this.replayable;
         return builder;
     }
 
@@ -89,10 +100,33 @@ public final class Request {
         return bodyPublisher;
     }
 
+    /**
+     * 请求体能否重复发送（重试、重定向）
+     * 无请求体，或由 String、byte[]、ByteBuffer、文件、InputStream 工厂、json/cbor/messagePack、multipart 设置的请求体可以；
+     * 直接设置的 BodyPublisher/Flow.Publisher 与 NDJSON 只能发送一次
+     */
+    public boolean isReplayable() {
+        return replayable;
+    }
+
     public String getTag() {
         return tag;
     }
 
+    /**
+     * 整个调用的超时（从 execute/enqueue 开始计时），未设置时为 null
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * 绝对截止时间，未设置时为 null
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
     /**
      * 创建Call实例执行此请求
      */
@@ -108,10 +142,15 @@ public final class Request {
         private JNetClient client;
         private String method = "GET";
         private URI uri;
-        private Map<String, String> headers = new HashMap<>();
+        // 懒创建；build() 后所有权移交给 Request，再次修改时才复制（写时复制）
+        private Map<String, String> headers;
+        private boolean headersShared;
         private String body;
         private java.net.http.HttpRequest.BodyPublisher bodyPublisher;
+        private boolean replayable = true;
         private String tag;
+        private Duration timeout;
+        private Deadline deadline;
         private com.jnet.auth.Auth auth;
 
         /**
@@ -173,7 +212,7 @@ public final class Request {
             if (name == null || name.isEmpty()) {
                 return this;
             }
-            this.headers.put(name, value == null ? "" : value);
+            mutableHeaders().put(name, value == null ? "" : value);
             return this;
         }
 
@@ -181,8 +220,8 @@ public final class Request {
          * 批量添加请求头
          */
         public Builder headers(Map<String, String> headers) {
-            if (headers != null) {
-                this.headers.putAll(headers);
+            if (headers != null && !headers.isEmpty()) {
+                mutableHeaders().putAll(headers);
             }
             return this;
         }
@@ -194,20 +233,187 @@ public final class Request {
             this.body = body;
             if (body != null) {
                 this.bodyPublisher = java.net.http.HttpRequest.BodyPublishers.ofString(body);
+                this.replayable = true;
             }
             return this;
         }
 
+        /**
+         * 设置二进制请求体，以 Content-Length 发送，可重放
+         * 数组不复制，构建请求后不应再修改
+         */
+        public Builder body(byte[] bytes) {
+            if (bytes == null) {
+                throw new IllegalArgumentException("Body bytes cannot be null");
+            }
+            return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofByteArray(bytes));
+        }
+
+        /**
+         * 设置请求体为缓冲区 position 到 limit 之间的字节，以 Content-Length 发送，可重放
+         * 堆缓冲区直接引用底层数组；直接缓冲区和只读缓冲区复制一次。不改变缓冲区的 position
+         */
+        public Builder body(java.nio.ByteBuffer buffer) {
+            if (buffer == null) {
+                throw new IllegalArgumentException("Body buffer cannot be null");
+            }
+            if (buffer.hasArray()) {
+                return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofByteArray(buffer.array(),
+                        buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+            }
+            byte[] copy = new byte[buffer.remaining()];
+            buffer.duplicate().get(copy);
+            return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofByteArray(copy));
+        }
+
+        /**
+         * 设置文件请求体：发送时按块读取文件，不整体载入内存；长度取自文件大小，以 Content-Length 发送，可重放
+         *
+         * @throws java.io.UncheckedIOException 文件不存在或不可读
+         */
+        public Builder body(java.nio.file.Path file) {
+            if (file == null) {
+                throw new IllegalArgumentException("Body file cannot be null");
+            }
+            try {
+                return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofFile(file));
+            } catch (java.io.FileNotFoundException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 设置流式请求体：每次发送（含重试）都从 supplier 取一个新的输入流，发送完毕后关闭
+         * 以 Content-Length 发送，输入流的实际长度必须等于 length
+         *
+         * @param length 字节数，不能为负
+         */
+        public Builder body(java.util.function.Supplier<? extends java.io.InputStream> supplier, long length) {
+            if (supplier == null) {
+                throw new IllegalArgumentException("Body supplier cannot be null");
+            }
+            if (length < 0) {
+                throw new IllegalArgumentException("Body length cannot be negative: " + length);
+            }
+            if (length == 0) {
+                return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofByteArray(new byte[0]));
+            }
+            // ofInputStream 每次订阅都调用 supplier；fromPublisher 只补上长度，订阅直接转交
+            return replayableBody(java.net.http.HttpRequest.BodyPublishers.fromPublisher(
+                    java.net.http.HttpRequest.BodyPublishers.ofInputStream(supplier), length));
+        }
+
         /**
          * 设置请求体 (BodyPublisher)
-         * 用于流式传输、文件上传等
+         * 用于流式传输、文件上传等；无法判断 publisher 能否重复订阅，按只能发送一次处理（见 {@link Request#isReplayable()}）
          */
         public Builder body(java.net.http.HttpRequest.BodyPublisher bodyPublisher) {
             this.bodyPublisher = bodyPublisher;
-            // 如果单独设置publisher，body字符串可能为空，用于日志记录的body字段保持null
+            // 单独设置publisher时，用于日志记录的body字符串置空，避免与实际发送的内容不一致
+            this.body = null;
+            this.replayable = bodyPublisher == null;
             return this;
         }
 
+        /**
+         * 设置 multipart 请求体，未设置 Content-Type 时补上带 boundary 的 multipart/form-data
+         * 各部分长度已知时以 Content-Length 发送；可重放，文件在每次发送时重新读取
+         */
+        public Builder multipart(com.jnet.multipart.MultipartBody multipart) {
+            if (multipart == null) {
+                throw new IllegalArgumentException("Multipart body cannot be null");
+            }
+            if (headers == null || !headers.containsKey("Content-Type")) {
+                header("Content-Type", multipart.getContentType());
+            }
+            return replayableBody(multipart.toBodyPublisher());
+        }
+
+        private Builder replayableBody(java.net.http.HttpRequest.BodyPublisher bodyPublisher) {
+            body(bodyPublisher);
+            this.replayable = true;
+            return this;
+        }
+
+        /**
+         * 设置请求体 (Flow.Publisher)，长度未知，HTTP/1.1 下以 chunked 发送
+         * 字节按服务端读取的速度向 publisher 请求，适合把上游响应体直接转发出去
+         */
+        public Builder body(java.util.concurrent.Flow.Publisher<java.nio.ByteBuffer> publisher) {
+            if (publisher == null) {
+                throw new IllegalArgumentException("Publisher cannot be null");
+            }
+            return body(java.net.http.HttpRequest.BodyPublishers.fromPublisher(publisher));
+        }
+
+        /**
+         * 设置请求体 (Flow.Publisher)，已知长度时以 Content-Length 发送
+         *
+         * @param contentLength 字节数，必须大于 0
+         */
+        public Builder body(java.util.concurrent.Flow.Publisher<java.nio.ByteBuffer> publisher, long contentLength) {
+            if (publisher == null) {
+                throw new IllegalArgumentException("Publisher cannot be null");
+            }
+            return body(java.net.http.HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength));
+        }
+
+        /**
+         * 设置JSON请求体：对象直接序列化为 UTF-8 字节，不经过 String，以 Content-Length 发送
+         * POJO 按属性名、Map/集合/数组按结构序列化（见 {@link JsonMapper#toJsonBytes(Object)}），
+         * 未设置 Content-Type 时补上 application/json
+         *
+         * @throws IllegalArgumentException 循环引用或嵌套超过 100 层
+         */
+        public Builder json(Object value) {
+            return encodedBody(JsonMapper.toJsonBytes(value), "application/json");
+        }
+
+        /**
+         * 设置 CBOR 请求体：对象取值同 {@link #json(Object)}，按 RFC 8949 编码（见 {@link Cbor}），
+         * 未设置 Content-Type 时补上 application/cbor
+         *
+         * @throws IllegalArgumentException 循环引用或嵌套超过 100 层
+         */
+        public Builder cbor(Object value) {
+            return encodedBody(Cbor.encode(value), Cbor.CONTENT_TYPE);
+        }
+
+        /**
+         * 设置 MessagePack 请求体（见 {@link MessagePack}），未设置 Content-Type 时补上 application/msgpack
+         *
+         * @throws IllegalArgumentException 循环引用或嵌套超过 100 层
+         */
+        public Builder messagePack(Object value) {
+            return encodedBody(MessagePack.encode(value), MessagePack.CONTENT_TYPE);
+        }
+
+        private Builder encodedBody(byte[] bytes, String contentType) {
+            if (headers == null || !headers.containsKey("Content-Type")) {
+                header("Content-Type", contentType);
+            }
+            return replayableBody(java.net.http.HttpRequest.BodyPublishers.ofByteArray(bytes));
+        }
+
+        /**
+         * 设置 NDJSON 请求体：记录在发送时按需逐条序列化，不在内存中拼出整个请求体（见 {@link Ndjson}）
+         * 未设置 Content-Type 时补上 application/x-ndjson；数据源只能消费一次，请求只能发送一次
+         */
+        public Builder ndjson(java.util.Iterator<?> records) {
+            return ndjsonBody(Ndjson.publisher(records));
+        }
+
+        public Builder ndjson(java.util.stream.Stream<?> records) {
+            return ndjsonBody(Ndjson.publisher(records));
+        }
+
+        private Builder ndjsonBody(java.net.http.HttpRequest.BodyPublisher publisher) {
+            if (headers == null || !headers.containsKey("Content-Type")) {
+                header("Content-Type", Ndjson.CONTENT_TYPE);
+            }
+            return body(publisher);
+        }
+
         /**
          * 设置请求标签
          */
@@ -216,6 +422,27 @@ public final class Request {
             return this;
         }
 
+        /**
+         * 设置整个调用的超时，从 execute/enqueue 开始计时，覆盖拦截器、重试和重定向
+         * 优先于 JNetClient 的 callTimeout；null 表示沿用客户端配置
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * 设置绝对截止时间，可用于把上游请求的剩余预算传递给下游调用
+         * 与 timeout 同时设置时取更早的一个
+         */
+        public Builder deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
         /**
          * 设置认证方式
          */
@@ -265,12 +492,32 @@ public final class Request {
             }
             return request;
         }
+
+        private Map<String, String> mutableHeaders() {
+            if (headers == null) {
+                headers = new HashMap<>();
+            } else if (headersShared) {
+                headers = new HashMap<>(headers);
+                headersShared = false;
+            }
+            return headers;
+        }
+
+        /**
+         * 将请求头移交给 Request，避免逐次复制；Builder 之后再修改会先复制一份
+         */
+        private Map<String, String> takeHeaders() {
+            if (headers == null || headers.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            headersShared = true;
+            return Collections.unmodifiableMap(headers);
+        }
     }
 
     @Override
     public String toString() {
-        return String.format(
-                "Request{method='%s', url='%s', headers=%d, hasBody=%s}",
-                method, getUrlString(), headers.size(), body != null);
+        return "Request{method='" + method + "', url='" + getUrlString()
+                + "', headers=" + headers.size() + ", hasBody=" + (body != null) + "}";
     }
 }
@@ -1,7 +1,17 @@
 package com.jnet.core;
 
+import com.jnet.core.org.json.Cbor;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.JsonPath;
+import com.jnet.core.org.json.MessagePack;
+import com.jnet.core.org.json.TypeReference;
+
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -24,7 +34,7 @@ public final class Response {
         this.code = builder.code;
         this.message = builder.message;
         this.body = builder.body;
-        this.headers = Collections.unmodifiableMap(new HashMap<>(builder.headers));
+        this.headers = builder.takeHeaders();
         this.duration = builder.duration;
         this.request = builder.request;
         this.successful = builder.successful;
@@ -56,6 +66,101 @@ public final class Response {
         return body;
     }
 
+    /**
+     * 将响应体按JSON绑定为对象（POJO、record、集合等），响应体为空时返回null
+     *
+     * @throws com.jnet.core.org.json.JSONException JSON格式错误或与类型不匹配
+     */
+    public <T> T as(Class<T> type) {
+        return as((Type) type);
+    }
+
+    /**
+     * 绑定为泛型类型，如 {@code response.as(new TypeReference<List<Repo>>() {})}
+     */
+    public <T> T as(TypeReference<T> type) {
+        return as(type.getType());
+    }
+
+    public <T> T as(Type type) {
+        return body == null || body.isEmpty() ? null : JsonMapper.fromJson(body, type);
+    }
+
+    /**
+     * 将 CBOR 响应体解码为 JSONObject、JSONArray 或标量（字节串为 byte[]），响应体为空时返回null
+     * 响应的 Content-Type 须为 application/cbor，传输层才会逐字节保存响应体（见 {@link Cbor}）
+     *
+     * @throws com.jnet.core.org.json.JSONException CBOR格式错误
+     */
+    public Object asCbor() {
+        return body == null || body.isEmpty() ? null : Cbor.decode(rawBody());
+    }
+
+    public <T> T asCbor(Class<T> type) {
+        return asCbor((Type) type);
+    }
+
+    public <T> T asCbor(TypeReference<T> type) {
+        return asCbor(type.getType());
+    }
+
+    /**
+     * 将 CBOR 响应体直接绑定为对象，绑定规则同 {@link #as(Type)}
+     */
+    public <T> T asCbor(Type type) {
+        return body == null || body.isEmpty() ? null : Cbor.decode(rawBody(), type);
+    }
+
+    /**
+     * 将 MessagePack 响应体解码为树，Content-Type 须为 application/msgpack（或 x-msgpack、vnd.msgpack）
+     *
+     * @throws com.jnet.core.org.json.JSONException MessagePack格式错误
+     */
+    public Object asMessagePack() {
+        return body == null || body.isEmpty() ? null : MessagePack.decode(rawBody());
+    }
+
+    public <T> T asMessagePack(Class<T> type) {
+        return asMessagePack((Type) type);
+    }
+
+    public <T> T asMessagePack(TypeReference<T> type) {
+        return asMessagePack(type.getType());
+    }
+
+    public <T> T asMessagePack(Type type) {
+        return body == null || body.isEmpty() ? null : MessagePack.decode(rawBody(), type);
+    }
+
+    /**
+     * 按 JsonPath 从响应体提取字段，不构建整棵 JSONObject；大响应体应使用 {@link StreamResponse#extract}
+     *
+     * @see JsonPath
+     */
+    public void extract(JsonPath.Listener listener, String... paths) {
+        if (body != null && !body.isEmpty()) {
+            JsonPath.select(body.getBytes(StandardCharsets.UTF_8), listener, paths);
+        }
+    }
+
+    /**
+     * 传输层解码响应体所用的字符集：CBOR、MessagePack 按 ISO-8859-1 一字节对一字符保存，
+     * 以便 asCbor/asMessagePack 无损取回原始字节；其余按 charset 参数，缺省或无法识别时为 UTF-8。
+     * 自定义传输层把响应体解码为字符串时应使用它，与默认传输层保持一致
+     */
+    public static Charset bodyCharset(String contentType) {
+        return isBinary(contentType) ? StandardCharsets.ISO_8859_1 : StreamResponse.charsetOf(contentType);
+    }
+
+    static boolean isBinary(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith(Cbor.CONTENT_TYPE) || type.startsWith(MessagePack.CONTENT_TYPE)
+                || type.startsWith("application/x-msgpack") || type.startsWith("application/vnd.msgpack");
+    }
+
     public Map<String, String> getHeaders() {
         return headers;
     }
@@ -94,6 +199,38 @@ public final class Response {
         return code >= 500;
     }
 
+    /**
+     * 二进制响应体的原始字节（传输层已按 ISO-8859-1 解码，见 {@link #bodyCharset(String)}）
+     */
+    private byte[] rawBody() {
+        return body.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 还原传输层解码前的响应体字节（包级可见，供 Transport 的默认流式实现使用）
+     */
+    byte[] bodyBytes() {
+        if (body == null || body.isEmpty()) {
+            return new byte[0];
+        }
+        return body.getBytes(bodyCharset(contentType()));
+    }
+
+    /**
+     * Content-Type 响应头，名称不区分大小写（包级可见）
+     */
+    String contentType() {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if ("Content-Type".equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * 响应Builder
      */
@@ -103,7 +240,9 @@ public final class Response {
         private int code;
         private String message = "";
         private String body;
-        private Map<String, String> headers = new HashMap<>();
+        // 懒创建；build() 后所有权移交给 Response，再次修改时才复制（写时复制）
+        private Map<String, String> headers;
+        private boolean headersShared;
         private long duration = -1;
 
         private Builder(Request request, boolean successful) {
@@ -140,7 +279,7 @@ public final class Response {
          */
         public Builder header(String name, String value) {
             if (name != null && !name.isEmpty()) {
-                this.headers.put(name, value == null ? "" : value);
+                mutableHeaders().put(name, value == null ? "" : value);
             }
             return this;
         }
@@ -149,8 +288,8 @@ public final class Response {
          * 批量添加响应头
          */
         public Builder headers(Map<String, String> headers) {
-            if (headers != null) {
-                this.headers.putAll(headers);
+            if (headers != null && !headers.isEmpty()) {
+                mutableHeaders().putAll(headers);
             }
             return this;
         }
@@ -169,12 +308,42 @@ public final class Response {
         public Response build() {
             return new Response(this);
         }
+
+        /**
+         * 按预期个数预分配响应头容量，避免逐个添加时扩容（包级可见，供 Call 转换 JDK 响应时使用）
+         */
+        Builder expectHeaders(int count) {
+            if (headers == null && count > 0) {
+                headers = new HashMap<>((int) (count / 0.75f) + 1);
+            }
+            return this;
+        }
+
+        private Map<String, String> mutableHeaders() {
+            if (headers == null) {
+                headers = new HashMap<>();
+            } else if (headersShared) {
+                headers = new HashMap<>(headers);
+                headersShared = false;
+            }
+            return headers;
+        }
+
+        /**
+         * 将响应头移交给 Response，避免逐次复制；Builder 之后再修改会先复制一份
+         */
+        private Map<String, String> takeHeaders() {
+            if (headers == null || headers.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            headersShared = true;
+            return Collections.unmodifiableMap(headers);
+        }
     }
 
     @Override
     public String toString() {
-        return String.format(
-                "Response{code=%d, successful=%s, bodyLength=%d, duration=%dms}",
-                code, successful, body == null ? 0 : body.length(), duration);
+        return "Response{code=" + code + ", successful=" + successful
+                + ", bodyLength=" + (body == null ? 0 : body.length()) + ", duration=" + duration + "ms}";
     }
 }
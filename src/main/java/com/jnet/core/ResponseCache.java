@@ -22,10 +22,13 @@ public class ResponseCache {
     }
 
     /**
-     * 缓存响应
+     * 缓存响应；请求体不是字符串（字节数组、文件、流等）时不缓存
      */
     public void put(Request request, Response response) {
-        String key = getCacheKey(request);
+        String key = cacheKey(request);
+        if (key == null) {
+            return;
+        }
         long expireTime = System.currentTimeMillis() + defaultTtl;
         cache.put(key, new CacheEntry(response, expireTime));
     }
@@ -34,7 +37,10 @@ public class ResponseCache {
      * 获取缓存的响应
      */
     public Response get(Request request) {
-        String key = getCacheKey(request);
+        String key = cacheKey(request);
+        if (key == null) {
+            return null;
+        }
         CacheEntry entry = cache.get(key);
         if (entry == null) {
             return null;
@@ -71,9 +77,21 @@ public class ResponseCache {
     }
 
     /**
-     * 生成缓存键
+     * 默认 TTL（毫秒）
      */
-    private String getCacheKey(Request request) {
+    public long getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    /**
+     * 生成缓存键（包级可见，供 ServerPush 记录推送存入的条目）
+     * 只有字符串请求体能从 Request 取得内容；其他请求体返回 null，表示不可缓存，
+     * 否则请求体不同的 POST 会共用同一个键
+     */
+    String cacheKey(Request request) {
+        if (request.getBody() == null && request.getBodyPublisher() != null) {
+            return null;
+        }
         return request.getMethod() + ":" + request.getUrlString() + ":" + request.getBody();
     }
 
@@ -109,9 +109,9 @@ public class SSEClient {
     }
 
     /**
-     * 处理 SSE 流的 Subscriber
+     * 处理 SSE 流的 Subscriber（包级可见，供解析基准和分配预算测试直接驱动）
      */
-    private static class SSESubscriber implements Flow.Subscriber<String> {
+    static class SSESubscriber implements Flow.Subscriber<String> {
         private final SSEListener listener;
         private Flow.Subscription subscription;
         private final StringBuilder eventData = new StringBuilder();
@@ -0,0 +1,225 @@
+package com.jnet.core;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP/2 服务端推送的接收与复用
+ * 通过 {@link JNetClient.Builder#serverPush(ResponseCache)} 启用：接受服务端推送的 GET 资源，
+ * 以被承诺请求（push promise）的缓存键存入 ResponseCache；之后同一客户端对该 URL 的 GET
+ * 直接返回缓存的推送响应，不再发起网络请求。
+ *
+ * <p>
+ * 只有 JDK HttpClient 传输层（默认）支持推送；缓存中已有的资源、非 GET 的推送会被拒绝，
+ * JDK 随即以 RST_STREAM 取消该推送流。
+ * </p>
+ *
+ * <p>
+ * 推送记录与缓存条目同时过期（缓存的默认 TTL）；过期的记录和缓存条目在记录数翻倍时清理，
+ * 从未被请求的推送不会一直占用内存。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class ServerPush {
+    private static final int MIN_SWEEP_SIZE = 64;
+
+    private final ResponseCache cache;
+    // 推送存入的缓存键 -> 推送记录；不在其中的缓存条目不由本类提供
+    private final ConcurrentHashMap<String, Pushed> pushed = new ConcurrentHashMap<>();
+    private final AtomicInteger sweepAt = new AtomicInteger(MIN_SWEEP_SIZE); // 记录数达到该值时清理过期记录
+    private final LongAdder promised = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder used = new LongAdder();
+
+    ServerPush(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 存放推送响应的缓存
+     */
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * 推送统计快照
+     */
+    public Metrics getMetrics() {
+        return new Metrics(promised.sum(), accepted.sum(), rejected.sum(), failed.sum(), used.sum());
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 为一次发送创建推送处理器，推送请求关联到发起请求的客户端
+     */
+    HttpResponse.PushPromiseHandler<String> handlerFor(Request initiating) {
+        return (initiatingRequest, pushPromiseRequest, acceptor) -> {
+            promised.increment();
+            Request promisedRequest = toRequest(initiating, pushPromiseRequest);
+            if (promisedRequest == null || cache.get(promisedRequest) != null) {
+                rejected.increment();
+                return;
+            }
+            accepted.increment();
+            long startTime = System.currentTimeMillis();
+            acceptor.apply(JdkTransport.STRING_BODY).whenComplete((httpResponse, throwable) -> {
+                if (throwable != null || httpResponse.statusCode() != 200) {
+                    failed.increment();
+                    return;
+                }
+                Response response = JdkTransport.toResponse(httpResponse, promisedRequest,
+                        System.currentTimeMillis() - startTime);
+                cache.put(promisedRequest, response);
+                pushed.put(cache.cacheKey(promisedRequest),
+                        new Pushed(System.currentTimeMillis() + cache.getDefaultTtl()));
+                if (pushed.size() >= sweepAt.get()) {
+                    sweep();
+                }
+            });
+        };
+    }
+
+    /**
+     * 查找推送来的响应，没有或已过期时返回 null
+     */
+    Response lookup(Request request) {
+        if (pushed.isEmpty() || !"GET".equals(request.getMethod())) {
+            return null;
+        }
+        String key = cache.cacheKey(request);
+        Pushed entry = key != null ? pushed.get(key) : null;
+        if (entry == null) {
+            return null;
+        }
+        Response response = entry.isExpired(System.currentTimeMillis()) ? null : cache.get(request);
+        if (response == null) {
+            pushed.remove(key, entry);
+            return null;
+        }
+        if (entry.used.compareAndSet(false, true)) {
+            used.increment();
+        }
+        return response;
+    }
+
+    /**
+     * 当前保存的推送记录数（包级可见，供测试观察清理）
+     */
+    int pushedCount() {
+        return pushed.size();
+    }
+
+    /**
+     * 移除过期的推送记录和缓存条目；同一时间只有一个线程清理，下次在记录数再翻倍时进行
+     */
+    private void sweep() {
+        int threshold = sweepAt.get();
+        if (threshold == Integer.MAX_VALUE || !sweepAt.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            pushed.values().removeIf(entry -> entry.isExpired(now));
+            cache.cleanup();
+        } finally {
+            sweepAt.set(Math.max(MIN_SWEEP_SIZE, pushed.size() * 2));
+        }
+    }
+
+    private static Request toRequest(Request initiating, HttpRequest pushPromiseRequest) {
+        if (!"GET".equals(pushPromiseRequest.method())) {
+            return null;
+        }
+        return Request.newBuilder()
+                .client(initiating.getClient())
+                .uri(pushPromiseRequest.uri())
+                .method("GET")
+                .build();
+    }
+
+    /**
+     * 一次推送的记录：过期时间与是否已被读取
+     */
+    private static final class Pushed {
+        final long expireTime;
+        final AtomicBoolean used = new AtomicBoolean();
+
+        Pushed(long expireTime) {
+            this.expireTime = expireTime;
+        }
+
+        boolean isExpired(long now) {
+            return now > expireTime;
+        }
+    }
+
+    /**
+     * 推送统计快照
+     */
+    public static final class Metrics {
+        private final long promised;
+        private final long accepted;
+        private final long rejected;
+        private final long failed;
+        private final long used;
+
+        Metrics(long promised, long accepted, long rejected, long failed, long used) {
+            this.promised = promised;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.used = used;
+        }
+
+        /**
+         * 收到的推送承诺数
+         */
+        public long getPromised() {
+            return promised;
+        }
+
+        /**
+         * 接受的推送数
+         */
+        public long getAccepted() {
+            return accepted;
+        }
+
+        /**
+         * 拒绝的推送数（非 GET 或缓存中已有）
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * 接受后失败的推送数（推送流出错或状态码不是 200）
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * 被后续请求读取过的推送数，每个推送只计一次
+         */
+        public long getUsed() {
+            return used;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{promised=" + promised + ", accepted=" + accepted + ", rejected=" + rejected
+                    + ", failed=" + failed + ", used=" + used + "}";
+        }
+    }
+}
@@ -1,30 +1,67 @@
 package com.jnet.core;
 
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.JsonPath;
+import com.jnet.core.org.json.JsonReader;
+import com.jnet.multipart.MultipartReader;
+
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 
 /**
  * 流式响应处理器
  * 支持逐行读取、chunked 传输、大响应体处理
- * 
+ *
  * 设计原则：
  * - 不将整个响应体加载到内存
  * - 支持惰性迭代
  * - 自动资源管理
+ *
+ * <p>
+ * 行按字节切分：在一个复用的读缓冲区里查找 '\n'（去掉结尾的 '\r'），跨缓冲区的行拼接到另一个复用数组。
+ * {@link #forEachLine} 和 {@link #byteLines()} 直接交出缓冲区中的字节，不为每行创建 String，
+ * 内存占用与响应体大小无关。按字节切行要求字符集中 '\n' 为单字节（UTF-8、ISO-8859-1、GBK 等）；
+ * UTF-16/UTF-32 下字符串方法退回 BufferedReader，字节行方法不可用。
+ * </p>
+ *
+ * <p>
+ * 由 {@link Call#executeStreaming()} 或 {@link JNet#stream(String)} 创建，使用完必须关闭以释放连接。
+ * </p>
  */
 public class StreamResponse implements Closeable, Iterable<String> {
+    private static final int BUFFER_SIZE = 8192;
+
     private final InputStream inputStream;
     private final Response response;
     private final Charset charset;
-    private BufferedReader reader;
+    private final boolean byteLineSplitting; // '\n' 编码为单字节 0x0A 时可按字节切行
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] carry = new byte[256]; // 跨缓冲区的行，按需扩容后复用
+    // 当前行在 buffer 或 carry 中的位置
+    private byte[] lineBytes;
+    private int lineOffset;
+    private int lineLength;
+    private ByteBuffer bufferView;
+    private ByteBuffer carryView;
+    private BufferedReader reader; // 仅 UTF-16 等多字节换行的字符集使用
     private boolean closed = false;
 
     public StreamResponse(Response response, InputStream inputStream) {
@@ -38,7 +75,7 @@ public class StreamResponse implements Closeable, Iterable<String> {
         this.response = response;
         this.inputStream = inputStream;
         this.charset = charset;
-        this.reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        this.byteLineSplitting = Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'});
     }
 
     /**
@@ -46,19 +83,101 @@ public class StreamResponse implements Closeable, Iterable<String> {
      */
     public void readLines(Consumer<String> lineConsumer) throws IOException {
         checkClosed();
-        
+
         String line;
-        while ((line = reader.readLine()) != null) {
+        while ((line = readLine()) != null) {
             lineConsumer.accept(line);
         }
     }
 
+    /**
+     * 逐行处理原始字节，不创建 String
+     * bytes 是内部复用的缓冲区，只在回调期间有效，不能保存引用或修改
+     */
+    public void forEachLine(LineHandler handler) throws IOException {
+        checkClosed();
+        checkByteLines();
+        while (nextLine()) {
+            handler.onLine(lineBytes, lineOffset, lineLength);
+        }
+    }
+
+    /**
+     * 按行迭代原始字节
+     * 返回的 ByteBuffer 是内部缓冲区的视图（position 不一定为 0），调用下一次 next() 后失效；
+     * 需要保留时自行复制。读取出错时迭代器抛出 UncheckedIOException
+     */
+    public Iterable<ByteBuffer> byteLines() {
+        checkClosed();
+        checkByteLines();
+        return () -> new Iterator<ByteBuffer>() {
+            private boolean ready;
+            private boolean hasLine;
+
+            @Override
+            public boolean hasNext() {
+                if (closed) {
+                    return false;
+                }
+                if (!ready) {
+                    try {
+                        hasLine = nextLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Error reading line", e);
+                    }
+                    ready = true;
+                }
+                return hasLine;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return lineView();
+            }
+        };
+    }
+
     /**
      * 读取一行
      */
     public String readLine() throws IOException {
         checkClosed();
-        return reader.readLine();
+        if (!byteLineSplitting) {
+            return reader().readLine();
+        }
+        return nextLine() ? new String(lineBytes, lineOffset, lineLength, charset) : null;
+    }
+
+    /**
+     * 按块读取到 dst，返回读取的字节数，流结束返回 -1
+     * 堆缓冲区直接读入其底层数组，不经过中间复制
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        checkClosed();
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        if (position < limit) {
+            int n = Math.min(limit - position, dst.remaining());
+            dst.put(buffer, position, n);
+            position += n;
+            return n;
+        }
+        if (dst.hasArray()) {
+            int n = inputStream.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (n > 0) {
+                dst.position(dst.position() + n);
+            }
+            return n;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        return read(dst);
     }
 
     /**
@@ -66,26 +185,22 @@ public class StreamResponse implements Closeable, Iterable<String> {
      */
     public byte[] read(int length) throws IOException {
         checkClosed();
-        
-        byte[] buffer = new byte[length];
-        int totalRead = 0;
-        
+
+        byte[] result = new byte[length];
+        int totalRead = Math.min(length, limit - position);
+        System.arraycopy(buffer, position, result, 0, totalRead);
+        position += totalRead;
+
         while (totalRead < length) {
-            int read = inputStream.read(buffer, totalRead, length - totalRead);
+            int read = inputStream.read(result, totalRead, length - totalRead);
             if (read == -1) {
                 break;
             }
             totalRead += read;
         }
-        
-        if (totalRead < length) {
-            // 实际读取的数据少于请求的长度，调整数组大小
-            byte[] result = new byte[totalRead];
-            System.arraycopy(buffer, 0, result, 0, totalRead);
-            return result;
-        }
-        
-        return buffer;
+
+        // 实际读取的数据少于请求的长度时截断
+        return totalRead < length ? Arrays.copyOf(result, totalRead) : result;
     }
 
     /**
@@ -94,22 +209,135 @@ public class StreamResponse implements Closeable, Iterable<String> {
      */
     public String readAll() throws IOException {
         checkClosed();
-        
-        StringBuilder sb = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            sb.append(line).append('\n');
+
+        if (reader != null) {
+            StringBuilder sb = new StringBuilder();
+            char[] chars = new char[BUFFER_SIZE];
+            int n;
+            while ((n = reader.read(chars)) != -1) {
+                sb.append(chars, 0, n);
+            }
+            return sb.toString();
         }
-        
-        return sb.toString();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, limit - position));
+        out.write(buffer, position, limit - position);
+        position = limit;
+        inputStream.transferTo(out);
+        return out.toString(charset);
     }
 
     /**
-     * 获取原始输入流（高级用法）
+     * 获取输入流（高级用法）
+     * 先返回已缓冲但未消费的字节，可与按行读取交替使用
      */
     public InputStream getInputStream() {
         checkClosed();
-        return inputStream;
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                if (position < limit) {
+                    return buffer[position++] & 0xFF;
+                }
+                return inputStream.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (position < limit) {
+                    int n = Math.min(len, limit - position);
+                    System.arraycopy(buffer, position, b, off, n);
+                    position += n;
+                    return n;
+                }
+                return inputStream.read(b, off, len);
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (limit - position) + inputStream.available();
+            }
+
+            @Override
+            public void close() throws IOException {
+                StreamResponse.this.close();
+            }
+        };
+    }
+
+    /**
+     * 边读边按 JsonPath 提取字段，不匹配的子树直接跳过，不构建 JSONObject
+     * 内存占用与响应体大小无关，匹配值读完即回调
+     * <pre>
+     * stream.extract((path, value) -&gt; ..., "$.items[*].id", "$.next");
+     * </pre>
+     *
+     * @see JsonPath
+     */
+    public void extract(JsonPath.Listener listener, String... paths) throws IOException {
+        checkClosed();
+        JsonPath.select(getInputStream(), listener, paths);
+    }
+
+    /**
+     * 按 NDJSON（JSON Lines）逐条读取记录：每行一个 JSON 值，直接从行缓冲区的字节绑定为对象，空行跳过
+     * 读一条、回调一条，回调返回后才继续读取网络数据，内存占用与记录数无关
+     * <pre>
+     * stream.readNdjson(Event.class, event -&gt; ...);
+     * </pre>
+     *
+     * @throws JSONException 某行不是合法 JSON 或无法绑定为目标类型，消息中带行号
+     * @see JsonMapper#read(JsonReader, Type)
+     */
+    public <T> void readNdjson(Class<T> type, Consumer<? super T> consumer) throws IOException {
+        readNdjson((Type) type, consumer);
+    }
+
+    public <T> void readNdjson(Type type, Consumer<? super T> consumer) throws IOException {
+        checkClosed();
+        checkByteLines();
+        long lineNumber = 0;
+        while (nextLine()) {
+            lineNumber++;
+            if (isBlank(lineBytes, lineOffset, lineLength)) {
+                continue;
+            }
+            T record;
+            try {
+                JsonReader reader = new JsonReader(lineView());
+                record = JsonMapper.read(reader, type);
+                reader.peek(); // 一行只能有一个值
+            } catch (JSONException e) {
+                throw new JSONException("NDJSON line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            consumer.accept(record);
+        }
+    }
+
+    /**
+     * 按 multipart/*（mixed、byteranges 等）流式读取各部分，boundary 取自响应的 Content-Type
+     * 每个部分以头部加限定在本部分内的输入流交出，不缓冲整个部分；关闭返回的解析器即关闭本响应
+     * <pre>
+     * try (MultipartReader parts = stream.multipart()) {
+     *     for (MultipartReader.BodyPart part; (part = parts.nextPart()) != null; ) {
+     *         part.getRangeStart(); part.getInputStream(); ...
+     *     }
+     * }
+     * </pre>
+     *
+     * @throws IllegalArgumentException 响应不是 multipart 类型或缺少 boundary
+     */
+    public MultipartReader multipart() {
+        checkClosed();
+        String contentType = null;
+        Map<String, String> headers = response != null ? response.getHeaders() : null;
+        for (Map.Entry<String, String> entry : headers != null ? headers.entrySet()
+                : Map.<String, String>of().entrySet()) {
+            if ("Content-Type".equalsIgnoreCase(entry.getKey())) {
+                contentType = entry.getValue();
+                break;
+            }
+        }
+        return MultipartReader.of(getInputStream(), contentType);
     }
 
     /**
@@ -132,7 +360,7 @@ public class StreamResponse implements Closeable, Iterable<String> {
     @Override
     public Iterator<String> iterator() {
         checkClosed();
-        
+
         return new Iterator<String>() {
             private String nextLine;
             private boolean nextLineRead = false;
@@ -142,13 +370,13 @@ public class StreamResponse implements Closeable, Iterable<String> {
                 if (closed) {
                     return false;
                 }
-                
+
                 if (!nextLineRead) {
                     try {
-                        nextLine = reader.readLine();
+                        nextLine = readLine();
                         nextLineRead = true;
                     } catch (IOException e) {
-                        throw new RuntimeException("Error reading line", e);
+                        throw new UncheckedIOException("Error reading line", e);
                     }
                 }
                 return nextLine != null;
@@ -175,9 +403,7 @@ public class StreamResponse implements Closeable, Iterable<String> {
             if (reader != null) {
                 reader.close();
             }
-            if (inputStream != null) {
-                inputStream.close();
-            }
+            inputStream.close();
         }
     }
 
@@ -193,4 +419,142 @@ public class StreamResponse implements Closeable, Iterable<String> {
     public boolean isClosed() {
         return closed;
     }
+
+    /**
+     * 按 Content-Type 的 charset 参数解析字符集，缺省或无法识别时为 UTF-8（包级可见，供传输层创建流式响应）
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+            if (index >= 0) {
+                String name = contentType.substring(index + 8).split(";", 2)[0].trim().replace("\"", "");
+                try {
+                    return Charset.forName(name);
+                } catch (RuntimeException ignored) {
+                    // 未知字符集按 UTF-8 处理
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 按行处理原始字节的回调
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        /**
+         * @param bytes  内部缓冲区，只在本次回调期间有效
+         * @param offset 行首位置
+         * @param length 行长度，不含 '\n' 和结尾的 '\r'
+         */
+        void onLine(byte[] bytes, int offset, int length) throws IOException;
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 定位下一行到 lineBytes/lineOffset/lineLength，流结束返回 false
+     * 行完全落在读缓冲区内时不复制；跨缓冲区时拼接到 carry
+     */
+    private boolean nextLine() throws IOException {
+        int carried = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (carried == 0) {
+                    return false;
+                }
+                setLine(carry, 0, carried);
+                return true;
+            }
+            int start = position;
+            int newline = indexOfNewline(start, limit);
+            if (newline >= 0) {
+                position = newline + 1;
+                if (carried == 0) {
+                    setLine(buffer, start, newline - start);
+                } else {
+                    carried = appendToCarry(carried, start, newline - start);
+                    setLine(carry, 0, carried);
+                }
+                return true;
+            }
+            carried = appendToCarry(carried, start, limit - start);
+            position = limit;
+        }
+    }
+
+    private static boolean isBlank(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bytes[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setLine(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        lineBytes = bytes;
+        lineOffset = offset;
+        lineLength = length;
+    }
+
+    private int indexOfNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int appendToCarry(int carried, int start, int length) {
+        if (carried + length > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carried + length));
+        }
+        System.arraycopy(buffer, start, carry, carried, length);
+        return carried + length;
+    }
+
+    private boolean fill() throws IOException {
+        int n = inputStream.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    private ByteBuffer lineView() {
+        ByteBuffer view;
+        if (lineBytes == buffer) {
+            if (bufferView == null) {
+                bufferView = ByteBuffer.wrap(buffer);
+            }
+            view = bufferView;
+        } else {
+            if (carryView == null || carryView.array() != carry) {
+                carryView = ByteBuffer.wrap(carry);
+            }
+            view = carryView;
+        }
+        view.clear();
+        view.limit(lineOffset + lineLength).position(lineOffset);
+        return view;
+    }
+
+    private BufferedReader reader() {
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+    private void checkByteLines() {
+        if (!byteLineSplitting) {
+            throw new IllegalStateException("Byte-level lines are not supported for charset " + charset);
+        }
+    }
 }
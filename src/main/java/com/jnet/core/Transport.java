@@ -0,0 +1,86 @@
+package com.jnet.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 传输层 SPI - 负责把一个 Request 发送出去并返回 Response
+ * Call 在其上处理截止时间、并发限制、拦截器和回调，传输层只负责一次网络交换（可包含重定向）。
+ *
+ * <p>
+ * 默认实现基于 JDK HttpClient；{@link com.jnet.nio.NioTransport} 是基于 NIO SocketChannel 的
+ * HTTP/1.1 实现，提供显式连接池、管线化和分阶段耗时。通过
+ * {@link JNetClient.Builder#transport(Transport)} 替换。
+ * </p>
+ *
+ * <p>
+ * 实现约定：超时抛出 {@link java.net.http.HttpTimeoutException} 或
+ * {@link java.net.SocketTimeoutException}，Call 会在截止时间耗尽时将其转换为
+ * {@link DeadlineExceededException}；连接失败抛出 {@link java.net.ConnectException}。
+ * 接口签名不引用 java.net.http 类型，实现可以不依赖该模块。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * 同步发送
+     *
+     * @param request 请求
+     * @param timeout 本次发送的超时（读超时与截止时间剩余中较小者），null 表示不限
+     * @return 响应
+     */
+    Response execute(Request request, Duration timeout) throws IOException, InterruptedException;
+
+    /**
+     * 异步发送
+     * 默认在 {@link AsyncExecutor} 上调用 {@link #execute}；返回的 Future 以 CompletionException 包装失败原因
+     */
+    default CompletableFuture<Response> executeAsync(Request request, Duration timeout) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(request, timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(new IOException("Request interrupted", e));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, AsyncExecutor.getExecutor());
+    }
+
+    /**
+     * 流式发送，收到响应头即返回，响应体由调用方从 StreamResponse 中读取并负责关闭
+     * 默认实现先经 {@link #execute} 读完整个响应体再包装成流，只保证接口可用；
+     * 基于 JDK HttpClient 的默认传输层是真正的流式读取
+     */
+    default StreamResponse executeStreaming(Request request, Duration timeout)
+            throws IOException, InterruptedException {
+        Response response = execute(request, timeout);
+        return new StreamResponse(response, new ByteArrayInputStream(response.bodyBytes()),
+                StreamResponse.charsetOf(response.contentType()));
+    }
+
+    /**
+     * 异步发送，收到响应头即以 PublisherResponse 完成，响应体按订阅方的需求读取
+     * 默认实现经 {@link #executeAsync} 读完整个响应体，再作为单个元素发布；
+     * 基于 JDK HttpClient 的默认传输层按需从连接读取
+     */
+    default CompletableFuture<PublisherResponse> executePublisher(Request request, Duration timeout) {
+        return executeAsync(request, timeout).thenApply(response ->
+                new PublisherResponse(response, BodyFlows.just(ByteBuffer.wrap(response.bodyBytes()))));
+    }
+
+    /**
+     * 释放连接等资源，默认无操作
+     */
+    @Override
+    default void close() {
+    }
+}
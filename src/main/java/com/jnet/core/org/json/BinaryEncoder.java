@@ -0,0 +1,440 @@
+package com.jnet.core.org.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+/**
+ * Writes values in a binary format (CBOR, MessagePack), shared by the format encoders.
+ *
+ * <p>
+ * Values are mapped like {@link JsonMapper#toJsonBytes(Object)}: maps, collections, arrays, JSONObject/JSONArray,
+ * POJOs and records (same properties as JSON), enums and dates as strings. The differences are where the binary
+ * formats can do better: byte[] is written as a byte string, floats that fit in 32 bits without loss take 32
+ * bits, and NaN and infinities are kept instead of becoming null. BigDecimal is written as its decimal string
+ * (neither format has an exact decimal type); BigInteger beyond 64 bits as the format allows.
+ * </p>
+ *
+ * <p>
+ * Like JsonEncoder, each thread reuses one growable buffer; the result is an exact-size copy.
+ * </p>
+ */
+abstract class BinaryEncoder {
+    private static final int POOLED_CAPACITY = 64 * 1024;
+
+    private static final int STRING = 0;
+    private static final int INTEGER = 1;
+    private static final int DOUBLE = 2;
+    private static final int FLOAT = 3;
+    private static final int BIG_INTEGER = 4;
+    private static final int BIG_DECIMAL = 5;
+    private static final int NUMBER = 6;
+    private static final int BOOLEAN = 7;
+    private static final int TO_STRING = 8;
+    private static final int JSON_OBJECT = 9;
+    private static final int JSON_ARRAY = 10;
+    private static final int MAP = 11;
+    private static final int LIST = 12;
+    private static final int COLLECTION = 13;
+    private static final int ITERABLE = 14;
+    private static final int OBJECT_ARRAY = 15;
+    private static final int BYTE_ARRAY = 16;
+    private static final int INT_ARRAY = 17;
+    private static final int LONG_ARRAY = 18;
+    private static final int DOUBLE_ARRAY = 19;
+    private static final int PRIMITIVE_ARRAY = 20;
+    private static final int DATE = 21;
+    private static final int BEAN = 22;
+
+    private static final ClassValue<Integer> KINDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return kindOf(type);
+        }
+    };
+
+    byte[] buf = new byte[4096];
+    int count;
+    private final Object[] path = new Object[JsonEncoder.MAX_DEPTH + 1];
+    private boolean inUse;
+
+    // ========== 格式相关 ==========
+
+    abstract void writeNull();
+
+    abstract void writeBoolean(boolean v);
+
+    abstract void writeLong(long v);
+
+    /**
+     * Integers outside the long range.
+     */
+    abstract void writeBigInteger(BigInteger v);
+
+    abstract void writeFloat(float v);
+
+    abstract void writeDouble(double v);
+
+    /**
+     * Header of a text string of the given UTF-8 length; the bytes follow.
+     */
+    abstract void writeTextHeader(int utf8Length);
+
+    abstract void writeBytes(byte[] bytes, int offset, int length);
+
+    abstract void writeMapHeader(int size);
+
+    abstract void writeArrayHeader(int size);
+
+    // ========== 入口 ==========
+
+    /**
+     * Encodes with this encoder, or with a fresh one when it is already busy (a getter serializing another value
+     * on the same thread).
+     */
+    static byte[] encode(ThreadLocal<? extends BinaryEncoder> pool, Supplier<? extends BinaryEncoder> factory, Object value) {
+        BinaryEncoder encoder = pool.get();
+        if (encoder.inUse) {
+            encoder = factory.get();
+        }
+        encoder.inUse = true;
+        try {
+            encoder.count = 0;
+            encoder.writeValue(value, 0);
+            return Arrays.copyOf(encoder.buf, encoder.count);
+        } finally {
+            encoder.inUse = false;
+            Arrays.fill(encoder.path, null);
+            if (encoder.buf.length > POOLED_CAPACITY) {
+                encoder.buf = new byte[4096];
+            }
+        }
+    }
+
+    // ========== 写入 ==========
+
+    final void writeValue(Object value, int depth) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        switch (KINDS.get(value.getClass())) {
+            case STRING:
+                writeString((String) value);
+                break;
+            case INTEGER:
+                writeLong(((Number) value).longValue());
+                break;
+            case DOUBLE:
+                writeDouble((Double) value);
+                break;
+            case FLOAT:
+                writeFloat((Float) value);
+                break;
+            case BIG_INTEGER:
+                BigInteger big = (BigInteger) value;
+                if (big.bitLength() < 64) {
+                    writeLong(big.longValue());
+                } else {
+                    writeBigInteger(big);
+                }
+                break;
+            case BIG_DECIMAL:
+                writeString(((BigDecimal) value).toString());
+                break;
+            case NUMBER:
+                Number number = (Number) value;
+                double d = number.doubleValue();
+                if (d == number.longValue()) {
+                    writeLong(number.longValue());
+                } else {
+                    writeDouble(d);
+                }
+                break;
+            case BOOLEAN:
+                writeBoolean((Boolean) value);
+                break;
+            case TO_STRING:
+                writeString(value.toString());
+                break;
+            case DATE:
+                writeString(((Date) value).toInstant().toString());
+                break;
+            case JSON_OBJECT:
+                writeJSONObject((JSONObject) value, depth);
+                break;
+            case JSON_ARRAY:
+                writeJSONArray((JSONArray) value, depth);
+                break;
+            case MAP:
+                writeMap((Map<?, ?>) value, depth);
+                break;
+            case LIST:
+                writeList((List<?>) value, depth);
+                break;
+            case COLLECTION:
+                writeCollection((Collection<?>) value, value, depth);
+                break;
+            case ITERABLE:
+                // the headers need the size up front
+                List<Object> copy = new ArrayList<>();
+                for (Object o : (Iterable<?>) value) {
+                    copy.add(o);
+                }
+                writeCollection(copy, value, depth);
+                break;
+            case OBJECT_ARRAY:
+                Object[] array = (Object[]) value;
+                enter(array, depth);
+                writeArrayHeader(array.length);
+                for (Object o : array) {
+                    writeValue(o, depth + 1);
+                }
+                break;
+            case BYTE_ARRAY:
+                byte[] bytes = (byte[]) value;
+                writeBytes(bytes, 0, bytes.length);
+                break;
+            case INT_ARRAY:
+                int[] ints = (int[]) value;
+                writeArrayHeader(ints.length);
+                for (int v : ints) {
+                    writeLong(v);
+                }
+                break;
+            case LONG_ARRAY:
+                long[] longs = (long[]) value;
+                writeArrayHeader(longs.length);
+                for (long v : longs) {
+                    writeLong(v);
+                }
+                break;
+            case DOUBLE_ARRAY:
+                double[] doubles = (double[]) value;
+                writeArrayHeader(doubles.length);
+                for (double v : doubles) {
+                    writeDouble(v);
+                }
+                break;
+            case PRIMITIVE_ARRAY:
+                int length = java.lang.reflect.Array.getLength(value);
+                writeArrayHeader(length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(java.lang.reflect.Array.get(value, i), depth + 1);
+                }
+                break;
+            default:
+                writeBean(value, depth);
+        }
+    }
+
+    final void writeString(String s) {
+        int length = s.length();
+        int ascii = 0;
+        while (ascii < length && s.charAt(ascii) < 0x80) {
+            ascii++;
+        }
+        if (ascii == length) {
+            writeTextHeader(length);
+            ensure(length);
+            byte[] b = buf;
+            int n = count;
+            for (int i = 0; i < length; i++) {
+                b[n++] = (byte) s.charAt(i);
+            }
+            count = n;
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeTextHeader(utf8.length);
+        writeRaw(utf8, 0, utf8.length);
+    }
+
+    final void writeByte(int b) {
+        ensure(1);
+        buf[count++] = (byte) b;
+    }
+
+    /**
+     * The low n bytes of v, big-endian.
+     */
+    final void writeBigEndian(long v, int n) {
+        ensure(n);
+        for (int shift = (n - 1) * 8; shift >= 0; shift -= 8) {
+            buf[count++] = (byte) (v >>> shift);
+        }
+    }
+
+    final void writeRaw(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buf, count, length);
+        count += length;
+    }
+
+    // ========== 内部方法 ==========
+
+    private void writeMap(Map<?, ?> map, int depth) {
+        enter(map, depth);
+        writeMapHeader(map.size());
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            writeString(String.valueOf(e.getKey()));
+            writeValue(e.getValue(), depth + 1);
+        }
+    }
+
+    private void writeList(List<?> list, int depth) {
+        if (!(list instanceof RandomAccess)) {
+            writeCollection(list, list, depth);
+            return;
+        }
+        enter(list, depth);
+        int size = list.size();
+        writeArrayHeader(size);
+        for (int i = 0; i < size; i++) {
+            writeValue(list.get(i), depth + 1);
+        }
+    }
+
+    private void writeCollection(Collection<?> collection, Object identity, int depth) {
+        enter(identity, depth);
+        writeArrayHeader(collection.size());
+        for (Object o : collection) {
+            writeValue(o, depth + 1);
+        }
+    }
+
+    private void writeJSONObject(JSONObject object, int depth) {
+        enter(object, depth);
+        writeMapHeader(object.length());
+        for (Iterator<String> it = object.keys(); it.hasNext(); ) {
+            String key = it.next();
+            writeString(key);
+            writeValue(object.opt(key), depth + 1);
+        }
+    }
+
+    private void writeJSONArray(JSONArray array, int depth) {
+        enter(array, depth);
+        int length = array.length();
+        writeArrayHeader(length);
+        for (int i = 0; i < length; i++) {
+            writeValue(array.opt(i), depth + 1);
+        }
+    }
+
+    private void writeBean(Object bean, int depth) {
+        JsonEncoder.Property[] properties = JsonEncoder.beanProperties(bean.getClass());
+        if (properties.length == 0) {
+            writeString(bean.toString());
+            return;
+        }
+        enter(bean, depth);
+        writeMapHeader(properties.length);
+        for (JsonEncoder.Property property : properties) {
+            writeString(property.key);
+            writeValue(property.get(bean), depth + 1);
+        }
+    }
+
+    /**
+     * Same limits as JSON: circular references and nesting beyond 100 levels are rejected.
+     */
+    private void enter(Object container, int depth) {
+        if (depth >= JsonEncoder.MAX_DEPTH) {
+            for (int i = 0; i < depth; i++) {
+                if (path[i] == container) {
+                    throw new IllegalArgumentException("Circular reference detected in serialization");
+                }
+            }
+            throw new IllegalArgumentException("Serialization depth exceeded (max " + JsonEncoder.MAX_DEPTH + ")");
+        }
+        path[depth] = container;
+    }
+
+    private void ensure(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+        }
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == String.class) {
+            return STRING;
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return INTEGER;
+        }
+        if (type == Double.class) {
+            return DOUBLE;
+        }
+        if (type == Float.class) {
+            return FLOAT;
+        }
+        if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        }
+        if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return NUMBER;
+        }
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (type == Character.class || type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return TO_STRING;
+        }
+        if (JSONObject.class.isAssignableFrom(type)) {
+            return JSON_OBJECT;
+        }
+        if (JSONArray.class.isAssignableFrom(type)) {
+            return JSON_ARRAY;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return MAP;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return LIST;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return COLLECTION;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return ITERABLE;
+        }
+        if (type.isArray()) {
+            Class<?> component = type.getComponentType();
+            if (!component.isPrimitive()) {
+                return OBJECT_ARRAY;
+            }
+            if (component == byte.class) {
+                return BYTE_ARRAY;
+            }
+            if (component == int.class) {
+                return INT_ARRAY;
+            }
+            if (component == long.class) {
+                return LONG_ARRAY;
+            }
+            return component == double.class ? DOUBLE_ARRAY : PRIMITIVE_ARRAY;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return DATE;
+        }
+        if (Temporal.class.isAssignableFrom(type) || JsonEncoder.isPlatform(type)) {
+            return TO_STRING;
+        }
+        return BEAN;
+    }
+}
@@ -0,0 +1,589 @@
+package com.jnet.core.org.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Token stream over a binary document (CBOR, MessagePack), shared by the format readers.
+ *
+ * <p>
+ * Subclasses decode one item header per {@link #readHeader()} call; this class tracks the open maps and arrays,
+ * maps headers to {@link JsonReader.Token}s and converts values the way JsonReader does for text: integers come
+ * back as Integer, Long or BigInteger, floats as Double. Map keys must be strings or integers (integers are
+ * reported as names in decimal). Byte strings have no JSON counterpart: {@link #nextValue()} returns them as
+ * byte[], while {@link #nextString()} and the STRING token present them as Base64 so that they bind to byte[]
+ * and String fields.
+ * </p>
+ */
+abstract class BinaryReader extends JsonReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    static final int NONE = 0;
+    static final int MAP = 1;
+    static final int ARRAY = 2;
+    static final int TEXT = 3;
+    static final int BYTES = 4;
+    static final int INT = 5;
+    static final int BIG = 6;
+    static final int FLOAT = 7;
+    static final int TRUE = 8;
+    static final int FALSE = 9;
+    static final int NULL = 10;
+    static final int BREAK = 11;  // end of an indefinite-length container
+    static final int END = 12;    // end of a definite-length container, synthesized
+    static final int EOF = 13;
+
+    private final InputStream in; // null for byte[] sources
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private long offset; // bytes discarded before buf[0]
+
+    // open containers; level 0 is the document
+    private long[] remaining = new long[16]; // items left, -1 for indefinite length
+    private long[] consumed = new long[16];
+    private boolean[] objects = new boolean[16];
+    private int depth;
+    private boolean documentRead;
+
+    // the current header, set by readHeader()
+    int kind = NONE;
+    long length;       // MAP pairs, ARRAY items, TEXT/BYTES bytes; -1 for indefinite
+    long value;        // INT
+    BigInteger big;    // BIG
+    double real;       // FLOAT
+    byte[] preloaded;  // TEXT/BYTES content already read by the subclass
+
+    BinaryReader(byte[] data) {
+        this.in = null;
+        this.buf = data;
+        this.limit = data.length;
+    }
+
+    BinaryReader(InputStream in) {
+        this.in = in;
+        this.buf = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Reads the next item header and sets kind and its fields. Content of TEXT and BYTES is left unread
+     * unless it is put in {@link #preloaded}.
+     */
+    abstract void readHeader() throws IOException;
+
+    /**
+     * Name of the format for error messages.
+     */
+    abstract String format();
+
+    // ========== JsonReader ==========
+
+    @Override
+    public Token peek() throws IOException {
+        switch (header()) {
+            case MAP:
+                return namePosition() ? Token.NAME : Token.BEGIN_OBJECT;
+            case ARRAY:
+                return namePosition() ? Token.NAME : Token.BEGIN_ARRAY;
+            case END:
+            case BREAK:
+                return objects[depth] ? Token.END_OBJECT : Token.END_ARRAY;
+            case EOF:
+                return Token.END_DOCUMENT;
+            default:
+                if (namePosition()) {
+                    return Token.NAME;
+                }
+                switch (kind) {
+                    case TEXT:
+                    case BYTES:
+                        return Token.STRING;
+                    case TRUE:
+                    case FALSE:
+                        return Token.BOOLEAN;
+                    case NULL:
+                        return Token.NULL;
+                    default:
+                        return Token.NUMBER;
+                }
+        }
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expectValue(MAP, "BEGIN_OBJECT");
+        push(true, length < 0 ? -1 : length * 2);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        pop(true, "END_OBJECT");
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expectValue(ARRAY, "BEGIN_ARRAY");
+        push(false, length);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        pop(false, "END_ARRAY");
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        int k = header();
+        return k != END && k != BREAK && k != EOF;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        header();
+        if (!namePosition()) {
+            throw unexpected("NAME");
+        }
+        String name;
+        if (kind == TEXT) {
+            name = readText();
+        } else if (kind == INT) {
+            name = Long.toString(value);
+        } else if (kind == BIG) {
+            name = big.toString();
+        } else {
+            throw syntaxError("Unsupported " + format() + " map key");
+        }
+        consume();
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        checkValue();
+        String result;
+        switch (kind) {
+            case TEXT:
+                result = readText();
+                break;
+            case BYTES:
+                result = Base64.getEncoder().encodeToString(readBytes());
+                break;
+            case INT:
+                result = Long.toString(value);
+                break;
+            case BIG:
+                result = big.toString();
+                break;
+            case FLOAT:
+                result = Double.toString(real);
+                break;
+            default:
+                throw unexpected("STRING");
+        }
+        consume();
+        return result;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        checkValue();
+        if (kind != TRUE && kind != FALSE) {
+            throw unexpected("BOOLEAN");
+        }
+        boolean result = kind == TRUE;
+        consume();
+        return result;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        checkValue();
+        if (kind != NULL) {
+            throw unexpected("NULL");
+        }
+        consume();
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        checkValue();
+        long result;
+        if (kind == INT) {
+            result = value;
+        } else if (kind == FLOAT && real == (long) real) {
+            result = (long) real;
+        } else if (kind == FLOAT || kind == BIG) {
+            throw syntaxError("Expected a long but was " + (kind == BIG ? big : real));
+        } else {
+            throw unexpected("NUMBER");
+        }
+        consume();
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long result = nextLong();
+        if (result != (int) result) {
+            throw syntaxError("Expected an int but was " + result);
+        }
+        return (int) result;
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        checkValue();
+        double result;
+        switch (kind) {
+            case INT:
+                result = value;
+                break;
+            case BIG:
+                result = big.doubleValue();
+                break;
+            case FLOAT:
+                result = real;
+                break;
+            default:
+                throw unexpected("NUMBER");
+        }
+        consume();
+        return result;
+    }
+
+    @Override
+    public Number nextNumber() throws IOException {
+        checkValue();
+        Number result;
+        switch (kind) {
+            case INT:
+                result = value == (int) value ? (Number) (int) value : (Number) value;
+                break;
+            case BIG:
+                result = big;
+                break;
+            case FLOAT:
+                result = real;
+                break;
+            default:
+                throw unexpected("NUMBER");
+        }
+        consume();
+        return result;
+    }
+
+    /**
+     * Skips the next value without decoding strings; when positioned at a name, skips only the name.
+     */
+    @Override
+    public void skipValue() throws IOException {
+        int k = header();
+        if (namePosition()) {
+            if (k == MAP || k == ARRAY) {
+                throw syntaxError("Unsupported " + format() + " map key");
+            }
+            if (k == TEXT || k == BYTES) {
+                skipContent();
+            }
+            consume();
+            return;
+        }
+        switch (k) {
+            case MAP:
+            case ARRAY:
+                int level = depth;
+                push(k == MAP, k == MAP && length >= 0 ? length * 2 : length);
+                while (depth > level) {
+                    int next = header();
+                    if (next == END || next == BREAK) {
+                        pop(objects[depth], "a value");
+                    } else if (next == MAP || next == ARRAY) {
+                        push(next == MAP, next == MAP && length >= 0 ? length * 2 : length);
+                    } else if (next == EOF) {
+                        throw unexpected("a value");
+                    } else {
+                        if (next == TEXT || next == BYTES) {
+                            skipContent();
+                        }
+                        consume();
+                    }
+                }
+                break;
+            case TEXT:
+            case BYTES:
+                skipContent();
+                consume();
+                break;
+            case END:
+            case BREAK:
+            case EOF:
+                throw unexpected("a value");
+            default:
+                consume();
+        }
+    }
+
+    /**
+     * Reads the next value as a tree; byte strings are returned as byte[].
+     */
+    @Override
+    public Object nextValue() throws IOException {
+        checkValue();
+        switch (kind) {
+            case MAP:
+                return nextJSONObject();
+            case ARRAY:
+                return nextJSONArray();
+            case BYTES:
+                byte[] bytes = readBytes();
+                consume();
+                return bytes;
+            case TEXT:
+                return nextString();
+            case TRUE:
+            case FALSE:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                return nextNumber();
+        }
+    }
+
+    @Override
+    public long getPosition() {
+        return offset + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        kind = EOF;
+        documentRead = true;
+        depth = 0;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    // ========== 供子类读取字节 ==========
+
+    final int readByte() throws IOException {
+        if (pos == limit && !fill(1)) {
+            throw truncated();
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    final long readUnsigned(int bytes) throws IOException {
+        require(bytes);
+        long result = 0;
+        for (int i = 0; i < bytes; i++) {
+            result = (result << 8) | (buf[pos++] & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * The next n bytes as a new array.
+     */
+    final byte[] readRaw(long n) throws IOException {
+        if (n > Integer.MAX_VALUE - 8) {
+            throw syntaxError(format() + " string too long: " + n);
+        }
+        int size = (int) n;
+        if (in == null) {
+            require(size);
+            byte[] result = Arrays.copyOfRange(buf, pos, pos + size);
+            pos += size;
+            return result;
+        }
+        byte[] result = new byte[size];
+        int copied = Math.min(limit - pos, size);
+        System.arraycopy(buf, pos, result, 0, copied);
+        pos += copied;
+        while (copied < size) {
+            int read = in.read(result, copied, size - copied);
+            if (read < 0) {
+                throw truncated();
+            }
+            copied += read;
+            offset += read;
+        }
+        return result;
+    }
+
+    final JSONException syntaxError(String message) {
+        return new JSONException(message + " at byte " + getPosition());
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * Loads the next header if needed and returns its kind; ends of definite containers and of the document
+     * are synthesized here.
+     */
+    private int header() throws IOException {
+        if (kind != NONE) {
+            return kind;
+        }
+        if (depth > 0 && remaining[depth] == 0) {
+            kind = END;
+        } else if (depth == 0 && documentRead) {
+            if (pos == limit && !fill(1)) {
+                kind = EOF;
+            } else {
+                throw syntaxError("Trailing data after the " + format() + " value");
+            }
+        } else {
+            preloaded = null;
+            readHeader();
+            if (kind == BREAK && (depth == 0 || remaining[depth] >= 0)) {
+                throw syntaxError("Unexpected break");
+            }
+            if (kind == BREAK && objects[depth] && consumed[depth] % 2 != 0) {
+                throw syntaxError("Map ended after a key");
+            }
+        }
+        return kind;
+    }
+
+    private boolean namePosition() {
+        return depth > 0 && objects[depth] && consumed[depth] % 2 == 0 && kind != END && kind != BREAK;
+    }
+
+    private void checkValue() throws IOException {
+        int k = header();
+        if (namePosition() || k == END || k == BREAK || k == EOF) {
+            throw unexpected("a value");
+        }
+    }
+
+    private void expectValue(int expected, String token) throws IOException {
+        checkValue();
+        if (kind != expected) {
+            throw unexpected(token);
+        }
+    }
+
+    /**
+     * The current item has been read completely.
+     */
+    private void consume() {
+        kind = NONE;
+        preloaded = null;
+        if (depth == 0) {
+            documentRead = true;
+        } else {
+            consumed[depth]++;
+            if (remaining[depth] > 0) {
+                remaining[depth]--;
+            }
+        }
+    }
+
+    private void push(boolean object, long items) {
+        kind = NONE;
+        if (++depth == remaining.length) {
+            remaining = Arrays.copyOf(remaining, depth * 2);
+            consumed = Arrays.copyOf(consumed, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        remaining[depth] = items;
+        consumed[depth] = 0;
+        objects[depth] = object;
+    }
+
+    private void pop(boolean object, String token) throws IOException {
+        int k = header();
+        if ((k != END && k != BREAK) || objects[depth] != object) {
+            throw unexpected(token);
+        }
+        depth--;
+        consume();
+    }
+
+    private String readText() throws IOException {
+        if (preloaded != null) {
+            return new String(preloaded, StandardCharsets.UTF_8);
+        }
+        if (length <= BUFFER_SIZE) {
+            int n = (int) length;
+            require(n);
+            String text = new String(buf, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return text;
+        }
+        return new String(readRaw(length), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        return preloaded != null ? preloaded : readRaw(length);
+    }
+
+    private void skipContent() throws IOException {
+        if (preloaded != null) {
+            return;
+        }
+        long n = length;
+        while (n > 0) {
+            if (pos == limit && !fill(1)) {
+                throw truncated();
+            }
+            int step = (int) Math.min(n, limit - pos);
+            pos += step;
+            n -= step;
+        }
+    }
+
+    private void require(int n) throws IOException {
+        if (limit - pos < n && !fill(n)) {
+            throw truncated();
+        }
+    }
+
+    /**
+     * Makes at least n bytes available in buf; false at the end of the input.
+     */
+    private boolean fill(int n) throws IOException {
+        if (in == null) {
+            return limit - pos >= n;
+        }
+        if (n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(n, buf.length * 2));
+        }
+        if (pos > 0) {
+            int kept = limit - pos;
+            System.arraycopy(buf, pos, buf, 0, kept);
+            offset += pos;
+            pos = 0;
+            limit = kept;
+        }
+        while (limit < n) {
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    private JSONException truncated() {
+        return syntaxError("Unexpected end of " + format() + " input");
+    }
+
+    private JSONException unexpected(String expected) {
+        String actual;
+        try {
+            actual = peek().toString();
+        } catch (IOException | JSONException e) {
+            actual = "?";
+        }
+        return syntaxError("Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,368 @@
+package com.jnet.core.org.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+
+/**
+ * CBOR (RFC 8949) encoding and decoding for the same values as {@link JsonMapper}.
+ *
+ * <p>
+ * {@link #encode(Object)} accepts everything {@link JsonMapper#toJsonBytes(Object)} does and picks the shortest
+ * head for every integer, length and float (see {@link BinaryEncoder} for the few mapping differences).
+ * Decoding produces the JSON tree model (JSONObject, JSONArray, String, Integer/Long/BigInteger, Double,
+ * Boolean, byte[] for byte strings) or binds straight to a type through the same binders as JSON, without an
+ * intermediate tree. Indefinite-length items and bignum tags (2, 3) are decoded; other tags are ignored and
+ * their content read as usual; undefined reads as null.
+ * </p>
+ *
+ * <pre>
+ * byte[] body = Cbor.encode(order);
+ * Order copy = Cbor.decode(body, Order.class);
+ * </pre>
+ */
+public final class Cbor {
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    private static final ThreadLocal<Encoder> POOL = ThreadLocal.withInitial(Encoder::new);
+
+    private Cbor() {
+    }
+
+    /**
+     * @throws IllegalArgumentException on a circular reference or nesting deeper than 100
+     */
+    public static byte[] encode(Object value) {
+        return BinaryEncoder.encode(POOL, Encoder::new, value);
+    }
+
+    /**
+     * Decodes one complete item as a tree.
+     *
+     * @throws JSONException on malformed or truncated input, or trailing data
+     */
+    public static Object decode(byte[] data) {
+        try {
+            return readDocument(new Reader(data), null);
+        } catch (IOException e) {
+            // byte arrays do not throw IOException
+            throw new JSONException(e);
+        }
+    }
+
+    public static <T> T decode(byte[] data, Class<T> type) {
+        return decode(data, (Type) type);
+    }
+
+    /**
+     * Binds one complete item to the type.
+     *
+     * @throws JSONException on malformed input or a value that does not fit the type
+     */
+    public static <T> T decode(byte[] data, Type type) {
+        try {
+            return readDocument(new Reader(data), type);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+    }
+
+    /**
+     * Binds one complete item read from the stream; the stream is not closed.
+     */
+    public static <T> T decode(InputStream in, Type type) throws IOException {
+        return readDocument(new Reader(in), type);
+    }
+
+    /**
+     * Token reader over a CBOR item, for streaming through {@link JsonMapper#read} or {@link JsonPath#select}.
+     */
+    public static JsonReader reader(byte[] data) {
+        return new Reader(data);
+    }
+
+    public static JsonReader reader(InputStream in) {
+        return new Reader(in);
+    }
+
+    // ========== 内部方法 ==========
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readDocument(JsonReader reader, Type type) throws IOException {
+        T value = type == null ? (T) reader.nextValue() : JsonMapper.read(reader, type);
+        reader.peek(); // rejects trailing data
+        return value;
+    }
+
+    private static final class Encoder extends BinaryEncoder {
+
+        @Override
+        void writeNull() {
+            writeByte(0xF6);
+        }
+
+        @Override
+        void writeBoolean(boolean v) {
+            writeByte(v ? 0xF5 : 0xF4);
+        }
+
+        @Override
+        void writeLong(long v) {
+            if (v >= 0) {
+                head(0, v);
+            } else {
+                head(1, -1 - v);
+            }
+        }
+
+        @Override
+        void writeBigInteger(BigInteger v) {
+            // tag 2 (positive) or 3 (negative, -1 - n) over the magnitude bytes
+            boolean negative = v.signum() < 0;
+            byte[] magnitude = (negative ? v.negate().subtract(BigInteger.ONE) : v).toByteArray();
+            int skip = magnitude[0] == 0 ? 1 : 0;
+            writeByte(negative ? 0xC3 : 0xC2);
+            writeBytes(magnitude, skip, magnitude.length - skip);
+        }
+
+        @Override
+        void writeFloat(float v) {
+            writeByte(0xFA);
+            writeBigEndian(Float.floatToIntBits(v), 4);
+        }
+
+        @Override
+        void writeDouble(double v) {
+            if ((float) v == v || Double.isNaN(v)) {
+                writeFloat((float) v);
+            } else {
+                writeByte(0xFB);
+                writeBigEndian(Double.doubleToLongBits(v), 8);
+            }
+        }
+
+        @Override
+        void writeTextHeader(int utf8Length) {
+            head(3, utf8Length);
+        }
+
+        @Override
+        void writeBytes(byte[] bytes, int offset, int length) {
+            head(2, length);
+            writeRaw(bytes, offset, length);
+        }
+
+        @Override
+        void writeMapHeader(int size) {
+            head(5, size);
+        }
+
+        @Override
+        void writeArrayHeader(int size) {
+            head(4, size);
+        }
+
+        /**
+         * Major type with the argument in the shortest form; n is unsigned.
+         */
+        private void head(int major, long n) {
+            int type = major << 5;
+            if (n >= 0 && n < 24) {
+                writeByte(type | (int) n);
+            } else if (n >= 0 && n <= 0xFF) {
+                writeByte(type | 24);
+                writeByte((int) n);
+            } else if (n >= 0 && n <= 0xFFFF) {
+                writeByte(type | 25);
+                writeBigEndian(n, 2);
+            } else if (n >= 0 && n <= 0xFFFFFFFFL) {
+                writeByte(type | 26);
+                writeBigEndian(n, 4);
+            } else {
+                writeByte(type | 27);
+                writeBigEndian(n, 8);
+            }
+        }
+    }
+
+    private static final class Reader extends BinaryReader {
+
+        Reader(byte[] data) {
+            super(data);
+        }
+
+        Reader(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        String format() {
+            return "CBOR";
+        }
+
+        @Override
+        void readHeader() throws IOException {
+            int initial = readByte();
+            int major = initial >>> 5;
+            int info = initial & 0x1F;
+            if (major == 7) {
+                readSimple(info);
+                return;
+            }
+            long argument = argument(info, major);
+            switch (major) {
+                case 0:
+                    integer(false, argument);
+                    break;
+                case 1:
+                    integer(true, argument);
+                    break;
+                case 2:
+                case 3:
+                    kind = major == 2 ? BYTES : TEXT;
+                    length = argument;
+                    if (argument < 0) {
+                        preloaded = chunks(major);
+                        length = preloaded.length;
+                    }
+                    break;
+                case 4:
+                    kind = ARRAY;
+                    length = argument;
+                    break;
+                case 5:
+                    kind = MAP;
+                    length = argument;
+                    break;
+                default:
+                    tag(argument);
+            }
+        }
+
+        /**
+         * Argument of a head: the value for major types 0 and 1 (unsigned, may exceed long), lengths otherwise;
+         * -1 for indefinite length.
+         */
+        private long argument(int info, int major) throws IOException {
+            if (info < 24) {
+                return info;
+            }
+            switch (info) {
+                case 24:
+                    return readUnsigned(1);
+                case 25:
+                    return readUnsigned(2);
+                case 26:
+                    return readUnsigned(4);
+                case 27:
+                    long n = readUnsigned(8);
+                    if (n < 0 && major != 0 && major != 1 && major != 6) {
+                        throw syntaxError("CBOR length too large");
+                    }
+                    return n;
+                case 31:
+                    if (major >= 2 && major <= 5) {
+                        return -1;
+                    }
+                    // fall through
+                default:
+                    throw syntaxError("Invalid CBOR additional information " + info + " for major type " + major);
+            }
+        }
+
+        private void integer(boolean negative, long argument) {
+            if (argument >= 0) {
+                kind = INT;
+                value = negative ? -1 - argument : argument;
+            } else {
+                // beyond long: the argument is an unsigned 64-bit value
+                BigInteger n = new BigInteger(Long.toUnsignedString(argument));
+                kind = BIG;
+                big = negative ? BigInteger.ONE.negate().subtract(n) : n;
+            }
+        }
+
+        private void readSimple(int info) throws IOException {
+            switch (info) {
+                case 20:
+                    kind = FALSE;
+                    break;
+                case 21:
+                    kind = TRUE;
+                    break;
+                case 22:
+                case 23:
+                    kind = NULL;
+                    break;
+                case 25:
+                    kind = FLOAT;
+                    real = halfToDouble((int) readUnsigned(2));
+                    break;
+                case 26:
+                    kind = FLOAT;
+                    real = Float.intBitsToFloat((int) readUnsigned(4));
+                    break;
+                case 27:
+                    kind = FLOAT;
+                    real = Double.longBitsToDouble(readUnsigned(8));
+                    break;
+                case 31:
+                    kind = BREAK;
+                    break;
+                default:
+                    throw syntaxError("Unsupported CBOR simple value " + info);
+            }
+        }
+
+        private void tag(long tag) throws IOException {
+            readHeader();
+            if ((tag == 2 || tag == 3) && kind == BYTES) {
+                byte[] magnitude = preloaded != null ? preloaded : readRaw(length);
+                BigInteger n = new BigInteger(1, magnitude);
+                BigInteger v = tag == 2 ? n : BigInteger.ONE.negate().subtract(n);
+                preloaded = null;
+                if (v.bitLength() < 64) {
+                    kind = INT;
+                    value = v.longValue();
+                } else {
+                    kind = BIG;
+                    big = v;
+                }
+            }
+        }
+
+        /**
+         * Concatenated chunks of an indefinite-length string.
+         */
+        private byte[] chunks(int major) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            while (true) {
+                int initial = readByte();
+                if (initial == 0xFF) {
+                    return out.toByteArray();
+                }
+                if (initial >>> 5 != major || (initial & 0x1F) == 31) {
+                    throw syntaxError("Invalid chunk in indefinite-length CBOR string");
+                }
+                byte[] chunk = readRaw(argument(initial & 0x1F, major));
+                out.write(chunk, 0, chunk.length);
+            }
+        }
+
+        private static double halfToDouble(int half) {
+            int exponent = (half >> 10) & 0x1F;
+            int mantissa = half & 0x3FF;
+            double value;
+            if (exponent == 0) {
+                value = Math.scalb((double) mantissa, -24);
+            } else if (exponent == 31) {
+                value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+            } else {
+                value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+            }
+            return (half & 0x8000) != 0 ? -value : value;
+        }
+    }
+}
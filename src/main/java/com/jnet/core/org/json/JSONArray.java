@@ -14,6 +14,14 @@ public class JSONArray implements Iterable<Object> {
         this.list = new ArrayList<>();
     }
 
+    /**
+     * For subclasses that keep their own storage and override {@link #length}, {@link #opt},
+     * {@link #iterator} and {@link #put}.
+     */
+    JSONArray(boolean ownStorage) {
+        this.list = ownStorage ? null : new ArrayList<>();
+    }
+
     public JSONArray(String source) throws JSONException {
         this();
         new JSONParser(source).parseArray(this);
@@ -52,7 +60,7 @@ public class JSONArray implements Iterable<Object> {
         if (index < 0 || index >= this.length()) {
             throw new JSONException("JSONArray[" + index + "] not found.");
         }
-        return this.list.get(index);
+        return opt(index);
     }
 
     public String getString(int index) throws JSONException {
@@ -115,7 +123,7 @@ public class JSONArray implements Iterable<Object> {
         StringBuilder sb = new StringBuilder();
         sb.append("[");
         boolean first = true;
-        for (Object o : list) {
+        for (Object o : this) {
             if (!first)
                 sb.append(",");
             sb.append(JSONObject.valueToString(o));
@@ -15,6 +15,14 @@ public class JSONObject {
         this.map = new HashMap<>();
     }
 
+    /**
+     * For subclasses that keep their own storage and override {@link #opt}, {@link #has}, {@link #keys},
+     * {@link #length} and {@link #put}.
+     */
+    JSONObject(boolean ownStorage) {
+        this.map = ownStorage ? null : new HashMap<>();
+    }
+
     public JSONObject(String source) throws JSONException {
         this();
         // A real parser would be complex. For now, we assume simple JSON or delegate to
@@ -58,13 +66,17 @@ public class JSONObject {
         if (key == null) {
             throw new JSONException("Null key.");
         }
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value == null) {
             throw new JSONException("JSONObject[" + quote(key) + "] not found.");
         }
         return value;
     }
 
+    public Object opt(String key) {
+        return key == null ? null : this.map.get(key);
+    }
+
     public String getString(String key) throws JSONException {
         Object object = get(key);
         if (object instanceof String) {
@@ -78,12 +90,12 @@ public class JSONObject {
     }
 
     public String optString(String key, String defaultValue) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         return value != null ? value.toString() : defaultValue;
     }
 
     public long optLong(String key, long defaultValue) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value instanceof Number) {
             return ((Number) value).longValue();
         }
@@ -95,7 +107,7 @@ public class JSONObject {
     }
 
     public int optInt(String key, int defaultValue) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value instanceof Number) {
             return ((Number) value).intValue();
         }
@@ -107,7 +119,7 @@ public class JSONObject {
     }
 
     public boolean optBoolean(String key, boolean defaultValue) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value instanceof Boolean) {
             return (Boolean) value;
         }
@@ -118,7 +130,7 @@ public class JSONObject {
     }
 
     public JSONObject optJSONObject(String key) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value instanceof JSONObject) {
             return (JSONObject) value;
         }
@@ -126,7 +138,7 @@ public class JSONObject {
     }
 
     public JSONArray optJSONArray(String key) {
-        Object value = this.map.get(key);
+        Object value = opt(key);
         if (value instanceof JSONArray) {
             return (JSONArray) value;
         }
@@ -145,6 +157,10 @@ public class JSONObject {
         return this.map.containsKey(key);
     }
 
+    public int length() {
+        return this.map.size();
+    }
+
     public Iterator<String> keys() {
         return this.map.keySet().iterator();
     }
@@ -154,12 +170,13 @@ public class JSONObject {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
         boolean first = true;
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
+        for (Iterator<String> it = keys(); it.hasNext(); ) {
+            String key = it.next();
             if (!first)
                 sb.append(",");
-            sb.append(quote(entry.getKey()));
+            sb.append(quote(key));
             sb.append(":");
-            sb.append(valueToString(entry.getValue()));
+            sb.append(valueToString(opt(key)));
             first = false;
         }
         sb.append("}");
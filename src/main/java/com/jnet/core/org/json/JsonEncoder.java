@@ -0,0 +1,703 @@
+package com.jnet.core.org.json;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes Java values as UTF-8 JSON straight into a byte array, without an intermediate String.
+ *
+ * <p>
+ * Values are dispatched through a per-class writer cached in a {@link ClassValue}. POJO and record writers
+ * hold each property's name pre-encoded as {@code "name":} bytes and a getter compiled with
+ * {@link LambdaMetafactory} (primitive getters stay unboxed), falling back to a field {@link MethodHandle}
+ * when there is no getter. Maps, iterables, arrays, dates and temporals are written like
+ * {@code JNetUtils.toJsonString}; other {@code java.*} types are written as their toString() string.
+ * </p>
+ *
+ * <p>
+ * Cycles are not tracked per value. The encoder keeps only the chain of open containers; when nesting
+ * reaches {@link #MAX_DEPTH} that chain is scanned once to tell a circular reference from a merely deep
+ * value. Either way an IllegalArgumentException is thrown, as toJsonString does.
+ * </p>
+ */
+final class JsonEncoder {
+    static final int MAX_DEPTH = 100;
+
+    // buffers that grew beyond this are not kept by the thread-local pool
+    private static final int POOLED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<JsonEncoder> POOL = ThreadLocal.withInitial(JsonEncoder::new);
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    // 0: copy as is, -1: \\u00XX, otherwise the character after the backslash
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = -1;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    private static final ClassValue<Property[]> PROPERTIES = new ClassValue<Property[]>() {
+        @Override
+        protected Property[] computeValue(Class<?> type) {
+            return properties(type);
+        }
+    };
+
+    private static final ClassValue<ValueWriter> WRITERS = new ClassValue<ValueWriter>() {
+        @Override
+        protected ValueWriter computeValue(Class<?> type) {
+            return writerFor(type);
+        }
+    };
+
+    private byte[] buf = new byte[4096];
+    private int count;
+    private boolean inUse;
+    private final Object[] path = new Object[MAX_DEPTH + 1];
+
+    /**
+     * Encodes the value with this thread's pooled buffer and returns an exact-size copy.
+     */
+    static byte[] encode(Object value) {
+        JsonEncoder encoder = POOL.get();
+        if (encoder.inUse) {
+            // a getter serializing another value on the same thread
+            encoder = new JsonEncoder();
+        }
+        encoder.inUse = true;
+        try {
+            encoder.count = 0;
+            encoder.writeValue(value, 0);
+            return Arrays.copyOf(encoder.buf, encoder.count);
+        } finally {
+            encoder.inUse = false;
+            Arrays.fill(encoder.path, null);
+            if (encoder.buf.length > POOLED_CAPACITY) {
+                encoder.buf = new byte[4096];
+            }
+        }
+    }
+
+    // ========== 写入 ==========
+
+    void writeValue(Object value, int depth) {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        WRITERS.get(value.getClass()).write(this, value, depth);
+    }
+
+    /**
+     * Records the container at the given depth; fails when the depth limit is reached.
+     */
+    private void enter(Object container, int depth) {
+        if (depth >= MAX_DEPTH) {
+            for (int i = 0; i < depth; i++) {
+                if (path[i] == container) {
+                    throw new IllegalArgumentException("Circular reference detected in JSON serialization");
+                }
+            }
+            throw new IllegalArgumentException("JSON serialization depth exceeded (max " + MAX_DEPTH + ")");
+        }
+        path[depth] = container;
+    }
+
+    private void writeMap(Map<?, ?> map, int depth) {
+        enter(map, depth);
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            if (!first) {
+                writeByte(',');
+            }
+            writeString(String.valueOf(e.getKey()));
+            writeByte(':');
+            writeValue(e.getValue(), depth + 1);
+            first = false;
+        }
+        writeByte('}');
+    }
+
+    private void writeJSONObject(JSONObject object, int depth) {
+        enter(object, depth);
+        writeByte('{');
+        boolean first = true;
+        for (Iterator<String> it = object.keys(); it.hasNext(); ) {
+            String key = it.next();
+            if (!first) {
+                writeByte(',');
+            }
+            writeString(key);
+            writeByte(':');
+            writeValue(object.opt(key), depth + 1);
+            first = false;
+        }
+        writeByte('}');
+    }
+
+    private void writeIterable(Iterable<?> iterable, int depth) {
+        enter(iterable, depth);
+        writeByte('[');
+        Iterator<?> it = iterable.iterator();
+        if (it.hasNext()) {
+            writeValue(it.next(), depth + 1);
+            while (it.hasNext()) {
+                writeByte(',');
+                writeValue(it.next(), depth + 1);
+            }
+        }
+        writeByte(']');
+    }
+
+    private void writeList(List<?> list, int depth) {
+        enter(list, depth);
+        writeByte('[');
+        for (int i = 0, n = list.size(); i < n; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeValue(list.get(i), depth + 1);
+        }
+        writeByte(']');
+    }
+
+    private void writeArray(Object[] array, int depth) {
+        enter(array, depth);
+        writeByte('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeValue(array[i], depth + 1);
+        }
+        writeByte(']');
+    }
+
+    private void writeObject(Object bean, Property[] properties, int depth) {
+        enter(bean, depth);
+        writeByte('{');
+        boolean first = true;
+        for (Property property : properties) {
+            if (!first) {
+                writeByte(',');
+            }
+            writeRaw(property.name);
+            property.write(this, bean, depth + 1);
+            first = false;
+        }
+        writeByte('}');
+    }
+
+    void writeString(String s) {
+        int length = s.length();
+        // worst case per char: 6 bytes (\\u00XX) or 3 bytes of UTF-8
+        ensure(length * 6 + 2);
+        byte[] b = buf;
+        int n = count;
+        b[n++] = '"';
+        // tight loop for the common case: ASCII without anything to escape
+        int i = 0;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80 || ESCAPES[c] != 0) {
+                break;
+            }
+            b[n++] = (byte) c;
+        }
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    b[n++] = (byte) c;
+                } else if (escape > 0) {
+                    b[n++] = '\\';
+                    b[n++] = escape;
+                } else {
+                    b[n++] = '\\';
+                    b[n++] = 'u';
+                    b[n++] = '0';
+                    b[n++] = '0';
+                    b[n++] = HEX[c >> 4];
+                    b[n++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                b[n++] = (byte) (0xF0 | (cp >> 18));
+                b[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, replaced like String.getBytes(UTF_8) does
+                b[n++] = '?';
+            } else {
+                b[n++] = (byte) (0xE0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        b[n++] = '"';
+        count = n;
+    }
+
+    void writeLong(long v) {
+        if (v == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (v < 0) {
+            buf[count++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) {
+            digits++;
+        }
+        int end = count + digits;
+        for (int i = end - 1; i >= count; i--) {
+            buf[i] = (byte) ('0' + (v % 10));
+            v /= 10;
+        }
+        count = end;
+    }
+
+    void writeDouble(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) {
+            writeRaw(NULL);
+        } else {
+            writeAscii(Double.toString(v));
+        }
+    }
+
+    void writeBoolean(boolean v) {
+        writeRaw(v ? TRUE : FALSE);
+    }
+
+    private void writeNumber(Number number) {
+        double value = number.doubleValue();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeRaw(NULL);
+        } else {
+            writeAscii(number.toString());
+        }
+    }
+
+    private void writeAscii(String s) {
+        int length = s.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buf[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeRaw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensure(1);
+        buf[count++] = (byte) c;
+    }
+
+    private void ensure(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+        }
+    }
+
+    // ========== 按类型的写入器 ==========
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonEncoder encoder, Object value, int depth);
+    }
+
+    private static ValueWriter writerFor(Class<?> type) {
+        if (type == String.class) {
+            return (e, v, d) -> e.writeString((String) v);
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return (e, v, d) -> e.writeLong(((Number) v).longValue());
+        }
+        if (type == Double.class || type == Float.class) {
+            // Float.toString keeps the float's own shortest representation
+            return type == Double.class
+                    ? (e, v, d) -> e.writeDouble((Double) v)
+                    : (e, v, d) -> e.writeNumber((Number) v);
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeNumber((Number) v);
+        }
+        if (type == Boolean.class) {
+            return (e, v, d) -> e.writeBoolean((Boolean) v);
+        }
+        if (type == Character.class || type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return (e, v, d) -> e.writeString(v.toString());
+        }
+        if (JSONObject.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeJSONObject((JSONObject) v, d);
+        }
+        if (JSONArray.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeIterable((JSONArray) v, d);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeMap((Map<?, ?>) v, d);
+        }
+        if (List.class.isAssignableFrom(type) && java.util.RandomAccess.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeList((List<?>) v, d);
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeIterable((Iterable<?>) v, d);
+        }
+        if (type.isArray()) {
+            return arrayWriter(type);
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return (e, v, d) -> e.writeString(((Date) v).toInstant().toString());
+        }
+        if (Temporal.class.isAssignableFrom(type) || isPlatform(type)) {
+            return (e, v, d) -> e.writeString(v.toString());
+        }
+        Property[] properties = PROPERTIES.get(type);
+        if (properties.length == 0) {
+            return (e, v, d) -> e.writeString(v.toString());
+        }
+        return (e, v, d) -> e.writeObject(v, properties, d);
+    }
+
+    private static ValueWriter arrayWriter(Class<?> type) {
+        Class<?> component = type.getComponentType();
+        if (!component.isPrimitive()) {
+            return (e, v, d) -> e.writeArray((Object[]) v, d);
+        }
+        if (component == int.class) {
+            return (e, v, d) -> {
+                int[] a = (int[]) v;
+                e.writeByte('[');
+                for (int i = 0; i < a.length; i++) {
+                    if (i > 0) {
+                        e.writeByte(',');
+                    }
+                    e.writeLong(a[i]);
+                }
+                e.writeByte(']');
+            };
+        }
+        if (component == long.class) {
+            return (e, v, d) -> {
+                long[] a = (long[]) v;
+                e.writeByte('[');
+                for (int i = 0; i < a.length; i++) {
+                    if (i > 0) {
+                        e.writeByte(',');
+                    }
+                    e.writeLong(a[i]);
+                }
+                e.writeByte(']');
+            };
+        }
+        if (component == double.class) {
+            return (e, v, d) -> {
+                double[] a = (double[]) v;
+                e.writeByte('[');
+                for (int i = 0; i < a.length; i++) {
+                    if (i > 0) {
+                        e.writeByte(',');
+                    }
+                    e.writeDouble(a[i]);
+                }
+                e.writeByte(']');
+            };
+        }
+        // byte[], char[], short[], float[], boolean[]: rare in request bodies, boxed element by element
+        return (e, v, d) -> {
+            int length = java.lang.reflect.Array.getLength(v);
+            e.writeByte('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    e.writeByte(',');
+                }
+                e.writeValue(java.lang.reflect.Array.get(v, i), d + 1);
+            }
+            e.writeByte(']');
+        };
+    }
+
+    static boolean isPlatform(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+    }
+
+    // ========== POJO 属性 ==========
+
+    /**
+     * One serialized property: the pre-encoded {@code "name":} bytes and how to write its value.
+     */
+    abstract static class Property {
+        final String key;
+        final byte[] name;
+
+        Property(String name) {
+            this.key = name;
+            JsonEncoder encoder = new JsonEncoder();
+            encoder.writeString(name);
+            encoder.writeByte(':');
+            this.name = Arrays.copyOf(encoder.buf, encoder.count);
+        }
+
+        abstract void write(JsonEncoder encoder, Object bean, int depth);
+
+        /**
+         * The value, boxed; for encoders of other formats.
+         */
+        abstract Object get(Object bean);
+    }
+
+    /**
+     * Serialized properties of a POJO or record, in output order; empty for classes without any.
+     */
+    static Property[] beanProperties(Class<?> type) {
+        return PROPERTIES.get(type);
+    }
+
+    private static Property[] properties(Class<?> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            lookup = MethodHandles.publicLookup();
+        }
+        List<Property> properties = new ArrayList<>();
+        if (JsonMapper.isRecord(type)) {
+            for (String name : JsonMapper.recordComponentNames(type)) {
+                Property property = getterProperty(lookup, type, name, name);
+                if (property != null) {
+                    properties.add(property);
+                }
+            }
+            return properties.toArray(new Property[0]);
+        }
+        // superclass fields first, like the declaration order a reader would expect
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            MethodHandles.Lookup classLookup = c == type ? lookup : lookup(c);
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                String name = field.getName();
+                String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                Property property = getterProperty(classLookup, c,
+                        field.getType() == boolean.class ? "is" + suffix : "get" + suffix, name);
+                if (property == null && field.getType() == boolean.class) {
+                    property = getterProperty(classLookup, c, "get" + suffix, name);
+                }
+                if (property == null) {
+                    property = fieldProperty(classLookup, field);
+                }
+                if (property != null) {
+                    properties.add(property);
+                }
+            }
+        }
+        return properties.toArray(new Property[0]);
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> c) {
+        try {
+            return MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * Property read through a no-arg getter, compiled to a lambda; null when no such getter exists.
+     */
+    private static Property getterProperty(MethodHandles.Lookup lookup, Class<?> owner, String getter, String name) {
+        Method method;
+        MethodHandle handle;
+        try {
+            method = owner.getDeclaredMethod(getter);
+            if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class) {
+                return null;
+            }
+            handle = lookup.unreflect(method);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        Class<?> type = method.getReturnType();
+        try {
+            if (type == int.class || type == short.class || type == byte.class) {
+                ToIntFunction<Object> f = lambda(lookup, ToIntFunction.class, "applyAsInt", int.class, handle, owner);
+                return new Property(name) {
+                    @Override
+                    void write(JsonEncoder encoder, Object bean, int depth) {
+                        encoder.writeLong(f.applyAsInt(bean));
+                    }
+
+                    @Override
+                    Object get(Object bean) {
+                        return f.applyAsInt(bean);
+                    }
+                };
+            }
+            if (type == long.class) {
+                ToLongFunction<Object> f = lambda(lookup, ToLongFunction.class, "applyAsLong", long.class, handle, owner);
+                return new Property(name) {
+                    @Override
+                    void write(JsonEncoder encoder, Object bean, int depth) {
+                        encoder.writeLong(f.applyAsLong(bean));
+                    }
+
+                    @Override
+                    Object get(Object bean) {
+                        return f.applyAsLong(bean);
+                    }
+                };
+            }
+            if (type == double.class) {
+                ToDoubleFunction<Object> f = lambda(lookup, ToDoubleFunction.class, "applyAsDouble", double.class,
+                        handle, owner);
+                return new Property(name) {
+                    @Override
+                    void write(JsonEncoder encoder, Object bean, int depth) {
+                        encoder.writeDouble(f.applyAsDouble(bean));
+                    }
+
+                    @Override
+                    Object get(Object bean) {
+                        return f.applyAsDouble(bean);
+                    }
+                };
+            }
+            if (type == boolean.class) {
+                Predicate<Object> f = lambda(lookup, Predicate.class, "test", boolean.class, handle, owner);
+                return new Property(name) {
+                    @Override
+                    void write(JsonEncoder encoder, Object bean, int depth) {
+                        encoder.writeBoolean(f.test(bean));
+                    }
+
+                    @Override
+                    Object get(Object bean) {
+                        return f.test(bean);
+                    }
+                };
+            }
+            if (!type.isPrimitive()) {
+                Function<Object, Object> f = lambda(lookup, Function.class, "apply", Object.class, handle, owner);
+                return objectProperty(name, type, f::apply);
+            }
+        } catch (Throwable e) {
+            // the lookup may not be allowed to define a lambda in the owner's package; use the handle
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return objectProperty(name, type, bean -> invoke(generic, bean));
+    }
+
+    /**
+     * Property read directly from the field through a method handle; null for inaccessible fields.
+     */
+    private static Property fieldProperty(MethodHandles.Lookup lookup, Field field) {
+        MethodHandle getter;
+        try {
+            getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        return objectProperty(field.getName(), field.getType(), bean -> invoke(getter, bean));
+    }
+
+    private static Property objectProperty(String name, Class<?> type, Function<Object, Object> getter) {
+        if (type == String.class) {
+            return new Property(name) {
+                @Override
+                void write(JsonEncoder encoder, Object bean, int depth) {
+                    Object value = getter.apply(bean);
+                    if (value == null) {
+                        encoder.writeRaw(NULL);
+                    } else {
+                        encoder.writeString((String) value);
+                    }
+                }
+
+                @Override
+                Object get(Object bean) {
+                    return getter.apply(bean);
+                }
+            };
+        }
+        return new Property(name) {
+            @Override
+            void write(JsonEncoder encoder, Object bean, int depth) {
+                encoder.writeValue(getter.apply(bean), depth);
+            }
+
+            @Override
+            Object get(Object bean) {
+                return getter.apply(bean);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T lambda(MethodHandles.Lookup lookup, Class<?> functionalInterface, String methodName,
+                                Class<?> returnType, MethodHandle handle, Class<?> owner) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName, MethodType.methodType(functionalInterface),
+                MethodType.methodType(returnType, Object.class), handle,
+                MethodType.methodType(handle.type().returnType(), owner));
+        return (T) site.getTarget().invoke();
+    }
+
+    private static Object invoke(MethodHandle getter, Object bean) {
+        try {
+            return getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,800 @@
+package com.jnet.core.org.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds JSON straight into POJOs, records, arrays, collections and maps, reading tokens from a
+ * {@link JsonReader} without building a JSONObject tree.
+ *
+ * <p>
+ * A binder is built once per type and cached. Object creation and property setters are compiled with
+ * {@link LambdaMetafactory} (or, where that is not permitted, bound {@link MethodHandle}s), so steady-state
+ * binding performs no reflection. Generic types are resolved through the declared type arguments, e.g.
+ * {@code new TypeReference<Page<Repo>>() {}.getType()} binds {@code List<T> items} as {@code List<Repo>}.
+ * </p>
+ *
+ * <p>
+ * POJOs need a no-arg constructor; each non-static, non-transient field is bound through its setter if one
+ * exists, otherwise directly. A camelCase field also matches its snake_case JSON name ({@code fullName} and
+ * {@code full_name}). Records (Java 16+) are bound through the canonical constructor. Unknown names are
+ * skipped, JSON null leaves primitive properties at their default, and Object-typed properties receive the
+ * usual JSONObject/JSONArray tree.
+ * </p>
+ */
+public final class JsonMapper {
+    private static final Map<Type, Binder> BINDERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Binder> SCALARS = new HashMap<>();
+
+    // Class.isRecord() / getRecordComponents() exist from Java 16; the library targets Java 11
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+
+    static {
+        Method isRecord = null;
+        Method getRecordComponents = null;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+            getRecordComponents = Class.class.getMethod("getRecordComponents");
+        } catch (NoSuchMethodException ignored) {
+            // Java 11 - 15: no records
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getRecordComponents;
+
+        Binder intBinder = r -> r.peek() == JsonReader.Token.STRING ? (int) parse(r, Integer::valueOf) : r.nextInt();
+        Binder longBinder = r -> r.peek() == JsonReader.Token.STRING ? (long) parse(r, Long::valueOf) : r.nextLong();
+        Binder doubleBinder = r -> r.peek() == JsonReader.Token.STRING ? (double) parse(r, Double::valueOf) : r.nextDouble();
+        Binder floatBinder = r -> (float) (double) doubleBinder.read(r);
+        Binder shortBinder = r -> (short) (int) intBinder.read(r);
+        Binder byteBinder = r -> (byte) (int) intBinder.read(r);
+        Binder booleanBinder = r -> r.peek() == JsonReader.Token.STRING ? Boolean.parseBoolean(r.nextString()) : r.nextBoolean();
+        Binder charBinder = r -> {
+            String s = r.nextString();
+            return s.isEmpty() ? '\0' : s.charAt(0);
+        };
+        scalar(intBinder, int.class, Integer.class);
+        scalar(longBinder, long.class, Long.class);
+        scalar(doubleBinder, double.class, Double.class);
+        scalar(floatBinder, float.class, Float.class);
+        scalar(shortBinder, short.class, Short.class);
+        scalar(byteBinder, byte.class, Byte.class);
+        scalar(booleanBinder, boolean.class, Boolean.class);
+        scalar(charBinder, char.class, Character.class);
+        scalar(r -> r.peek() == JsonReader.Token.BOOLEAN ? String.valueOf(r.nextBoolean()) : r.nextString(), String.class);
+        scalar(r -> parse(r, BigDecimal::new), BigDecimal.class);
+        scalar(r -> parse(r, BigInteger::new), BigInteger.class);
+        scalar(JsonReader::nextNumber, Number.class);
+        scalar(JsonReader::nextValue, Object.class);
+        scalar(JsonReader::nextJSONObject, JSONObject.class);
+        scalar(JsonReader::nextJSONArray, JSONArray.class);
+    }
+
+    private JsonMapper() {
+    }
+
+    public static <T> T fromJson(byte[] json, Class<T> type) {
+        return fromJson(json, (Type) type);
+    }
+
+    /**
+     * Binds a complete UTF-8 document.
+     *
+     * @throws JSONException on malformed JSON or a value that does not fit the type
+     */
+    public static <T> T fromJson(byte[] json, Type type) {
+        try {
+            return readDocument(new JsonReader(json), type);
+        } catch (IOException e) {
+            // byte arrays do not throw IOException
+            throw new JSONException(e);
+        }
+    }
+
+    public static <T> T fromJson(String json, Type type) {
+        return fromJson(json.getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * Binds a complete UTF-8 document read from the stream; the stream is not closed.
+     */
+    public static <T> T fromJson(InputStream in, Type type) throws IOException {
+        return readDocument(new JsonReader(in), type);
+    }
+
+    /**
+     * Binds the next value of the reader, e.g. one element of a streamed array.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(JsonReader reader, Type type) throws IOException {
+        return (T) readNullable(reader, binder(type));
+    }
+
+    /**
+     * Serializes the value as UTF-8 JSON bytes.
+     *
+     * <p>
+     * POJOs are written from their getters (or fields, when there is no getter) under their Java property
+     * names, records from their components; maps, collections, arrays, numbers, booleans, dates and
+     * temporals are written like {@code JNetUtils.toJsonString}. NaN and infinite numbers become null.
+     * </p>
+     *
+     * @throws IllegalArgumentException on a circular reference or nesting deeper than 100
+     */
+    public static byte[] toJsonBytes(Object value) {
+        return JsonEncoder.encode(value);
+    }
+
+    public static String toJson(Object value) {
+        return new String(JsonEncoder.encode(value), StandardCharsets.UTF_8);
+    }
+
+    // ========== 内部方法 ==========
+
+    private static <T> T readDocument(JsonReader reader, Type type) throws IOException {
+        T value = read(reader, type);
+        reader.peek(); // rejects trailing data
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        Object read(JsonReader reader) throws IOException;
+    }
+
+    private static void scalar(Binder binder, Class<?>... types) {
+        for (Class<?> type : types) {
+            SCALARS.put(type, binder);
+        }
+    }
+
+    /**
+     * Numbers sent as strings ("42") are accepted; anything else is a type mismatch.
+     */
+    private static <N> N parse(JsonReader reader, Function<String, N> parser) throws IOException {
+        String text = reader.nextString().trim();
+        try {
+            return parser.apply(text);
+        } catch (NumberFormatException e) {
+            throw new JSONException("Expected a number but was \"" + text + "\" at byte " + reader.getPosition(), e);
+        }
+    }
+
+    private static Object readNullable(JsonReader reader, Binder binder) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return binder.read(reader);
+    }
+
+    /**
+     * Cached binder for the type. Creation is serialized; a self-referencing type receives a placeholder that
+     * is filled in once its binder is complete.
+     */
+    private static Binder binder(Type type) {
+        Binder binder = BINDERS.get(type);
+        if (binder != null) {
+            return binder;
+        }
+        synchronized (BINDERS) {
+            binder = BINDERS.get(type);
+            if (binder != null) {
+                return binder;
+            }
+            Deferred deferred = new Deferred();
+            BINDERS.put(type, deferred);
+            try {
+                binder = create(type);
+            } catch (RuntimeException e) {
+                BINDERS.remove(type);
+                throw e;
+            }
+            deferred.delegate = binder;
+            BINDERS.put(type, binder);
+            return binder;
+        }
+    }
+
+    private static final class Deferred implements Binder {
+        volatile Binder delegate;
+
+        @Override
+        public Object read(JsonReader reader) throws IOException {
+            Binder target = delegate;
+            if (target == null) {
+                // another thread is still building the binder; it completes while holding the lock
+                synchronized (BINDERS) {
+                    target = delegate;
+                }
+                if (target == null) {
+                    throw new JSONException("Binder is not available");
+                }
+            }
+            return target.read(reader);
+        }
+    }
+
+    private static Binder create(Type type) {
+        Class<?> raw = rawType(type);
+        Binder scalar = SCALARS.get(raw);
+        if (scalar != null) {
+            return scalar;
+        }
+        if (raw.isEnum()) {
+            return enumBinder(raw);
+        }
+        if (raw.isArray()) {
+            Type component = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+            return arrayBinder(raw, component);
+        }
+        if (Collection.class.isAssignableFrom(raw) || raw == Iterable.class) {
+            return collectionBinder(raw, typeArgument(type, 0));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return mapBinder(raw, typeArgument(type, 0), typeArgument(type, 1));
+        }
+        if (isRecord(raw)) {
+            return recordBinder(type, raw);
+        }
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers()) || raw.isPrimitive()) {
+            throw new JSONException("Cannot bind JSON to " + type.getTypeName());
+        }
+        return beanBinder(type, raw);
+    }
+
+    private static Binder enumBinder(Class<?> raw) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : raw.getEnumConstants()) {
+            constants.put(((Enum<?>) constant).name(), constant);
+        }
+        // unknown names bind to null so that new server-side values do not break old clients
+        return reader -> constants.get(reader.nextString());
+    }
+
+    private static Binder arrayBinder(Class<?> arrayClass, Type componentType) {
+        Binder element = binder(componentType);
+        if (arrayClass == byte[].class) {
+            Binder numbers = arrayBinder(Byte[].class, Byte.class);
+            return reader -> {
+                if (reader.peek() != JsonReader.Token.STRING) {
+                    Byte[] boxed = (Byte[]) numbers.read(reader);
+                    byte[] bytes = new byte[boxed.length];
+                    for (int i = 0; i < boxed.length; i++) {
+                        bytes[i] = boxed[i] == null ? 0 : boxed[i];
+                    }
+                    return bytes;
+                }
+                // byte strings of CBOR/MessagePack come through as byte[]; JSON text carries Base64
+                Object value = reader.nextValue();
+                if (value instanceof byte[]) {
+                    return value;
+                }
+                try {
+                    return Base64.getDecoder().decode((String) value);
+                } catch (IllegalArgumentException e) {
+                    throw new JSONException("Expected Base64 but was \"" + value + "\" at byte " + reader.getPosition(), e);
+                }
+            };
+        }
+        boolean primitive = arrayClass.getComponentType().isPrimitive();
+        MethodHandle constructor = MethodHandles.arrayConstructor(arrayClass)
+                .asType(MethodType.methodType(Object.class, int.class));
+        MethodHandle setter = MethodHandles.arrayElementSetter(arrayClass)
+                .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+        return reader -> {
+            List<Object> values = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                values.add(readNullable(reader, element));
+            }
+            reader.endArray();
+            try {
+                Object array = constructor.invokeExact(values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    Object value = values.get(i);
+                    if (value != null || !primitive) {
+                        setter.invokeExact(array, i, value);
+                    }
+                }
+                return array;
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Binder collectionBinder(Class<?> raw, Type elementType) {
+        Binder element = binder(elementType);
+        Supplier<Object> factory;
+        if (raw.isAssignableFrom(ArrayList.class)) {
+            factory = ArrayList::new;
+        } else if (raw.isAssignableFrom(LinkedHashSet.class)) {
+            factory = LinkedHashSet::new;
+        } else if (raw.isAssignableFrom(TreeSet.class)) {
+            factory = TreeSet::new;
+        } else if (raw.isAssignableFrom(ArrayDeque.class)) {
+            factory = ArrayDeque::new;
+        } else {
+            factory = constructor(raw);
+        }
+        return reader -> {
+            Collection<Object> collection = (Collection<Object>) factory.get();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                collection.add(readNullable(reader, element));
+            }
+            reader.endArray();
+            return collection;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Binder mapBinder(Class<?> raw, Type keyType, Type valueType) {
+        Binder value = binder(valueType);
+        Class<?> keyClass = rawType(keyType);
+        Function<String, Object> key;
+        if (keyClass == String.class || keyClass == Object.class) {
+            key = name -> name;
+        } else if (keyClass == Integer.class) {
+            key = Integer::valueOf;
+        } else if (keyClass == Long.class) {
+            key = Long::valueOf;
+        } else if (keyClass.isEnum()) {
+            key = name -> Enum.valueOf(keyClass.asSubclass(Enum.class), name);
+        } else {
+            throw new JSONException("Unsupported map key type " + keyType.getTypeName());
+        }
+        Supplier<Object> factory;
+        if (raw.isAssignableFrom(LinkedHashMap.class)) {
+            factory = LinkedHashMap::new;
+        } else if (raw.isAssignableFrom(TreeMap.class)) {
+            factory = TreeMap::new;
+        } else if (raw.isAssignableFrom(ConcurrentHashMap.class)) {
+            factory = ConcurrentHashMap::new;
+        } else {
+            factory = constructor(raw);
+        }
+        return reader -> {
+            Map<Object, Object> map = (Map<Object, Object>) factory.get();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                Object k = key.apply(reader.nextName());
+                Object v = readNullable(reader, value);
+                if (v != null || !(map instanceof ConcurrentHashMap)) {
+                    map.put(k, v);
+                }
+            }
+            reader.endObject();
+            return map;
+        };
+    }
+
+    private static Binder beanBinder(Type type, Class<?> raw) {
+        Supplier<Object> factory = constructor(raw);
+        Map<TypeVariable<?>, Type> variables = typeVariables(type);
+        Map<String, Property> properties = new HashMap<>();
+        for (Class<?> c = raw; c != null && c != Object.class; c = c.getSuperclass()) {
+            MethodHandles.Lookup lookup = lookup(c);
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                        || properties.containsKey(field.getName())) {
+                    continue;
+                }
+                BiConsumer<Object, Object> setter = setter(lookup, c, field);
+                if (setter == null) {
+                    continue;
+                }
+                Property property = new Property(binder(resolve(field.getGenericType(), variables)), setter,
+                        field.getType().isPrimitive());
+                properties.put(field.getName(), property);
+                properties.putIfAbsent(snakeCase(field.getName()), property);
+            }
+        }
+        return reader -> {
+            Object bean = factory.get();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                Property property = properties.get(reader.nextName());
+                if (property == null) {
+                    reader.skipValue();
+                    continue;
+                }
+                Object value = readNullable(reader, property.binder);
+                if (value != null || !property.primitive) {
+                    property.setter.accept(bean, value);
+                }
+            }
+            reader.endObject();
+            return bean;
+        };
+    }
+
+    private static final class Property {
+        final Binder binder;
+        final BiConsumer<Object, Object> setter;
+        final boolean primitive;
+
+        Property(Binder binder, BiConsumer<Object, Object> setter, boolean primitive) {
+            this.binder = binder;
+            this.setter = setter;
+            this.primitive = primitive;
+        }
+    }
+
+    private static Binder recordBinder(Type type, Class<?> raw) {
+        Map<TypeVariable<?>, Type> variables = typeVariables(type);
+        Object[] components;
+        Class<?>[] rawTypes;
+        Map<String, Integer> index = new HashMap<>();
+        Binder[] binders;
+        Object[] defaults;
+        MethodHandle constructor;
+        try {
+            components = (Object[]) GET_RECORD_COMPONENTS.invoke(raw);
+            rawTypes = new Class<?>[components.length];
+            binders = new Binder[components.length];
+            defaults = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Class<?> componentClass = components[i].getClass();
+                String name = (String) componentClass.getMethod("getName").invoke(components[i]);
+                rawTypes[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+                Type genericType = (Type) componentClass.getMethod("getGenericType").invoke(components[i]);
+                binders[i] = binder(resolve(genericType, variables));
+                if (rawTypes[i].isPrimitive()) {
+                    defaults[i] = java.lang.reflect.Array.get(java.lang.reflect.Array.newInstance(rawTypes[i], 1), 0);
+                }
+                index.put(name, i);
+                index.putIfAbsent(snakeCase(name), i);
+            }
+            Constructor<?> canonical = raw.getDeclaredConstructor(rawTypes);
+            constructor = lookup(raw).unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new JSONException("Cannot bind JSON to record " + raw.getName(), e);
+        }
+        return reader -> {
+            Object[] args = defaults.clone();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                Integer i = index.get(reader.nextName());
+                if (i == null) {
+                    reader.skipValue();
+                    continue;
+                }
+                Object value = readNullable(reader, binders[i]);
+                if (value != null) {
+                    args[i] = value;
+                }
+            }
+            reader.endObject();
+            try {
+                return constructor.invokeExact(args);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    // --- Accessors ---
+
+    /**
+     * Lookup with private access to the class; falls back to public access when its module does not open it.
+     */
+    private static MethodHandles.Lookup lookup(Class<?> c) {
+        try {
+            return MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> raw) {
+        MethodHandles.Lookup lookup = lookup(raw);
+        MethodHandle handle;
+        try {
+            handle = lookup.findConstructor(raw, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new JSONException("Cannot bind JSON to " + raw.getName() + ": no accessible no-arg constructor", e);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, MethodType.methodType(raw));
+            return (Supplier<Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return generic.invokeExact();
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Setter for the field: its void setXxx(T) method if present, otherwise the field itself; null when
+     * the field is final without a setter or not accessible.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Class<?> owner, Field field) {
+        String name = field.getName();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        MethodHandle method = null;
+        try {
+            method = lookup.findVirtual(owner, setterName, MethodType.methodType(void.class, field.getType()));
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+            // no setter, bind the field
+        }
+        if (method != null) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), method,
+                        MethodType.methodType(void.class, owner, box(field.getType())));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable ignored) {
+                // fall back to the method handle below
+            }
+        } else {
+            if (Modifier.isFinal(field.getModifiers())) {
+                return null;
+            }
+            try {
+                method = lookup.unreflectSetter(field);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+        MethodHandle generic = method.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                generic.invokeExact(bean, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    static boolean isRecord(Class<?> raw) {
+        if (IS_RECORD == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_RECORD.invoke(raw);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Component names of a record class in declaration order.
+     */
+    static List<String> recordComponentNames(Class<?> raw) {
+        try {
+            Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(raw);
+            List<String> names = new ArrayList<>(components.length);
+            for (Object component : components) {
+                names.add((String) component.getClass().getMethod("getName").invoke(component));
+            }
+            return names;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read record components of " + raw.getName(), e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new JSONException(t);
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder sb = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (sb == null) {
+                    sb = new StringBuilder(name.length() + 4).append(name, 0, i);
+                }
+                sb.append('_').append(Character.toLowerCase(c));
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? name : sb.toString();
+    }
+
+    // --- Types ---
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawType(((GenericArrayType) type).getGenericComponentType());
+            return java.lang.reflect.Array.newInstance(component, 0).getClass();
+        }
+        if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        throw new JSONException("Unsupported type " + type);
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                Type argument = arguments[index];
+                return argument instanceof WildcardType ? ((WildcardType) argument).getUpperBounds()[0] : argument;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * Type arguments of the class and its generic superclasses, e.g. T -> Repo for Page&lt;Repo&gt;.
+     */
+    private static Map<TypeVariable<?>, Type> typeVariables(Type type) {
+        Map<TypeVariable<?>, Type> variables = new HashMap<>();
+        Class<?> raw = rawType(type);
+        if (type instanceof ParameterizedType) {
+            TypeVariable<?>[] parameters = raw.getTypeParameters();
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            for (int i = 0; i < parameters.length && i < arguments.length; i++) {
+                variables.put(parameters[i], arguments[i]);
+            }
+        }
+        for (Class<?> c = raw; c != null && c != Object.class; c = c.getSuperclass()) {
+            Type superclass = c.getGenericSuperclass();
+            if (superclass instanceof ParameterizedType) {
+                TypeVariable<?>[] parameters = rawType(superclass).getTypeParameters();
+                Type[] arguments = ((ParameterizedType) superclass).getActualTypeArguments();
+                for (int i = 0; i < parameters.length && i < arguments.length; i++) {
+                    variables.put(parameters[i], resolve(arguments[i], variables));
+                }
+            }
+        }
+        return variables;
+    }
+
+    private static Type resolve(Type type, Map<TypeVariable<?>, Type> variables) {
+        if (type instanceof TypeVariable) {
+            Type bound = variables.get(type);
+            return bound != null ? bound : rawType(type);
+        }
+        if (type instanceof WildcardType) {
+            return resolve(((WildcardType) type).getUpperBounds()[0], variables);
+        }
+        if (type instanceof GenericArrayType) {
+            Type component = resolve(((GenericArrayType) type).getGenericComponentType(), variables);
+            return java.lang.reflect.Array.newInstance(rawType(component), 0).getClass();
+        }
+        if (type instanceof ParameterizedType && !variables.isEmpty()) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments().clone();
+            boolean changed = false;
+            for (int i = 0; i < arguments.length; i++) {
+                Type resolved = resolve(arguments[i], variables);
+                changed |= resolved != arguments[i];
+                arguments[i] = resolved;
+            }
+            return changed ? new ResolvedType(parameterized, arguments) : type;
+        }
+        return type;
+    }
+
+    /**
+     * ParameterizedType with substituted arguments; equals/hashCode agree with the JDK implementation so
+     * that both hit the same cache entry.
+     */
+    private static final class ResolvedType implements ParameterizedType {
+        private final Type rawType;
+        private final Type ownerType;
+        private final Type[] arguments;
+
+        ResolvedType(ParameterizedType source, Type[] arguments) {
+            this.rawType = source.getRawType();
+            this.ownerType = source.getOwnerType();
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) o;
+            return rawType.equals(that.getRawType()) && Objects.equals(ownerType, that.getOwnerType())
+                    && Arrays.equals(arguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(arguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+        }
+
+        @Override
+        public String getTypeName() {
+            StringBuilder sb = new StringBuilder(rawType.getTypeName()).append('<');
+            for (int i = 0; i < arguments.length; i++) {
+                sb.append(i == 0 ? "" : ", ").append(arguments[i].getTypeName());
+            }
+            return sb.append('>').toString();
+        }
+
+        @Override
+        public String toString() {
+            return getTypeName();
+        }
+    }
+}
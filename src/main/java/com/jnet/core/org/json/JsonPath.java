@@ -0,0 +1,363 @@
+package com.jnet.core.org.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A JSONPath subset evaluated while streaming a document through {@link JsonReader}.
+ *
+ * <p>
+ * Supported: the root {@code $}, child names ({@code .name}, {@code ['name']}), array indexes
+ * ({@code [0]}), wildcards ({@code .*}, {@code [*]}) and descendants ({@code ..name}, {@code ..*}).
+ * Filters, slices and negative indexes are not.
+ * </p>
+ *
+ * <p>
+ * Several paths are matched in one pass. Subtrees no path can match are skipped token by token without
+ * being built; only matched values are materialized (scalars as String/Number/Boolean/null, containers as
+ * JSONObject/JSONArray) and handed to the listener as soon as they have been read, so memory stays
+ * proportional to the nesting depth and the largest match, not to the document.
+ * </p>
+ *
+ * <pre>
+ * JsonPath.select(in, (path, value) -&gt; ..., "$.items[*].id", "$.next");
+ * </pre>
+ */
+public final class JsonPath {
+    private static final int NAME = 0;
+    private static final int INDEX = 1;
+    private static final int WILDCARD = 2;
+
+    private final String expression;
+    private final int[] kinds;
+    private final String[] names;
+    private final int[] indexes;
+    private final boolean[] descendant;
+
+    /**
+     * Receives each match in document order.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param path  the expression that matched
+         * @param value the matched value; null for JSON null
+         */
+        void onMatch(String path, Object value);
+    }
+
+    private JsonPath(String expression, List<int[]> kinds, List<String> names) {
+        this.expression = expression;
+        int n = kinds.size();
+        this.kinds = new int[n];
+        this.indexes = new int[n];
+        this.descendant = new boolean[n];
+        this.names = names.toArray(new String[0]);
+        for (int i = 0; i < n; i++) {
+            int[] k = kinds.get(i);
+            this.kinds[i] = k[0];
+            this.indexes[i] = k[1];
+            this.descendant[i] = k[2] != 0;
+        }
+    }
+
+    /**
+     * Parses an expression.
+     *
+     * @throws IllegalArgumentException for syntax this subset does not support
+     */
+    public static JsonPath compile(String expression) {
+        if (expression == null || !expression.startsWith("$")) {
+            throw new IllegalArgumentException("JsonPath must start with '$': " + expression);
+        }
+        List<int[]> kinds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int i = 1;
+        int length = expression.length();
+        while (i < length) {
+            boolean desc = false;
+            if (expression.charAt(i) == '.') {
+                i++;
+                if (i < length && expression.charAt(i) == '.') {
+                    desc = true;
+                    i++;
+                }
+                if (i >= length || expression.charAt(i) != '[') {
+                    int start = i;
+                    while (i < length && expression.charAt(i) != '.' && expression.charAt(i) != '[') {
+                        i++;
+                    }
+                    String name = expression.substring(start, i);
+                    if (name.isEmpty()) {
+                        throw syntax(expression, start);
+                    }
+                    boolean wildcard = "*".equals(name);
+                    kinds.add(new int[]{wildcard ? WILDCARD : NAME, -1, desc ? 1 : 0});
+                    names.add(wildcard ? null : name);
+                    continue;
+                }
+                if (!desc) {
+                    // "$.[0]"
+                    throw syntax(expression, i);
+                }
+            } else if (expression.charAt(i) != '[') {
+                throw syntax(expression, i);
+            }
+            int close = expression.indexOf(']', i);
+            if (close < 0) {
+                throw syntax(expression, i);
+            }
+            String inner = expression.substring(i + 1, close).trim();
+            if ("*".equals(inner)) {
+                kinds.add(new int[]{WILDCARD, -1, desc ? 1 : 0});
+                names.add(null);
+            } else if (inner.length() >= 2 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+                    && inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+                kinds.add(new int[]{NAME, -1, desc ? 1 : 0});
+                names.add(inner.substring(1, inner.length() - 1));
+            } else {
+                int index;
+                try {
+                    index = Integer.parseInt(inner);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unsupported JsonPath segment [" + inner + "]: " + expression);
+                }
+                if (index < 0) {
+                    throw new IllegalArgumentException("Negative indexes are not supported: " + expression);
+                }
+                kinds.add(new int[]{INDEX, index, desc ? 1 : 0});
+                names.add(null);
+            }
+            i = close + 1;
+        }
+        return new JsonPath(expression, kinds, names);
+    }
+
+    /**
+     * Streams the document once, reporting every match of the given expressions.
+     */
+    public static void select(InputStream in, Listener listener, String... expressions) throws IOException {
+        selectDocument(new JsonReader(in), listener, compileAll(expressions));
+    }
+
+    public static void select(byte[] json, Listener listener, String... expressions) {
+        try {
+            selectDocument(new JsonReader(json), listener, compileAll(expressions));
+        } catch (IOException e) {
+            // byte arrays do not throw IOException
+            throw new JSONException(e);
+        }
+    }
+
+    /**
+     * Reads the next value of the reader and reports matches against it, with {@code $} being that value;
+     * e.g. one record of a streamed array.
+     */
+    public static void select(JsonReader reader, Listener listener, JsonPath... paths) throws IOException {
+        new Selector(paths, listener).visit(reader);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    // ========== 内部方法 ==========
+
+    private static void selectDocument(JsonReader reader, Listener listener, JsonPath[] paths) throws IOException {
+        select(reader, listener, paths);
+        reader.peek(); // rejects trailing data
+    }
+
+    private static JsonPath[] compileAll(String... expressions) {
+        JsonPath[] paths = new JsonPath[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            paths[i] = compile(expressions[i]);
+        }
+        return paths;
+    }
+
+    private static IllegalArgumentException syntax(String expression, int at) {
+        return new IllegalArgumentException("Invalid JsonPath at " + at + ": " + expression);
+    }
+
+    private int length() {
+        return kinds.length;
+    }
+
+    private boolean matches(int segment, String name, int index) {
+        switch (kinds[segment]) {
+            case NAME:
+                return name != null && name.equals(names[segment]);
+            case INDEX:
+                return name == null && index == indexes[segment];
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * One evaluation. Active states are (path, segment) pairs packed into ints; segment == path length means
+     * the current value is a match.
+     */
+    private static final class Selector {
+        private final JsonPath[] paths;
+        private final Listener listener;
+        // per-depth scratch for the children's states, reused across siblings
+        private int[][] scratch = new int[16][];
+
+        Selector(JsonPath[] paths, Listener listener) {
+            this.paths = paths;
+            this.listener = listener;
+        }
+
+        void visit(JsonReader reader) throws IOException {
+            int[] root = new int[paths.length];
+            for (int p = 0; p < paths.length; p++) {
+                root[p] = p << 16;
+            }
+            visit(reader, root, root.length, 0);
+        }
+
+        private void visit(JsonReader reader, int[] states, int count, int depth) throws IOException {
+            boolean matched = false;
+            boolean descend = false;
+            for (int i = 0; i < count; i++) {
+                int p = states[i] >>> 16;
+                int k = states[i] & 0xFFFF;
+                if (k == paths[p].length()) {
+                    matched = true;
+                } else {
+                    descend = true;
+                }
+            }
+            if (matched) {
+                // materialize once; deeper states continue on the tree
+                Object value = reader.nextValue();
+                emit(states, count, value);
+                if (descend) {
+                    visitTree(value, states, count);
+                }
+                return;
+            }
+            if (!descend) {
+                reader.skipValue();
+                return;
+            }
+            JsonReader.Token token = reader.peek();
+            if (token == JsonReader.Token.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    int n = step(states, count, name, -1, depth);
+                    if (n == 0) {
+                        reader.skipValue();
+                    } else {
+                        visit(reader, scratch[depth], n, depth + 1);
+                    }
+                }
+                reader.endObject();
+            } else if (token == JsonReader.Token.BEGIN_ARRAY) {
+                reader.beginArray();
+                for (int index = 0; reader.hasNext(); index++) {
+                    int n = step(states, count, null, index, depth);
+                    if (n == 0) {
+                        reader.skipValue();
+                    } else {
+                        visit(reader, scratch[depth], n, depth + 1);
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        private void visitTree(Object value, int[] states, int count) {
+            if (value instanceof JSONObject) {
+                JSONObject object = (JSONObject) value;
+                for (Iterator<String> it = object.keys(); it.hasNext(); ) {
+                    String name = it.next();
+                    int[] next = new int[count * 2];
+                    int n = advance(states, count, name, -1, next);
+                    if (n > 0) {
+                        Object child = object.get(name);
+                        treeMatch(child, next, n);
+                    }
+                }
+            } else if (value instanceof JSONArray) {
+                JSONArray array = (JSONArray) value;
+                for (int index = 0; index < array.length(); index++) {
+                    int[] next = new int[count * 2];
+                    int n = advance(states, count, null, index, next);
+                    if (n > 0) {
+                        treeMatch(array.opt(index), next, n);
+                    }
+                }
+            }
+        }
+
+        private void treeMatch(Object value, int[] states, int count) {
+            emit(states, count, value);
+            visitTree(value, states, count);
+        }
+
+        private void emit(int[] states, int count, Object value) {
+            for (int i = 0; i < count; i++) {
+                int p = states[i] >>> 16;
+                if ((states[i] & 0xFFFF) == paths[p].length()) {
+                    listener.onMatch(paths[p].expression, value);
+                }
+            }
+        }
+
+        /**
+         * States of the child into scratch[depth]; returns their number.
+         */
+        private int step(int[] states, int count, String name, int index, int depth) {
+            if (depth >= scratch.length) {
+                scratch = Arrays.copyOf(scratch, depth * 2);
+            }
+            int[] next = scratch[depth];
+            if (next == null || next.length < count * 2) {
+                next = new int[Math.max(8, count * 2)];
+                scratch[depth] = next;
+            }
+            return advance(states, count, name, index, next);
+        }
+
+        private int advance(int[] states, int count, String name, int index, int[] next) {
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                int p = states[i] >>> 16;
+                int k = states[i] & 0xFFFF;
+                JsonPath path = paths[p];
+                if (k == path.length()) {
+                    continue;
+                }
+                if (path.descendant[k]) {
+                    n = add(next, n, states[i]);
+                }
+                if (path.matches(k, name, index)) {
+                    n = add(next, n, (p << 16) | (k + 1));
+                }
+            }
+            return n;
+        }
+
+        private static int add(int[] states, int n, int state) {
+            // the same state can be reached twice through descendant segments
+            for (int i = 0; i < n; i++) {
+                if (states[i] == state) {
+                    return n;
+                }
+            }
+            states[n] = state;
+            return n + 1;
+        }
+    }
+}
@@ -0,0 +1,856 @@
+package com.jnet.core.org.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Pull-style streaming JSON reader over UTF-8 bytes.
+ * Reads from an {@link InputStream} or a {@link ByteBuffer} without decoding the document into a String:
+ * strings are decoded straight from the byte buffer, numbers are accumulated digit by digit (no substring),
+ * and a {@link JSONObject}/{@link JSONArray} tree is built only when {@link #nextValue()} is called.
+ *
+ * <pre>
+ * try (JsonReader reader = new JsonReader(inputStream)) {
+ *     reader.beginArray();
+ *     while (reader.hasNext()) {
+ *         JSONObject item = reader.nextJSONObject(); // one element in memory at a time
+ *     }
+ *     reader.endArray();
+ * }
+ * </pre>
+ *
+ * Syntax errors throw {@link JSONException} with the byte offset; I/O errors of the underlying stream are
+ * rethrown as {@link IOException}. Not thread-safe.
+ *
+ * <p>
+ * Subclassed only within this package, by readers that present other encodings (CBOR, MessagePack) as the
+ * same token stream so that {@link JsonMapper} binds them unchanged.
+ * </p>
+ */
+public class JsonReader implements Closeable {
+
+    /**
+     * The type of the next token, see {@link #peek()}.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_NAME = 5;
+    private static final int PEEKED_STRING = 6;
+    private static final int PEEKED_NUMBER = 7;
+    private static final int PEEKED_TRUE = 8;
+    private static final int PEEKED_FALSE = 9;
+    private static final int PEEKED_NULL = 10;
+    private static final int PEEKED_EOF = 11;
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    private static final int KIND_LONG = 0;
+    private static final int KIND_DOUBLE = 1;
+    private static final int KIND_BIG = 2;
+
+    // Exactly representable powers of ten for the fast double path (Clinger)
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final byte[] RUE = {'r', 'u', 'e'};
+    private static final byte[] ALSE = {'a', 'l', 's', 'e'};
+    private static final byte[] ULL = {'u', 'l', 'l'};
+
+    private final InputStream in;     // null for ByteBuffer sources
+    private final ByteBuffer direct;  // non-heap ByteBuffer source, copied into buf chunk by chunk
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private long offset; // bytes discarded before buf[0], for error positions
+
+    private int[] stack = new int[32];
+    private int stackSize;
+    private int peeked = PEEKED_NONE;
+
+    // String slow path and number text
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+
+    // Last number read by readNumber()
+    private int numberKind;
+    private long numberLong;
+    private double numberDouble;
+    private BigInteger numberBig;
+
+    public JsonReader(InputStream in) {
+        this.in = Objects.requireNonNull(in, "in");
+        this.direct = null;
+        this.buf = new byte[BUFFER_SIZE];
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Reads the remaining bytes of the buffer. Heap buffers are read in place; the buffer's position is not
+     * modified.
+     */
+    public JsonReader(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        this.in = null;
+        if (buffer.hasArray()) {
+            this.direct = null;
+            this.buf = buffer.array();
+            this.pos = buffer.arrayOffset() + buffer.position();
+            this.limit = buffer.arrayOffset() + buffer.limit();
+            this.offset = -pos;
+        } else {
+            this.direct = buffer.duplicate();
+            this.buf = new byte[BUFFER_SIZE];
+        }
+        push(EMPTY_DOCUMENT);
+    }
+
+    public JsonReader(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * For subclasses that override every public method and keep their own input.
+     */
+    JsonReader() {
+        this.in = null;
+        this.direct = null;
+    }
+
+    public Token peek() throws IOException {
+        switch (peeked()) {
+            case PEEKED_BEGIN_OBJECT:
+                return Token.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT:
+                return Token.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY:
+                return Token.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY:
+                return Token.END_ARRAY;
+            case PEEKED_NAME:
+                return Token.NAME;
+            case PEEKED_STRING:
+                return Token.STRING;
+            case PEEKED_NUMBER:
+                return Token.NUMBER;
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return Token.BOOLEAN;
+            case PEEKED_NULL:
+                return Token.NULL;
+            default:
+                return Token.END_DOCUMENT;
+        }
+    }
+
+    public void beginObject() throws IOException {
+        expect(PEEKED_BEGIN_OBJECT, "BEGIN_OBJECT");
+        push(EMPTY_OBJECT);
+        peeked = PEEKED_NONE;
+    }
+
+    public void endObject() throws IOException {
+        expect(PEEKED_END_OBJECT, "END_OBJECT");
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    public void beginArray() throws IOException {
+        expect(PEEKED_BEGIN_ARRAY, "BEGIN_ARRAY");
+        push(EMPTY_ARRAY);
+        peeked = PEEKED_NONE;
+    }
+
+    public void endArray() throws IOException {
+        expect(PEEKED_END_ARRAY, "END_ARRAY");
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    /**
+     * Returns true if the current array or object has another element.
+     */
+    public boolean hasNext() throws IOException {
+        int p = peeked();
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF;
+    }
+
+    public String nextName() throws IOException {
+        expect(PEEKED_NAME, "NAME");
+        String name = readString();
+        peeked = PEEKED_NONE;
+        return name;
+    }
+
+    /**
+     * Returns the next string value; a number is returned as its literal text.
+     */
+    public String nextString() throws IOException {
+        int p = peeked();
+        String result;
+        if (p == PEEKED_STRING) {
+            result = readString();
+        } else if (p == PEEKED_NUMBER) {
+            readNumber();
+            result = new String(scratch, 0, scratchLength, StandardCharsets.ISO_8859_1);
+        } else {
+            throw unexpected("STRING", p);
+        }
+        peeked = PEEKED_NONE;
+        return result;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        int p = peeked();
+        if (p != PEEKED_TRUE && p != PEEKED_FALSE) {
+            throw unexpected("BOOLEAN", p);
+        }
+        peeked = PEEKED_NONE;
+        return p == PEEKED_TRUE;
+    }
+
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, "NULL");
+        peeked = PEEKED_NONE;
+    }
+
+    public long nextLong() throws IOException {
+        expect(PEEKED_NUMBER, "NUMBER");
+        readNumber();
+        peeked = PEEKED_NONE;
+        if (numberKind == KIND_LONG) {
+            return numberLong;
+        }
+        if (numberKind == KIND_DOUBLE && numberDouble == (long) numberDouble) {
+            return (long) numberDouble;
+        }
+        throw syntaxError("Expected a long but was " + new String(scratch, 0, scratchLength, StandardCharsets.ISO_8859_1));
+    }
+
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value != (int) value) {
+            throw syntaxError("Expected an int but was " + value);
+        }
+        return (int) value;
+    }
+
+    public double nextDouble() throws IOException {
+        expect(PEEKED_NUMBER, "NUMBER");
+        readNumber();
+        peeked = PEEKED_NONE;
+        switch (numberKind) {
+            case KIND_LONG:
+                return numberLong;
+            case KIND_DOUBLE:
+                return numberDouble;
+            default:
+                return numberBig.doubleValue();
+        }
+    }
+
+    /**
+     * Returns the next number as Integer or Long (integral values, the smallest that fits), BigInteger (integral
+     * values beyond long) or Double — the same types the String-based JSONObject parser produces.
+     */
+    public Number nextNumber() throws IOException {
+        expect(PEEKED_NUMBER, "NUMBER");
+        readNumber();
+        peeked = PEEKED_NONE;
+        return currentNumber();
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays, without decoding it. When positioned at a name,
+     * skips only the name.
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int p = peeked();
+            switch (p) {
+                case PEEKED_BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    depth++;
+                    break;
+                case PEEKED_BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    depth++;
+                    break;
+                case PEEKED_END_OBJECT:
+                case PEEKED_END_ARRAY:
+                    if (depth == 0) {
+                        throw unexpected("a value", p);
+                    }
+                    stackSize--;
+                    depth--;
+                    break;
+                case PEEKED_NAME:
+                case PEEKED_STRING:
+                    skipString();
+                    break;
+                case PEEKED_NUMBER:
+                    skipNumber();
+                    break;
+                case PEEKED_EOF:
+                    throw unexpected("a value", p);
+                default:
+                    // literals are consumed by doPeek()
+                    break;
+            }
+            peeked = PEEKED_NONE;
+        } while (depth > 0);
+    }
+
+    /**
+     * Reads the next value as a tree: JSONObject, JSONArray, String, Number, Boolean or null.
+     */
+    public Object nextValue() throws IOException {
+        int p = peeked();
+        switch (p) {
+            case PEEKED_BEGIN_OBJECT:
+                return nextJSONObject();
+            case PEEKED_BEGIN_ARRAY:
+                return nextJSONArray();
+            case PEEKED_STRING:
+                return nextString();
+            case PEEKED_NUMBER:
+                return nextNumber();
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return nextBoolean();
+            case PEEKED_NULL:
+                nextNull();
+                return null;
+            default:
+                throw unexpected("a value", p);
+        }
+    }
+
+    public JSONObject nextJSONObject() throws IOException {
+        beginObject();
+        JSONObject object = new JSONObject();
+        while (hasNext()) {
+            String name = nextName();
+            object.put(name, nextValue());
+        }
+        endObject();
+        return object;
+    }
+
+    public JSONArray nextJSONArray() throws IOException {
+        beginArray();
+        JSONArray array = new JSONArray();
+        while (hasNext()) {
+            array.put(nextValue());
+        }
+        endArray();
+        return array;
+    }
+
+    /**
+     * Byte offset of the next unread byte, relative to the start of the input.
+     */
+    public long getPosition() {
+        return offset + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stack[0] = CLOSED;
+        stackSize = 1;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    // --- Tokenizer ---
+
+    private int peeked() throws IOException {
+        int p = peeked;
+        return p == PEEKED_NONE ? doPeek() : p;
+    }
+
+    private int doPeek() throws IOException {
+        int top = stack[stackSize - 1];
+        int c;
+        if (top == EMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+        } else if (top == NONEMPTY_ARRAY) {
+            c = nextNonWhitespace();
+            if (c == ']') {
+                return peeked = PEEKED_END_ARRAY;
+            }
+            if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+        } else if (top == EMPTY_OBJECT || top == NONEMPTY_OBJECT) {
+            stack[stackSize - 1] = DANGLING_NAME;
+            if (top == NONEMPTY_OBJECT) {
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return peeked = PEEKED_END_OBJECT;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+            }
+            c = nextNonWhitespace();
+            if (c == '"') {
+                return peeked = PEEKED_NAME;
+            }
+            if (c == '}' && top == EMPTY_OBJECT) {
+                return peeked = PEEKED_END_OBJECT;
+            }
+            throw syntaxError("Expected name");
+        } else if (top == DANGLING_NAME) {
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+        } else if (top == EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        } else if (top == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespace() == -1) {
+                return peeked = PEEKED_EOF;
+            }
+            throw syntaxError("Trailing data after the document");
+        } else {
+            throw new IllegalStateException("JsonReader is closed");
+        }
+
+        c = nextNonWhitespace();
+        switch (c) {
+            case ']':
+                if (top == EMPTY_ARRAY) {
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                throw syntaxError("Expected a value");
+            case '{':
+                return peeked = PEEKED_BEGIN_OBJECT;
+            case '[':
+                return peeked = PEEKED_BEGIN_ARRAY;
+            case '"':
+                return peeked = PEEKED_STRING;
+            case 't':
+                return peeked = literal(RUE, PEEKED_TRUE);
+            case 'f':
+                return peeked = literal(ALSE, PEEKED_FALSE);
+            case 'n':
+                return peeked = literal(ULL, PEEKED_NULL);
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--; // the number scanner reads the first character again
+                    return peeked = PEEKED_NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private int literal(byte[] rest, int result) throws IOException {
+        for (byte expected : rest) {
+            if (pos == limit && !fill(1)) {
+                throw syntaxError("Unexpected end of input");
+            }
+            if (buf[pos++] != expected) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+        return result;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                return -1;
+            }
+            int c = buf[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c & 0xFF;
+            }
+        }
+    }
+
+    /**
+     * Reads a string whose opening quote has been consumed.
+     */
+    private String readString() throws IOException {
+        // Fast path: the whole string is already buffered and has no escapes
+        boolean ascii = true;
+        for (int p = pos; p < limit; p++) {
+            byte b = buf[p];
+            if (b == '"') {
+                String result = new String(buf, pos, p - pos,
+                        ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                pos = p + 1;
+                return result;
+            }
+            if (b == '\\') {
+                break;
+            }
+            if (b < 0) {
+                ascii = false;
+            }
+        }
+
+        scratchLength = 0;
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                throw syntaxError("Unterminated string");
+            }
+            int start = pos;
+            while (pos < limit && buf[pos] != '"' && buf[pos] != '\\') {
+                pos++;
+            }
+            append(buf, start, pos - start);
+            if (pos == limit) {
+                continue;
+            }
+            if (buf[pos++] == '"') {
+                return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+            }
+            readEscape();
+        }
+    }
+
+    private void readEscape() throws IOException {
+        if (pos == limit && !fill(1)) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        byte escape = buf[pos++];
+        switch (escape) {
+            case 'b':
+                appendByte('\b');
+                break;
+            case 'f':
+                appendByte('\f');
+                break;
+            case 'n':
+                appendByte('\n');
+                break;
+            case 'r':
+                appendByte('\r');
+                break;
+            case 't':
+                appendByte('\t');
+                break;
+            case 'u':
+                int codePoint = readHex4();
+                if (Character.isHighSurrogate((char) codePoint) && ensure(6)
+                        && buf[pos] == '\\' && buf[pos + 1] == 'u') {
+                    pos += 2;
+                    int low = readHex4();
+                    if (Character.isLowSurrogate((char) low)) {
+                        codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                    } else {
+                        appendUtf8(codePoint);
+                        codePoint = low;
+                    }
+                }
+                appendUtf8(codePoint);
+                break;
+            default:
+                // '"', '\\', '/' and, leniently, any other character stand for themselves
+                appendByte(escape);
+        }
+    }
+
+    private int readHex4() throws IOException {
+        if (!ensure(4)) {
+            throw syntaxError("Invalid unicode escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buf[pos++], 16);
+            if (digit < 0) {
+                throw syntaxError("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                throw syntaxError("Unterminated string");
+            }
+            byte b = buf[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                // \\uXXXX contains no quote or backslash, skipping the escaped byte is enough
+                if (pos == limit && !fill(1)) {
+                    throw syntaxError("Unterminated escape sequence");
+                }
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Scans a number into numberKind/numberLong/numberDouble/numberBig; the literal text is kept in scratch.
+     */
+    private void readNumber() throws IOException {
+        scratchLength = 0;
+        boolean negative = false;
+        boolean decimal = false;
+        boolean overflow = false;
+        long mantissa = 0;
+        int digits = 0;   // significant digits in mantissa
+        int exponent = 0; // decimal exponent applied to mantissa
+
+        int c = peekByte();
+        if (c == '-') {
+            negative = true;
+            appendByte(c);
+            pos++;
+            c = peekByte();
+        }
+        if (c < '0' || c > '9') {
+            throw syntaxError("Expected a digit");
+        }
+        while (c >= '0' && c <= '9') {
+            appendByte(c);
+            pos++;
+            int d = c - '0';
+            if (mantissa != 0 || d != 0) {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + d;
+                    digits++;
+                } else {
+                    overflow = true;
+                    exponent++;
+                }
+            }
+            c = peekByte();
+        }
+        if (c == '.') {
+            decimal = true;
+            appendByte(c);
+            pos++;
+            c = peekByte();
+            if (c < '0' || c > '9') {
+                throw syntaxError("Expected a digit after '.'");
+            }
+            while (c >= '0' && c <= '9') {
+                appendByte(c);
+                pos++;
+                int d = c - '0';
+                if (mantissa == 0 && d == 0) {
+                    exponent--;
+                } else if (digits < 18) {
+                    mantissa = mantissa * 10 + d;
+                    digits++;
+                    exponent--;
+                } else {
+                    overflow = true;
+                }
+                c = peekByte();
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            decimal = true;
+            appendByte(c);
+            pos++;
+            c = peekByte();
+            boolean negativeExponent = false;
+            if (c == '+' || c == '-') {
+                negativeExponent = c == '-';
+                appendByte(c);
+                pos++;
+                c = peekByte();
+            }
+            if (c < '0' || c > '9') {
+                throw syntaxError("Expected a digit in the exponent");
+            }
+            int explicit = 0;
+            while (c >= '0' && c <= '9') {
+                appendByte(c);
+                pos++;
+                if (explicit < 100_000) {
+                    explicit = explicit * 10 + (c - '0');
+                }
+                c = peekByte();
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+
+        if (!decimal) {
+            if (!overflow) {
+                numberKind = KIND_LONG;
+                numberLong = negative ? -mantissa : mantissa;
+                return;
+            }
+            String text = new String(scratch, 0, scratchLength, StandardCharsets.ISO_8859_1);
+            try {
+                numberLong = Long.parseLong(text);
+                numberKind = KIND_LONG;
+            } catch (NumberFormatException e) {
+                numberBig = new BigInteger(text);
+                numberKind = KIND_BIG;
+            }
+            return;
+        }
+        numberKind = KIND_DOUBLE;
+        if (!overflow && digits <= 15 && exponent >= -22 && exponent <= 22) {
+            double value = mantissa;
+            value = exponent < 0 ? value / POW10[-exponent] : value * POW10[exponent];
+            numberDouble = negative ? -value : value;
+        } else {
+            numberDouble = Double.parseDouble(new String(scratch, 0, scratchLength, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private void skipNumber() throws IOException {
+        int c;
+        while ((c = peekByte()) != -1
+                && ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+            pos++;
+        }
+    }
+
+    private Number currentNumber() {
+        switch (numberKind) {
+            case KIND_LONG:
+                // not a ternary: it would unbox and promote both branches to long
+                if (numberLong == (int) numberLong) {
+                    return (int) numberLong;
+                }
+                return numberLong;
+            case KIND_DOUBLE:
+                return numberDouble;
+            default:
+                return numberBig;
+        }
+    }
+
+    // --- Buffer ---
+
+    private int peekByte() throws IOException {
+        if (pos == limit && !fill(1)) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+    private boolean ensure(int count) throws IOException {
+        return limit - pos >= count || fill(count);
+    }
+
+    /**
+     * Makes at least minimum unread bytes available; returns false at end of input.
+     */
+    private boolean fill(int minimum) throws IOException {
+        if (in == null && direct == null) {
+            return limit - pos >= minimum;
+        }
+        if (pos > 0) {
+            int remaining = limit - pos;
+            System.arraycopy(buf, pos, buf, 0, remaining);
+            offset += pos;
+            limit = remaining;
+            pos = 0;
+        }
+        while (limit < minimum) {
+            int n;
+            if (in != null) {
+                n = in.read(buf, limit, buf.length - limit);
+            } else if (direct.hasRemaining()) {
+                n = Math.min(direct.remaining(), buf.length - limit);
+                direct.get(buf, limit, n);
+            } else {
+                n = -1;
+            }
+            if (n == -1) {
+                return false;
+            }
+            limit += n;
+        }
+        return true;
+    }
+
+    private void append(byte[] source, int start, int length) {
+        if (scratchLength + length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + length));
+        }
+        System.arraycopy(source, start, scratch, scratchLength, length);
+        scratchLength += length;
+    }
+
+    private void appendByte(int b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[scratchLength++] = (byte) b;
+    }
+
+    private void appendUtf8(int codePoint) {
+        if (codePoint < 0x80) {
+            appendByte(codePoint);
+        } else if (codePoint < 0x800) {
+            appendByte(0xC0 | (codePoint >> 6));
+            appendByte(0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            // lone surrogates become U+FFFD when the bytes are decoded
+            appendByte(0xE0 | (codePoint >> 12));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+            appendByte(0x80 | (codePoint & 0x3F));
+        } else {
+            appendByte(0xF0 | (codePoint >> 18));
+            appendByte(0x80 | ((codePoint >> 12) & 0x3F));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+            appendByte(0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void expect(int expected, String name) throws IOException {
+        int p = peeked();
+        if (p != expected) {
+            throw unexpected(name, p);
+        }
+    }
+
+    private JSONException unexpected(String expected, int p) throws IOException {
+        peeked = p;
+        return syntaxError("Expected " + expected + " but was " + peek());
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at byte " + getPosition());
+    }
+}
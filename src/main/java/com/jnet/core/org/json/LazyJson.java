@@ -0,0 +1,662 @@
+package com.jnet.core.org.json;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-optimized JSONObject/JSONArray backed by the document's UTF-8 bytes.
+ *
+ * <p>
+ * Parsing only validates the document. An object or array builds a small offset index of its own members
+ * on first access: keys, value offsets, and wrappers for nested containers (which stay unindexed until they
+ * are read themselves). Scalar values are decoded from the bytes on each access and are not cached, so a
+ * held result costs its source bytes plus the indexes that were actually touched, instead of a HashMap
+ * with boxed values per object. Keys are interned per document, and objects with the same key sequence,
+ * such as the elements of an API result array, share a single key array. Small objects look keys up by
+ * scanning that array; larger ones also get an open-addressing table over it.
+ * </p>
+ *
+ * <p>
+ * The returned values are ordinary JSONObject/JSONArray instances for callers: every opt and get method
+ * behaves as on a parsed tree, members whose value is null are absent, and the last of duplicate keys wins.
+ * Keys iterate in document order. {@code put} copies the object or array into regular storage first.
+ * Concurrent reads are safe; as with JSONObject, writes are not.
+ * </p>
+ *
+ * <pre>
+ * JSONArray repos = LazyJson.parseArray(body);
+ * String name = repos.getJSONObject(0).optString("full_name");
+ * </pre>
+ */
+public final class LazyJson {
+    // beyond this many distinct keys a document is treated as a map with data keys and stops interning
+    private static final int MAX_INTERNED_KEYS = 4096;
+    // objects with more members than this get a hash table over their keys; smaller ones are scanned
+    private static final int LINEAR_LOOKUP = 16;
+
+    private final byte[] src;
+    private int[] table = new int[64]; // key index + 1, 0 = empty
+    private String[] keys = new String[32];
+    private int[] keyStarts = new int[32];
+    private int[] keyEnds = new int[32];
+    private int keyCount;
+    private ObjectKeys lastKeys; // keys of the most recently indexed object, shared when identical
+
+    private LazyJson(byte[] src) {
+        this.src = src;
+    }
+
+    /**
+     * @throws JSONException if the bytes are not one well-formed JSON object
+     */
+    public static JSONObject parseObject(byte[] json) {
+        LazyJson doc = validate(json);
+        int start = doc.skipWhitespace(0);
+        if (json[start] != '{') {
+            throw new JSONException("Expected a JSON object at byte " + start);
+        }
+        return new LazyObject(doc, start);
+    }
+
+    public static JSONObject parseObject(String json) {
+        return parseObject(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws JSONException if the bytes are not one well-formed JSON array
+     */
+    public static JSONArray parseArray(byte[] json) {
+        LazyJson doc = validate(json);
+        int start = doc.skipWhitespace(0);
+        if (json[start] != '[') {
+            throw new JSONException("Expected a JSON array at byte " + start);
+        }
+        return new LazyArray(doc, start);
+    }
+
+    public static JSONArray parseArray(String json) {
+        return parseArray(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * Full syntax check up front, so that the index scanners below can trust the bytes.
+     */
+    private static LazyJson validate(byte[] json) {
+        try {
+            JsonReader reader = new JsonReader(json);
+            reader.skipValue();
+            reader.peek(); // rejects trailing data
+        } catch (IOException e) {
+            // byte arrays do not throw IOException
+            throw new JSONException(e);
+        }
+        return new LazyJson(json);
+    }
+
+    private int skipWhitespace(int i) {
+        byte[] b = src;
+        while (b[i] == ' ' || b[i] == '\n' || b[i] == '\r' || b[i] == '\t') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Index just past the string starting at the quote at i.
+     */
+    private int stringEnd(int i) {
+        byte[] b = src;
+        i++;
+        while (true) {
+            byte c = b[i];
+            if (c == '"') {
+                return i + 1;
+            }
+            i += c == '\\' ? 2 : 1;
+        }
+    }
+
+    /**
+     * Index just past the value starting at i.
+     */
+    private int valueEnd(int i) {
+        byte[] b = src;
+        byte c = b[i];
+        if (c == '"') {
+            return stringEnd(i);
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (true) {
+                c = b[i];
+                if (c == '"') {
+                    i = stringEnd(i);
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    return i + 1;
+                }
+                i++;
+            }
+        }
+        while (i < b.length) {
+            c = b[i];
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Decodes the scalar at i, or wraps the container at i without indexing it.
+     */
+    private Object value(int i) {
+        byte[] b = src;
+        switch (b[i]) {
+            case '{':
+                return new LazyObject(this, i);
+            case '[':
+                return new LazyArray(this, i);
+            case '"':
+                return string(i, stringEnd(i));
+            case 't':
+                return Boolean.TRUE;
+            case 'f':
+                return Boolean.FALSE;
+            case 'n':
+                return null;
+            default:
+                return number(i, valueEnd(i));
+        }
+    }
+
+    private String string(int start, int end) {
+        for (int i = start + 1; i < end - 1; i++) {
+            if (src[i] == '\\') {
+                try {
+                    return new JsonReader(ByteBuffer.wrap(src, start, end - start)).nextString();
+                } catch (IOException e) {
+                    throw new JSONException(e);
+                }
+            }
+        }
+        return new String(src, start + 1, end - start - 2, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same types as {@link JsonReader#nextNumber()}: Integer, Long, BigInteger or Double.
+     */
+    private Object number(int start, int end) {
+        byte[] b = src;
+        boolean integral = true;
+        for (int i = start; i < end; i++) {
+            byte c = b[i];
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                break;
+            }
+        }
+        String text = new String(b, start, end - start, StandardCharsets.ISO_8859_1);
+        if (!integral) {
+            return Double.parseDouble(text);
+        }
+        if (end - start <= 18) {
+            long value = Long.parseLong(text);
+            if (value == (int) value) {
+                return (int) value;
+            }
+            return value;
+        }
+        BigInteger big = new BigInteger(text);
+        return big.bitLength() < 64 ? (Object) big.longValue() : big;
+    }
+
+    /**
+     * Interned key for the string token [start, end).
+     */
+    private String key(int start, int end) {
+        byte[] b = src;
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + b[i];
+        }
+        int mask = table.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                String key = string(start, end);
+                if (keyCount < MAX_INTERNED_KEYS) {
+                    add(slot, key, start, end);
+                }
+                return key;
+            }
+            if (Arrays.equals(b, keyStarts[entry], keyEnds[entry], b, start, end)) {
+                return keys[entry];
+            }
+        }
+    }
+
+    private void add(int slot, String key, int start, int end) {
+        if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount * 2);
+            keyStarts = Arrays.copyOf(keyStarts, keyCount * 2);
+            keyEnds = Arrays.copyOf(keyEnds, keyCount * 2);
+        }
+        keys[keyCount] = key;
+        keyStarts[keyCount] = start;
+        keyEnds[keyCount] = end;
+        table[slot] = ++keyCount;
+        if (keyCount * 2 > table.length) {
+            int[] old = table;
+            table = new int[old.length * 2];
+            int mask = table.length - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int h = 1;
+                    for (int i = keyStarts[entry - 1]; i < keyEnds[entry - 1]; i++) {
+                        h = 31 * h + src[i];
+                    }
+                    int s = mix(h) & mask;
+                    while (table[s] != 0) {
+                        s = (s + 1) & mask;
+                    }
+                    table[s] = entry;
+                }
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Object index: keys and value offsets of the visible members in document order, and container
+     * wrappers (null for scalars). Members with a null value and all but the last of duplicate keys are
+     * dropped while indexing, as put() does while parsing a tree. Built under the document lock because it
+     * shares the key table.
+     */
+    private static final class ObjectIndex {
+        final ObjectKeys keys;
+        final int[] offsets;
+        final Object[] containers;
+
+        ObjectIndex(ObjectKeys keys, int[] offsets, Object[] containers) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.containers = containers;
+        }
+    }
+
+    /**
+     * Distinct keys of an object with an open-addressing table (member index + 1 by key hash) once there
+     * are more than {@link #LINEAR_LOOKUP} of them. Immutable, so objects with the same keys share one.
+     */
+    private static final class ObjectKeys {
+        final String[] names;
+        private final int[] table;
+
+        ObjectKeys(String[] names) {
+            this.names = names;
+            if (names.length <= LINEAR_LOOKUP) {
+                this.table = null;
+                return;
+            }
+            int[] t = new int[Integer.highestOneBit(names.length * 2 - 1) << 1];
+            int mask = t.length - 1;
+            for (int i = 0; i < names.length; i++) {
+                int s = mix(names[i].hashCode()) & mask;
+                while (t[s] != 0) {
+                    s = (s + 1) & mask;
+                }
+                t[s] = i + 1;
+            }
+            this.table = t;
+        }
+
+        int indexOf(String key) {
+            String[] n = names;
+            if (table == null) {
+                for (int i = 0; i < n.length; i++) {
+                    if (n[i].equals(key)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int mask = table.length - 1;
+            for (int s = mix(key.hashCode()) & mask; table[s] != 0; s = (s + 1) & mask) {
+                int i = table[s] - 1;
+                if (n[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private ObjectIndex indexObject(int start) {
+        synchronized (this) {
+            String[] names = new String[8];
+            int[] offsets = new int[8];
+            Object[] containers = null;
+            int n = 0;
+            int i = skipWhitespace(start + 1);
+            while (src[i] != '}') {
+                int keyEnd = stringEnd(i);
+                String name = key(i, keyEnd);
+                i = skipWhitespace(skipWhitespace(keyEnd) + 1); // ':'
+                if (n == names.length) {
+                    names = Arrays.copyOf(names, n * 2);
+                    offsets = Arrays.copyOf(offsets, n * 2);
+                    if (containers != null) {
+                        containers = Arrays.copyOf(containers, n * 2);
+                    }
+                }
+                names[n] = name;
+                offsets[n] = i;
+                byte c = src[i];
+                if (c == '{' || c == '[') {
+                    if (containers == null) {
+                        containers = new Object[names.length];
+                    }
+                    containers[n] = value(i);
+                }
+                n++;
+                i = skipWhitespace(valueEnd(i));
+                if (src[i] == ',') {
+                    i = skipWhitespace(i + 1);
+                }
+            }
+            n = dropHidden(names, offsets, containers, n);
+            ObjectKeys shared = lastKeys;
+            if (shared == null || shared.names.length != n || !Arrays.equals(shared.names, 0, n, names, 0, n)) {
+                shared = new ObjectKeys(Arrays.copyOf(names, n));
+                lastKeys = shared;
+            }
+            return new ObjectIndex(shared, Arrays.copyOf(offsets, n),
+                    containers == null ? null : Arrays.copyOf(containers, n));
+        }
+    }
+
+    /**
+     * Removes members with a null value and earlier occurrences of duplicate keys in place, keeping
+     * document order; returns the remaining count.
+     */
+    private int dropHidden(String[] names, int[] offsets, Object[] containers, int n) {
+        boolean[] hidden = null;
+        Set<String> seen = n > LINEAR_LOOKUP ? new HashSet<>(n * 2) : null;
+        for (int i = n - 1; i >= 0; i--) {
+            boolean hide = src[offsets[i]] == 'n';
+            if (seen != null) {
+                hide |= !seen.add(names[i]);
+            } else {
+                for (int j = i + 1; j < n && !hide; j++) {
+                    hide = names[j].equals(names[i]);
+                }
+            }
+            if (hide) {
+                if (hidden == null) {
+                    hidden = new boolean[n];
+                }
+                hidden[i] = true;
+            }
+        }
+        if (hidden == null) {
+            return n;
+        }
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (!hidden[i]) {
+                names[kept] = names[i];
+                offsets[kept] = offsets[i];
+                if (containers != null) {
+                    containers[kept] = containers[i];
+                }
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    private int[] indexArray(int start) {
+        int[] offsets = new int[8];
+        int n = 0;
+        int i = skipWhitespace(start + 1);
+        while (src[i] != ']') {
+            if (n == offsets.length) {
+                offsets = Arrays.copyOf(offsets, n * 2);
+            }
+            offsets[n++] = i;
+            i = skipWhitespace(valueEnd(i));
+            if (src[i] == ',') {
+                i = skipWhitespace(i + 1);
+            }
+        }
+        return Arrays.copyOf(offsets, n);
+    }
+
+    // ========== 实现 ==========
+
+    static final class LazyObject extends JSONObject {
+        private final LazyJson doc;
+        private final int start;
+        private volatile ObjectIndex index;
+        private Map<String, Object> copy; // after the first put
+
+        LazyObject(LazyJson doc, int start) {
+            super(true);
+            this.doc = doc;
+            this.start = start;
+        }
+
+        private ObjectIndex index() {
+            ObjectIndex idx = index;
+            if (idx == null) {
+                idx = doc.indexObject(start);
+                // the first index published wins, so every reader sees the same child containers
+                synchronized (this) {
+                    if (index == null) {
+                        index = idx;
+                    }
+                    idx = index;
+                }
+            }
+            return idx;
+        }
+
+        @Override
+        public Object opt(String key) {
+            if (copy != null) {
+                return key == null ? null : copy.get(key);
+            }
+            if (key == null) {
+                return null;
+            }
+            ObjectIndex idx = index();
+            int i = idx.keys.indexOf(key);
+            if (i < 0) {
+                return null;
+            }
+            if (idx.containers != null && idx.containers[i] != null) {
+                return idx.containers[i];
+            }
+            return doc.value(idx.offsets[i]);
+        }
+
+        @Override
+        public boolean has(String key) {
+            if (copy != null) {
+                return copy.containsKey(key);
+            }
+            return key != null && index().keys.indexOf(key) >= 0;
+        }
+
+        @Override
+        public int length() {
+            if (copy != null) {
+                return copy.size();
+            }
+            return index().keys.names.length;
+        }
+
+        @Override
+        public Iterator<String> keys() {
+            if (copy != null) {
+                return copy.keySet().iterator();
+            }
+            String[] keys = index().keys.names;
+            return new Iterator<String>() {
+                int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return keys[next++];
+                }
+            };
+        }
+
+        @Override
+        public JSONObject put(String key, Object value) throws JSONException {
+            if (key == null) {
+                throw new JSONException("Null key.");
+            }
+            if (copy == null) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (Iterator<String> it = keys(); it.hasNext(); ) {
+                    String k = it.next();
+                    values.put(k, opt(k));
+                }
+                copy = values;
+            }
+            if (value != null) {
+                copy.put(key, value);
+            } else {
+                copy.remove(key);
+            }
+            return this;
+        }
+    }
+
+    static final class LazyArray extends JSONArray {
+        private final LazyJson doc;
+        private final int start;
+        private volatile int[] offsets;
+        private volatile Object[] containers;
+        private java.util.List<Object> copy; // after the first put
+
+        LazyArray(LazyJson doc, int start) {
+            super(true);
+            this.doc = doc;
+            this.start = start;
+        }
+
+        private int[] offsets() {
+            int[] o = offsets;
+            if (o == null) {
+                o = doc.indexArray(start);
+                // containers are wrapped once so that repeated access returns the same instance
+                Object[] wrapped = null;
+                for (int i = 0; i < o.length; i++) {
+                    byte c = doc.src[o[i]];
+                    if (c == '{' || c == '[') {
+                        if (wrapped == null) {
+                            wrapped = new Object[o.length];
+                        }
+                        wrapped[i] = doc.value(o[i]);
+                    }
+                }
+                synchronized (this) {
+                    if (offsets == null) {
+                        containers = wrapped;
+                        offsets = o;
+                    }
+                    o = offsets;
+                }
+            }
+            return o;
+        }
+
+        @Override
+        public int length() {
+            return copy != null ? copy.size() : offsets().length;
+        }
+
+        @Override
+        public Object opt(int index) {
+            if (copy != null) {
+                return index < 0 || index >= copy.size() ? null : copy.get(index);
+            }
+            int[] o = offsets();
+            if (index < 0 || index >= o.length) {
+                return null;
+            }
+            Object[] c = containers;
+            if (c != null && c[index] != null) {
+                return c[index];
+            }
+            return doc.value(o[index]);
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            if (copy != null) {
+                return copy.iterator();
+            }
+            int length = offsets().length;
+            return new Iterator<Object>() {
+                int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < length;
+                }
+
+                @Override
+                public Object next() {
+                    if (next >= length) {
+                        throw new NoSuchElementException();
+                    }
+                    return opt(next++);
+                }
+            };
+        }
+
+        @Override
+        public JSONArray put(Object value) {
+            if (copy == null) {
+                java.util.List<Object> values = new java.util.ArrayList<>(length() + 1);
+                for (Object o : this) {
+                    values.add(o);
+                }
+                copy = values;
+            }
+            copy.add(value);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.jnet.core.org.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+
+/**
+ * MessagePack encoding and decoding for the same values as {@link JsonMapper}.
+ *
+ * <p>
+ * {@link #encode(Object)} accepts everything {@link JsonMapper#toJsonBytes(Object)} does and uses the smallest
+ * fixint/int/uint, str, bin, array and map forms (see {@link BinaryEncoder} for the few mapping differences).
+ * Integers beyond the uint64 range have no MessagePack form and are written as decimal strings. Decoding produces
+ * the JSON tree model (byte[] for bin) or binds straight to a type through the same binders as JSON.
+ * Extension types are read as byte[] of their payload.
+ * </p>
+ *
+ * <pre>
+ * byte[] body = MessagePack.encode(order);
+ * Order copy = MessagePack.decode(body, Order.class);
+ * </pre>
+ */
+public final class MessagePack {
+    public static final String CONTENT_TYPE = "application/msgpack";
+
+    private static final ThreadLocal<Encoder> POOL = ThreadLocal.withInitial(Encoder::new);
+
+    private MessagePack() {
+    }
+
+    /**
+     * @throws IllegalArgumentException on a circular reference or nesting deeper than 100
+     */
+    public static byte[] encode(Object value) {
+        return BinaryEncoder.encode(POOL, Encoder::new, value);
+    }
+
+    /**
+     * Decodes one complete value as a tree.
+     *
+     * @throws JSONException on malformed or truncated input, or trailing data
+     */
+    public static Object decode(byte[] data) {
+        try {
+            return readDocument(new Reader(data), null);
+        } catch (IOException e) {
+            // byte arrays do not throw IOException
+            throw new JSONException(e);
+        }
+    }
+
+    public static <T> T decode(byte[] data, Class<T> type) {
+        return decode(data, (Type) type);
+    }
+
+    /**
+     * Binds one complete value to the type.
+     *
+     * @throws JSONException on malformed input or a value that does not fit the type
+     */
+    public static <T> T decode(byte[] data, Type type) {
+        try {
+            return readDocument(new Reader(data), type);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+    }
+
+    /**
+     * Binds one complete value read from the stream; the stream is not closed.
+     */
+    public static <T> T decode(InputStream in, Type type) throws IOException {
+        return readDocument(new Reader(in), type);
+    }
+
+    /**
+     * Token reader over a MessagePack value, for streaming through {@link JsonMapper#read} or
+     * {@link JsonPath#select}.
+     */
+    public static JsonReader reader(byte[] data) {
+        return new Reader(data);
+    }
+
+    public static JsonReader reader(InputStream in) {
+        return new Reader(in);
+    }
+
+    // ========== 内部方法 ==========
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readDocument(JsonReader reader, Type type) throws IOException {
+        T value = type == null ? (T) reader.nextValue() : JsonMapper.read(reader, type);
+        reader.peek(); // rejects trailing data
+        return value;
+    }
+
+    private static final class Encoder extends BinaryEncoder {
+
+        @Override
+        void writeNull() {
+            writeByte(0xC0);
+        }
+
+        @Override
+        void writeBoolean(boolean v) {
+            writeByte(v ? 0xC3 : 0xC2);
+        }
+
+        @Override
+        void writeLong(long v) {
+            if (v >= 0) {
+                if (v < 0x80) {
+                    writeByte((int) v);
+                } else if (v <= 0xFF) {
+                    writeByte(0xCC);
+                    writeByte((int) v);
+                } else if (v <= 0xFFFF) {
+                    writeByte(0xCD);
+                    writeBigEndian(v, 2);
+                } else if (v <= 0xFFFFFFFFL) {
+                    writeByte(0xCE);
+                    writeBigEndian(v, 4);
+                } else {
+                    writeByte(0xCF);
+                    writeBigEndian(v, 8);
+                }
+            } else if (v >= -32) {
+                writeByte((int) v & 0xFF);
+            } else if (v >= Byte.MIN_VALUE) {
+                writeByte(0xD0);
+                writeByte((int) v & 0xFF);
+            } else if (v >= Short.MIN_VALUE) {
+                writeByte(0xD1);
+                writeBigEndian(v, 2);
+            } else if (v >= Integer.MIN_VALUE) {
+                writeByte(0xD2);
+                writeBigEndian(v, 4);
+            } else {
+                writeByte(0xD3);
+                writeBigEndian(v, 8);
+            }
+        }
+
+        @Override
+        void writeBigInteger(BigInteger v) {
+            if (v.signum() > 0 && v.bitLength() <= 64) {
+                writeByte(0xCF);
+                writeBigEndian(v.longValue(), 8);
+            } else {
+                writeString(v.toString());
+            }
+        }
+
+        @Override
+        void writeFloat(float v) {
+            writeByte(0xCA);
+            writeBigEndian(Float.floatToIntBits(v), 4);
+        }
+
+        @Override
+        void writeDouble(double v) {
+            if ((float) v == v || Double.isNaN(v)) {
+                writeFloat((float) v);
+            } else {
+                writeByte(0xCB);
+                writeBigEndian(Double.doubleToLongBits(v), 8);
+            }
+        }
+
+        @Override
+        void writeTextHeader(int utf8Length) {
+            if (utf8Length < 32) {
+                writeByte(0xA0 | utf8Length);
+            } else if (utf8Length <= 0xFF) {
+                writeByte(0xD9);
+                writeByte(utf8Length);
+            } else if (utf8Length <= 0xFFFF) {
+                writeByte(0xDA);
+                writeBigEndian(utf8Length, 2);
+            } else {
+                writeByte(0xDB);
+                writeBigEndian(utf8Length, 4);
+            }
+        }
+
+        @Override
+        void writeBytes(byte[] bytes, int offset, int length) {
+            if (length <= 0xFF) {
+                writeByte(0xC4);
+                writeByte(length);
+            } else if (length <= 0xFFFF) {
+                writeByte(0xC5);
+                writeBigEndian(length, 2);
+            } else {
+                writeByte(0xC6);
+                writeBigEndian(length, 4);
+            }
+            writeRaw(bytes, offset, length);
+        }
+
+        @Override
+        void writeMapHeader(int size) {
+            header(size, 0x80, 0xDE, 0xDF);
+        }
+
+        @Override
+        void writeArrayHeader(int size) {
+            header(size, 0x90, 0xDC, 0xDD);
+        }
+
+        private void header(int size, int fix, int marker16, int marker32) {
+            if (size < 16) {
+                writeByte(fix | size);
+            } else if (size <= 0xFFFF) {
+                writeByte(marker16);
+                writeBigEndian(size, 2);
+            } else {
+                writeByte(marker32);
+                writeBigEndian(size, 4);
+            }
+        }
+    }
+
+    private static final class Reader extends BinaryReader {
+
+        Reader(byte[] data) {
+            super(data);
+        }
+
+        Reader(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        String format() {
+            return "MessagePack";
+        }
+
+        @Override
+        void readHeader() throws IOException {
+            int b = readByte();
+            if (b < 0x80) {
+                integer(b);
+            } else if (b < 0x90) {
+                container(MAP, b & 0x0F);
+            } else if (b < 0xA0) {
+                container(ARRAY, b & 0x0F);
+            } else if (b < 0xC0) {
+                string(TEXT, b & 0x1F);
+            } else if (b >= 0xE0) {
+                integer((byte) b);
+            } else {
+                readMarker(b);
+            }
+        }
+
+        private void readMarker(int b) throws IOException {
+            switch (b) {
+                case 0xC0:
+                    kind = NULL;
+                    break;
+                case 0xC2:
+                    kind = FALSE;
+                    break;
+                case 0xC3:
+                    kind = TRUE;
+                    break;
+                case 0xC4:
+                case 0xC5:
+                case 0xC6:
+                    string(BYTES, readUnsigned(1 << (b - 0xC4)));
+                    break;
+                case 0xC7:
+                case 0xC8:
+                case 0xC9:
+                    long size = readUnsigned(1 << (b - 0xC7));
+                    readByte(); // extension type
+                    string(BYTES, size);
+                    break;
+                case 0xCA:
+                    kind = FLOAT;
+                    real = Float.intBitsToFloat((int) readUnsigned(4));
+                    break;
+                case 0xCB:
+                    kind = FLOAT;
+                    real = Double.longBitsToDouble(readUnsigned(8));
+                    break;
+                case 0xCC:
+                case 0xCD:
+                case 0xCE:
+                    integer(readUnsigned(1 << (b - 0xCC)));
+                    break;
+                case 0xCF:
+                    long unsigned = readUnsigned(8);
+                    if (unsigned >= 0) {
+                        integer(unsigned);
+                    } else {
+                        kind = BIG;
+                        big = new BigInteger(Long.toUnsignedString(unsigned));
+                    }
+                    break;
+                case 0xD0:
+                    integer((byte) readUnsigned(1));
+                    break;
+                case 0xD1:
+                    integer((short) readUnsigned(2));
+                    break;
+                case 0xD2:
+                    integer((int) readUnsigned(4));
+                    break;
+                case 0xD3:
+                    integer(readUnsigned(8));
+                    break;
+                case 0xD4:
+                case 0xD5:
+                case 0xD6:
+                case 0xD7:
+                case 0xD8:
+                    readByte(); // extension type
+                    string(BYTES, 1 << (b - 0xD4));
+                    break;
+                case 0xD9:
+                case 0xDA:
+                case 0xDB:
+                    string(TEXT, readUnsigned(1 << (b - 0xD9)));
+                    break;
+                case 0xDC:
+                case 0xDD:
+                    container(ARRAY, readUnsigned(b == 0xDC ? 2 : 4));
+                    break;
+                case 0xDE:
+                case 0xDF:
+                    container(MAP, readUnsigned(b == 0xDE ? 2 : 4));
+                    break;
+                default:
+                    throw syntaxError("Invalid MessagePack byte 0x" + Integer.toHexString(b));
+            }
+        }
+
+        private void integer(long v) {
+            kind = INT;
+            value = v;
+        }
+
+        private void string(int k, long size) {
+            kind = k;
+            length = size;
+        }
+
+        private void container(int k, long size) {
+            kind = k;
+            length = size;
+        }
+    }
+}
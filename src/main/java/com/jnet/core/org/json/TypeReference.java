@@ -0,0 +1,29 @@
+package com.jnet.core.org.json;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Captures a generic type for {@link JsonMapper}, e.g.
+ * {@code new TypeReference<List<Repo>>() {}.getType()}.
+ */
+public abstract class TypeReference<T> {
+    private final Type type;
+
+    protected TypeReference() {
+        Type superclass = getClass().getGenericSuperclass();
+        if (!(superclass instanceof ParameterizedType)) {
+            throw new IllegalStateException("TypeReference must be created with a type argument");
+        }
+        this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeReference<" + type.getTypeName() + ">";
+    }
+}
@@ -44,6 +44,20 @@ public class FilePart implements Part {
         }
     }
 
+    /**
+     * 文件内容时返回文件，字节数组内容时返回 null（包级可见，供 MultipartPublisher 映射文件）
+     */
+    File file() {
+        return content instanceof File ? (File) content : null;
+    }
+
+    /**
+     * 字节数组内容，文件内容时返回 null
+     */
+    byte[] bytes() {
+        return content instanceof byte[] ? (byte[]) content : null;
+    }
+
     @Override
     public InputStream getInputStream() throws IOException {
         if (content instanceof File) {
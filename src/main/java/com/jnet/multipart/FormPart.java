@@ -17,6 +17,13 @@ public class FormPart implements Part {
         this.content = value.getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * 已编码的字段值（包级可见，不复制）
+     */
+    byte[] bytes() {
+        return content;
+    }
+
     @Override
     public InputStream getInputStream() {
         return new ByteArrayInputStream(content);
@@ -1,24 +1,23 @@
 package com.jnet.multipart;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.net.http.HttpRequest;
 
 /**
  * Multipart 请求体构建器
- * 实现了流式处理，避免大文件加载到内存
+ * 实现了流式处理，避免大文件加载到内存；构建时即算出请求体长度，上传不使用 chunked 编码
  */
 public class MultipartBody {
     private final List<Part> parts;
     private final String boundary;
+    private final MultipartPublisher publisher;
 
     private MultipartBody(Builder builder) {
         this.parts = new ArrayList<>(builder.parts);
         this.boundary = builder.boundary != null ? builder.boundary : generateBoundary();
+        this.publisher = createPublisher();
     }
 
     public static Builder newBuilder() {
@@ -37,65 +36,43 @@ public class MultipartBody {
         return "multipart/form-data; boundary=" + boundary;
     }
 
+    /**
+     * 请求体总字节数，含分隔行和各部分头部；有长度未知的自定义 Part 时为 -1
+     */
+    public long getContentLength() {
+        return publisher.contentLength();
+    }
+
     /**
      * 转换为 BodyPublisher
-     * 将所有 Part 组合成一个输入流序列
+     * 长度已知时以 Content-Length 发送；文件内容发送时才读取，可重复订阅（见 {@link MultipartPublisher}）
      */
     public HttpRequest.BodyPublisher toBodyPublisher() {
-        return HttpRequest.BodyPublishers.ofInputStream(this::createInputStream);
+        return publisher;
     }
 
-    private InputStream createInputStream() {
-        Enumeration<InputStream> enumeration = new Enumeration<>() {
-            private int index = 0;
-            private int state = 0; // 0: boundary, 1: part content, 2: newline, 3: end boundary
-
-            @Override
-            public boolean hasMoreElements() {
-                return index < parts.size() || state == 3;
-            }
-
-            @Override
-            public InputStream nextElement() {
-                if (state == 3) {
-                    state = 4; // Done
-                    return new java.io.ByteArrayInputStream(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
-                }
-
-                if (index >= parts.size()) {
-                    throw new NoSuchElementException();
-                }
-
-                Part part = parts.get(index);
-                InputStream stream;
-
-                switch (state) {
-                    case 0: // Boundary + Headers
-                        String header = "--" + boundary + "\r\n" + part.getHeaders();
-                        stream = new java.io.ByteArrayInputStream(header.getBytes(StandardCharsets.UTF_8));
-                        state = 1;
-                        break;
-                    case 1: // Content
-                        try {
-                            stream = part.getInputStream();
-                        } catch (IOException e) {
-                            throw new RuntimeException("Failed to open part stream", e);
-                        }
-                        state = 2;
-                        break;
-                    case 2: // Newline after content
-                        stream = new java.io.ByteArrayInputStream("\r\n".getBytes(StandardCharsets.UTF_8));
-                        index++;
-                        state = index < parts.size() ? 0 : 3;
-                        break;
-                    default:
-                        throw new NoSuchElementException();
-                }
-                return stream;
+    /**
+     * 按 RFC 7578 排列片段：每个部分前是分隔行和头部（第二个部分起带上前一部分内容后的 CRLF），最后是结束分隔行
+     */
+    private MultipartPublisher createPublisher() {
+        List<MultipartPublisher.Segment> segments = new ArrayList<>(parts.size() * 2 + 1);
+        byte[] delimiter = ("--" + boundary + "\r\n").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < parts.size(); i++) {
+            Part part = parts.get(i);
+            byte[] headers = part.getHeaders().getBytes(StandardCharsets.UTF_8);
+            int lead = i == 0 ? 0 : 2;
+            byte[] head = new byte[lead + delimiter.length + headers.length];
+            if (lead > 0) {
+                head[0] = '\r';
+                head[1] = '\n';
             }
-        };
-
-        return new SequenceInputStream(enumeration);
+            System.arraycopy(delimiter, 0, head, lead, delimiter.length);
+            System.arraycopy(headers, 0, head, lead + delimiter.length, headers.length);
+            segments.add(MultipartPublisher.Segment.of(head));
+            segments.add(MultipartPublisher.Segment.of(part));
+        }
+        segments.add(MultipartPublisher.Segment.of(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8)));
+        return new MultipartPublisher(segments);
     }
 
     public static class Builder {
@@ -117,6 +94,14 @@ public class MultipartBody {
             return this;
         }
 
+        /**
+         * 添加任意 Part；长度未知（-1）的 Part 使整个请求体以 chunked 发送
+         */
+        public Builder addPart(Part part) {
+            parts.add(Objects.requireNonNull(part, "part"));
+            return this;
+        }
+
         public Builder boundary(String boundary) {
             this.boundary = boundary;
             return this;
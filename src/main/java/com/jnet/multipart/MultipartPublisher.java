@@ -0,0 +1,246 @@
+package com.jnet.multipart;
+
+import com.jnet.core.PullSubscription;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * MultipartBody 的 BodyPublisher（包级可见）
+ * 请求体由预先编码好的片段组成：分隔行与各部分头部在构建 MultipartBody 时编码一次，
+ * 字段值和字节数组内容直接引用，文件内容发送时才读取。
+ *
+ * <p>
+ * 小片段合并进约 16KB 的块再发出（一万个小字段不会变成两万次 onNext）；不小于一块的字节数组以只读视图
+ * 直接发出，不复制；64KB 以上的文件按 4MB 窗口以 FileChannel 映射发出，内容不经过堆内存。
+ * 各部分长度都已知时 {@link #contentLength()} 给出精确长度，请求以 Content-Length 发送。
+ * 每次订阅从头开始，可以重复发送（重定向、重试）。
+ * </p>
+ */
+final class MultipartPublisher implements HttpRequest.BodyPublisher {
+    static final int CHUNK_SIZE = 16 * 1024;
+    static final int MAP_THRESHOLD = 64 * 1024;
+    static final int MAP_WINDOW = 4 * 1024 * 1024;
+
+    private final Segment[] segments;
+    private final long contentLength;
+
+    MultipartPublisher(List<Segment> segments) {
+        this.segments = segments.toArray(new Segment[0]);
+        long total = 0;
+        for (Segment segment : this.segments) {
+            if (segment.length < 0) {
+                total = -1;
+                break;
+            }
+            total += segment.length;
+        }
+        this.contentLength = total;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new PartSubscription(subscriber, segments));
+    }
+
+    /**
+     * 请求体的一段：已编码的字节、文件或任意 Part 的输入流，三者取其一
+     */
+    static final class Segment {
+        final byte[] bytes;
+        final File file;
+        final Part part;
+        final long length;
+
+        private Segment(byte[] bytes, File file, Part part, long length) {
+            this.bytes = bytes;
+            this.file = file;
+            this.part = part;
+            this.length = length;
+        }
+
+        static Segment of(byte[] bytes) {
+            return new Segment(bytes, null, null, bytes.length);
+        }
+
+        static Segment of(Part part) {
+            if (part instanceof FormPart) {
+                return of(((FormPart) part).bytes());
+            }
+            if (part instanceof FilePart) {
+                FilePart filePart = (FilePart) part;
+                return filePart.file() != null
+                        ? new Segment(null, filePart.file(), null, filePart.getLength())
+                        : of(filePart.bytes());
+            }
+            return new Segment(null, null, part, part.getLength());
+        }
+    }
+
+    /**
+     * 按需求依次读取片段，drain 循环见 {@link PullSubscription}
+     */
+    private static final class PartSubscription extends PullSubscription {
+        private final Segment[] segments;
+
+        private int index;            // 当前片段
+        private FileChannel channel;  // 当前文件片段
+        private long position;        // 当前文件片段已发出的字节
+        private InputStream stream;   // 当前输入流片段
+        private byte[] chunk;         // 正在合并的块
+        private int filled;
+
+        PartSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, Segment[] segments) {
+            super(subscriber);
+            this.segments = segments;
+        }
+
+        /**
+         * 下一个要发出的缓冲区；全部发完时返回 null
+         */
+        @Override
+        protected ByteBuffer next() throws IOException {
+            while (index < segments.length) {
+                Segment segment = segments[index];
+                if (segment.bytes != null) {
+                    byte[] bytes = segment.bytes;
+                    if (bytes.length >= CHUNK_SIZE) {
+                        if (filled > 0) {
+                            return flush();
+                        }
+                        index++;
+                        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+                    }
+                    if (filled + bytes.length > CHUNK_SIZE) {
+                        return flush();
+                    }
+                    System.arraycopy(bytes, 0, chunk(), filled, bytes.length);
+                    filled += bytes.length;
+                    index++;
+                } else if (segment.file != null) {
+                    ByteBuffer mapped = readFile(segment);
+                    if (mapped != null) {
+                        return mapped;
+                    }
+                    if (filled == CHUNK_SIZE) {
+                        return flush();
+                    }
+                } else {
+                    readStream(segment);
+                    if (filled == CHUNK_SIZE) {
+                        return flush();
+                    }
+                }
+            }
+            return filled > 0 ? flush() : null;
+        }
+
+        /**
+         * 大文件返回下一个映射窗口；小文件读入当前块，返回 null
+         */
+        private ByteBuffer readFile(Segment segment) throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ);
+                position = 0;
+                if (channel.size() != segment.length) {
+                    throw new IOException("File " + segment.file + " changed size: expected " + segment.length
+                            + " bytes but was " + channel.size());
+                }
+            }
+            if (segment.length >= MAP_THRESHOLD) {
+                if (filled > 0) {
+                    return flush();
+                }
+                long size = Math.min(MAP_WINDOW, segment.length - position);
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                position += size;
+                if (position == segment.length) {
+                    closeCurrent();
+                    index++;
+                }
+                return mapped;
+            }
+            ByteBuffer target = ByteBuffer.wrap(chunk(), filled, (int) Math.min(CHUNK_SIZE - filled,
+                    segment.length - position));
+            while (target.hasRemaining()) {
+                int n = channel.read(target, position);
+                if (n < 0) {
+                    throw new IOException("File " + segment.file + " truncated while sending");
+                }
+                position += n;
+                filled += n;
+            }
+            if (position == segment.length) {
+                closeCurrent();
+                index++;
+            }
+            return null;
+        }
+
+        /**
+         * 自定义 Part 的输入流读入当前块，读到结尾时进入下一片段
+         */
+        private void readStream(Segment segment) throws IOException {
+            if (stream == null) {
+                stream = segment.part.getInputStream();
+            }
+            byte[] target = chunk();
+            while (filled < CHUNK_SIZE) {
+                int n = stream.read(target, filled, CHUNK_SIZE - filled);
+                if (n < 0) {
+                    closeCurrent();
+                    index++;
+                    return;
+                }
+                filled += n;
+            }
+        }
+
+        private byte[] chunk() {
+            if (chunk == null) {
+                chunk = new byte[CHUNK_SIZE];
+            }
+            return chunk;
+        }
+
+        private ByteBuffer flush() {
+            // 发出后块归订阅方所有，下一块重新分配
+            ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, filled);
+            chunk = null;
+            filled = 0;
+            return buffer;
+        }
+
+        private void closeCurrent() throws IOException {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                if (stream != null) {
+                    stream.close();
+                }
+            } finally {
+                channel = null;
+                stream = null;
+            }
+        }
+
+        @Override
+        protected void release() throws IOException {
+            chunk = null;
+            closeCurrent();
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.jnet.multipart;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * multipart/* 响应体的流式解析器（multipart/mixed、multipart/byteranges、multipart/form-data 等）
+ *
+ * <p>
+ * 在一个固定大小的读缓冲区里用 Boyer-Moore-Horspool 跳表查找分隔符 "\r\n--boundary"，
+ * 每个部分以头部加上限定在本部分内的 {@link BodyPart#getInputStream()} 或 {@link BodyPart#nextSlice()} 交出，
+ * 读到分隔符即结束；不会缓冲整个部分，内存占用与部分大小无关。前导（preamble）和结尾（epilogue）被忽略。
+ * </p>
+ *
+ * <pre>
+ * try (MultipartReader reader = MultipartReader.of(in, contentType)) {
+ *     for (MultipartReader.BodyPart part; (part = reader.nextPart()) != null; ) {
+ *         long offset = part.getRangeStart();
+ *         for (ByteBuffer slice; (slice = part.nextSlice()) != null; ) {
+ *             offset += channel.write(slice, offset);
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * 非线程安全；读取下一个部分时，上一个部分未读完的内容被跳过。
+ * </p>
+ */
+public final class MultipartReader implements Closeable {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter; // "\r\n--" + boundary
+    private final int[] skip = new int[256];
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private int scanned;        // 已确认 [position, scanned) 内不含分隔符起点
+    private int found = -1;     // 已找到的分隔符位置
+    private boolean eof;
+    private boolean closed;
+    private boolean finished;   // 已读到结束分隔符
+    private BodyPart current;
+
+    /**
+     * @param in       原始响应体，由本对象关闭
+     * @param boundary Content-Type 中的 boundary 参数（不含前导 "--"）
+     */
+    public MultipartReader(InputStream in, String boundary) {
+        if (in == null) {
+            throw new IllegalArgumentException("InputStream cannot be null");
+        }
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary: " + boundary);
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        int m = delimiter.length;
+        Arrays.fill(skip, m);
+        for (int i = 0; i < m - 1; i++) {
+            skip[delimiter[i] & 0xFF] = m - 1 - i;
+        }
+        this.buffer = new byte[Math.max(BUFFER_SIZE, m * 4)];
+        // 第一个分隔符前没有 CRLF，补上后前导与普通部分内容一样被跳过
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+    }
+
+    /**
+     * 从 Content-Type 取出 boundary 创建解析器
+     *
+     * @throws IllegalArgumentException 不是 multipart 类型或缺少 boundary 参数
+     */
+    public static MultipartReader of(InputStream in, String contentType) {
+        return new MultipartReader(in, boundary(contentType));
+    }
+
+    /**
+     * 解析 Content-Type 的 boundary 参数，支持带引号的值
+     *
+     * @throws IllegalArgumentException 不是 multipart 类型或缺少 boundary 参数
+     */
+    public static String boundary(String contentType) {
+        if (contentType == null || !contentType.trim().toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            throw new IllegalArgumentException("Not a multipart content type: " + contentType);
+        }
+        for (String param : contentType.split(";")) {
+            int eq = param.indexOf('=');
+            if (eq > 0 && param.substring(0, eq).trim().equalsIgnoreCase("boundary")) {
+                String value = param.substring(eq + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if (!value.isEmpty()) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Missing boundary in content type: " + contentType);
+    }
+
+    /**
+     * 读取下一个部分的头部；上一个部分未读完的内容被跳过
+     *
+     * @return 没有更多部分时返回 null
+     * @throws IOException 读取失败，或响应体在结束分隔符前中断（EOFException）
+     */
+    public BodyPart nextPart() throws IOException {
+        checkClosed();
+        if (current != null) {
+            current.skipRemaining();
+            current = null;
+        } else if (!finished) {
+            // 跳过前导
+            while (partBytes() > 0) {
+                position += partBytes();
+            }
+        }
+        if (finished) {
+            return null;
+        }
+        current = new BodyPart(readHeaders());
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            buffer = null;
+            in.close();
+        }
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 当前部分在缓冲区中可直接交出的字节数（从 position 起），必要时从网络读入；
+     * 返回 0 表示本部分结束，此时已越过分隔符（finished 标记是否为结束分隔符）
+     */
+    private int partBytes() throws IOException {
+        while (true) {
+            if (found < 0) {
+                search();
+            }
+            if (found >= 0) {
+                if (found > position) {
+                    return found - position;
+                }
+                consumeDelimiter();
+                return 0;
+            }
+            if (scanned > position) {
+                return scanned - position;
+            }
+            if (!fill()) {
+                throw new EOFException("Multipart body ended before the closing boundary");
+            }
+        }
+    }
+
+    /**
+     * Horspool 查找：从 scanned 继续，找到时记录 found，否则 scanned 前进到不可能再有匹配的位置
+     */
+    private void search() {
+        int m = delimiter.length;
+        int i = Math.max(scanned, position);
+        int last = limit - m;
+        while (i <= last) {
+            int j = m - 1;
+            while (buffer[i + j] == delimiter[j]) {
+                if (j == 0) {
+                    found = i;
+                    scanned = i;
+                    return;
+                }
+                j--;
+            }
+            i += skip[buffer[i + m - 1] & 0xFF];
+        }
+        scanned = eof ? limit : Math.min(i, limit);
+    }
+
+    /**
+     * 越过分隔符、可选的传输填充和 CRLF；"--" 表示结束分隔符
+     */
+    private void consumeDelimiter() throws IOException {
+        position = found + delimiter.length;
+        found = -1;
+        scanned = position;
+        require(2);
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            position += 2;
+            return;
+        }
+        while (true) {
+            require(1);
+            byte b = buffer[position];
+            if (b == ' ' || b == '\t') {
+                position++;
+                continue;
+            }
+            require(2);
+            if (b != '\r' || buffer[position + 1] != '\n') {
+                throw new IOException("Malformed multipart delimiter line");
+            }
+            position += 2;
+            scanned = position;
+            return;
+        }
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int start = position;
+        while (true) {
+            int end = -1;
+            for (int i = position; i + 1 < limit; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) {
+                if (limit - start > MAX_HEADER_BYTES) {
+                    throw new IOException("Multipart part headers exceed " + MAX_HEADER_BYTES + " bytes");
+                }
+                int shift = position - start;
+                position = start;
+                if (!fill()) {
+                    throw new EOFException("Multipart body ended inside part headers");
+                }
+                start = position;
+                position += shift;
+                continue;
+            }
+            String line = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+            position = end + 2;
+            if (line.isEmpty()) {
+                scanned = position;
+                return Collections.unmodifiableMap(headers);
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IOException("Malformed multipart header: " + line);
+            }
+            headers.merge(line.substring(0, colon).trim(), line.substring(colon + 1).trim(),
+                    (a, b) -> a + ", " + b);
+        }
+    }
+
+    /**
+     * 保证 position 起至少有 n 个字节
+     */
+    private void require(int n) throws IOException {
+        while (limit - position < n) {
+            if (!fill()) {
+                throw new EOFException("Multipart body ended inside a delimiter");
+            }
+        }
+    }
+
+    /**
+     * 把未消费的字节移到缓冲区开头（空间不够时扩容）后读入更多数据；流结束返回 false
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            scanned = Math.max(0, scanned - position);
+            if (found >= 0) {
+                found -= position;
+            }
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException("MultipartReader is closed");
+        }
+    }
+
+    /**
+     * 响应体中的一个部分：头部加上只能顺序读取一次的内容
+     */
+    public final class BodyPart {
+        private final Map<String, String> headers;
+        private boolean done;
+        private InputStream stream;
+        private ByteBuffer view;
+
+        private BodyPart(Map<String, String> headers) {
+            this.headers = headers;
+        }
+
+        /**
+         * 本部分的头部，名称不区分大小写；同名头部以 ", " 合并
+         */
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        public String getContentType() {
+            return headers.get("Content-Type");
+        }
+
+        /**
+         * multipart/byteranges 中 Content-Range 的起始偏移，没有时返回 -1
+         */
+        public long getRangeStart() {
+            return range(0);
+        }
+
+        /**
+         * Content-Range 的结束偏移（含），没有时返回 -1
+         */
+        public long getRangeEnd() {
+            return range(1);
+        }
+
+        /**
+         * Content-Range 中的完整长度，没有或为 "*" 时返回 -1
+         */
+        public long getRangeTotal() {
+            return range(2);
+        }
+
+        /**
+         * 下一段内容：读缓冲区的只读视图，只在下一次读取前有效，需要保留时自行复制
+         *
+         * @return 本部分读完时返回 null
+         */
+        public ByteBuffer nextSlice() throws IOException {
+            int n = remaining();
+            if (n == 0) {
+                return null;
+            }
+            if (view == null || view.array() != buffer) {
+                view = ByteBuffer.wrap(buffer);
+            }
+            ByteBuffer slice = view.duplicate();
+            slice.limit(position + n).position(position);
+            position += n;
+            return slice.slice().asReadOnlyBuffer();
+        }
+
+        /**
+         * 限定在本部分内的输入流，读到分隔符返回 -1；关闭它只跳过本部分剩余内容
+         */
+        public InputStream getInputStream() {
+            if (stream == null) {
+                stream = new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        if (remaining() == 0) {
+                            return -1;
+                        }
+                        return buffer[position++] & 0xFF;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        if (len == 0) {
+                            return 0;
+                        }
+                        int n = Math.min(len, remaining());
+                        if (n == 0) {
+                            return -1;
+                        }
+                        System.arraycopy(buffer, position, b, off, n);
+                        position += n;
+                        return n;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        skipRemaining();
+                    }
+                };
+            }
+            return stream;
+        }
+
+        /**
+         * 读完本部分并返回全部内容；仅适合已知较小的部分
+         */
+        public byte[] readAllBytes() throws IOException {
+            return getInputStream().readAllBytes();
+        }
+
+        private int remaining() throws IOException {
+            if (done || current != this) {
+                return 0;
+            }
+            checkClosed();
+            int n = partBytes();
+            if (n == 0) {
+                done = true;
+            }
+            return n;
+        }
+
+        private void skipRemaining() throws IOException {
+            for (int n; (n = remaining()) > 0; ) {
+                position += n;
+            }
+        }
+
+        private long range(int index) {
+            String value = headers.get("Content-Range");
+            if (value == null) {
+                return -1;
+            }
+            // bytes 0-499/1234
+            String spec = value.trim();
+            int space = spec.indexOf(' ');
+            int dash = spec.indexOf('-', space + 1);
+            int slash = spec.indexOf('/', dash + 1);
+            if (space < 0 || dash < 0 || slash < 0) {
+                return -1;
+            }
+            String part = index == 0 ? spec.substring(space + 1, dash)
+                    : index == 1 ? spec.substring(dash + 1, slash) : spec.substring(slash + 1);
+            try {
+                return Long.parseLong(part.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jnet.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 直接缓冲区池
+ * 直接缓冲区分配和回收代价高（需要清零且依赖 GC 后的 Cleaner 释放），连接关闭时归还复用；
+ * 超过 maxPooled 的缓冲区直接丢弃，交给 GC。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * 取一个容量至少为 minSize 的已清空缓冲区，超过池化尺寸时单独分配
+     */
+    ByteBuffer acquire(int minSize) {
+        if (minSize > bufferSize) {
+            return ByteBuffer.allocateDirect(minSize);
+        }
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，非池化尺寸或池已满时丢弃
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 当前池中空闲的缓冲区数
+     */
+    int pooledCount() {
+        return pooled.get();
+    }
+}
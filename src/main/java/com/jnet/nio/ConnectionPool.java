@@ -0,0 +1,198 @@
+package com.jnet.nio;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 origin（scheme://host:port）划分的 keep-alive 连接池
+ * 每个 origin 的连接总数（使用中 + 空闲）不超过 maxPerHost，超出时等待归还直到截止时间；
+ * 空闲连接后进先出，超过 keepAlive 或已被对端关闭的连接在取用和清扫时淘汰。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class ConnectionPool implements Closeable {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxPerHost;
+    private final long keepAliveNanos;
+    private final Map<String, HostPool> hosts = new HashMap<>();
+    private long lastSweepNanos = System.nanoTime();
+    private boolean closed;
+
+    ConnectionPool(int maxPerHost, long keepAliveNanos) {
+        this.maxPerHost = maxPerHost;
+        this.keepAliveNanos = keepAliveNanos;
+    }
+
+    /**
+     * 取一条可用的空闲连接；没有空闲连接时占用一个名额并返回 null，由调用方新建连接，
+     * 新建失败时必须调用 {@link #discard(String)} 归还名额
+     *
+     * @param reuse false 表示必须新建连接，该 origin 现有的空闲连接全部关闭
+     */
+    NioConnection acquire(String origin, long deadline, boolean reuse)
+            throws SocketTimeoutException, InterruptedIOException {
+        List<NioConnection> evicted = new ArrayList<>();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Transport is closed");
+                }
+                sweepIfDue(evicted);
+                while (true) {
+                    // 等待期间清扫可能移除了空的 HostPool，每轮重新获取
+                    HostPool pool = hosts.computeIfAbsent(origin, k -> new HostPool());
+                    NioConnection idle;
+                    while ((idle = pool.idle.pollFirst()) != null) {
+                        if (!reuse || isExpired(idle) || idle.isStale()) {
+                            pool.total--;
+                            evicted.add(idle);
+                            continue;
+                        }
+                        return idle;
+                    }
+                    if (pool.total < maxPerHost) {
+                        pool.total++;
+                        return null;
+                    }
+                    awaitSlot(origin, deadline);
+                }
+            }
+        } finally {
+            closeAll(evicted);
+        }
+    }
+
+    /**
+     * 交换结束后归还连接；不可复用时关闭并释放名额
+     */
+    void release(NioConnection connection, boolean reusable) {
+        synchronized (this) {
+            HostPool pool = hosts.get(connection.origin());
+            if (reusable && !closed && pool != null) {
+                connection.markIdle();
+                pool.idle.addFirst(connection);
+                notifyAll();
+                return;
+            }
+            if (pool != null) {
+                pool.total--;
+            }
+            notifyAll();
+        }
+        connection.close();
+    }
+
+    /**
+     * 归还 acquire 时占用但未能建立连接的名额
+     */
+    synchronized void discard(String origin) {
+        HostPool pool = hosts.get(origin);
+        if (pool != null) {
+            pool.total--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * origin 下的连接总数（使用中 + 空闲）
+     */
+    synchronized int connectionCount(String origin) {
+        HostPool pool = hosts.get(origin);
+        return pool == null ? 0 : pool.total;
+    }
+
+    /**
+     * origin 下的空闲连接数
+     */
+    synchronized int idleCount(String origin) {
+        HostPool pool = hosts.get(origin);
+        return pool == null ? 0 : pool.idle.size();
+    }
+
+    /**
+     * 关闭所有空闲连接，使用中的连接在归还时关闭
+     */
+    @Override
+    public void close() {
+        List<NioConnection> idle = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (HostPool pool : hosts.values()) {
+                pool.total -= pool.idle.size();
+                idle.addAll(pool.idle);
+                pool.idle.clear();
+            }
+            notifyAll();
+        }
+        closeAll(idle);
+    }
+
+    // ========== 内部方法 ==========
+
+    private void awaitSlot(String origin, long deadline) throws SocketTimeoutException, InterruptedIOException {
+        try {
+            if (deadline == NioConnection.NO_DEADLINE) {
+                wait();
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SocketTimeoutException("Timed out waiting for a connection to " + origin
+                        + " (max " + maxPerHost + " per host)");
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection to " + origin);
+        }
+    }
+
+    private boolean isExpired(NioConnection connection) {
+        return System.nanoTime() - connection.idleSinceNanos() > keepAliveNanos;
+    }
+
+    private void sweepIfDue(List<NioConnection> evicted) {
+        long now = System.nanoTime();
+        if (now - lastSweepNanos < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweepNanos = now;
+        Iterator<HostPool> pools = hosts.values().iterator();
+        while (pools.hasNext()) {
+            HostPool pool = pools.next();
+            Iterator<NioConnection> it = pool.idle.iterator();
+            while (it.hasNext()) {
+                NioConnection connection = it.next();
+                if (isExpired(connection)) {
+                    it.remove();
+                    pool.total--;
+                    evicted.add(connection);
+                }
+            }
+            if (pool.total == 0) {
+                pools.remove();
+            }
+        }
+    }
+
+    private static void closeAll(List<NioConnection> connections) {
+        for (NioConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private static final class HostPool {
+        final ArrayDeque<NioConnection> idle = new ArrayDeque<>();
+        int total;
+    }
+}
@@ -0,0 +1,419 @@
+package com.jnet.nio;
+
+import com.jnet.core.Request;
+import com.jnet.core.Response;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP/1.1 报文编解码
+ * 请求头按 ISO-8859-1 编码写出；响应支持 chunked、Content-Length 和读到连接关闭三种消息体格式，
+ * 1xx 临时响应会被跳过。
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class Http1Codec {
+    private static final int MAX_LINE = 64 * 1024;
+    private static final int MAX_HEADERS = 256;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private Http1Codec() {
+    }
+
+    /**
+     * 取出请求体字节；BodyPublisher 会被完整读入内存以便写出 Content-Length
+     *
+     * @return 无请求体时返回 null
+     */
+    static byte[] requestBody(Request request, long deadline) throws IOException {
+        if (request.getBody() != null) {
+            return request.getBody().getBytes(StandardCharsets.UTF_8);
+        }
+        HttpRequest.BodyPublisher publisher = request.getBodyPublisher();
+        if (publisher == null || publisher.contentLength() == 0) {
+            return null;
+        }
+        BodyCollector collector = new BodyCollector();
+        publisher.subscribe(collector);
+        try {
+            if (deadline == NioConnection.NO_DEADLINE) {
+                return collector.result.get();
+            }
+            return collector.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            collector.cancel();
+            throw new SocketTimeoutException("Request body not produced in time");
+        } catch (InterruptedException e) {
+            collector.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading request body");
+        } catch (ExecutionException e) {
+            throw new IOException("Request body failed", e.getCause());
+        }
+    }
+
+    /**
+     * 写出请求行、请求头和请求体，数据留在写缓冲中，由调用方 flush（管线化时可合并发送）
+     */
+    static void writeRequest(NioConnection connection, Request request, String hostHeader, byte[] body,
+                             long deadline) throws IOException {
+        URI uri = request.getUri();
+        String path = uri.getRawPath();
+        StringBuilder head = new StringBuilder(256);
+        head.append(request.getMethod()).append(' ').append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            head.append('?').append(uri.getRawQuery());
+        }
+        head.append(" HTTP/1.1\r\n");
+
+        boolean hasHost = false;
+        boolean hasLength = false;
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            String name = entry.getKey();
+            if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                // 请求体总是以 Content-Length 发送
+                continue;
+            }
+            hasHost |= name.equalsIgnoreCase("Host");
+            hasLength |= name.equalsIgnoreCase("Content-Length");
+            appendHeader(head, name, entry.getValue());
+        }
+        if (!hasHost) {
+            appendHeader(head, "Host", hostHeader);
+        }
+        if (!hasLength && (body != null || expectsBody(request.getMethod()))) {
+            appendHeader(head, "Content-Length", String.valueOf(body == null ? 0 : body.length));
+        }
+        head.append("\r\n");
+
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        connection.write(headBytes, 0, headBytes.length, deadline);
+        if (body != null) {
+            connection.write(body, 0, body.length, deadline);
+        }
+    }
+
+    /**
+     * 读取一个完整响应
+     */
+    static RawResponse readResponse(NioConnection connection, String method, long deadline,
+                                    Timings.Recorder timings) throws IOException {
+        long waitStart = System.nanoTime();
+        if (!connection.fill(deadline)) {
+            throw new EOFException("Connection closed before response from " + connection.origin());
+        }
+        timings.firstByteNanos = System.nanoTime() - waitStart;
+        timings.firstByteReceived = true;
+
+        StringBuilder line = new StringBuilder(128);
+        while (true) {
+            String statusLine = readLine(connection, deadline, line);
+            if (statusLine == null) {
+                throw new EOFException("Connection closed before response from " + connection.origin());
+            }
+            RawResponse response = parseStatusLine(statusLine);
+            readHeaders(connection, deadline, line, response.headers);
+            if (response.code >= 100 && response.code < 200) {
+                continue;
+            }
+            response.keepAlive = isKeepAlive(response);
+            response.body = readBody(connection, method, deadline, line, response);
+            return response;
+        }
+    }
+
+    /**
+     * 按 {@link Response#bodyCharset(String)} 解码响应体：charset 参数，默认 UTF-8；
+     * CBOR/MessagePack 按 ISO-8859-1 逐字节保存，Response.asCbor/asMessagePack 据此还原原始字节
+     */
+    static String decode(byte[] body, String contentType) {
+        return body.length == 0 ? "" : new String(body, Response.bodyCharset(contentType));
+    }
+
+    // ========== 内部方法 ==========
+
+    private static boolean expectsBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+
+    private static void appendHeader(StringBuilder head, String name, String value) {
+        if (containsLineBreak(name) || containsLineBreak(value)) {
+            throw new IllegalArgumentException("Header contains line break: " + name);
+        }
+        head.append(name).append(": ").append(value).append("\r\n");
+    }
+
+    private static boolean containsLineBreak(String s) {
+        return s.indexOf('\r') >= 0 || s.indexOf('\n') >= 0;
+    }
+
+    private static RawResponse parseStatusLine(String statusLine) throws ProtocolException {
+        // HTTP/1.1 200 OK
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12 || statusLine.charAt(8) != ' ') {
+            throw new ProtocolException("Invalid status line: " + statusLine);
+        }
+        int code;
+        try {
+            code = Integer.parseInt(statusLine.substring(9, 12));
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("Invalid status line: " + statusLine);
+        }
+        String reason = statusLine.length() > 13 ? statusLine.substring(13) : "";
+        return new RawResponse(code, reason, statusLine.charAt(7) == '0');
+    }
+
+    private static void readHeaders(NioConnection connection, long deadline, StringBuilder line,
+                                    Map<String, String> headers) throws IOException {
+        headers.clear();
+        for (int count = 0; ; count++) {
+            String header = readLine(connection, deadline, line);
+            if (header == null) {
+                throw new EOFException("Connection closed while reading headers");
+            }
+            if (header.isEmpty()) {
+                return;
+            }
+            if (count >= MAX_HEADERS) {
+                throw new ProtocolException("Too many response headers");
+            }
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                throw new ProtocolException("Invalid header: " + header);
+            }
+            // 同名头只保留第一个，与默认传输层一致
+            headers.putIfAbsent(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+        }
+    }
+
+    private static boolean isKeepAlive(RawResponse response) {
+        String connection = response.headers.get("Connection");
+        String value = connection == null ? "" : connection.toLowerCase(Locale.ROOT);
+        if (response.http10) {
+            return value.contains("keep-alive");
+        }
+        return !value.contains("close");
+    }
+
+    private static byte[] readBody(NioConnection connection, String method, long deadline, StringBuilder line,
+                                   RawResponse response) throws IOException {
+        if ("HEAD".equals(method) || response.code == 204 || response.code == 304) {
+            return NO_BYTES;
+        }
+        String transferEncoding = response.headers.get("Transfer-Encoding");
+        if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).endsWith("chunked")) {
+            return readChunked(connection, deadline, line);
+        }
+        String contentLength = response.headers.get("Content-Length");
+        if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                throw new ProtocolException("Invalid Content-Length: " + contentLength);
+            }
+            if (length < 0 || length > Integer.MAX_VALUE - 8) {
+                throw new ProtocolException("Unsupported Content-Length: " + contentLength);
+            }
+            byte[] body = new byte[(int) length];
+            readFully(connection, deadline, body, 0, body.length);
+            return body;
+        }
+        // 既无长度也非 chunked：读到连接关闭，连接不可复用
+        response.keepAlive = false;
+        ByteSink sink = new ByteSink(8192);
+        ByteBuffer in = connection.readBuffer();
+        while (connection.fill(deadline)) {
+            sink.append(in, in.remaining());
+        }
+        return sink.toByteArray();
+    }
+
+    private static byte[] readChunked(NioConnection connection, long deadline, StringBuilder line)
+            throws IOException {
+        ByteSink sink = new ByteSink(8192);
+        ByteBuffer in = connection.readBuffer();
+        while (true) {
+            String sizeLine = readLine(connection, deadline, line);
+            if (sizeLine == null) {
+                throw new EOFException("Connection closed inside chunked body");
+            }
+            int semicolon = sizeLine.indexOf(';');
+            String hex = (semicolon >= 0 ? sizeLine.substring(0, semicolon) : sizeLine).trim();
+            int size;
+            try {
+                size = Integer.parseInt(hex, 16);
+            } catch (NumberFormatException e) {
+                throw new ProtocolException("Invalid chunk size: " + sizeLine);
+            }
+            if (size < 0) {
+                throw new ProtocolException("Invalid chunk size: " + sizeLine);
+            }
+            if (size == 0) {
+                // 跳过 trailer
+                String trailer;
+                do {
+                    trailer = readLine(connection, deadline, line);
+                } while (trailer != null && !trailer.isEmpty());
+                return sink.toByteArray();
+            }
+            int remaining = size;
+            while (remaining > 0) {
+                if (!connection.fill(deadline)) {
+                    throw new EOFException("Connection closed inside chunk");
+                }
+                int n = Math.min(remaining, in.remaining());
+                sink.append(in, n);
+                remaining -= n;
+            }
+            String end = readLine(connection, deadline, line);
+            if (end == null || !end.isEmpty()) {
+                throw new ProtocolException("Missing CRLF after chunk");
+            }
+        }
+    }
+
+    private static void readFully(NioConnection connection, long deadline, byte[] target, int offset, int length)
+            throws IOException {
+        ByteBuffer in = connection.readBuffer();
+        while (length > 0) {
+            if (!connection.fill(deadline)) {
+                throw new EOFException("Connection closed with " + length + " body bytes missing");
+            }
+            int n = Math.min(length, in.remaining());
+            in.get(target, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * 读取一行（去掉 CRLF），连接在行首关闭时返回 null
+     */
+    private static String readLine(NioConnection connection, long deadline, StringBuilder line) throws IOException {
+        line.setLength(0);
+        ByteBuffer in = connection.readBuffer();
+        while (true) {
+            if (!connection.fill(deadline)) {
+                if (line.length() == 0) {
+                    return null;
+                }
+                throw new EOFException("Connection closed mid-line");
+            }
+            byte b = in.get();
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE) {
+                throw new ProtocolException("Response line exceeds " + MAX_LINE + " bytes");
+            }
+            line.append((char) (b & 0xFF));
+        }
+    }
+
+    /**
+     * 收集 BodyPublisher 的全部字节
+     */
+    private static final class BodyCollector implements Flow.Subscriber<ByteBuffer> {
+        final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            ByteSink sink = new ByteSink(chunks.stream().mapToInt(ByteBuffer::remaining).sum());
+            for (ByteBuffer chunk : chunks) {
+                sink.append(chunk, chunk.remaining());
+            }
+            result.complete(sink.toByteArray());
+        }
+
+        void cancel() {
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    /**
+     * 可增长的字节数组，不加锁
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int initialCapacity) {
+            this.bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void append(ByteBuffer source, int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+            source.get(bytes, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+
+    /**
+     * 解析后的原始响应
+     */
+    static final class RawResponse {
+        final int code;
+        final String reason;
+        final boolean http10;
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        byte[] body;
+        boolean keepAlive;
+
+        RawResponse(int code, String reason, boolean http10) {
+            this.code = code;
+            this.reason = reason;
+            this.http10 = http10;
+        }
+    }
+}
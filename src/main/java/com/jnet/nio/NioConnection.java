@@ -0,0 +1,438 @@
+package com.jnet.nio;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一条非阻塞 SocketChannel 连接，可选 TLS（SSLEngine）
+ * 每条连接持有自己的 Selector，只用于带超时地等待可读/可写，调用方线程同步完成读写；
+ * 同一时刻只被一个交换使用，不是线程安全的。
+ *
+ * <p>
+ * 缓冲区约定：in 为明文读缓冲（读模式，position..limit 为未消费数据），out 为明文写缓冲（写模式）；
+ * TLS 下 netIn/netOut 为密文缓冲，netIn 保持写模式。所有缓冲区取自 BufferPool，关闭时归还。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class NioConnection implements Closeable {
+    /** 无截止时间 */
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final String origin;
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final SSLEngine engine;
+    private final BufferPool buffers;
+    private final ByteBuffer in;
+    private final ByteBuffer out;
+    private final ByteBuffer netIn;
+    private final ByteBuffer netOut;
+    private long idleSinceNanos;
+    private boolean closed;
+
+    private NioConnection(String origin, SocketChannel channel, Selector selector, SelectionKey key,
+                          SSLEngine engine, BufferPool buffers) {
+        this.origin = origin;
+        this.channel = channel;
+        this.selector = selector;
+        this.key = key;
+        this.engine = engine;
+        this.buffers = buffers;
+        int appSize = engine != null ? engine.getSession().getApplicationBufferSize() : buffers.bufferSize();
+        this.in = buffers.acquire(appSize);
+        this.in.limit(0);
+        this.out = buffers.acquire(appSize);
+        if (engine != null) {
+            int packetSize = engine.getSession().getPacketBufferSize();
+            this.netIn = buffers.acquire(packetSize);
+            this.netOut = buffers.acquire(packetSize);
+        } else {
+            this.netIn = null;
+            this.netOut = null;
+        }
+    }
+
+    /**
+     * 解析地址、建立连接并在需要时完成 TLS 握手，各阶段耗时记入 timings
+     *
+     * @param sslContext 为 null 表示明文连接
+     */
+    static NioConnection open(String origin, String host, int port, SSLContext sslContext, BufferPool buffers,
+                              long connectDeadline, long deadline, Timings.Recorder timings) throws IOException {
+        long dnsStart = System.nanoTime();
+        InetAddress[] addresses = InetAddress.getAllByName(host);
+        long connectStart = System.nanoTime();
+        timings.dnsNanos = connectStart - dnsStart;
+
+        IOException failure = null;
+        for (InetAddress address : addresses) {
+            SocketChannel channel = SocketChannel.open();
+            Selector selector = null;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                selector = Selector.open();
+                SelectionKey key = channel.register(selector, 0);
+                if (!channel.connect(new InetSocketAddress(address, port))) {
+                    while (!channel.finishConnect()) {
+                        await(selector, key, SelectionKey.OP_CONNECT, connectDeadline, "Connect to " + origin);
+                    }
+                }
+                timings.connectNanos = System.nanoTime() - connectStart;
+                SSLEngine engine = sslContext != null ? newEngine(sslContext, host, port) : null;
+                NioConnection connection = new NioConnection(origin, channel, selector, key, engine, buffers);
+                if (engine != null) {
+                    long tlsStart = System.nanoTime();
+                    try {
+                        connection.handshake(deadline);
+                    } catch (IOException | RuntimeException e) {
+                        connection.close();
+                        throw e;
+                    }
+                    timings.tlsNanos = System.nanoTime() - tlsStart;
+                }
+                return connection;
+            } catch (InterruptedIOException | SSLException e) {
+                // 超时（SocketTimeoutException）、中断和 TLS 错误不换地址重试
+                closeQuietly(channel, selector);
+                throw e;
+            } catch (IOException e) {
+                // 连接失败时尝试下一个地址
+                closeQuietly(channel, selector);
+                failure = e;
+            }
+        }
+        throw failure != null ? failure : new IOException("No address for " + host);
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    long idleSinceNanos() {
+        return idleSinceNanos;
+    }
+
+    void markIdle() {
+        idleSinceNanos = System.nanoTime();
+    }
+
+    /**
+     * 明文读缓冲（读模式），调用 {@link #fill} 后读取
+     */
+    ByteBuffer readBuffer() {
+        return in;
+    }
+
+    /**
+     * 确保读缓冲中有数据，必要时等待网络
+     *
+     * @return false 表示对端已关闭且没有更多数据
+     */
+    boolean fill(long deadline) throws IOException {
+        while (!in.hasRemaining()) {
+            if (engine == null) {
+                in.clear();
+                int n = channel.read(in);
+                in.flip();
+                if (n < 0) {
+                    return false;
+                }
+                if (n == 0) {
+                    await(SelectionKey.OP_READ, deadline, "Read from " + origin);
+                }
+            } else if (!unwrapAvailable(deadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 写入明文，写缓冲满时发送
+     */
+    void write(byte[] src, int offset, int length, long deadline) throws IOException {
+        while (length > 0) {
+            int n = Math.min(length, out.remaining());
+            out.put(src, offset, n);
+            offset += n;
+            length -= n;
+            if (!out.hasRemaining()) {
+                flush(deadline);
+            }
+        }
+    }
+
+    /**
+     * 发送写缓冲中的全部数据
+     */
+    void flush(long deadline) throws IOException {
+        out.flip();
+        try {
+            if (engine == null) {
+                writeNet(out, deadline);
+                return;
+            }
+            while (out.hasRemaining()) {
+                netOut.clear();
+                SSLEngineResult result = engine.wrap(out, netOut);
+                if (result.getStatus() != SSLEngineResult.Status.OK) {
+                    throw new SSLException("TLS wrap failed: " + result.getStatus());
+                }
+                netOut.flip();
+                writeNet(netOut, deadline);
+            }
+        } finally {
+            out.clear();
+        }
+    }
+
+    /**
+     * 空闲连接是否已不可用：对端已关闭、出错，或者收到了不属于任何请求的数据
+     */
+    boolean isStale() {
+        if (closed || in.hasRemaining() || !channel.isOpen()) {
+            return true;
+        }
+        try {
+            if (engine == null) {
+                in.clear();
+                int n = channel.read(in);
+                in.flip();
+                return n != 0;
+            }
+            return channel.read(netIn) != 0;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (engine != null) {
+            // 尽力发送 close_notify，不等待
+            try {
+                engine.closeOutbound();
+                netOut.clear();
+                engine.wrap(EMPTY, netOut);
+                netOut.flip();
+                channel.write(netOut);
+            } catch (IOException | RuntimeException ignored) {
+                // 连接即将关闭
+            }
+        }
+        closeQuietly(channel, selector);
+        buffers.release(in);
+        buffers.release(out);
+        buffers.release(netIn);
+        buffers.release(netOut);
+    }
+
+    // ========== 内部方法 ==========
+
+    private static SSLEngine newEngine(SSLContext sslContext, String host, int port) {
+        String peerHost = host.startsWith("[") ? host.substring(1, host.length() - 1) : host;
+        SSLEngine engine = sslContext.createSSLEngine(peerHost, port);
+        engine.setUseClientMode(true);
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        if (!isIpLiteral(peerHost)) {
+            parameters.setServerNames(Collections.singletonList(new SNIHostName(peerHost)));
+        }
+        engine.setSSLParameters(parameters);
+        return engine;
+    }
+
+    private static boolean isIpLiteral(String host) {
+        return host.indexOf(':') >= 0 || host.chars().allMatch(c -> c == '.' || (c >= '0' && c <= '9'));
+    }
+
+    private void handshake(long deadline) throws IOException {
+        engine.beginHandshake();
+        SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+        while (status != SSLEngineResult.HandshakeStatus.FINISHED
+                && status != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING) {
+            switch (status) {
+                case NEED_WRAP: {
+                    netOut.clear();
+                    SSLEngineResult result = engine.wrap(EMPTY, netOut);
+                    netOut.flip();
+                    writeNet(netOut, deadline);
+                    if (result.getStatus() != SSLEngineResult.Status.OK) {
+                        throw new SSLException("TLS handshake wrap failed: " + result.getStatus());
+                    }
+                    status = result.getHandshakeStatus();
+                    break;
+                }
+                case NEED_TASK:
+                    runDelegatedTasks();
+                    status = engine.getHandshakeStatus();
+                    break;
+                default: {
+                    // NEED_UNWRAP / NEED_UNWRAP_AGAIN
+                    SSLEngineResult result = unwrap();
+                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                        if (!readNet(deadline)) {
+                            throw new EOFException("Connection closed during TLS handshake with " + origin);
+                        }
+                        status = engine.getHandshakeStatus();
+                    } else if (result.getStatus() != SSLEngineResult.Status.OK) {
+                        throw new SSLException("TLS handshake unwrap failed: " + result.getStatus());
+                    } else {
+                        status = result.getHandshakeStatus();
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 解密出至少一个字节的明文；密文不足一个记录时从网络读取
+     */
+    private boolean unwrapAvailable(long deadline) throws IOException {
+        while (true) {
+            SSLEngineResult result = unwrap();
+            switch (result.getStatus()) {
+                case OK:
+                    // 握手后的消息（如 TLS 1.3 的 NewSessionTicket、KeyUpdate）不产生明文
+                    finishPostHandshake(result.getHandshakeStatus(), deadline);
+                    if (in.hasRemaining()) {
+                        return true;
+                    }
+                    break;
+                case BUFFER_UNDERFLOW:
+                    if (!readNet(deadline)) {
+                        return false;
+                    }
+                    break;
+                case CLOSED:
+                    return false;
+                default:
+                    throw new SSLException("TLS unwrap failed: " + result.getStatus());
+            }
+        }
+    }
+
+    private void finishPostHandshake(SSLEngineResult.HandshakeStatus status, long deadline) throws IOException {
+        while (true) {
+            if (status == SSLEngineResult.HandshakeStatus.NEED_TASK) {
+                runDelegatedTasks();
+            } else if (status == SSLEngineResult.HandshakeStatus.NEED_WRAP) {
+                netOut.clear();
+                engine.wrap(EMPTY, netOut);
+                netOut.flip();
+                writeNet(netOut, deadline);
+            } else {
+                return;
+            }
+            status = engine.getHandshakeStatus();
+        }
+    }
+
+    private SSLEngineResult unwrap() throws SSLException {
+        netIn.flip();
+        in.compact();
+        try {
+            return engine.unwrap(netIn, in);
+        } finally {
+            in.flip();
+            netIn.compact();
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private boolean readNet(long deadline) throws IOException {
+        while (true) {
+            if (!netIn.hasRemaining()) {
+                throw new SSLException("TLS record exceeds buffer size " + netIn.capacity());
+            }
+            int n = channel.read(netIn);
+            if (n < 0) {
+                return false;
+            }
+            if (n > 0) {
+                return true;
+            }
+            await(SelectionKey.OP_READ, deadline, "Read from " + origin);
+        }
+    }
+
+    private void writeNet(ByteBuffer buffer, long deadline) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                await(SelectionKey.OP_WRITE, deadline, "Write to " + origin);
+            }
+        }
+    }
+
+    private void await(int ops, long deadline, String what) throws IOException {
+        await(selector, key, ops, deadline, what);
+    }
+
+    private static void await(Selector selector, SelectionKey key, int ops, long deadline, String what)
+            throws IOException {
+        long timeoutMillis = 0;
+        if (deadline != NO_DEADLINE) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SocketTimeoutException(what + " timed out");
+            }
+            timeoutMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+        }
+        key.interestOps(ops);
+        selector.select(timeoutMillis);
+        selector.selectedKeys().clear();
+        key.interestOps(0);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException(what + " interrupted");
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel, Selector selector) {
+        try {
+            if (selector != null) {
+                selector.close();
+            }
+        } catch (IOException ignored) {
+            // 忽略
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 忽略
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.jnet.nio;
+
+import com.jnet.core.Request;
+import com.jnet.core.Response;
+import com.jnet.core.Transport;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 基于 NIO SocketChannel 的 HTTP/1.1 传输层
+ * 与默认的 JDK HttpClient 传输相比，连接池参数显式可控，支持同源 GET 管线化，
+ * 并可通过 timingListener 获取每次交换的 DNS/连接/TLS/TTFB 分阶段耗时。
+ *
+ * <p>
+ * 读写在调用线程上同步完成（非阻塞通道 + 每连接一个 Selector 等待就绪），不需要额外的 IO 线程；
+ * 异步调用由 {@link Transport#executeAsync} 的默认实现分派到 AsyncExecutor。
+ * 只支持 HTTP/1.1，不处理代理和 Cookie。
+ * </p>
+ *
+ * <pre>
+ * NioTransport transport = NioTransport.newBuilder()
+ *         .maxConnectionsPerHost(16)
+ *         .timingListener((request, timings) -&gt; log.debug("{} {}", request.getUri(), timings))
+ *         .build();
+ * JNetClient client = JNetClient.newBuilder().transport(transport).build();
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class NioTransport implements Transport {
+    private final long connectTimeoutNanos;
+    private final boolean followRedirects;
+    private final int maxRedirects;
+    private final BiConsumer<Request, Timings> timingListener;
+    private final BufferPool buffers;
+    private final ConnectionPool pool;
+    private volatile SSLContext sslContext;
+
+    private NioTransport(Builder builder) {
+        this.connectTimeoutNanos = builder.connectTimeout.toNanos();
+        this.followRedirects = builder.followRedirects;
+        this.maxRedirects = builder.maxRedirects;
+        this.timingListener = builder.timingListener;
+        this.sslContext = builder.sslContext;
+        this.buffers = new BufferPool(builder.bufferSize, builder.maxPooledBuffers);
+        this.pool = new ConnectionPool(builder.maxConnectionsPerHost, builder.keepAlive.toNanos());
+    }
+
+    /**
+     * 创建 Builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * 使用默认参数创建（每主机 8 条连接，空闲 60 秒回收）
+     */
+    public static NioTransport create() {
+        return newBuilder().build();
+    }
+
+    @Override
+    public Response execute(Request request, Duration timeout) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long deadline = deadlineAfter(timeout);
+        Request current = request;
+        for (int redirects = 0; ; redirects++) {
+            Http1Codec.RawResponse raw = exchange(current, deadline);
+            Request next = followRedirects && redirects < maxRedirects ? redirectOf(current, raw) : null;
+            if (next == null) {
+                return toResponse(raw, request, System.currentTimeMillis() - startTime);
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * 在同一条连接上管线化发送一批同源的 GET/HEAD 请求：先连续写出全部请求，再按顺序读取响应
+     * 服务端中途关闭连接时，剩余请求逐个通过 {@link #execute} 重新发送；管线化请求不跟随重定向。
+     *
+     * @param requests 同一 origin 的 GET/HEAD 请求，不能带请求体
+     * @param timeout  整批的超时，null 表示不限
+     * @return 与 requests 一一对应的响应
+     */
+    public List<Response> executePipelined(List<Request> requests, Duration timeout) throws IOException {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Requests cannot be empty");
+        }
+        Target target = Target.of(requests.get(0).getUri());
+        for (Request request : requests) {
+            if (!target.origin.equals(Target.of(request.getUri()).origin)) {
+                throw new IllegalArgumentException("Pipelined requests must share one origin: " + request.getUri());
+            }
+            String method = request.getMethod();
+            if ((!"GET".equals(method) && !"HEAD".equals(method)) || request.getBodyPublisher() != null) {
+                throw new IllegalArgumentException("Only GET/HEAD without body can be pipelined: " + method);
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        long deadline = deadlineAfter(timeout);
+        List<Response> responses = new ArrayList<>(requests.size());
+        Timings.Recorder first = new Timings.Recorder();
+        NioConnection connection = connect(target, deadline, first, true);
+        boolean reusable = false;
+        boolean lastKeepAlive = false;
+        try {
+            long writeStart = System.nanoTime();
+            for (Request request : requests) {
+                Http1Codec.writeRequest(connection, request, target.hostHeader, null, deadline);
+            }
+            connection.flush(deadline);
+            first.requestNanos = System.nanoTime() - writeStart;
+
+            for (int i = 0; i < requests.size(); i++) {
+                Request request = requests.get(i);
+                Timings.Recorder timings = i == 0 ? first : new Timings.Recorder();
+                timings.connectionReused |= i > 0;
+                Http1Codec.RawResponse raw;
+                try {
+                    raw = Http1Codec.readResponse(connection, request.getMethod(), deadline, timings);
+                } catch (InterruptedIOException e) {
+                    throw e;
+                } catch (IOException e) {
+                    // 连接被关闭（如服务端限制了单连接请求数），剩余请求单独重发
+                    break;
+                }
+                notifyTimings(request, timings);
+                responses.add(toResponse(raw, request, System.currentTimeMillis() - startTime));
+                lastKeepAlive = raw.keepAlive;
+                if (!lastKeepAlive) {
+                    break;
+                }
+            }
+            // 最后一个响应带 Connection: close 时连接同样不能回池
+            reusable = responses.size() == requests.size() && lastKeepAlive;
+        } finally {
+            pool.release(connection, reusable);
+        }
+        for (int i = responses.size(); i < requests.size(); i++) {
+            responses.add(execute(requests.get(i), remaining(deadline)));
+        }
+        return responses;
+    }
+
+    /**
+     * origin 下的连接总数（使用中 + 空闲）
+     */
+    public int getConnectionCount(URI uri) {
+        return pool.connectionCount(Target.of(uri).origin);
+    }
+
+    /**
+     * origin 下的空闲连接数
+     */
+    public int getIdleConnectionCount(URI uri) {
+        return pool.idleCount(Target.of(uri).origin);
+    }
+
+    /**
+     * 当前池中空闲的直接缓冲区数
+     */
+    public int getPooledBufferCount() {
+        return buffers.pooledCount();
+    }
+
+    /**
+     * 关闭空闲连接，使用中的连接在交换结束时关闭；关闭后不能再发送请求
+     */
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 一次请求-响应交换；复用的连接已被对端关闭且尚未收到任何响应字节时，幂等请求换新连接重试一次
+     * 重试时不再取空闲连接：同一服务端关闭的往往不止一条，FIN 可能还没到达
+     */
+    private Http1Codec.RawResponse exchange(Request request, long deadline) throws IOException {
+        Target target = Target.of(request.getUri());
+        byte[] body = Http1Codec.requestBody(request, deadline);
+        for (int attempt = 0; ; attempt++) {
+            Timings.Recorder timings = new Timings.Recorder();
+            NioConnection connection = connect(target, deadline, timings, attempt == 0);
+            boolean reusable = false;
+            try {
+                long writeStart = System.nanoTime();
+                Http1Codec.writeRequest(connection, request, target.hostHeader, body, deadline);
+                connection.flush(deadline);
+                timings.requestNanos = System.nanoTime() - writeStart;
+                Http1Codec.RawResponse raw = Http1Codec.readResponse(connection, request.getMethod(), deadline, timings);
+                reusable = raw.keepAlive;
+                notifyTimings(request, timings);
+                return raw;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt > 0 || !timings.connectionReused || timings.firstByteReceived
+                        || !isIdempotent(request.getMethod())) {
+                    throw e;
+                }
+            } finally {
+                pool.release(connection, reusable);
+            }
+        }
+    }
+
+    private NioConnection connect(Target target, long deadline, Timings.Recorder timings, boolean reuse)
+            throws IOException {
+        NioConnection connection = pool.acquire(target.origin, deadline, reuse);
+        if (connection != null) {
+            timings.connectionReused = true;
+            return connection;
+        }
+        try {
+            long connectDeadline = Math.min(deadline, deadlineAfter(connectTimeoutNanos));
+            return NioConnection.open(target.origin, target.host, target.port, target.tls ? sslContext() : null,
+                    buffers, connectDeadline, deadline, timings);
+        } catch (IOException | RuntimeException e) {
+            pool.discard(target.origin);
+            throw e;
+        }
+    }
+
+    private SSLContext sslContext() throws IOException {
+        SSLContext context = sslContext;
+        if (context == null) {
+            try {
+                context = SSLContext.getDefault();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException("No default SSLContext", e);
+            }
+            sslContext = context;
+        }
+        return context;
+    }
+
+    private void notifyTimings(Request request, Timings.Recorder timings) {
+        if (timingListener == null) {
+            return;
+        }
+        try {
+            timingListener.accept(request, timings.finish());
+        } catch (RuntimeException ignored) {
+            // 监听器异常不影响请求
+        }
+    }
+
+    /**
+     * 按 HttpClient.Redirect.NORMAL 的规则生成重定向请求，不跟随时返回 null
+     */
+    private static Request redirectOf(Request current, Http1Codec.RawResponse raw) {
+        int code = raw.code;
+        if (code != 301 && code != 302 && code != 303 && code != 307 && code != 308) {
+            return null;
+        }
+        String location = raw.headers.get("Location");
+        if (location == null || location.isEmpty()) {
+            return null;
+        }
+        URI target;
+        try {
+            target = current.getUri().resolve(location);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String scheme = target.getScheme() == null ? "" : target.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")
+                || ("https".equalsIgnoreCase(current.getUri().getScheme()) && scheme.equals("http"))) {
+            // 不降级到明文
+            return null;
+        }
+
+        String method = current.getMethod();
+        boolean toGet = code == 303 && !"HEAD".equals(method)
+                || (code == 301 || code == 302) && "POST".equals(method);
+        boolean sameOrigin = Target.of(current.getUri()).origin.equals(Target.of(target).origin);
+
+        Map<String, String> headers = new HashMap<>(current.getHeaders());
+        headers.keySet().removeIf(name -> name.equalsIgnoreCase("Host")
+                || toGet && (name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("Content-Length"))
+                || !sameOrigin && (name.equalsIgnoreCase("Authorization") || name.equalsIgnoreCase("Cookie")));
+
+        Request.Builder builder = Request.newBuilder()
+                .client(current.getClient())
+                .uri(target)
+                .headers(headers)
+                .tag(current.getTag());
+        if (toGet) {
+            builder.method("GET");
+        } else {
+            builder.method(method);
+            if (current.getBody() != null) {
+                builder.body(current.getBody());
+            } else if (current.getBodyPublisher() != null) {
+                builder.body(current.getBodyPublisher());
+            }
+        }
+        return builder.build();
+    }
+
+    private static Response toResponse(Http1Codec.RawResponse raw, Request request, long duration) {
+        boolean isSuccess = raw.code >= 200 && raw.code < 300;
+        Response.Builder builder = isSuccess ? Response.success(request) : Response.failure(request);
+        return builder.code(raw.code)
+                .message(raw.reason)
+                .body(Http1Codec.decode(raw.body, raw.headers.get("Content-Type")))
+                .duration(duration)
+                .headers(raw.headers)
+                .build();
+    }
+
+    private static boolean isIdempotent(String method) {
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "OPTIONS":
+            case "PUT":
+            case "DELETE":
+            case "TRACE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static long deadlineAfter(Duration timeout) {
+        if (timeout == null) {
+            return NioConnection.NO_DEADLINE;
+        }
+        try {
+            return deadlineAfter(timeout.toNanos());
+        } catch (ArithmeticException e) {
+            return NioConnection.NO_DEADLINE;
+        }
+    }
+
+    private static long deadlineAfter(long nanos) {
+        long now = System.nanoTime();
+        long deadline = now + nanos;
+        return deadline < now ? NioConnection.NO_DEADLINE : deadline;
+    }
+
+    private static Duration remaining(long deadline) {
+        if (deadline == NioConnection.NO_DEADLINE) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+    }
+
+    /**
+     * 请求目标：origin（scheme://host:port）、连接地址和 Host 头
+     */
+    private static final class Target {
+        final String origin;
+        final String host;
+        final int port;
+        final boolean tls;
+        final String hostHeader;
+
+        private Target(String scheme, String host, int port, boolean defaultPort) {
+            this.origin = scheme + "://" + host + ":" + port;
+            this.host = host;
+            this.port = port;
+            this.tls = "https".equals(scheme);
+            this.hostHeader = defaultPort ? host : host + ":" + port;
+        }
+
+        static Target of(URI uri) {
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (!scheme.equals("http") && !scheme.equals("https")) {
+                throw new IllegalArgumentException("Unsupported scheme: " + uri);
+            }
+            if (uri.getHost() == null) {
+                throw new IllegalArgumentException("URI has no host: " + uri);
+            }
+            int defaultPort = scheme.equals("https") ? 443 : 80;
+            int port = uri.getPort() == -1 ? defaultPort : uri.getPort();
+            return new Target(scheme, uri.getHost().toLowerCase(Locale.ROOT), port, port == defaultPort);
+        }
+    }
+
+    // ========== Builder ==========
+
+    public static class Builder {
+        private int maxConnectionsPerHost = 8;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private SSLContext sslContext;
+        private boolean followRedirects = true;
+        private int maxRedirects = 5;
+        private int bufferSize = 32 * 1024;
+        private int maxPooledBuffers = 64;
+        private BiConsumer<Request, Timings> timingListener;
+
+        /**
+         * 每个 origin 的最大连接数（使用中 + 空闲），超出时等待归还，默认 8
+         */
+        public Builder maxConnectionsPerHost(int maxConnectionsPerHost) {
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            return this;
+        }
+
+        /**
+         * 空闲连接保留时间，默认 60 秒
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * 建立 TCP 连接的超时，默认 10 秒；同时受调用截止时间约束
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * HTTPS 使用的 SSLContext，默认首次 HTTPS 请求时取 SSLContext.getDefault()
+         */
+        public Builder sslContext(SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * 是否跟随重定向（规则同 HttpClient.Redirect.NORMAL），默认 true
+         */
+        public Builder followRedirects(boolean followRedirects) {
+            this.followRedirects = followRedirects;
+            return this;
+        }
+
+        /**
+         * 最多跟随的重定向次数，默认 5
+         */
+        public Builder maxRedirects(int maxRedirects) {
+            this.maxRedirects = maxRedirects;
+            return this;
+        }
+
+        /**
+         * 每条连接读写缓冲区的大小，默认 32KB
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 缓冲池最多保留的空闲直接缓冲区数，默认 64
+         */
+        public Builder maxPooledBuffers(int maxPooledBuffers) {
+            this.maxPooledBuffers = maxPooledBuffers;
+            return this;
+        }
+
+        /**
+         * 每次交换完成后回调分阶段耗时，在请求线程上同步调用，应尽快返回
+         */
+        public Builder timingListener(BiConsumer<Request, Timings> timingListener) {
+            this.timingListener = timingListener;
+            return this;
+        }
+
+        public NioTransport build() {
+            if (maxConnectionsPerHost < 1) {
+                throw new IllegalArgumentException("maxConnectionsPerHost must be >= 1");
+            }
+            if (maxRedirects < 0 || maxPooledBuffers < 0) {
+                throw new IllegalArgumentException("maxRedirects and maxPooledBuffers must be >= 0");
+            }
+            if (bufferSize < 1024) {
+                throw new IllegalArgumentException("bufferSize must be >= 1024");
+            }
+            if (keepAlive == null || keepAlive.isNegative() || connectTimeout == null
+                    || connectTimeout.isNegative() || connectTimeout.isZero()) {
+                throw new IllegalArgumentException("keepAlive must be non-negative and connectTimeout positive");
+            }
+            return new NioTransport(this);
+        }
+    }
+}
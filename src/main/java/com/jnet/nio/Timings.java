@@ -0,0 +1,114 @@
+package com.jnet.nio;
+
+import java.time.Duration;
+
+/**
+ * 一次 HTTP 交换的分阶段耗时
+ * 复用连接时 DNS、连接和 TLS 阶段为 0。通过 {@link NioTransport.Builder#timingListener} 获取。
+ *
+ * <pre>
+ * |-- dns --|-- connect --|-- tls --|-- request --|-- waiting (TTFB) --|-- body --|
+ * |&lt;----------------------------------- total ---------------------------------&gt;|
+ * </pre>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+public final class Timings {
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long requestNanos;
+    private final long firstByteNanos;
+    private final long totalNanos;
+    private final boolean connectionReused;
+
+    private Timings(Recorder recorder, long totalNanos) {
+        this.dnsNanos = recorder.dnsNanos;
+        this.connectNanos = recorder.connectNanos;
+        this.tlsNanos = recorder.tlsNanos;
+        this.requestNanos = recorder.requestNanos;
+        this.firstByteNanos = recorder.firstByteNanos;
+        this.totalNanos = totalNanos;
+        this.connectionReused = recorder.connectionReused;
+    }
+
+    /**
+     * 域名解析耗时
+     */
+    public Duration getDns() {
+        return Duration.ofNanos(dnsNanos);
+    }
+
+    /**
+     * TCP 连接耗时
+     */
+    public Duration getConnect() {
+        return Duration.ofNanos(connectNanos);
+    }
+
+    /**
+     * TLS 握手耗时，明文连接为 0
+     */
+    public Duration getTls() {
+        return Duration.ofNanos(tlsNanos);
+    }
+
+    /**
+     * 写出请求头和请求体的耗时
+     */
+    public Duration getRequest() {
+        return Duration.ofNanos(requestNanos);
+    }
+
+    /**
+     * 请求写完到收到第一个响应字节的耗时（TTFB，主要是服务端处理时间加一个 RTT）
+     */
+    public Duration getTimeToFirstByte() {
+        return Duration.ofNanos(firstByteNanos);
+    }
+
+    /**
+     * 从获取连接到读完响应体的总耗时
+     */
+    public Duration getTotal() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    /**
+     * 是否复用了连接池中的连接
+     */
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    @Override
+    public String toString() {
+        return "Timings{dns=" + millis(dnsNanos) + "ms, connect=" + millis(connectNanos)
+                + "ms, tls=" + millis(tlsNanos) + "ms, request=" + millis(requestNanos)
+                + "ms, ttfb=" + millis(firstByteNanos) + "ms, total=" + millis(totalNanos)
+                + "ms, reused=" + connectionReused + "}";
+    }
+
+    private static String millis(long nanos) {
+        return String.format(java.util.Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 交换过程中逐阶段记录
+     */
+    static final class Recorder {
+        private final long startNanos = System.nanoTime();
+        long dnsNanos;
+        long connectNanos;
+        long tlsNanos;
+        long requestNanos;
+        long firstByteNanos;
+        boolean connectionReused;
+        boolean firstByteReceived;
+
+        Timings finish() {
+            return new Timings(this, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.netcapture;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图 - HDR 风格的对数线性分桶
+ * 记录微秒级延迟，线程安全，记录过程无锁且不分配内存。
+ *
+ * <p>
+ * 小于 1024µs 的值精确记录；更大的值按 2 的幂分段，每段 512 个线性子桶，
+ * 相对误差不超过 0.2%，可覆盖 1µs ~ 约 1 小时的范围。与 HdrHistogram 思路相同，
+ * 但为了保持零依赖在项目内实现。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 10;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;       // 1024
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;        // 512
+    private static final int MAX_SHIFT = 22;                                 // 2^32µs ≈ 71分钟
+    private static final long MAX_VALUE = (1L << (SUB_BUCKET_BITS + MAX_SHIFT)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT + MAX_SHIFT * SUB_BUCKET_HALF);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * 记录一个延迟值（微秒），超出范围的值按最大值记录
+     */
+    void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        minValue.accumulateAndGet(value, Math::min);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    long getTotalCount() {
+        return totalCount.get();
+    }
+
+    long getMin() {
+        return totalCount.get() == 0 ? 0 : minValue.get();
+    }
+
+    long getMax() {
+        return maxValue.get();
+    }
+
+    double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * 获取百分位值（微秒），percentile 取值 0~100
+     * 返回所在桶的上界，与 HdrHistogram 的 valueAtPercentile 语义一致
+     */
+    long getValueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        // 四舍五入而非向上取整，避免 99.9 / 100 * 10000 之类的浮点误差多算一个样本
+        long target = Math.max(1, Math.round(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >>> shift) - SUB_BUCKET_HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -2,6 +2,8 @@ package com.netcapture;
 
 import com.jnet.core.Examples;
 
+import java.util.Arrays;
+
 /**
  * JNet 主程序入口
  * 提供各种网络请求示例和测试功能
@@ -32,6 +34,9 @@ public class LetusRun {
             case "all":
                 runAllExamples();
                 break;
+            case "bench":
+                runBench(Arrays.copyOfRange(args, 1, args.length));
+                break;
             case "help":
             case "--help":
             case "-h":
@@ -51,10 +56,26 @@ public class LetusRun {
         System.out.println("  get    运行 GET 请求示例");
         System.out.println("  post   运行 POST 请求示例");
         System.out.println("  all    运行所有示例");
+        System.out.println("  bench  开环压测: bench <url> [--rate N] [--concurrency N] [--duration 10s]");
+        System.out.println("         [--warmup 2s] [--payload BYTES] [--timeout 5s]");
+        System.out.println("         url 支持 http(s)://、tcp://host:port、udp://host:port");
         System.out.println("  help   显示此帮助信息");
         System.out.println();
         System.out.println("示例:");
         System.out.println("  java -jar jnt-3.0.0-jar-with-dependencies.jar get");
+        System.out.println("  java -jar jnt-3.0.0-jar-with-dependencies.jar bench http://127.0.0.1:8080/ --rate 1000 --duration 30s");
+    }
+
+    private static void runBench(String[] args) {
+        try {
+            new LoadGenerator(LoadGenerator.Options.parse(args)).run();
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ 参数错误: " + e.getMessage());
+            showHelp();
+        } catch (Exception e) {
+            System.err.println("❌ 压测失败: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 
     private static void runGetExample() {
@@ -0,0 +1,349 @@
+package com.netcapture;
+
+import com.jnet.core.Call;
+import com.jnet.core.JNetClient;
+import com.jnet.core.Request;
+import com.jnet.core.Response;
+import com.jnet.tcp.TcpClient;
+import com.jnet.tcp.TcpRequest;
+import com.jnet.tcp.TcpResponse;
+import com.jnet.udp.UdpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环负载生成器 - LetusRun bench 子命令
+ * 以固定到达速率驱动 HTTP / TCP / UDP 目标，输出延迟百分位和吞吐。
+ *
+ * <p>
+ * 开环（open loop）：第 i 个请求的计划发送时间固定为 start + i / rate，
+ * 不因目标变慢而推迟。延迟从计划发送时间开始计算（协调遗漏校正），
+ * 因此排队等待并发许可的时间也会计入延迟，不会被"慢下来的客户端"掩盖。
+ * </p>
+ *
+ * <ul>
+ * <li>http(s)://... - 通过 Call.enqueue 异步执行，payload &gt; 0 时发送 POST</li>
+ * <li>tcp://host:port - 每个请求一个连接（TcpClient.execute），服务端需在响应后关闭连接</li>
+ * <li>udp://host:port - 发送一个数据报并等待一个回包（回显服务）</li>
+ * </ul>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class LoadGenerator {
+    private final Options options;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong non2xx = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final Semaphore permits;
+    private final byte[] payload;
+
+    LoadGenerator(Options options) {
+        this.options = options;
+        this.permits = new Semaphore(options.concurrency);
+        this.payload = new byte[options.payload];
+        Arrays.fill(payload, (byte) 'x');
+    }
+
+    /**
+     * 执行压测并打印结果
+     */
+    void run() throws Exception {
+        Target target = Target.of(options.uri);
+        if (target != Target.HTTP && options.payload == 0) {
+            throw new IllegalArgumentException("TCP/UDP 目标需要 --payload > 0");
+        }
+
+        ExecutorService workers = null;
+        JNetClient httpClient = null;
+        if (target == Target.HTTP) {
+            httpClient = JNetClient.newBuilder()
+                    .connectTimeout((int) options.timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .readTimeout((int) options.timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .cookieHandler(null)
+                    .build();
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(options.concurrency, r -> {
+                Thread t = new Thread(r, "JNet-Bench-" + threadIndex.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        printHeader(target);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long warmupNanos = options.warmup.toNanos();
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long end = measureStart + options.duration.toNanos();
+        long lagging = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+            } else if (now - intended > intervalNanos) {
+                lagging++;
+            }
+            permits.acquire();
+            boolean record = intended >= measureStart;
+            switch (target) {
+                case HTTP:
+                    sendHttp(httpClient, intended, record);
+                    break;
+                case TCP:
+                    workers.execute(() -> sendTcp(intended, record));
+                    break;
+                default:
+                    workers.execute(() -> sendUdp(intended, record));
+                    break;
+            }
+        }
+
+        // 等待在途请求完成
+        if (!permits.tryAcquire(options.concurrency, options.timeout.toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+            System.out.println("⚠️ 仍有请求未完成，结果只包含已完成的请求");
+        }
+        long elapsedNanos = System.nanoTime() - measureStart;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        printResult(elapsedNanos, lagging);
+    }
+
+    // ========== 各协议发送 ==========
+
+    private void sendHttp(JNetClient client, long intended, boolean record) {
+        Request.Builder builder = client.newGet(options.uri.toString());
+        if (options.payload > 0) {
+            builder.method("POST").body(payload);
+        }
+        try {
+            builder.build().newCall().enqueue(new Call.Callback() {
+                @Override
+                public void onSuccess(Response response) {
+                    if (response.isSuccessful()) {
+                        complete(intended, record, succeeded, bodyLength(response));
+                    } else {
+                        complete(intended, record, non2xx, bodyLength(response));
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    complete(intended, record, failed, 0);
+                }
+            });
+        } catch (RuntimeException e) {
+            complete(intended, record, failed, 0);
+        }
+    }
+
+    private void sendTcp(long intended, boolean record) {
+        try {
+            TcpRequest request = TcpRequest.newBuilder()
+                    .host(options.uri.getHost())
+                    .port(options.uri.getPort())
+                    .data(payload)
+                    .timeout((int) options.timeout.toMillis())
+                    .build();
+            TcpResponse response = TcpClient.getInstance().execute(request);
+            complete(intended, record, response.isSuccessful() ? succeeded : failed, response.getBytesRead());
+        } catch (Exception e) {
+            complete(intended, record, failed, 0);
+        }
+    }
+
+    // 每个工作线程独占一个 UDP socket，避免回包在线程之间错配
+    private final ThreadLocal<UdpClient> udpClients = ThreadLocal.withInitial(UdpClient::create);
+
+    private void sendUdp(long intended, boolean record) {
+        UdpClient client = udpClients.get();
+        try {
+            client.send(payload, options.uri.getHost(), options.uri.getPort());
+            int received = client.receive((int) options.timeout.toMillis()).getDataLength();
+            complete(intended, record, succeeded, received);
+        } catch (Exception e) {
+            complete(intended, record, failed, 0);
+        }
+    }
+
+    private void complete(long intended, boolean record, AtomicLong outcome, long bytes) {
+        try {
+            if (record) {
+                histogram.record((System.nanoTime() - intended) / 1000);
+                outcome.incrementAndGet();
+                bytesReceived.addAndGet(bytes);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static long bodyLength(Response response) {
+        return response.getBody() == null ? 0 : response.getBody().length();
+    }
+
+    // ========== 输出 ==========
+
+    private void printHeader(Target target) {
+        System.out.println("压测目标: " + options.uri + " (" + target + ", 开环)");
+        System.out.println(String.format(Locale.ROOT,
+                "到达速率: %d req/s  并发上限: %d  时长: %ds  预热: %ds  负载: %d B  超时: %dms",
+                options.rate, options.concurrency, options.duration.getSeconds(),
+                options.warmup.getSeconds(), options.payload, options.timeout.toMillis()));
+        System.out.println();
+    }
+
+    private void printResult(long elapsedNanos, long lagging) {
+        double seconds = elapsedNanos / 1e9;
+        long completed = histogram.getTotalCount();
+        System.out.println(String.format(Locale.ROOT,
+                "完成: %d  成功: %d  非2xx: %d  失败: %d", completed, succeeded.get(), non2xx.get(), failed.get()));
+        System.out.println(String.format(Locale.ROOT,
+                "吞吐: %.1f req/s  %.2f MB/s", completed / seconds, bytesReceived.get() / seconds / (1024 * 1024)));
+        if (lagging > 0) {
+            System.out.println("⚠️ 调度滞后 " + lagging + " 次，本机可能无法维持目标速率");
+        }
+        System.out.println();
+        System.out.println("延迟（已校正协调遗漏）:");
+        System.out.println(String.format(Locale.ROOT, "  %-8s %10s", "min", formatMicros(histogram.getMin())));
+        System.out.println(String.format(Locale.ROOT, "  %-8s %10s", "mean", formatMicros((long) histogram.getMean())));
+        for (double p : new double[] {50, 75, 90, 99, 99.9, 99.99}) {
+            String label = "p" + (p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p));
+            System.out.println(String.format(Locale.ROOT, "  %-8s %10s", label,
+                    formatMicros(histogram.getValueAtPercentile(p))));
+        }
+        System.out.println(String.format(Locale.ROOT, "  %-8s %10s", "max", formatMicros(histogram.getMax())));
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "µs";
+        }
+        if (micros < 1_000_000) {
+            return String.format(Locale.ROOT, "%.2fms", micros / 1000.0);
+        }
+        return String.format(Locale.ROOT, "%.2fs", micros / 1_000_000.0);
+    }
+
+    // ========== 参数 ==========
+
+    enum Target {
+        HTTP, TCP, UDP;
+
+        static Target of(URI uri) {
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            switch (scheme) {
+                case "http":
+                case "https":
+                    return HTTP;
+                case "tcp":
+                    return TCP;
+                case "udp":
+                    return UDP;
+                default:
+                    throw new IllegalArgumentException("不支持的目标: " + uri + "（支持 http/https/tcp/udp）");
+            }
+        }
+    }
+
+    /**
+     * bench 子命令参数
+     */
+    static final class Options {
+        URI uri;
+        int rate = 100;
+        int concurrency = 64;
+        Duration duration = Duration.ofSeconds(10);
+        Duration warmup = Duration.ZERO;
+        Duration timeout = Duration.ofSeconds(5);
+        int payload = 0;
+
+        /**
+         * 解析 bench 之后的参数: &lt;url&gt; [--rate N] [--concurrency N] [--duration 10s]
+         * [--warmup 2s] [--payload BYTES] [--timeout 5s]
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    options.uri = URI.create(arg);
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("参数缺少取值: " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--rate":
+                        options.rate = positive(arg, Integer.parseInt(value));
+                        break;
+                    case "--concurrency":
+                        options.concurrency = positive(arg, Integer.parseInt(value));
+                        break;
+                    case "--duration":
+                        options.duration = parseDuration(value);
+                        break;
+                    case "--warmup":
+                        options.warmup = parseDuration(value);
+                        break;
+                    case "--timeout":
+                        options.timeout = parseDuration(value);
+                        break;
+                    case "--payload":
+                        options.payload = Math.max(0, Integer.parseInt(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知参数: " + arg);
+                }
+            }
+            if (options.uri == null) {
+                throw new IllegalArgumentException("缺少目标地址");
+            }
+            return options;
+        }
+
+        /**
+         * 解析时长: 500ms / 10s / 2m，纯数字按秒处理
+         */
+        static Duration parseDuration(String value) {
+            String v = value.trim().toLowerCase(Locale.ROOT);
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v));
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " 必须大于0");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.jnet.core;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 基准测试与分配预算测试共用的进程内回环HTTP服务器
+ * 基于 com.sun.net.httpserver，监听 127.0.0.1 的随机端口，
+ * 对 /bytes/{n} 返回固定 n 字节的响应体，对 /echo 原样回写请求体（Content-Type 同请求，
+ * X-Request-Length 为请求的 Content-Length，没有时为 chunked），
+ * 对 /delay/{ms} 等待 ms 毫秒后返回空响应（用于超时测试），
+ * 对 /chunked/{n} 以 chunked 编码返回 n 字节，对 /redirect/{n} 302 跳转到 /bytes/{n}，
+ * 对 /gzip/{n} 返回 gzip 压缩的 n 字节（Content-Encoding: gzip），
+ * 对 /json/{n} 返回约 n 字节的 {@link ParserCorpus#json(int)}（application/json），
+ * 对 /ndjson/{n} 以 chunked 编码逐行生成 n 条 {"id":i,"name":"item-i"}（application/x-ndjson），
+ * 对 /count 边读边统计请求体的行数与字节数，返回 "lines bytes"。
+ *
+ * <p>
+ * 服务端只做最少的工作，测得的耗时与分配基本都来自客户端。
+ * </p>
+ *
+ * @author sanbo
+ * @version 3.0.0
+ */
+final class LoopbackHttpServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LoopbackHttpServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * 启动服务器
+     */
+    static LoopbackHttpServer start() throws IOException {
+        // 默认开启Nagle算法，响应头和响应体分两次写出时会叠加客户端的延迟ACK（约40ms）
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()),
+                r -> {
+                    Thread t = new Thread(r, "JNet-Loopback-Server");
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        server.createContext("/bytes/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int size = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            byte[] payload = payload(size);
+            drain(exchange.getRequestBody());
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, payload.length == 0 ? -1 : payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        });
+
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String type = exchange.getRequestHeaders().getFirst("Content-Type");
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            exchange.getResponseHeaders().set("Content-Type", type != null ? type : "application/octet-stream");
+            exchange.getResponseHeaders().set("X-Request-Length", length != null ? length : "chunked");
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        server.createContext("/delay/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            long millis = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+
+        server.createContext("/chunked/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] payload = payload(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)));
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                // 分多次写出，产生多个 chunk
+                for (int offset = 0; offset < payload.length; offset += 1000) {
+                    out.write(payload, offset, Math.min(1000, payload.length - offset));
+                    out.flush();
+                }
+            }
+        });
+
+        server.createContext("/redirect/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            drain(exchange.getRequestBody());
+            exchange.getResponseHeaders().set("Location", "/bytes/" + path.substring(path.lastIndexOf('/') + 1));
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+
+        server.createContext("/gzip/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] payload = payload(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(payload);
+            }
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+
+        server.createContext("/json/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int size = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            byte[] json = JSONS.computeIfAbsent(size, n -> ParserCorpus.json(n).getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        });
+
+        server.createContext("/ndjson/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int count = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 8192)) {
+                for (int i = 0; i < count; i++) {
+                    out.write(("{\"id\":" + i + ",\"name\":\"item-" + i + "\"}\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+
+        server.createContext("/count", exchange -> {
+            long lines = 0;
+            long bytes = 0;
+            byte[] buffer = new byte[8192];
+            InputStream in = exchange.getRequestBody();
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                bytes += n;
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+            byte[] body = (lines + " " + bytes).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+
+        server.setExecutor(executor);
+        server.start();
+        return new LoopbackHttpServer(server, executor);
+    }
+
+    /**
+     * 服务器基础地址，如 http://127.0.0.1:54321
+     */
+    String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * 返回固定大小响应体的URL
+     */
+    String bytesUrl(int size) {
+        return baseUrl() + "/bytes/" + size;
+    }
+
+    /**
+     * 延迟 millis 毫秒后响应的URL
+     */
+    String delayUrl(long millis) {
+        return baseUrl() + "/delay/" + millis;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // 相同大小的负载只生成一次，避免服务端分配干扰客户端的测量
+    private static final ConcurrentHashMap<Integer, byte[]> PAYLOADS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, byte[]> JSONS = new ConcurrentHashMap<>();
+
+    private static byte[] payload(int size) {
+        return PAYLOADS.computeIfAbsent(size, n -> {
+            byte[] bytes = new byte[n];
+            Arrays.fill(bytes, (byte) 'x');
+            return bytes;
+        });
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        while (in.read(buffer) != -1) {
+            // discard
+        }
+    }
+}
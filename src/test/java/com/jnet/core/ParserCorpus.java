@@ -0,0 +1,246 @@
+package com.jnet.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 解析器测试语料 - 确定性生成
+ * 供分配预算测试（src/test）和 JMH 基准测试（src/jmh，-Pjmh）共用，
+ * 相同参数每次生成完全相同的内容，结果可以跨版本对比。
+ *
+ * <ul>
+ * <li>JSON: 仿 GitHub search API 的响应，可指定目标大小（如 10MB）</li>
+ * <li>M3U8: VOD 点播列表，可指定分片数（如 50k）</li>
+ * <li>SSE: 仿 LLM chat.completion.chunk 的 token 流</li>
+ * <li>RTSP/SDP: 常见 IP 摄像头的 DESCRIBE 响应（H.264 + AAC + ONVIF 元数据）</li>
+ * </ul>
+ */
+public final class ParserCorpus {
+    private static final String[] WORDS = {
+            "jnet", "http", "client", "stream", "socket", "parser", "async", "buffer",
+            "latency", "throughput", "cache", "retry", "proxy", "tls", "frame", "codec"
+    };
+
+    private ParserCorpus() {
+    }
+
+    // ========== JSON ==========
+
+    /**
+     * 生成约 targetBytes 字节的 JSON 对象: {"total_count":n,"incomplete_results":false,"items":[...]}
+     */
+    public static String json(int targetBytes) {
+        Random random = new Random(42);
+        StringBuilder items = new StringBuilder(targetBytes + 1024);
+        int count = 0;
+        while (items.length() < targetBytes) {
+            if (count > 0) {
+                items.append(',');
+            }
+            appendItem(items, random, count);
+            count++;
+        }
+        return new StringBuilder(items.length() + 64)
+                .append("{\"total_count\":").append(count)
+                .append(",\"incomplete_results\":false,\"items\":[")
+                .append(items)
+                .append("]}")
+                .toString();
+    }
+
+    /**
+     * 生成与 {@link #json(int)} 相同结构的 JSON 数组: [{...},{...}]
+     */
+    public static String jsonArray(int targetBytes) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(targetBytes + 1024);
+        sb.append('[');
+        int count = 0;
+        while (sb.length() < targetBytes) {
+            if (count > 0) {
+                sb.append(',');
+            }
+            appendItem(sb, random, count);
+            count++;
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * 生成由 Map/List 组成的对象模型，用于序列化基准（JNetUtils.toJsonString）
+     */
+    public static Map<String, Object> jsonModel(int items) {
+        Random random = new Random(42);
+        List<Object> list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            list.add(repoItem(random, i));
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("total_count", items);
+        root.put("incomplete_results", false);
+        root.put("items", list);
+        return root;
+    }
+
+    private static Map<String, Object> repoItem(Random random, int id) {
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("login", word(random) + id);
+        owner.put("id", 100_000 + id);
+        owner.put("type", "User");
+        owner.put("site_admin", false);
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", 10_000_000L + id);
+        item.put("name", word(random) + "-" + word(random));
+        item.put("full_name", owner.get("login") + "/" + word(random));
+        item.put("private", false);
+        item.put("owner", owner);
+        item.put("description", sentence(random, 12));
+        item.put("fork", random.nextBoolean());
+        item.put("stargazers_count", random.nextInt(50_000));
+        item.put("score", random.nextInt(1000) / 10.0);
+        List<Object> topics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            topics.add(word(random));
+        }
+        item.put("topics", topics);
+        return item;
+    }
+
+    private static void appendItem(StringBuilder sb, Random random, int id) {
+        // 与 repoItem 相同字段，直接拼接以便生成大语料时不受序列化器性能影响
+        String login = word(random) + id;
+        sb.append("{\"id\":").append(10_000_000L + id)
+                .append(",\"name\":\"").append(word(random)).append('-').append(word(random))
+                .append("\",\"full_name\":\"").append(login).append('/').append(word(random))
+                .append("\",\"private\":false,\"owner\":{\"login\":\"").append(login)
+                .append("\",\"id\":").append(100_000 + id)
+                .append(",\"type\":\"User\",\"site_admin\":false},\"description\":\"")
+                .append(sentence(random, 12)).append(" \\u2713 \\\"quoted\\\"")
+                .append("\",\"fork\":").append(random.nextBoolean())
+                .append(",\"stargazers_count\":").append(random.nextInt(50_000))
+                .append(",\"score\":").append(random.nextInt(1000) / 10.0)
+                .append(",\"topics\":[");
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(word(random)).append('"');
+        }
+        sb.append("]}");
+    }
+
+    // ========== HLS ==========
+
+    /**
+     * 生成 VOD 点播列表（带 EXT-X-ENDLIST）
+     */
+    public static String vodPlaylist(int segments) {
+        StringBuilder sb = new StringBuilder(segments * 48 + 128);
+        sb.append("#EXTM3U\n")
+                .append("#EXT-X-VERSION:3\n")
+                .append("#EXT-X-TARGETDURATION:6\n")
+                .append("#EXT-X-MEDIA-SEQUENCE:0\n")
+                .append("#EXT-X-PLAYLIST-TYPE:VOD\n");
+        for (int i = 0; i < segments; i++) {
+            sb.append("#EXTINF:").append(i % 10 == 9 ? "5.005" : "6.006").append(",\n")
+                    .append("segment_").append(i).append(".ts\n");
+        }
+        sb.append("#EXT-X-ENDLIST\n");
+        return sb.toString();
+    }
+
+    // ========== SSE ==========
+
+    /**
+     * 生成 LLM 流式输出的 SSE 行（不含换行符），每个 token 一个事件，以 [DONE] 结束
+     */
+    public static List<String> sseTokenLines(int tokens) {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(tokens * 2 + 2);
+        for (int i = 0; i < tokens; i++) {
+            lines.add("data: {\"id\":\"chatcmpl-8x9\",\"object\":\"chat.completion.chunk\",\"created\":1760832000,"
+                    + "\"model\":\"gpt-4o\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\" "
+                    + word(random) + "\"},\"finish_reason\":null}]}");
+            lines.add("");
+        }
+        lines.add("data: [DONE]");
+        lines.add("");
+        return lines;
+    }
+
+    // ========== RTSP / SDP ==========
+
+    /**
+     * 常见 IP 摄像头的 SDP（视频 + 音频 + ONVIF 元数据）
+     */
+    public static String cameraSdp() {
+        return "v=0\r\n"
+                + "o=- 1760832000000000 1 IN IP4 192.168.1.64\r\n"
+                + "s=Media Presentation\r\n"
+                + "e=NONE\r\n"
+                + "b=AS:5050\r\n"
+                + "t=0 0\r\n"
+                + "a=control:rtsp://192.168.1.64:554/Streaming/Channels/101/\r\n"
+                + "m=video 0 RTP/AVP 96\r\n"
+                + "c=IN IP4 0.0.0.0\r\n"
+                + "b=AS:5000\r\n"
+                + "a=recvonly\r\n"
+                + "a=x-dimensions:1920,1080\r\n"
+                + "a=control:rtsp://192.168.1.64:554/Streaming/Channels/101/trackID=1\r\n"
+                + "a=rtpmap:96 H264/90000\r\n"
+                + "a=fmtp:96 profile-level-id=420029; packetization-mode=1; "
+                + "sprop-parameter-sets=Z01AKI2NQDwBE/LCAAAOEAACvyAI,aO44gA==\r\n"
+                + "m=audio 0 RTP/AVP 104\r\n"
+                + "c=IN IP4 0.0.0.0\r\n"
+                + "b=AS:50\r\n"
+                + "a=recvonly\r\n"
+                + "a=control:rtsp://192.168.1.64:554/Streaming/Channels/101/trackID=2\r\n"
+                + "a=rtpmap:104 mpeg4-generic/16000/1\r\n"
+                + "a=fmtp:104 profile-level-id=15; streamtype=5; mode=AAC-hbr; config=1408; "
+                + "SizeLength=13; IndexLength=3; IndexDeltaLength=3; Profile=1;\r\n"
+                + "m=application 0 RTP/AVP 107\r\n"
+                + "c=IN IP4 0.0.0.0\r\n"
+                + "b=AS:50\r\n"
+                + "a=recvonly\r\n"
+                + "a=control:rtsp://192.168.1.64:554/Streaming/Channels/101/trackID=4\r\n"
+                + "a=rtpmap:107 vnd.onvif.metadata/90000\r\n";
+    }
+
+    /**
+     * 摄像头对 DESCRIBE 的完整 RTSP 响应（含 SDP 响应体）
+     */
+    public static String rtspDescribeResponse() {
+        String sdp = cameraSdp();
+        return "RTSP/1.0 200 OK\r\n"
+                + "CSeq: 3\r\n"
+                + "Content-Type: application/sdp\r\n"
+                + "Content-Base: rtsp://192.168.1.64:554/Streaming/Channels/101/\r\n"
+                + "Content-Length: " + sdp.length() + "\r\n"
+                + "Date: Mon, Oct 19 2026 00:00:00 GMT\r\n"
+                + "Server: Hikvision-Webs\r\n"
+                + "\r\n"
+                + sdp;
+    }
+
+    // ========== 内部方法 ==========
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(word(random));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.Cbor;
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.MessagePack;
+import com.jnet.nio.NioTransport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CBOR / MessagePack 编解码测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【Cbor/MessagePack】二进制编解码测试")
+public class TestBinaryCodecs {
+
+    @Test
+    @DisplayName("树模型往返与 JSON 一致，体积更小")
+    void testTreeRoundTrip() {
+        Map<String, Object> model = ParserCorpus.jsonModel(200);
+        byte[] json = JsonMapper.toJsonBytes(model);
+        String expected = new JSONObject(new String(json, java.nio.charset.StandardCharsets.UTF_8)).toString();
+
+        byte[] cbor = Cbor.encode(model);
+        byte[] msgpack = MessagePack.encode(model);
+        assertEquals(expected, Cbor.decode(cbor).toString());
+        assertEquals(expected, MessagePack.decode(msgpack).toString());
+        assertTrue(cbor.length < json.length * 0.9, "CBOR " + cbor.length + " / JSON " + json.length);
+        assertTrue(msgpack.length < json.length * 0.9, "MessagePack " + msgpack.length + " / JSON " + json.length);
+
+        // JSONObject/JSONArray 本身也可以编码
+        JSONObject tree = (JSONObject) Cbor.decode(cbor);
+        assertEquals(expected, Cbor.decode(Cbor.encode(tree)).toString());
+        assertEquals(expected, MessagePack.decode(MessagePack.encode(tree)).toString());
+    }
+
+    @Test
+    @DisplayName("CBOR：RFC 8949 附录 A 示例")
+    void testCborVectors() {
+        assertArrayEquals(bytes(0x19, 0x03, 0xe8), Cbor.encode(1000));
+        assertArrayEquals(bytes(0x38, 0x63), Cbor.encode(-100));
+        assertArrayEquals(bytes(0x82, 0x01, 0x02), Cbor.encode(List.of(1, 2)));
+        assertArrayEquals(bytes(0xa1, 0x61, 0x61, 0x01), Cbor.encode(Map.of("a", 1)));
+        assertArrayEquals(bytes(0xfa, 0x3f, 0xc0, 0x00, 0x00), Cbor.encode(1.5));
+        assertArrayEquals(bytes(0xfb, 0x3f, 0xf1, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9a), Cbor.encode(1.1));
+        assertArrayEquals(bytes(0xf6), Cbor.encode(null));
+
+        BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+        byte[] bignum = bytes(0xc2, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0);
+        assertArrayEquals(bignum, Cbor.encode(twoTo64));
+        assertEquals(twoTo64, Cbor.decode(bignum));
+        assertEquals(twoTo64.negate(), Cbor.decode(bytes(0x3b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff)));
+        assertEquals(new BigInteger("18446744073709551615"),
+                Cbor.decode(bytes(0x1b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff)));
+
+        assertEquals(1.0, Cbor.decode(bytes(0xf9, 0x3c, 0x00)));
+        assertEquals(-4.0, Cbor.decode(bytes(0xf9, 0xc4, 0x00)));
+        assertEquals(5.960464477539063e-8, Cbor.decode(bytes(0xf9, 0x00, 0x01)));
+        assertEquals("streaming", Cbor.decode(bytes(0x7f, 0x65, 's', 't', 'r', 'e', 'a', 0x64, 'm', 'i', 'n', 'g', 0xff)));
+        assertEquals("[1,[2,3],[4,5]]", Cbor.decode(bytes(0x9f, 0x01, 0x82, 0x02, 0x03, 0x9f, 0x04, 0x05, 0xff, 0xff))
+                .toString());
+        assertEquals("{\"a\":1,\"b\":[2,3]}",
+                Cbor.decode(bytes(0xbf, 0x61, 'a', 0x01, 0x61, 'b', 0x9f, 0x02, 0x03, 0xff, 0xff)).toString());
+        // 其他标签忽略，只取内容
+        assertEquals(1363896240, Cbor.decode(bytes(0xc1, 0x1a, 0x51, 0x4b, 0x67, 0xb0)));
+        assertNull(Cbor.decode(bytes(0xf7)));
+    }
+
+    @Test
+    @DisplayName("MessagePack：各整数、字符串、容器格式")
+    void testMessagePackVectors() {
+        assertArrayEquals(bytes(0x81, 0xa1, 'a', 0x01), MessagePack.encode(Map.of("a", 1)));
+        assertArrayEquals(bytes(0x7f), MessagePack.encode(127));
+        assertArrayEquals(bytes(0xcc, 0xc8), MessagePack.encode(200));
+        assertArrayEquals(bytes(0xcd, 0x03, 0xe8), MessagePack.encode(1000));
+        assertArrayEquals(bytes(0xe0), MessagePack.encode(-32));
+        assertArrayEquals(bytes(0xd0, 0xdf), MessagePack.encode(-33));
+        assertArrayEquals(bytes(0xd2, 0x80, 0, 0, 0), MessagePack.encode(Integer.MIN_VALUE));
+        assertArrayEquals(bytes(0xc4, 0x02, 0x01, 0x02), MessagePack.encode(new byte[]{1, 2}));
+
+        String text = "x".repeat(40);
+        byte[] str8 = MessagePack.encode(text);
+        assertEquals(0xd9, str8[0] & 0xff);
+        assertEquals(text, MessagePack.decode(str8));
+        Object[] array = new Object[20];
+        Arrays.fill(array, true);
+        byte[] array16 = MessagePack.encode(array);
+        assertArrayEquals(bytes(0xdc, 0x00, 0x14), Arrays.copyOf(array16, 3));
+        assertEquals(20, ((JSONArray) MessagePack.decode(array16)).length());
+
+        assertEquals(new BigInteger("18446744073709551615"),
+                MessagePack.decode(bytes(0xcf, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff)));
+        assertEquals(Long.MIN_VALUE, MessagePack.decode(MessagePack.encode(Long.MIN_VALUE)));
+        assertEquals(1.5, MessagePack.decode(bytes(0xca, 0x3f, 0xc0, 0x00, 0x00)));
+        // 扩展类型按载荷字节读出
+        assertArrayEquals(bytes(1, 2, 3, 4), (byte[]) MessagePack.decode(bytes(0xd6, 0xff, 1, 2, 3, 4)));
+        // 整数键按十进制作为名称
+        assertEquals("{\"7\":\"x\"}", MessagePack.decode(bytes(0x81, 0x07, 0xa1, 'x')).toString());
+    }
+
+    @Test
+    @DisplayName("POJO 直接绑定，byte[] 字段为字节串")
+    void testPojoBinding() throws IOException {
+        Doc doc = new Doc();
+        doc.id = 1L << 40;
+        doc.name = "中文名称";
+        doc.data = new byte[]{0, 1, (byte) 0xff, 0x7f};
+        doc.score = 0.1;
+        doc.tags = List.of("a", "b");
+        doc.counts = new LinkedHashMap<>(Map.of("x", 1));
+        doc.child = new Doc();
+        doc.child.name = "child";
+
+        for (boolean cbor : new boolean[]{true, false}) {
+            byte[] encoded = cbor ? Cbor.encode(doc) : MessagePack.encode(doc);
+            Doc copy = cbor ? Cbor.decode(encoded, Doc.class) : MessagePack.decode(encoded, Doc.class);
+            assertEquals(doc.id, copy.id);
+            assertEquals(doc.name, copy.name);
+            assertArrayEquals(doc.data, copy.data);
+            assertEquals(doc.score, copy.score);
+            assertEquals(doc.tags, copy.tags);
+            assertEquals(doc.counts, copy.counts);
+            assertEquals("child", copy.child.name);
+            assertNull(copy.child.data);
+
+            Doc streamed = cbor ? Cbor.<Doc>decode(new ByteArrayInputStream(encoded), Doc.class)
+                    : MessagePack.<Doc>decode(new ByteArrayInputStream(encoded), Doc.class);
+            assertArrayEquals(doc.data, streamed.data);
+        }
+
+        // JSON 中的 byte[] 可以是 Base64 或数字数组
+        Doc base64 = JsonMapper.fromJson("{\"data\":\"AQID\"}", Doc.class);
+        Doc numbers = JsonMapper.fromJson("{\"data\":[1,2,3]}", Doc.class);
+        assertArrayEquals(bytes(1, 2, 3), base64.data);
+        assertArrayEquals(bytes(1, 2, 3), numbers.data);
+        assertThrows(JSONException.class, () -> JsonMapper.fromJson("{\"data\":\"%%\"}", Doc.class));
+    }
+
+    @Test
+    @DisplayName("大文档从输入流解码，跨越读缓冲区")
+    void testLargeStream() throws IOException {
+        Map<String, Object> model = ParserCorpus.jsonModel(2000);
+        byte[] cbor = Cbor.encode(model);
+        byte[] msgpack = MessagePack.encode(model);
+        assertTrue(cbor.length > 64 * 1024);
+        Map<?, ?> fromCbor = Cbor.decode(new ByteArrayInputStream(cbor), Map.class);
+        Map<?, ?> fromMsgpack = MessagePack.decode(new ByteArrayInputStream(msgpack), Map.class);
+        assertEquals(2000, ((JSONArray) fromCbor.get("items")).length());
+        assertEquals(JsonMapper.fromJson(JsonMapper.toJson(model), Map.class).toString(), fromCbor.toString());
+        assertEquals(fromCbor.toString(), fromMsgpack.toString());
+    }
+
+    @Test
+    @DisplayName("截断、多余数据和非法字节抛出 JSONException")
+    void testMalformed() {
+        byte[] cbor = Cbor.encode(ParserCorpus.jsonModel(3));
+        byte[] msgpack = MessagePack.encode(ParserCorpus.jsonModel(3));
+        assertThrows(JSONException.class, () -> Cbor.decode(Arrays.copyOf(cbor, cbor.length - 1)));
+        assertThrows(JSONException.class, () -> MessagePack.decode(Arrays.copyOf(msgpack, msgpack.length - 1)));
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0x01, 0x02)));
+        assertThrows(JSONException.class, () -> MessagePack.decode(bytes(0x01, 0x02)));
+        assertThrows(JSONException.class, () -> MessagePack.decode(bytes(0xc1)));
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0x1c)));
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0xff)));
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0xa1, 0x80, 0x01)), "数组不能作为键");
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0x5a, 0x7f, 0xff, 0xff, 0xff)));
+        assertThrows(JSONException.class, () -> Cbor.decode(new byte[0]));
+        assertThrows(JSONException.class, () -> Cbor.decode(bytes(0x61, 'a'), Integer.class));
+
+        Object deep = "leaf";
+        for (int i = 0; i < 150; i++) {
+            deep = List.of(deep);
+        }
+        Object tooDeep = deep;
+        assertThrows(IllegalArgumentException.class, () -> Cbor.encode(tooDeep));
+        assertThrows(IllegalArgumentException.class, () -> MessagePack.encode(tooDeep));
+    }
+
+    @Test
+    @DisplayName("Request.cbor/messagePack 与 Response.asCbor/asMessagePack（两种传输层）")
+    void testHttpHelpers() throws IOException {
+        Doc doc = new Doc();
+        doc.name = "二进制";
+        doc.data = new byte[256];
+        for (int i = 0; i < doc.data.length; i++) {
+            doc.data[i] = (byte) i;
+        }
+        NioTransport nio = NioTransport.newBuilder().build();
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            for (JNetClient client : List.of(JNetClient.newBuilder().build(),
+                    JNetClient.newBuilder().transport(nio).build())) {
+                Request cborRequest = client.newPost(server.baseUrl() + "/echo").cbor(doc).build();
+                assertEquals(Cbor.CONTENT_TYPE, cborRequest.getHeader("Content-Type"));
+                Response cbor = cborRequest.newCall().execute();
+                assertArrayEquals(doc.data, cbor.asCbor(Doc.class).data);
+                assertEquals("二进制", ((JSONObject) cbor.asCbor()).getString("name"));
+
+                Response msgpack = client.newPost(server.baseUrl() + "/echo").messagePack(doc).build()
+                        .newCall().execute();
+                Doc copy = msgpack.asMessagePack(Doc.class);
+                assertEquals("二进制", copy.name);
+                assertArrayEquals(doc.data, copy.data);
+
+                // NioTransport 使用 Transport 的默认流式实现，须还原原始字节
+                byte[] encoded = Cbor.encode(doc);
+                try (StreamResponse stream = client.newPost(server.baseUrl() + "/echo").cbor(doc).build()
+                        .newCall().executeStreaming()) {
+                    assertArrayEquals(encoded, stream.getInputStream().readAllBytes());
+                }
+                byte[] latin1 = "café".getBytes(StandardCharsets.ISO_8859_1);
+                try (StreamResponse stream = client.newPost(server.baseUrl() + "/echo")
+                        .header("Content-Type", "text/plain; charset=ISO-8859-1").body(latin1).build()
+                        .newCall().executeStreaming()) {
+                    assertArrayEquals(latin1, stream.getInputStream().readAllBytes());
+                }
+            }
+        } finally {
+            nio.close();
+        }
+        assertNull(Response.success(null).code(204).build().asCbor(Doc.class));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] b = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            b[i] = (byte) values[i];
+        }
+        return b;
+    }
+
+    // ========== 测试模型 ==========
+
+    static class Doc {
+        long id;
+        String name;
+        byte[] data;
+        double score;
+        List<String> tags;
+        Map<String, Integer> counts;
+        Doc child;
+    }
+}
@@ -0,0 +1,95 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * HTTP 调用路径的分配预算测试
+ * 对进程内回环服务器执行 1KB GET，统计客户端所有线程（调用线程 + JDK HttpClient 的
+ * 选择器与工作线程）每次调用分配的字节数，超过预算即失败。
+ *
+ * <p>
+ * 服务端线程（JNet-Loopback-Server、HTTP-Dispatcher）不计入。结果包含 JDK HttpClient
+ * 自身的缓冲区与解析开销，这部分不归 JNet 控制，因此预算是"JDK 开销 + JNet 转换"的总和，
+ * 取实测值（约 25KB）的 1.5 倍；JNet 自身的转换开销可以用 RequestBenchmark 的 -prof gc 观察。
+ * </p>
+ */
+@DisplayName("【Allocation】HTTP 调用分配预算测试")
+public class TestCallAllocation {
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 500;
+    private static final long GET_1KB_BUDGET = 38_000;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static LoopbackHttpServer server;
+    private static JNetClient client;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "JVM 不支持线程分配统计");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "JVM 不支持线程分配统计");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        server = LoopbackHttpServer.start();
+        client = JNetClient.newBuilder().cookieHandler(null).build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    @DisplayName("1KB GET 每次调用的分配")
+    void testGet1KB() throws IOException {
+        String url = server.bytesUrl(1024);
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(1024, execute(url).getBody().length());
+        }
+
+        long[] clientThreads = clientThreadIds();
+        long before = sum(threadBean.getThreadAllocatedBytes(clientThreads));
+        for (int i = 0; i < ITERATIONS; i++) {
+            execute(url);
+        }
+        long after = sum(threadBean.getThreadAllocatedBytes(clientThreads));
+
+        long bytesPerCall = (after - before) / ITERATIONS;
+        System.out.println("GET 1KB: " + bytesPerCall + " B/call (budget " + GET_1KB_BUDGET + ")");
+        assertTrue(bytesPerCall <= GET_1KB_BUDGET,
+                "GET 1KB allocated " + bytesPerCall + " B/call, budget is " + GET_1KB_BUDGET + " B/call");
+    }
+
+    // ========== 内部方法 ==========
+
+    private static Response execute(String url) throws IOException {
+        return client.newGet(url).build().newCall().execute();
+    }
+
+    /**
+     * 预热后客户端线程已稳定，排除服务端线程
+     */
+    private static long[] clientThreadIds() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> !t.getName().startsWith("JNet-Loopback") && !t.getName().startsWith("HTTP-Dispatcher"))
+                .mapToLong(Thread::getId)
+                .toArray();
+    }
+
+    private static long sum(long[] values) {
+        return Arrays.stream(values).filter(v -> v > 0).sum();
+    }
+}
@@ -0,0 +1,256 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConcurrencyLimiter 自适应并发限制单元测试
+ * 算法用例直接注入 RTT 样本，集成用例针对进程内回环服务器，不依赖外网。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【ConcurrencyLimiter】自适应并发限制测试")
+public class TestConcurrencyLimiter {
+    private static final long MS = 1_000_000L;
+    private static LoopbackHttpServer server;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = LoopbackHttpServer.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Nested
+    @DisplayName("梯度算法")
+    class GradientTest {
+
+        @Test
+        @DisplayName("RTT 保持在基线时上限增长")
+        void testGrowsAtBaseline() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder().initialLimit(10).build();
+            ConcurrencyLimiter.OriginLimit origin = limiter.origin("http://a:80");
+            for (int i = 0; i < 20; i++) {
+                origin.acquire(0);
+                origin.onSample(10 * MS, 10);
+            }
+            assertTrue(limiter.getMetrics("http://a:80").getLimit() > 10);
+        }
+
+        @Test
+        @DisplayName("负载远低于上限时不增长")
+        void testNoGrowthWhenAppLimited() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder().initialLimit(10).build();
+            ConcurrencyLimiter.OriginLimit origin = limiter.origin("http://a:80");
+            for (int i = 0; i < 20; i++) {
+                origin.acquire(0);
+                origin.onSample(10 * MS, 1);
+            }
+            assertEquals(10, limiter.getMetrics("http://a:80").getLimit());
+        }
+
+        @Test
+        @DisplayName("RTT 升高时上限缩小")
+        void testShrinksWhenQueueing() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder().initialLimit(50).build();
+            ConcurrencyLimiter.OriginLimit origin = limiter.origin("http://a:80");
+            origin.acquire(0);
+            origin.onSample(10 * MS, 50);
+            for (int i = 0; i < 20; i++) {
+                origin.acquire(0);
+                origin.onSample(60 * MS, 50);
+            }
+            ConcurrencyLimiter.Metrics metrics = limiter.getMetrics("http://a:80");
+            assertTrue(metrics.getLimit() < 50, metrics.toString());
+            assertEquals(10.0, metrics.getMinRttMillis(), 0.001);
+            assertTrue(metrics.getSmoothedRttMillis() > 10.0);
+        }
+
+        @Test
+        @DisplayName("超时和 503 按比例减小上限")
+        void testDropSignals() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder()
+                    .initialLimit(100).backoffRatio(0.5).build();
+            Request request = new Request.Builder().url("http://a/x").build();
+
+            limiter.tryAcquire(request).onFailure(new HttpTimeoutException("timeout"));
+            limiter.tryAcquire(request).onResponse(503);
+            limiter.tryAcquire(request).onFailure(new ConnectException("refused"));
+            limiter.tryAcquire(request).onFailure(new IOException("canceled"));
+
+            ConcurrencyLimiter.Metrics metrics = limiter.getMetrics("http://a:80");
+            assertEquals(12, metrics.getLimit());
+            assertEquals(3, metrics.getDropped());
+            assertEquals(0, metrics.getInFlight());
+        }
+
+        @Test
+        @DisplayName("上限不低于 minLimit")
+        void testClampedToRange() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder()
+                    .initialLimit(4).limitRange(2, 8).backoffRatio(0.1).build();
+            Request request = new Request.Builder().url("https://a/x").build();
+            limiter.tryAcquire(request).onResponse(429);
+            assertEquals(2, limiter.getMetrics("https://a:443").getLimit());
+        }
+
+        @Test
+        @DisplayName("许可重复释放只生效一次")
+        void testPermitReleasedOnce() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder().initialLimit(2).build();
+            Request request = new Request.Builder().url("http://a/x").build();
+            ConcurrencyLimiter.Permit first = limiter.tryAcquire(request);
+            limiter.tryAcquire(request);
+            first.onResponse(200);
+            first.onFailure(new IOException("late"));
+            assertEquals(1, limiter.getMetrics("http://a:80").getInFlight());
+        }
+
+        @Test
+        @DisplayName("按 scheme://host:port 区分源")
+        void testOriginKey() {
+            assertEquals("http://a:80", ConcurrencyLimiter.originOf(URI.create("http://a/x")));
+            assertEquals("https://a:443", ConcurrencyLimiter.originOf(URI.create("HTTPS://a/x")));
+            assertEquals("http://a:8080", ConcurrencyLimiter.originOf(URI.create("http://a:8080/")));
+        }
+
+        @Test
+        @DisplayName("非法参数被拒绝")
+        void testInvalidArguments() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConcurrencyLimiter.newBuilder().limitRange(0, 10).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConcurrencyLimiter.newBuilder().initialLimit(5).limitRange(10, 20).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> ConcurrencyLimiter.newBuilder().tolerance(0.5).build());
+        }
+    }
+
+    @Nested
+    @DisplayName("客户端集成")
+    class ClientTest {
+        private JNetClient newClient(ConcurrencyLimiter limiter) {
+            return JNetClient.newBuilder()
+                    .concurrencyLimiter(limiter)
+                    .cookieHandler(null)
+                    .build();
+        }
+
+        private void awaitInFlight(ConcurrencyLimiter limiter, String origin) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                ConcurrencyLimiter.Metrics metrics = limiter.getMetrics(origin);
+                if (metrics != null && metrics.getInFlight() > 0) {
+                    return;
+                }
+                Thread.sleep(5);
+            }
+            fail("请求未进入 in-flight 状态");
+        }
+
+        private String origin() {
+            return ConcurrencyLimiter.originOf(URI.create(server.bytesUrl(0)));
+        }
+
+        @Test
+        @DisplayName("超出上限的同步请求被拒绝")
+        void testRejectsOverLimit() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder()
+                    .initialLimit(1).limitRange(1, 1).build();
+            JNetClient client = newClient(limiter);
+
+            CompletableFuture<Response> slow = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.newGet(server.delayUrl(500)).build().newCall().execute();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            awaitInFlight(limiter, origin());
+
+            ConcurrencyLimitExceededException e = assertThrows(ConcurrencyLimitExceededException.class,
+                    () -> client.newGet(server.bytesUrl(0)).build().newCall().execute());
+            assertEquals(1, e.getLimit());
+            assertEquals(origin(), e.getOrigin());
+
+            assertEquals(200, slow.get(5, TimeUnit.SECONDS).getCode());
+            ConcurrencyLimiter.Metrics metrics = limiter.getMetrics(origin());
+            assertEquals(0, metrics.getInFlight());
+            assertEquals(1, metrics.getRejected());
+            assertTrue(metrics.getMinRttMillis() > 0);
+        }
+
+        @Test
+        @DisplayName("配置排队时同步请求等待许可")
+        void testQueuesUpToMaxWait() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder()
+                    .initialLimit(1).limitRange(1, 1).maxQueueWait(Duration.ofSeconds(5)).build();
+            JNetClient client = newClient(limiter);
+
+            CompletableFuture<Response> slow = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.newGet(server.delayUrl(200)).build().newCall().execute();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            awaitInFlight(limiter, origin());
+
+            assertEquals(200, client.newGet(server.bytesUrl(0)).build().newCall().execute().getCode());
+            assertEquals(200, slow.get(5, TimeUnit.SECONDS).getCode());
+            assertEquals(0, limiter.getMetrics(origin()).getRejected());
+        }
+
+        @Test
+        @DisplayName("异步请求超限立即回调失败")
+        void testEnqueueRejects() throws Exception {
+            ConcurrencyLimiter limiter = ConcurrencyLimiter.newBuilder()
+                    .initialLimit(1).limitRange(1, 1).maxQueueWait(Duration.ofSeconds(5)).build();
+            JNetClient client = newClient(limiter);
+            Request request = client.newGet(server.bytesUrl(0)).build();
+            ConcurrencyLimiter.Permit held = limiter.tryAcquire(request);
+
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            request.newCall().enqueue(new Call.Callback() {
+                @Override
+                public void onSuccess(Response response) {
+                    future.complete(response);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ConcurrencyLimitExceededException.class, e.getCause());
+            held.onResponse(200);
+        }
+
+        @Test
+        @DisplayName("映射为 CONCURRENCY_LIMIT_EXCEEDED 错误类型")
+        void testErrorType() {
+            JNetException mapped = ExceptionMapper.map(
+                    new ConcurrencyLimitExceededException("http://x:80", 1, 1), "GET", "http://x");
+            assertEquals(JNetException.ErrorType.CONCURRENCY_LIMIT_EXCEEDED, mapped.getErrorType());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deadline 截止时间单元测试
+ * 网络相关用例针对进程内回环服务器，不依赖外网。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【Deadline】截止时间测试")
+public class TestDeadline {
+    private static LoopbackHttpServer server;
+    private static JNetClient client;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = LoopbackHttpServer.start();
+        client = JNetClient.newBuilder()
+                .readTimeout(10, TimeUnit.SECONDS)
+                .cookieHandler(null)
+                .build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Deadline 剩余时间与比较")
+    void testDeadlineBasics() {
+        Deadline soon = Deadline.after(Duration.ofMillis(100));
+        Deadline later = Deadline.after(10, TimeUnit.SECONDS);
+        assertFalse(soon.isExpired());
+        assertTrue(soon.remainingMillis() <= 100);
+        assertSame(soon, soon.min(later));
+        assertSame(soon, later.min(soon));
+        assertSame(soon, soon.min(null));
+        assertTrue(Deadline.after(Duration.ZERO).isExpired());
+        assertEquals(Duration.ZERO, Deadline.after(Duration.ZERO).remaining());
+        assertFalse(Deadline.after(Duration.ofSeconds(Long.MAX_VALUE)).isExpired(), "超长超时不应溢出");
+    }
+
+    @Test
+    @DisplayName("Request.timeout 通过 toBuilder 保留")
+    void testRequestTimeout() {
+        Request request = client.newGet(server.bytesUrl(0)).timeout(Duration.ofSeconds(2)).build();
+        assertEquals(Duration.ofSeconds(2), request.getTimeout());
+        assertEquals(Duration.ofSeconds(2), request.toBuilder().build().getTimeout());
+        assertThrows(IllegalArgumentException.class, () -> client.newGet(server.bytesUrl(0)).timeout(Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("已过期的请求在发送前丢弃")
+    void testShedBeforeSend() {
+        Request request = client.newGet("http://127.0.0.1:9/unreachable")
+                .deadline(Deadline.after(Duration.ZERO))
+                .build();
+        DeadlineExceededException e = assertThrows(DeadlineExceededException.class, () -> request.newCall().execute());
+        assertTrue(e.getMessage().contains("before sending"));
+    }
+
+    @Test
+    @DisplayName("剩余预算作为 JDK 请求超时")
+    void testRemainingBudgetBecomesTimeout() {
+        Request request = client.newGet(server.delayUrl(2_000)).timeout(Duration.ofMillis(200)).build();
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> request.newCall().execute());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 1_500, "应在截止时间附近失败，而不是等待读超时: " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("客户端 callTimeout 作为默认截止时间")
+    void testClientCallTimeout() {
+        JNetClient limited = JNetClient.newBuilder()
+                .timeout(Timeout.newBuilder().totalTimeout(Duration.ofMillis(200)).build())
+                .cookieHandler(null)
+                .build();
+        assertEquals(Duration.ofMillis(200), limited.getCallTimeout());
+        assertThrows(DeadlineExceededException.class,
+                () -> limited.newGet(server.delayUrl(2_000)).build().newCall().execute());
+    }
+
+    @Test
+    @DisplayName("异步请求同样受截止时间约束")
+    void testEnqueueDeadline() throws Exception {
+        Request request = client.newGet(server.delayUrl(2_000)).timeout(Duration.ofMillis(200)).build();
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        request.newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("重试在预算不足时停止")
+    void testRetryStopsAtDeadline() {
+        Interceptor failing = chain -> {
+            throw new IOException("simulated failure");
+        };
+        Request request = client.newGet(server.bytesUrl(0)).timeout(Duration.ofMillis(250)).build();
+        Call call = new Call.RealCall(request, client,
+                Arrays.asList(new Interceptor.RetryInterceptor(10, 100), failing));
+
+        long start = System.nanoTime();
+        DeadlineExceededException e = assertThrows(DeadlineExceededException.class, call::execute);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertEquals("simulated failure", e.getCause().getMessage());
+        assertTrue(elapsedMs < 250, "不应等待一次注定超时的退避: " + elapsedMs + "ms");
+    }
+
+    @Test
+    @DisplayName("映射为 DEADLINE_EXCEEDED 错误类型")
+    void testErrorType() {
+        JNetException mapped = ExceptionMapper.map(new DeadlineExceededException("expired"), "GET", "http://x");
+        assertEquals(JNetException.ErrorType.DEADLINE_EXCEEDED, mapped.getErrorType());
+    }
+}
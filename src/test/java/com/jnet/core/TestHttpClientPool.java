@@ -0,0 +1,164 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HttpClient 分片池单元测试
+ * 网络相关用例针对进程内回环服务器，不依赖外网。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【HttpClientPool】分片池测试")
+public class TestHttpClientPool {
+    private static LoopbackHttpServer server;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = LoopbackHttpServer.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("单分片直接返回，不做统计")
+    void testSingleShard() {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpClientPool pool = new HttpClientPool(new HttpClient[]{client});
+        HttpClientPool.Shard shard = pool.acquire(URI.create("http://a/x"));
+        assertSame(client, shard.client());
+        shard.release();
+        assertNull(pool.inFlight("http://a:80"));
+    }
+
+    @Test
+    @DisplayName("选择该源上负载最小的分片")
+    void testLeastLoaded() {
+        HttpClient[] clients = {HttpClient.newHttpClient(), HttpClient.newHttpClient(), HttpClient.newHttpClient()};
+        HttpClientPool pool = new HttpClientPool(clients);
+        URI uri = URI.create("http://a/x");
+
+        List<HttpClientPool.Shard> held = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(pool.acquire(uri));
+        }
+        assertArrayEquals(new int[]{1, 1, 1}, pool.inFlight("http://a:80"));
+
+        HttpClientPool.Shard freed = held.remove(1);
+        freed.release();
+        assertSame(freed.client(), pool.acquire(uri).client());
+
+        // 其他源的负载独立统计
+        pool.acquire(URI.create("http://b/x"));
+        assertArrayEquals(new int[]{1, 1, 1}, pool.inFlight("http://a:80"));
+        assertEquals(1, sum(pool.inFlight("http://b:80")));
+    }
+
+    @Test
+    @DisplayName("并发请求分散到多个分片")
+    void testSpreadsConcurrentCalls() throws Exception {
+        JNetClient client = JNetClient.newBuilder().shards(2).cookieHandler(null).build();
+        assertEquals(2, client.getShardCount());
+        String origin = ConcurrencyLimiter.originOf(URI.create(server.bytesUrl(0)));
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Response>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.newGet(server.delayUrl(300)).build().newCall().execute();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, callers));
+        }
+
+        int[] loads = awaitLoad(client.clientPool(), origin, 4);
+        assertTrue(loads[0] >= 1 && loads[1] >= 1, "两个分片都应承担请求");
+        for (CompletableFuture<Response> call : calls) {
+            assertEquals(200, call.get(5, TimeUnit.SECONDS).getCode());
+        }
+        assertEquals(0, sum(client.clientPool().inFlight(origin)));
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("异步请求完成后释放分片")
+    void testEnqueueReleasesShard() throws Exception {
+        JNetClient client = JNetClient.newBuilder().shards(2).cookieHandler(null).build();
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        client.newGet(server.bytesUrl(8)).build().newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        assertEquals(200, future.get(5, TimeUnit.SECONDS).getCode());
+        String origin = ConcurrencyLimiter.originOf(URI.create(server.bytesUrl(0)));
+        assertEquals(0, sum(client.clientPool().inFlight(origin)));
+    }
+
+    @Test
+    @DisplayName("指定主机强制 HTTP/1.1")
+    void testHttp1Hosts() {
+        JNetClient client = JNetClient.newBuilder().http1Hosts("Legacy.Example.com").cookieHandler(null).build();
+        assertTrue(client.getHttp1Hosts().contains("legacy.example.com"));
+
+        Request legacy = client.newGet("https://legacy.example.com/a").build();
+        Request modern = client.newGet("https://api.example.com/a").build();
+        JdkTransport transport = (JdkTransport) client.getTransport();
+        assertEquals(Optional.of(HttpClient.Version.HTTP_1_1), transport.buildRequest(legacy, null).version());
+        assertEquals(Optional.empty(), transport.buildRequest(modern, null).version());
+    }
+
+    @Test
+    @DisplayName("分片数必须为正")
+    void testInvalidShards() {
+        assertThrows(IllegalArgumentException.class, () -> JNetClient.newBuilder().shards(0));
+    }
+
+    private static int[] awaitLoad(HttpClientPool pool, String origin, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            int[] loads = pool.inFlight(origin);
+            if (loads != null && sum(loads) == expected) {
+                return loads;
+            }
+            Thread.sleep(5);
+        }
+        fail("请求未全部进入 in-flight 状态");
+        return null;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int v : values) {
+            total += v;
+        }
+        return total;
+    }
+}
@@ -456,6 +456,195 @@ public class TestInterceptorFull {
         }
     }
 
+    // ========== 限流拦截器 ==========
+
+    @Nested
+    @DisplayName("限流拦截器")
+    class RateLimitInterceptorTest {
+
+        private Response proceed(RateLimitInterceptor limiter, Request request, Response.Builder stub)
+                throws IOException {
+            Interceptor terminal = chain -> stub.build();
+            List<Interceptor> interceptors = Arrays.asList(limiter, terminal);
+            return new Interceptor.RealChain(interceptors, 0, request).proceed(request);
+        }
+
+        @Test
+        @DisplayName("突发容量内立即放行，超出后按速率排队")
+        void testBurstThenPacing() throws IOException {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(20, java.util.concurrent.TimeUnit.SECONDS)
+                    .burst(3)
+                    .build();
+            Request request = client.newGet("https://example.com/a").build();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 3; i++) {
+                limiter.acquire(request);
+            }
+            long burstMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(burstMs < 40, "突发请求不应等待: " + burstMs + "ms");
+
+            limiter.acquire(request);
+            long pacedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(pacedMs >= 40, "第 4 个请求应等待约 50ms: " + pacedMs + "ms");
+        }
+
+        @Test
+        @DisplayName("按路径等高基数 key 限流时清理空闲桶，且被清理的 key 仍正确限流")
+        void testIdleBucketEviction() throws Exception {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(1000, java.util.concurrent.TimeUnit.SECONDS)
+                    .key(r -> r.getUri().getPath())
+                    .build();
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 1000; i++) {
+                    limiter.acquire(client.newGet("https://example.com/" + round + "/" + i).build());
+                }
+                Thread.sleep(5);
+            }
+            assertTrue(limiter.bucketCount() < 5000, "空闲桶应被清理: " + limiter.bucketCount());
+
+            RateLimitInterceptor slow = RateLimitInterceptor.newBuilder()
+                    .rate(1, java.util.concurrent.TimeUnit.SECONDS)
+                    .maxWait(java.time.Duration.ofMillis(100))
+                    .key(r -> r.getUri().getPath())
+                    .build();
+            Request hot = client.newGet("https://example.com/hot").build();
+            slow.acquire(hot);
+            for (int i = 0; i < 1000; i++) {
+                slow.acquire(client.newGet("https://example.com/cold/" + i).build());
+            }
+            assertThrows(IOException.class, () -> slow.acquire(hot), "活跃 key 的桶不应被清理");
+        }
+
+        @Test
+        @DisplayName("不同主机独立限流")
+        void testPerHost() throws IOException {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(1, java.util.concurrent.TimeUnit.SECONDS)
+                    .maxWait(java.time.Duration.ofMillis(100))
+                    .build();
+            Request a = client.newGet("https://a.example.com/").build();
+            Request b = client.newGet("https://b.example.com/").build();
+
+            limiter.acquire(a);
+            limiter.acquire(b);
+            assertThrows(IOException.class, () -> limiter.acquire(a), "同一主机超过 maxWait 应失败");
+        }
+
+        @Test
+        @DisplayName("异步获取不阻塞调用线程")
+        void testAcquireAsync() throws Exception {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(10, java.util.concurrent.TimeUnit.SECONDS)
+                    .build();
+            Request request = client.newGet("https://example.com/").build();
+
+            assertTrue(limiter.acquireAsync(request).isDone(), "第一个许可应立即可用");
+            long start = System.nanoTime();
+            java.util.concurrent.CompletableFuture<Void> second = limiter.acquireAsync(request);
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 20, "acquireAsync 不应阻塞");
+            assertFalse(second.isDone(), "第二个许可需要等待");
+            second.get(1, java.util.concurrent.TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("异步路径遵守调用截止时间：等待超出剩余预算时立即失败且不占用许可")
+        void testAsyncDeadline() throws Exception {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(1, java.util.concurrent.TimeUnit.SECONDS)
+                    .build();
+            Request request = client.newGet("https://example.com/").build();
+            limiter.acquire(request);
+
+            Call call = client.newGet("https://example.com/").timeout(java.time.Duration.ofMillis(100)).build().newCall();
+            java.util.concurrent.CompletableFuture<Exception> failure = new java.util.concurrent.CompletableFuture<>();
+            long start = System.nanoTime();
+            limiter.enqueue(call, new Call.Callback() {
+                @Override
+                public void onSuccess(Response response) {
+                    failure.complete(null);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    failure.complete(e);
+                }
+            });
+            Exception e = failure.get(5, java.util.concurrent.TimeUnit.SECONDS);
+            assertTrue(e instanceof DeadlineExceededException, String.valueOf(e));
+            assertTrue((System.nanoTime() - start) / 1_000_000 < 500, "应立即失败而不是等到许可可用");
+
+            // 失败的预约没有推进 TAT：下一个许可仍在约 1 秒后可用
+            java.util.concurrent.CompletableFuture<Void> next = limiter.acquireAsync(request,
+                    Deadline.after(java.time.Duration.ofMillis(1500)));
+            next.get(3, java.util.concurrent.TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("429 Retry-After 暂停该主机")
+        void testRetryAfter() throws IOException {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(100, java.util.concurrent.TimeUnit.SECONDS)
+                    .maxWait(java.time.Duration.ofMillis(200))
+                    .build();
+            Request request = client.newGet("https://example.com/").build();
+
+            Response response = proceed(limiter, request,
+                    Response.failure(request).code(429).header("retry-after", "2"));
+            assertEquals(429, response.getCode());
+            assertThrows(IOException.class, () -> limiter.acquire(request), "Retry-After 期间应拒绝");
+
+            Request other = client.newGet("https://other.example.com/").build();
+            limiter.acquire(other);
+        }
+
+        @Test
+        @DisplayName("X-RateLimit-Remaining 为 0 时暂停到重置时间")
+        void testRateLimitExhausted() throws IOException {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(100, java.util.concurrent.TimeUnit.SECONDS)
+                    .maxWait(java.time.Duration.ofMillis(200))
+                    .build();
+            Request request = client.newGet("https://api.example.com/").build();
+
+            proceed(limiter, request, Response.success(request).code(200)
+                    .header("X-RateLimit-Remaining", "0")
+                    .header("X-RateLimit-Reset", "5"));
+            assertThrows(IOException.class, () -> limiter.acquire(request));
+        }
+
+        @Test
+        @DisplayName("X-RateLimit-Remaining 压低速率")
+        void testRateLimitAdapts() throws IOException {
+            RateLimitInterceptor limiter = RateLimitInterceptor.newBuilder()
+                    .rate(1000, java.util.concurrent.TimeUnit.SECONDS)
+                    .build();
+            Request request = client.newGet("https://api.example.com/").build();
+
+            // 剩余 10 次、1 秒后重置 => 每 100ms 一个
+            proceed(limiter, request, Response.success(request).code(200)
+                    .header("X-RateLimit-Remaining", "10")
+                    .header("X-RateLimit-Reset", "1"));
+            long start = System.nanoTime();
+            limiter.acquire(request);
+            long waitedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(waitedMs >= 80, "速率应降到 10/s: " + waitedMs + "ms");
+        }
+
+        @Test
+        @DisplayName("Retry-After 解析秒数与 HTTP-date")
+        void testParseRetryAfter() {
+            assertEquals(java.util.concurrent.TimeUnit.SECONDS.toNanos(3), RateLimitInterceptor.parseRetryAfter("3"));
+            String date = java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME
+                    .format(java.time.ZonedDateTime.now(java.time.ZoneOffset.UTC).plusSeconds(60));
+            long nanos = RateLimitInterceptor.parseRetryAfter(date);
+            assertTrue(nanos > java.util.concurrent.TimeUnit.SECONDS.toNanos(50), "HTTP-date 应解析为约 60 秒");
+            assertEquals(-1, RateLimitInterceptor.parseRetryAfter("soon"));
+        }
+    }
+
     // ========== 边界情况 ==========
 
     @Nested
@@ -0,0 +1,254 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JNetExecutor 与客户端执行器配置单元测试
+ * 网络相关用例针对进程内回环服务器，不依赖外网。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【JNetExecutor】执行器测试")
+public class TestJNetExecutor {
+    private static LoopbackHttpServer server;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = LoopbackHttpServer.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    private static CompletableFuture<String> enqueueAndCaptureThread(JNetClient client) {
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        client.newGet(server.bytesUrl(16)).build().newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                thread.complete(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                thread.completeExceptionally(e);
+            }
+        });
+        return thread;
+    }
+
+    @Nested
+    @DisplayName("线程池")
+    class PoolTest {
+
+        @Test
+        @DisplayName("守护线程按计数命名")
+        void testThreadFactory() throws Exception {
+            JNetExecutor executor = JNetExecutor.newBuilder().name("test-pool").build();
+            try {
+                CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread, executor);
+                Thread t = thread.get(5, TimeUnit.SECONDS);
+                assertEquals("test-pool-1", t.getName());
+                assertTrue(t.isDaemon());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("饱和时由提交线程执行并计数")
+        void testCallerRunsWhenSaturated() throws Exception {
+            JNetExecutor executor = JNetExecutor.newBuilder()
+                    .name("tiny").coreThreads(1).maxThreads(1).queueCapacity(1).build();
+            CountDownLatch release = new CountDownLatch(1);
+            try {
+                executor.execute(() -> awaitQuietly(release));
+                executor.execute(() -> awaitQuietly(release));
+
+                Thread[] ranOn = new Thread[1];
+                executor.execute(() -> ranOn[0] = Thread.currentThread());
+                assertSame(Thread.currentThread(), ranOn[0]);
+
+                JNetExecutor.Metrics metrics = executor.getMetrics();
+                assertEquals(1, metrics.getCallerRuns());
+                assertEquals(1, metrics.getQueued());
+                assertEquals(1, metrics.getPoolSize());
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("AsyncExecutor 使用弹性守护线程池")
+        void testAsyncExecutor() throws Exception {
+            Thread t = AsyncExecutor.getExecutor().submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertTrue(t.getName().startsWith("JNet-Async-"), t.getName());
+            assertTrue(t.isDaemon());
+            assertSame(AsyncExecutor.getExecutor(), AsyncExecutor.getExecutor());
+
+            JNetExecutor.Metrics metrics = AsyncExecutor.getMetrics();
+            assertNotNull(metrics);
+            assertTrue(metrics.getMaxThreads() >= 4);
+        }
+
+        @Test
+        @DisplayName("非法参数被拒绝")
+        void testInvalidArguments() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> JNetExecutor.newBuilder().coreThreads(4).maxThreads(2).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> JNetExecutor.newBuilder().queueCapacity(0).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> JNetExecutor.newBuilder().keepAlive(Duration.ZERO).build());
+        }
+
+        private void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("客户端配置")
+    class ClientTest {
+
+        @Test
+        @DisplayName("默认传输执行器与回调执行器分开")
+        void testDefaults() throws Exception {
+            JNetClient client = JNetClient.newBuilder().cookieHandler(null).build();
+            assertInstanceOf(JNetExecutor.class, client.getExecutor());
+            assertSame(client.getExecutor(), client.getHttpClient().executor().orElse(null));
+            assertSame(JNetExecutor.defaultCallbackExecutor(), client.getCallbackExecutor());
+
+            assertTrue(enqueueAndCaptureThread(client).get(5, TimeUnit.SECONDS).startsWith("JNet-Callback-"));
+        }
+
+        @Test
+        @DisplayName("自定义传输层不创建 HttpClient 与传输执行器，直到显式获取")
+        void testCustomTransportIsLazy() throws Exception {
+            Transport transport = (request, timeout) -> Response.success(request).code(200).body("ok").build();
+            long selectors = selectorThreads();
+            JNetClient client = JNetClient.newBuilder().transport(transport).shards(4).cookieHandler(null).build();
+            assertEquals("ok", client.newGet("http://localhost/").build().newCall().execute().getBody());
+            assertEquals(selectors, selectorThreads());
+            assertEquals(4, client.getShardCount());
+
+            assertSame(client.getExecutor(), client.getHttpClient().executor().orElse(null));
+            assertSame(client.getHttpClient(), client.getHttpClient());
+        }
+
+        private long selectorThreads() {
+            return Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().contains("SelectorManager"))
+                    .count();
+        }
+
+        @Test
+        @DisplayName("自定义回调执行器")
+        void testCustomCallbackExecutor() throws Exception {
+            JNetExecutor callbacks = JNetExecutor.newBuilder().name("app-callback").build();
+            try {
+                JNetClient client = JNetClient.newBuilder()
+                        .callbackExecutor(callbacks)
+                        .cookieHandler(null)
+                        .build();
+                assertTrue(enqueueAndCaptureThread(client).get(5, TimeUnit.SECONDS).startsWith("app-callback-"));
+            } finally {
+                callbacks.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("direct 回调不经过回调线程池")
+        void testDirectCallbacks() throws Exception {
+            JNetExecutor transport = JNetExecutor.newBuilder().name("app-io").build();
+            try {
+                JNetClient client = JNetClient.newBuilder()
+                        .executor(transport)
+                        .callbackExecutor(JNetExecutor.direct())
+                        .cookieHandler(null)
+                        .build();
+                String thread = enqueueAndCaptureThread(client).get(5, TimeUnit.SECONDS);
+                assertFalse(thread.startsWith("JNet-Callback-"), thread);
+                assertTrue(transport.getMetrics().getLargestPoolSize() > 0);
+            } finally {
+                transport.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("回调执行器已关闭时仍送达结果")
+        void testShutdownCallbackExecutor() throws Exception {
+            JNetClient client = JNetClient.newBuilder()
+                    .callbackExecutor(command -> {
+                        throw new RejectedExecutionException("closed");
+                    })
+                    .cookieHandler(null)
+                    .build();
+            assertNotNull(enqueueAndCaptureThread(client).get(5, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("带拦截器的 enqueue 在 AsyncExecutor 上执行，回调经回调执行器送达")
+        void testInterceptorEnqueueExecutor() throws Exception {
+            JNetClient client = JNetClient.newBuilder().cookieHandler(null).build();
+            CompletableFuture<String> interceptorThread = new CompletableFuture<>();
+            Interceptor interceptor = chain -> {
+                interceptorThread.complete(Thread.currentThread().getName());
+                return chain.proceed(chain.request());
+            };
+            CompletableFuture<String> callbackThread = new CompletableFuture<>();
+            new Call.RealCall(client.newGet(server.bytesUrl(16)).build(), client, List.of(interceptor))
+                    .enqueue(new Call.Callback() {
+                        @Override
+                        public void onSuccess(Response response) {
+                            callbackThread.complete(Thread.currentThread().getName());
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            callbackThread.completeExceptionally(e);
+                        }
+                    });
+            assertTrue(interceptorThread.get(5, TimeUnit.SECONDS).startsWith("JNet-Async-"));
+            assertTrue(callbackThread.get(5, TimeUnit.SECONDS).startsWith("JNet-Callback-"));
+        }
+
+        @Test
+        @DisplayName("JNetExecutor 关闭后拒绝任务，回调改在当前线程送达")
+        void testEnqueueAfterShutdown() throws Exception {
+            JNetExecutor callbacks = JNetExecutor.newBuilder().name("closed-callback").build();
+            callbacks.shutdown();
+            assertThrows(RejectedExecutionException.class, () -> callbacks.execute(() -> {
+            }));
+
+            JNetClient client = JNetClient.newBuilder()
+                    .callbackExecutor(callbacks)
+                    .cookieHandler(null)
+                    .build();
+            String thread = enqueueAndCaptureThread(client).get(5, TimeUnit.SECONDS);
+            assertFalse(thread.startsWith("closed-callback-"), thread);
+            assertEquals(0, callbacks.getMetrics().getCallerRuns());
+        }
+    }
+}
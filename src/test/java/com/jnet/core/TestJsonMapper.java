@@ -0,0 +1,262 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.TypeReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON 到 POJO 的类型绑定测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【JsonMapper】JSON 类型绑定测试")
+public class TestJsonMapper {
+
+    @Test
+    @DisplayName("私有字段、setter 与 snake_case 名称")
+    void testBean() {
+        Repo repo = JsonMapper.fromJson("{\"id\":10000001,\"full_name\":\"jnet/http\",\"fork\":true,"
+                + "\"stargazers_count\":\"42\",\"score\":1.5,\"topics\":[\"a\",\"b\"],\"unknown\":{\"x\":[1]},"
+                + "\"owner\":{\"login\":\"sanbo\",\"id\":7,\"site_admin\":null}}", Repo.class);
+        assertEquals(10000001L, repo.id);
+        assertEquals("jnet/http", repo.fullName);
+        assertTrue(repo.fork);
+        assertEquals(42, repo.stargazersCount);
+        assertEquals(1.5, repo.score);
+        assertEquals(List.of("a", "b"), repo.topics);
+        assertEquals("sanbo", repo.owner.getLogin());
+        assertEquals(1, repo.owner.setterCalls, "存在 setter 时通过 setter 赋值");
+        assertFalse(repo.owner.siteAdmin);
+    }
+
+    @Test
+    @DisplayName("JSONObject/JSONArray 中的非 ASCII 文本按 UTF-8 编码")
+    void testJsonObjectNonAscii() {
+        JSONObject object = new JSONObject().put("u", "é").put("v", "ab中c")
+                .put("list", new JSONArray().put("😀").put(1).put(new JSONObject().put("k\"", "ü\n")));
+        byte[] bytes = JsonMapper.toJsonBytes(Map.of("params", object));
+        String json = new String(bytes, StandardCharsets.UTF_8);
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), bytes, "合法 UTF-8");
+
+        JSONObject parsed = new JSONObject(json).getJSONObject("params");
+        assertEquals("é", parsed.getString("u"));
+        assertEquals("ab中c", parsed.getString("v"));
+        JSONArray list = parsed.optJSONArray("list");
+        assertEquals("😀", list.getString(0));
+        assertEquals(1, ((Number) list.opt(1)).intValue());
+        assertEquals("ü\n", list.getJSONObject(2).getString("k\""));
+    }
+
+    @Test
+    @DisplayName("泛型父类与 TypeReference 解析类型参数")
+    void testGenerics() {
+        String json = ParserCorpus.json(16 * 1024);
+        JSONObject expected = new JSONObject(json);
+
+        RepoPage page = JsonMapper.fromJson(json, RepoPage.class);
+        assertEquals(expected.optInt("total_count", -1), page.items.size());
+        assertEquals(expected.optInt("total_count", -1), page.totalCount);
+        assertEquals(expected.optJSONArray("items").getJSONObject(3).getString("full_name"),
+                page.items.get(3).fullName);
+
+        Page<Repo> generic = JsonMapper.fromJson(json, new TypeReference<Page<Repo>>() {
+        }.getType());
+        assertEquals(page.items.get(5).owner.getLogin(), generic.items.get(5).owner.getLogin());
+
+        List<Map<String, Object>> maps = JsonMapper.fromJson(ParserCorpus.jsonArray(2048),
+                new TypeReference<List<Map<String, Object>>>() {
+                }.getType());
+        assertEquals(10000000, ((Number) maps.get(0).get("id")).intValue());
+        assertTrue(maps.get(0).get("owner") instanceof JSONObject);
+    }
+
+    @Test
+    @DisplayName("数组、集合、Map 键类型与枚举")
+    void testContainers() {
+        int[] ints = JsonMapper.fromJson("[1,2,null,4]", int[].class);
+        assertArrayEquals(new int[]{1, 2, 0, 4}, ints);
+        long[][] grid = JsonMapper.fromJson("[[1],[2,3]]", long[][].class);
+        assertEquals(3L, grid[1][1]);
+        String[] strings = JsonMapper.fromJson("[\"a\",null]", String[].class);
+        assertArrayEquals(new String[]{"a", null}, strings);
+
+        Set<Level> levels = JsonMapper.fromJson("[\"LOW\",\"HIGH\",\"LOW\"]", new TypeReference<Set<Level>>() {
+        }.getType());
+        assertEquals(Set.of(Level.LOW, Level.HIGH), levels);
+
+        Map<Integer, List<Level>> byId = JsonMapper.fromJson("{\"2\":[\"HIGH\"],\"1\":[\"LOW\",\"NEW\"]}",
+                new TypeReference<TreeMap<Integer, List<Level>>>() {
+                }.getType());
+        assertEquals(List.of(1, 2), List.copyOf(byId.keySet()));
+        assertEquals(Level.LOW, byId.get(1).get(0));
+        assertNull(byId.get(1).get(1), "未知枚举名绑定为 null");
+    }
+
+    @Test
+    @DisplayName("自引用类型")
+    void testRecursiveType() {
+        Node root = JsonMapper.fromJson(
+                "{\"name\":\"root\",\"children\":[{\"name\":\"a\",\"children\":[{\"name\":\"a1\"}]},{\"name\":\"b\"}]}",
+                Node.class);
+        assertEquals("a1", root.children.get(0).children.get(0).name);
+        assertNull(root.children.get(1).children);
+    }
+
+    @Test
+    @DisplayName("类型不匹配与尾随数据抛出 JSONException")
+    void testErrors() {
+        assertThrows(JSONException.class, () -> JsonMapper.fromJson("{\"id\":\"x\"}", Repo.class));
+        assertThrows(JSONException.class, () -> JsonMapper.fromJson("[1] [2]", int[].class));
+        assertThrows(JSONException.class, () -> JsonMapper.fromJson("{}", Runnable.class));
+        assertNull(JsonMapper.fromJson("null", Repo.class));
+    }
+
+    @Test
+    @DisplayName("Response.as 与 JNet.getJson 从响应字节绑定")
+    void testResponseBinding() throws Exception {
+        Response response = Response.success(null).code(200).body("{\"login\":\"sanbo\",\"id\":1}").build();
+        assertEquals("sanbo", response.as(Owner.class).getLogin());
+        assertEquals(1, response.as(new TypeReference<Map<String, Object>>() {
+        }).get("id"));
+
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            RepoPage page = JNet.getJson(server.baseUrl() + "/json/65536", RepoPage.class);
+            assertEquals(page.totalCount, page.items.size());
+            assertTrue(page.items.get(0).fullName.contains("/"));
+
+            JNetException e = assertThrows(JNetException.class,
+                    () -> JNet.getJson(server.baseUrl() + "/missing", RepoPage.class));
+            assertEquals(404, e.getStatusCode());
+            assertEquals(JNetException.ErrorType.HTTP_CLIENT_ERROR, e.getErrorType());
+
+            JNetException parse = assertThrows(JNetException.class,
+                    () -> JNet.getJson(server.bytesUrl(16), RepoPage.class));
+            assertEquals(JNetException.ErrorType.RESPONSE_PARSING_ERROR, parse.getErrorType());
+        }
+    }
+
+    @Test
+    @DisplayName("序列化：Map/List 模型与 toJsonString 输出一致")
+    void testSerializeMatchesToJsonString() {
+        Map<String, Object> model = ParserCorpus.jsonModel(50);
+        model.put("text", "tab\t\"q\" \u0001 中文 😀");
+        model.put("nan", Double.NaN);
+        model.put("when", java.time.Instant.parse("2026-01-02T03:04:05Z"));
+        assertEquals(JNetUtils.toJsonString(model), JsonMapper.toJson(model));
+        assertArrayEquals(JNetUtils.toJsonString(model).getBytes(StandardCharsets.UTF_8), JsonMapper.toJsonBytes(model));
+        assertEquals("[1,-9223372036854775808,2.5,null]", JsonMapper.toJson(new Object[]{1, Long.MIN_VALUE, 2.5f, null}));
+        assertEquals("[[1,2],[3.0]]", JsonMapper.toJson(new Object[]{new int[]{1, 2}, new double[]{3}}));
+    }
+
+    @Test
+    @DisplayName("序列化：POJO 按属性写出并可反向绑定")
+    void testSerializePojo() {
+        Repo repo = JsonMapper.fromJson("{\"id\":7,\"full_name\":\"a/b\",\"fork\":true,\"score\":0.5,"
+                + "\"topics\":[\"x\"],\"owner\":{\"login\":\"sanbo\",\"site_admin\":true}}", Repo.class);
+        String json = JsonMapper.toJson(repo);
+        assertEquals("{\"id\":7,\"fullName\":\"a/b\",\"fork\":true,\"stargazersCount\":0,\"score\":0.5,"
+                + "\"topics\":[\"x\"],\"owner\":{\"login\":\"sanbo\",\"id\":0,\"siteAdmin\":true}}", json);
+        Repo copy = JsonMapper.fromJson(json, Repo.class);
+        assertEquals(json, JsonMapper.toJson(copy));
+
+        Map<String, Object> withEnum = new java.util.LinkedHashMap<>();
+        withEnum.put("level", Level.HIGH);
+        withEnum.put("node", new Node());
+        assertEquals("{\"level\":\"HIGH\",\"node\":{\"name\":null,\"children\":null}}", JsonMapper.toJson(withEnum));
+    }
+
+    @Test
+    @DisplayName("序列化：循环引用与过深嵌套")
+    void testSerializeCycles() {
+        Node root = new Node();
+        root.children = new java.util.ArrayList<>();
+        root.children.add(root);
+        IllegalArgumentException cycle = assertThrows(IllegalArgumentException.class, () -> JsonMapper.toJson(root));
+        assertTrue(cycle.getMessage().contains("Circular"), cycle.getMessage());
+
+        Object deep = "leaf";
+        for (int i = 0; i < 150; i++) {
+            deep = List.of(deep);
+        }
+        Object tooDeep = deep;
+        IllegalArgumentException depth = assertThrows(IllegalArgumentException.class, () -> JsonMapper.toJson(tooDeep));
+        assertTrue(depth.getMessage().contains("depth"), depth.getMessage());
+
+        // 同一对象出现多次不是循环
+        List<String> shared = List.of("s");
+        assertEquals("[[\"s\"],[\"s\"]]", JsonMapper.toJson(List.of(shared, shared)));
+    }
+
+    @Test
+    @DisplayName("postJson 以已知长度的字节请求体发送")
+    void testPostJson() throws Exception {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            Map<String, Object> model = ParserCorpus.jsonModel(20);
+            assertEquals(JNetUtils.toJsonString(model), JNet.postJson(server.baseUrl() + "/echo", model));
+            assertEquals(JNetUtils.toJsonString(model), JNet.postJsonAsync(server.baseUrl() + "/echo", model).get());
+
+            Request request = Request.newBuilder().url(server.baseUrl() + "/echo").method("POST").json(model).build();
+            assertEquals("application/json", request.getHeader("Content-Type"));
+            assertEquals(JsonMapper.toJsonBytes(model).length, request.getBodyPublisher().contentLength());
+        }
+    }
+
+    // ========== 测试模型 ==========
+
+    enum Level {
+        LOW, HIGH
+    }
+
+    static class Owner {
+        private String login;
+        private long id;
+        private boolean siteAdmin;
+        transient int setterCalls;
+
+        public String getLogin() {
+            return login;
+        }
+
+        public void setLogin(String login) {
+            this.login = login;
+            setterCalls++;
+        }
+    }
+
+    static class Repo {
+        private long id;
+        private String fullName;
+        private boolean fork;
+        private int stargazersCount;
+        private double score;
+        private List<String> topics;
+        private Owner owner;
+    }
+
+    static class Page<T> {
+        int totalCount;
+        boolean incompleteResults;
+        List<T> items;
+    }
+
+    static class RepoPage extends Page<Repo> {
+    }
+
+    static class Node {
+        String name;
+        List<Node> children;
+    }
+}
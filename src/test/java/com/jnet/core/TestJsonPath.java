@@ -0,0 +1,168 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式 JsonPath 字段提取测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【JsonPath】流式字段提取测试")
+public class TestJsonPath {
+
+    @Test
+    @DisplayName("一次遍历提取多个路径，结果与建树后取值一致")
+    void testSelectMatchesTree() {
+        String source = ParserCorpus.json(64 * 1024);
+        JSONObject tree = new JSONObject(source);
+        JSONArray items = tree.optJSONArray("items");
+
+        List<Object> ids = new ArrayList<>();
+        List<Object> logins = new ArrayList<>();
+        List<Object> totals = new ArrayList<>();
+        JsonPath.select(bytes(source), (path, value) -> {
+            switch (path) {
+                case "$.items[*].id":
+                    ids.add(value);
+                    break;
+                case "$.items[*].owner.login":
+                    logins.add(value);
+                    break;
+                default:
+                    totals.add(value);
+            }
+        }, "$.items[*].id", "$.items[*].owner.login", "$['total_count']");
+
+        assertEquals(Collections.singletonList(tree.optInt("total_count", -1)), totals);
+        assertEquals(items.length(), ids.size());
+        for (int i = 0; i < items.length(); i++) {
+            assertEquals(items.getJSONObject(i).get("id"), ids.get(i));
+            assertEquals(items.getJSONObject(i).getJSONObject("owner").getString("login"), logins.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("下标、通配符、后代与嵌套匹配")
+    void testSegments() {
+        byte[] json = bytes("{\"a\":{\"b\":[{\"id\":1,\"c\":{\"id\":2}},{\"id\":3}],\"id\":4},\"list\":[[5,6],[7]],\"x y\":true}");
+        assertEquals(List.of("3"), collect(json, "$.a.b[1].id"));
+        assertEquals(List.of("1", "2", "3", "4"), collect(json, "$..id"));
+        assertEquals(List.of("6"), collect(json, "$.list[0][1]"));
+        assertEquals(List.of("5", "6", "7"), collect(json, "$.list[*][*]"));
+        assertEquals(List.of("true"), collect(json, "$['x y']"));
+        assertEquals(List.of("[5,6]", "[7]"), collect(json, "$.list.*"));
+        assertEquals(List.of("1", "3"), collect(json, "$..b[*].id"));
+        assertEquals(List.of(), collect(json, "$.missing.id"));
+
+        // 外层与内层同时匹配：外层值先构建，内层在树上继续匹配
+        List<String> paths = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        JsonPath.select(json, (path, value) -> {
+            paths.add(path);
+            values.add(value);
+        }, "$.a.b[0]", "$.a.b[*].c.id");
+        assertEquals(List.of("$.a.b[0]", "$.a.b[*].c.id"), paths);
+        assertEquals(1, ((JSONObject) values.get(0)).optInt("id", -1));
+        assertEquals(2, values.get(1));
+    }
+
+    @Test
+    @DisplayName("不支持的语法与格式错误")
+    void testErrors() {
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("items[0]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("$.items[-1]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("$.items[?(@.id)]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("$.items[0"));
+        assertThrows(IllegalArgumentException.class, () -> JsonPath.compile("$.."));
+        assertEquals("$.a[0]", JsonPath.compile("$.a[0]").toString());
+        assertThrows(JSONException.class, () -> collect(bytes("{\"a\":[1,}"), "$.b"));
+        assertThrows(JSONException.class, () -> collect(bytes("{\"a\":1} 2"), "$.a"));
+    }
+
+    @Test
+    @DisplayName("超大文档流式提取，不缓冲整个文档")
+    void testLargeStream() throws IOException {
+        // 约 40MB：{"items":[{...},{...},...],"next":"cursor"}，由多个小块拼接而成，从不整体存在于内存
+        byte[] item = bytes("{\"id\":1,\"payload\":\"" + "x".repeat(4000) + "\",\"tags\":[1,2,3]},");
+        int count = 10_000;
+        Enumeration<InputStream> parts = new Enumeration<InputStream>() {
+            int index = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return index <= count;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                index++;
+                if (index == 0) {
+                    return new ByteArrayInputStream(bytes("{\"items\":["));
+                }
+                if (index <= count) {
+                    return new ByteArrayInputStream(item, 0, index == count ? item.length - 1 : item.length);
+                }
+                return new ByteArrayInputStream(bytes("],\"next\":\"cursor\"}"));
+            }
+        };
+        long[] sum = new long[1];
+        List<Object> next = new ArrayList<>();
+        JsonPath.select(new SequenceInputStream(parts), (path, value) -> {
+            if (path.equals("$.next")) {
+                next.add(value);
+            } else {
+                sum[0] += ((Number) value).longValue();
+            }
+        }, "$.items[*].id", "$.next");
+        assertEquals(count, sum[0]);
+        assertEquals(List.of("cursor"), next);
+    }
+
+    @Test
+    @DisplayName("Response.extract 与 JNet.extract")
+    void testResponseExtract() throws Exception {
+        Response response = Response.success(null).code(200).body("{\"next\":\"n2\",\"items\":[{\"id\":9}]}").build();
+        List<Object> values = new ArrayList<>();
+        response.extract((path, value) -> values.add(value), "$.items[*].id", "$.next");
+        assertEquals(List.of("n2", 9), values);
+
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            JSONObject tree = new JSONObject(ParserCorpus.json(256 * 1024));
+            int[] count = new int[1];
+            JNet.extract(server.baseUrl() + "/json/262144", (path, value) -> count[0]++, "$.items[*].full_name");
+            assertEquals(tree.optInt("total_count", -1), count[0]);
+
+            JNetException e = assertThrows(JNetException.class,
+                    () -> JNet.extract(server.baseUrl() + "/missing", (path, value) -> fail(), "$.a"));
+            assertEquals(404, e.getStatusCode());
+        }
+    }
+
+    private static List<String> collect(byte[] json, String path) {
+        List<String> values = new ArrayList<>();
+        JsonPath.select(json, (p, value) -> values.add(String.valueOf(value)), path);
+        return values;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
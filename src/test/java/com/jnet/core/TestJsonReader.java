@@ -0,0 +1,184 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式 JSON 读取器测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【JsonReader】流式 JSON 读取测试")
+public class TestJsonReader {
+
+    @Test
+    @DisplayName("拉取式逐个读取 token")
+    void testPullTokens() throws IOException {
+        JsonReader reader = new JsonReader(bytes("{\"id\": 7, \"name\":\"jnet\", \"ok\":true, \"tags\":[\"a\",null], \"x\":1.5}"));
+        assertEquals(JsonReader.Token.BEGIN_OBJECT, reader.peek());
+        reader.beginObject();
+        assertEquals("id", reader.nextName());
+        assertEquals(7, reader.nextInt());
+        assertEquals("name", reader.nextName());
+        assertEquals("jnet", reader.nextString());
+        assertEquals("ok", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertEquals("tags", reader.nextName());
+        reader.beginArray();
+        assertEquals("a", reader.nextString());
+        assertEquals(JsonReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("x", reader.nextName());
+        assertEquals(1.5, reader.nextDouble());
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    @DisplayName("构建的树与基于 String 的解析器一致")
+    void testTreeMatchesStringParser() throws IOException {
+        String source = ParserCorpus.json(64 * 1024);
+        JSONObject expected = new JSONObject(source);
+        JSONObject actual = new JsonReader(bytes(source)).nextJSONObject();
+        assertEquals(expected.toString(), actual.toString());
+
+        String array = ParserCorpus.jsonArray(16 * 1024);
+        assertEquals(new JSONArray(array).toString(), new JsonReader(bytes(array)).nextJSONArray().toString());
+    }
+
+    @Test
+    @DisplayName("数字：整数、长整数、超出 long、小数与指数")
+    void testNumbers() throws IOException {
+        JsonReader reader = new JsonReader(bytes(
+                "[0, -12, 3000000000, 123456789012345678901, 0.1, -2.5e-3, 1E+2, 9007199254740993.0, -0.0]"));
+        reader.beginArray();
+        assertEquals(0, reader.nextNumber());
+        assertEquals(-12, reader.nextNumber());
+        assertEquals(3_000_000_000L, reader.nextNumber());
+        assertEquals(new BigInteger("123456789012345678901"), reader.nextNumber());
+        assertEquals(0.1, reader.nextNumber());
+        assertEquals(-2.5e-3, reader.nextNumber());
+        assertEquals(100L, reader.nextLong());
+        assertEquals(9007199254740993.0, reader.nextDouble());
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(reader.nextDouble()));
+        reader.endArray();
+
+        // 快速路径与 Double.parseDouble 结果一致
+        String[] samples = {"3.14159", "1e22", "1e23", "123456789.123456789", "4.9e-324", "0.30000000000000004"};
+        for (String sample : samples) {
+            assertEquals(Double.parseDouble(sample), new JsonReader(bytes(sample)).nextDouble(), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("字符串转义、UTF-8 与代理对")
+    void testStrings() throws IOException {
+        String json = "[\"tab\\tquote\\\"slash\\/\", \"中文\", \"\\u4e2d\\uD83D\\uDE00\", \"😀\"]";
+        JsonReader reader = new JsonReader(bytes(json));
+        reader.beginArray();
+        assertEquals("tab\tquote\"slash/", reader.nextString());
+        assertEquals("中文", reader.nextString());
+        assertEquals("中😀", reader.nextString());
+        assertEquals("😀", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    @DisplayName("InputStream 逐字节到达时 token 跨缓冲区拼接")
+    void testOneByteAtATime() throws IOException {
+        String source = ParserCorpus.json(32 * 1024).replace("jnet", "中\\u6587\\n");
+        InputStream trickle = new ByteArrayInputStream(bytes(source)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        try (JsonReader reader = new JsonReader(trickle)) {
+            assertEquals(new JSONObject(source).toString(), reader.nextJSONObject().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("直接缓冲区与堆缓冲区，不修改 position")
+    void testByteBuffers() throws IOException {
+        byte[] json = bytes("{\"a\":[1,2,3]}");
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).flip();
+        assertEquals(3, new JsonReader(direct).nextJSONObject().optJSONArray("a").length());
+        assertEquals(0, direct.position());
+
+        ByteBuffer slice = ByteBuffer.wrap(bytes("xx[true]"), 2, 6);
+        JsonReader reader = new JsonReader(slice);
+        reader.beginArray();
+        assertTrue(reader.nextBoolean());
+        reader.endArray();
+        assertEquals(2, slice.position());
+    }
+
+    @Test
+    @DisplayName("流式遍历大数组，逐个元素跳过或建树")
+    void testStreamLargeArray() throws IOException {
+        String source = ParserCorpus.json(1024 * 1024);
+        try (JsonReader reader = new JsonReader(new ByteArrayInputStream(bytes(source)))) {
+            reader.beginObject();
+            int count = 0;
+            int totalCount = -1;
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("total_count".equals(name)) {
+                    totalCount = reader.nextInt();
+                } else if ("items".equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (count++ % 100 == 0) {
+                            assertTrue(reader.nextJSONObject().has("full_name"));
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            assertEquals(totalCount, count);
+        }
+    }
+
+    @Test
+    @DisplayName("语法错误带字节偏移")
+    void testSyntaxErrors() {
+        JSONException e = assertThrows(JSONException.class, () -> new JsonReader(bytes("{\"a\" 1}")).nextValue());
+        assertTrue(e.getMessage().contains("Expected ':'"), e.getMessage());
+        assertTrue(e.getMessage().contains("at byte 6"), e.getMessage());
+        assertThrows(JSONException.class, () -> new JsonReader(bytes("[1,]")).nextValue());
+        assertThrows(JSONException.class, () -> new JsonReader(bytes("\"open")).nextValue());
+        assertThrows(JSONException.class, () -> new JsonReader(bytes("[tru]")).nextValue());
+        assertThrows(JSONException.class, () -> new JsonReader(bytes("-")).nextValue());
+
+        JsonReader trailing = new JsonReader(bytes("{} {}"));
+        assertDoesNotThrow(trailing::nextValue);
+        assertThrows(JSONException.class, trailing::peek);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,219 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.LazyJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基于源字节的惰性 JSONObject/JSONArray 测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【LazyJson】惰性索引 JSON 测试")
+public class TestLazyJson {
+
+    @Test
+    @DisplayName("opt/get/has/keys/length 与建树结果一致")
+    void testMatchesTree() {
+        String source = ParserCorpus.json(64 * 1024);
+        assertSameTree(new JSONObject(source), LazyJson.parseObject(source));
+
+        String array = ParserCorpus.jsonArray(16 * 1024);
+        JSONArray tree = new JSONArray(array);
+        JSONArray lazy = LazyJson.parseArray(array);
+        assertEquals(tree.length(), lazy.length());
+        for (int i = 0; i < tree.length(); i++) {
+            assertSameTree(tree.getJSONObject(i), lazy.getJSONObject(i));
+        }
+        assertNull(lazy.opt(-1));
+        assertNull(lazy.opt(tree.length()));
+        assertThrows(JSONException.class, () -> lazy.get(tree.length()));
+    }
+
+    @Test
+    @DisplayName("转义、数字、空值与重复键")
+    void testScalars() {
+        JSONObject o = LazyJson.parseObject("{ \"s\" : \"a\\\"b\\u4e2d\\n\", \"utf\":\"中文😀\", \"i\":-7, \"l\":3000000000,"
+                + " \"big\":123456789012345678901, \"d\":1.5e2, \"t\":true, \"f\":false, \"n\":null,"
+                + " \"dup\":1, \"dup\":2, \"gone\":1, \"gone\":null, \"e\":{}, \"ea\":[] }");
+        assertEquals("a\"b中\n", o.getString("s"));
+        assertEquals("中文😀", o.getString("utf"));
+        assertEquals(-7, o.get("i"));
+        assertEquals(3000000000L, o.get("l"));
+        assertEquals(new java.math.BigInteger("123456789012345678901"), o.get("big"));
+        assertEquals(150.0, o.get("d"));
+        assertTrue(o.optBoolean("t", false));
+        assertFalse(o.optBoolean("f", true));
+        assertFalse(o.has("n"));
+        assertNull(o.opt("n"));
+        assertEquals(2, o.optInt("dup", -1));
+        assertFalse(o.has("gone"));
+        assertEquals(0, o.optJSONObject("e").length());
+        assertEquals(0, o.optJSONArray("ea").length());
+        assertEquals(List.of("s", "utf", "i", "l", "big", "d", "t", "f", "dup", "e", "ea"), keys(o));
+        assertEquals(11, o.length());
+        assertSame(o.opt("e"), o.opt("e"), "嵌套容器只包装一次");
+
+        JSONArray a = LazyJson.parseArray("[1, null, \"x\", [2, {\"k\":[]}]]");
+        assertEquals(4, a.length());
+        assertNull(a.opt(1));
+        assertEquals("[1,null,\"x\",[2,{\"k\":[]}]]", a.toString());
+        List<Object> values = new ArrayList<>();
+        for (Object value : a) {
+            values.add(value);
+        }
+        assertEquals("x", values.get(2));
+    }
+
+    @Test
+    @DisplayName("数组元素间共享相同的键数组与键字符串")
+    void testKeyInterning() {
+        JSONArray items = LazyJson.parseObject(ParserCorpus.json(16 * 1024)).optJSONArray("items");
+        Iterator<String> first = items.getJSONObject(0).keys();
+        Iterator<String> second = items.getJSONObject(1).keys();
+        while (first.hasNext()) {
+            assertSame(first.next(), second.next());
+        }
+        JSONObject a = items.getJSONObject(0).optJSONObject("owner");
+        JSONObject b = items.getJSONObject(1).optJSONObject("owner");
+        assertSame(a.keys().next(), b.keys().next());
+    }
+
+    @Test
+    @DisplayName("大对象：查找与遍历不随键数平方增长，重复键与空值与建树一致")
+    void testLargeObject() {
+        int count = 20_000;
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < count; i++) {
+            sb.append("\"k").append(i).append("\":").append(i).append(',');
+        }
+        sb.append("\"k0\":\"last\",\"k1\":null,\"k2\":null,\"k2\":2}");
+        String source = sb.toString();
+        JSONObject tree = new JSONObject(source);
+        JSONObject lazy = LazyJson.parseObject(source);
+
+        long begin = System.nanoTime();
+        assertEquals(tree.length(), lazy.length());
+        assertEquals(count - 1, lazy.length());
+        int seen = 0;
+        for (Iterator<String> it = lazy.keys(); it.hasNext(); seen++) {
+            String key = it.next();
+            assertEquals(tree.opt(key), lazy.opt(key), key);
+        }
+        assertEquals(count - 1, seen);
+        assertTrue(System.nanoTime() - begin < 2_000_000_000L, "遍历 2 万个键应远小于 2 秒");
+
+        assertEquals("last", lazy.opt("k0"));
+        assertFalse(lazy.has("k1"));
+        assertEquals(2, lazy.opt("k2"));
+        assertEquals("k3", lazy.keys().next(), "重复键按最后一次出现的位置排序");
+        assertNull(lazy.opt("missing"));
+    }
+
+    @Test
+    @DisplayName("多线程首次读取同一对象得到相同的嵌套容器")
+    void testConcurrentFirstAccess() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                JSONObject o = LazyJson.parseObject("{\"a\":1,\"e\":{\"k\":[1,2]},\"l\":[{}]}");
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<Object>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return o.opt("e");
+                    }));
+                }
+                Object first = results.get(0).get(10, TimeUnit.SECONDS);
+                for (Future<Object> result : results) {
+                    assertSame(first, result.get(10, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("put 后转为普通存储，其余值保持不变")
+    void testMutation() {
+        JSONObject o = LazyJson.parseObject("{\"a\":1,\"b\":{\"c\":[1,2]}}");
+        o.put("a", "x").put("z", true).put("b", null);
+        assertEquals("x", o.getString("a"));
+        assertTrue(o.has("z"));
+        assertFalse(o.has("b"));
+        assertEquals(List.of("a", "z"), keys(o));
+
+        JSONArray a = LazyJson.parseArray("[{\"k\":1}]");
+        a.put(2);
+        assertEquals(2, a.length());
+        assertEquals(1, a.getJSONObject(0).optInt("k", -1));
+        assertEquals(2, a.opt(1));
+    }
+
+    @Test
+    @DisplayName("格式错误、类型不符与尾随数据抛出 JSONException")
+    void testErrors() {
+        assertThrows(JSONException.class, () -> LazyJson.parseObject("{\"a\":[1,}"));
+        assertThrows(JSONException.class, () -> LazyJson.parseObject("{\"a\":1} 2"));
+        assertThrows(JSONException.class, () -> LazyJson.parseObject("[1]"));
+        assertThrows(JSONException.class, () -> LazyJson.parseArray("{}"));
+        assertThrows(JSONException.class, () -> LazyJson.parseArray(""));
+    }
+
+    private static void assertSameTree(JSONObject expected, JSONObject actual) {
+        assertEquals(expected.length(), actual.length());
+        assertEquals(new TreeSet<>(keys(expected)), new TreeSet<>(keys(actual)));
+        for (Iterator<String> it = expected.keys(); it.hasNext(); ) {
+            String key = it.next();
+            Object e = expected.opt(key);
+            Object a = actual.get(key);
+            assertTrue(actual.has(key));
+            if (e instanceof JSONObject) {
+                assertSameTree((JSONObject) e, (JSONObject) a);
+            } else if (e instanceof JSONArray) {
+                JSONArray ea = (JSONArray) e;
+                JSONArray aa = (JSONArray) a;
+                assertEquals(ea.length(), aa.length());
+                for (int i = 0; i < ea.length(); i++) {
+                    if (ea.opt(i) instanceof JSONObject) {
+                        assertSameTree(ea.getJSONObject(i), aa.getJSONObject(i));
+                    } else {
+                        assertEquals(ea.opt(i), aa.opt(i));
+                    }
+                }
+            } else {
+                assertEquals(e, a, key);
+                assertEquals(expected.optString(key), actual.optString(key));
+            }
+        }
+        assertFalse(actual.has("no such key"));
+        assertEquals("d", actual.optString("no such key", "d"));
+    }
+
+    private static List<String> keys(JSONObject object) {
+        List<String> keys = new ArrayList<>();
+        for (Iterator<String> it = object.keys(); it.hasNext(); ) {
+            keys.add(it.next());
+        }
+        return keys;
+    }
+}
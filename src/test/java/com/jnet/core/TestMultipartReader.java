@@ -0,0 +1,242 @@
+package com.jnet.core;
+
+import com.jnet.multipart.MultipartReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * multipart/* 响应流式解析测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【Multipart】响应流式解析测试")
+public class TestMultipartReader {
+
+    private static final String MIXED = "This is the preamble.\r\n"
+            + "--sep\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "X-Part: one\r\n"
+            + "\r\n"
+            + "first\r\npart\r\n"
+            + "--sep  \r\n"
+            + "content-type: application/json\r\n"
+            + "\r\n"
+            + "{\"a\":1}\r\n"
+            + "--sep\r\n"
+            + "\r\n"
+            + "\r\n"
+            + "--sep--\r\n"
+            + "This is the epilogue.";
+
+    @Test
+    @DisplayName("multipart/mixed：前导、结尾、填充空白、空部分")
+    void testMixed() throws IOException {
+        List<String> bodies = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        try (MultipartReader reader = new MultipartReader(input(MIXED), "sep")) {
+            for (MultipartReader.BodyPart part; (part = reader.nextPart()) != null; ) {
+                types.add(part.getContentType());
+                bodies.add(new String(part.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertNull(reader.nextPart());
+        }
+        assertEquals(List.of("first\r\npart", "{\"a\":1}", ""), bodies);
+        assertEquals("text/plain", types.get(0));
+        assertEquals("application/json", types.get(1));
+        assertNull(types.get(2));
+    }
+
+    @Test
+    @DisplayName("逐字节到达：分隔符被拆到多次读取中")
+    void testSplitReads() throws IOException {
+        List<String> bodies = new ArrayList<>();
+        try (MultipartReader reader = new MultipartReader(trickle(input(MIXED)), "sep")) {
+            for (MultipartReader.BodyPart part; (part = reader.nextPart()) != null; ) {
+                assertTrue(part.getHeaders().isEmpty() || part.getHeader("CONTENT-TYPE") != null);
+                bodies.add(new String(part.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("first\r\npart", "{\"a\":1}", ""), bodies);
+    }
+
+    @Test
+    @DisplayName("multipart/byteranges：Content-Range 解析与 ByteBuffer 切片")
+    void testByteRanges() throws IOException {
+        String body = "--THIS_STRING_SEPARATES\r\n"
+                + "Content-Type: application/pdf\r\n"
+                + "Content-Range: bytes 500-999/8000\r\n\r\n"
+                + "a".repeat(500) + "\r\n"
+                + "--THIS_STRING_SEPARATES\r\n"
+                + "Content-Type: application/pdf\r\n"
+                + "Content-Range: bytes 7000-7999/*\r\n\r\n"
+                + "b".repeat(1000) + "\r\n"
+                + "--THIS_STRING_SEPARATES--\r\n";
+        String type = "multipart/byteranges; boundary=\"THIS_STRING_SEPARATES\"";
+        try (MultipartReader reader = MultipartReader.of(input(body), type)) {
+            MultipartReader.BodyPart first = reader.nextPart();
+            assertEquals(500, first.getRangeStart());
+            assertEquals(999, first.getRangeEnd());
+            assertEquals(8000, first.getRangeTotal());
+            assertEquals(500, drainSlices(first, (byte) 'a'));
+
+            MultipartReader.BodyPart second = reader.nextPart();
+            assertEquals(7000, second.getRangeStart());
+            assertEquals(-1, second.getRangeTotal());
+            assertEquals(1000, drainSlices(second, (byte) 'b'));
+            assertNull(second.nextSlice());
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    @DisplayName("大部分流式交出，读缓冲区不随部分大小增长")
+    void testLargePart() throws IOException {
+        long size = 64L * 1024 * 1024;
+        byte[] head = "--b\r\nContent-Type: application/octet-stream\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] tail = "\r\n--b--".getBytes(StandardCharsets.ISO_8859_1);
+        InputStream in = new InputStream() {
+            private long offset;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                long total = head.length + size + tail.length;
+                if (offset >= total) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, total - offset);
+                for (int i = 0; i < n; i++, offset++) {
+                    if (offset < head.length) {
+                        b[off + i] = head[(int) offset];
+                    } else if (offset < head.length + size) {
+                        // 内容里夹带分隔符前缀，不应被误判为边界
+                        b[off + i] = (byte) "\r\n--".charAt((int) ((offset - head.length) % 4));
+                    } else {
+                        b[off + i] = tail[(int) (offset - head.length - size)];
+                    }
+                }
+                return n;
+            }
+        };
+        try (MultipartReader reader = new MultipartReader(in, "b")) {
+            MultipartReader.BodyPart part = reader.nextPart();
+            long read = 0;
+            int maxSlice = 0;
+            for (ByteBuffer slice; (slice = part.nextSlice()) != null; ) {
+                read += slice.remaining();
+                maxSlice = Math.max(maxSlice, slice.remaining());
+            }
+            assertEquals(size, read);
+            assertTrue(maxSlice <= 64 * 1024, "slice " + maxSlice);
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    @DisplayName("未读完的部分在读取下一部分时跳过，输入流止于边界")
+    void testSkipUnreadPart() throws IOException {
+        try (MultipartReader reader = new MultipartReader(input(MIXED), "sep")) {
+            MultipartReader.BodyPart first = reader.nextPart();
+            InputStream stream = first.getInputStream();
+            assertEquals('f', stream.read());
+            MultipartReader.BodyPart second = reader.nextPart();
+            assertEquals(-1, stream.read());
+            assertEquals("{\"a\":1}", new String(second.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(-1, second.getInputStream().read());
+            assertNotNull(reader.nextPart());
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    @DisplayName("缺少结束分隔符、非法 Content-Type")
+    void testMalformed() throws IOException {
+        try (MultipartReader reader = new MultipartReader(input("--sep\r\n\r\ntruncated"), "sep")) {
+            MultipartReader.BodyPart part = reader.nextPart();
+            assertThrows(EOFException.class, part::readAllBytes);
+        }
+        try (MultipartReader reader = new MultipartReader(input("no boundary here"), "sep")) {
+            assertThrows(EOFException.class, reader::nextPart);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MultipartReader.of(input(""), "text/plain"));
+        assertThrows(IllegalArgumentException.class, () -> MultipartReader.of(input(""), "multipart/mixed"));
+        assertEquals("a b", MultipartReader.boundary("multipart/mixed; charset=x; Boundary=\"a b\""));
+    }
+
+    @Test
+    @DisplayName("StreamResponse.multipart 经回环服务器读取")
+    void testStreamResponseMultipart() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int i = 0; i < 50; i++) {
+            body.writeBytes(("--r\r\nContent-Range: bytes " + i * 1000 + "-" + (i * 1000 + 999) + "/50000\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            body.writeBytes(String.valueOf(i % 10).repeat(1000).getBytes(StandardCharsets.ISO_8859_1));
+            body.writeBytes("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        body.writeBytes("--r--\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            JNetClient client = JNetClient.newBuilder().cookieHandler(null).build();
+            try (StreamResponse stream = client.newPost(server.baseUrl() + "/echo")
+                    .header("Content-Type", "multipart/byteranges; boundary=r")
+                    .body(body.toByteArray())
+                    .build().newCall().executeStreaming();
+                 MultipartReader reader = stream.multipart()) {
+                int count = 0;
+                for (MultipartReader.BodyPart part; (part = reader.nextPart()) != null; count++) {
+                    assertEquals(count * 1000L, part.getRangeStart());
+                    assertEquals(1000, drainSlices(part, (byte) ('0' + count % 10)));
+                }
+                assertEquals(50, count);
+            }
+        }
+    }
+
+    // ========== 内部方法 ==========
+
+    private static int drainSlices(MultipartReader.BodyPart part, byte expected) throws IOException {
+        int total = 0;
+        for (ByteBuffer slice; (slice = part.nextSlice()) != null; ) {
+            assertTrue(slice.isReadOnly());
+            while (slice.hasRemaining()) {
+                assertEquals(expected, slice.get());
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 每次只返回一个字节
+     */
+    private static InputStream trickle(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+}
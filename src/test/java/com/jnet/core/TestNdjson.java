@@ -0,0 +1,227 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONException;
+import com.jnet.core.org.json.JsonMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NDJSON（JSON Lines）流式读取与请求体测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【NDJSON】流式读写测试")
+public class TestNdjson {
+
+    @Test
+    @DisplayName("逐行绑定：空行、CRLF、跨缓冲区的长行")
+    void testReadNdjson() throws IOException {
+        String big = "x".repeat(20_000);
+        String body = "{\"id\":1,\"name\":\"a\"}\r\n\n  \n{\"id\":2,\"name\":\"" + big + "\"}\n{\"id\":3,\"name\":\"中文\"}";
+        List<Item> items = new ArrayList<>();
+        try (StreamResponse stream = new StreamResponse(null, input(body))) {
+            stream.readNdjson(Item.class, items::add);
+        }
+        assertEquals(3, items.size());
+        assertEquals("a", items.get(0).name);
+        assertEquals(big, items.get(1).name);
+        assertEquals(3, items.get(2).id);
+        assertEquals("中文", items.get(2).name);
+
+        List<Map<String, Object>> maps = new ArrayList<>();
+        try (StreamResponse stream = new StreamResponse(null, input("{\"a\":[1]}\n{\"b\":null}\n"))) {
+            stream.<Map<String, Object>>readNdjson(Map.class, maps::add);
+        }
+        assertEquals(2, maps.size());
+        assertTrue(maps.get(1).containsKey("b"));
+    }
+
+    @Test
+    @DisplayName("格式错误的行带行号抛出 JSONException")
+    void testMalformedLine() {
+        List<Item> items = new ArrayList<>();
+        JSONException e = assertThrows(JSONException.class, () -> {
+            try (StreamResponse stream = new StreamResponse(null, input("{\"id\":1}\n\n{\"id\":2} {\"id\":3}\n"))) {
+                stream.readNdjson(Item.class, items::add);
+            }
+        });
+        assertTrue(e.getMessage().startsWith("NDJSON line 3"), e.getMessage());
+        assertEquals(1, items.size(), "出错前的记录已经回调");
+    }
+
+    @Test
+    @DisplayName("JNet.streamNdjson 边下载边回调")
+    void testStreamNdjson() throws Exception {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            int count = 200_000;
+            long[] sum = new long[1];
+            AtomicInteger seen = new AtomicInteger();
+            JNet.streamNdjson(server.baseUrl() + "/ndjson/" + count, Item.class, item -> {
+                assertEquals("item-" + item.id, item.name);
+                sum[0] += item.id;
+                seen.incrementAndGet();
+            });
+            assertEquals(count, seen.get());
+            assertEquals((long) count * (count - 1) / 2, sum[0]);
+
+            JNetException e = assertThrows(JNetException.class,
+                    () -> JNet.streamNdjson(server.baseUrl() + "/missing", Item.class, item -> fail()));
+            assertEquals(404, e.getStatusCode());
+        }
+    }
+
+    @Test
+    @DisplayName("请求体按需求逐块序列化，取消时关闭数据源")
+    void testPublisherBackpressure() {
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Map<String, Object>> records = IntStream.range(0, 1_000_000)
+                .peek(i -> pulled.incrementAndGet())
+                .mapToObj(i -> Map.<String, Object>of("id", i, "name", "item-" + i))
+                .onClose(() -> closed.set(true));
+        HttpRequest.BodyPublisher publisher = Ndjson.publisher(records);
+        assertEquals(-1, publisher.contentLength());
+
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        assertEquals(0, pulled.get(), "没有需求时不读取数据源");
+
+        recorder.subscription.request(2);
+        assertEquals(2, recorder.chunks.size());
+        int perChunk = pulled.get();
+        assertTrue(perChunk < 2_000, "只序列化两块所需的记录: " + perChunk);
+        String text = StandardCharsets.UTF_8.decode(recorder.chunks.get(0)).toString();
+        assertTrue(text.startsWith("{\"id\":0,") || text.startsWith("{\"name\":\"item-0\""), text);
+        assertTrue(text.endsWith("\n"));
+        assertTrue(recorder.chunks.get(0).capacity() <= 16 * 1024);
+
+        recorder.subscription.cancel();
+        assertTrue(closed.get());
+        recorder.subscription.request(5);
+        assertEquals(2, recorder.chunks.size());
+        assertFalse(recorder.completed);
+
+        // 数据源只能消费一次
+        Recorder again = new Recorder();
+        publisher.subscribe(again);
+        assertTrue(again.error instanceof IllegalStateException);
+    }
+
+    @Test
+    @DisplayName("onNext 中重入 request，超过一块的记录单独成块")
+    void testPublisherReentrantAndLargeRecord() {
+        List<Object> records = List.of(Map.of("big", "y".repeat(40_000)), 1, "two", Map.of());
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onNext(ByteBuffer item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        Iterator<Object> iterator = records.iterator();
+        Ndjson.publisher(iterator).subscribe(recorder);
+        recorder.subscription.request(1);
+        assertTrue(recorder.completed);
+        assertEquals(2, recorder.chunks.size());
+        assertEquals(40_011, recorder.chunks.get(0).remaining());
+        assertEquals("1\n\"two\"\n{}\n", StandardCharsets.UTF_8.decode(recorder.chunks.get(1)).toString());
+    }
+
+    @Test
+    @DisplayName("序列化失败以 onError 结束")
+    void testPublisherError() {
+        Recorder recorder = new Recorder();
+        Object deep = "leaf";
+        for (int i = 0; i < 150; i++) {
+            deep = List.of(deep);
+        }
+        Ndjson.publisher(List.of(1, deep).iterator()).subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    @DisplayName("上传大量记录：服务端逐行统计")
+    void testUpload() throws Exception {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            int count = 300_000;
+            long expectedBytes = 0;
+            for (int i = 0; i < count; i++) {
+                expectedBytes += JsonMapper.toJsonBytes(new Item(i)).length + 1;
+            }
+            Request request = Request.newBuilder()
+                    .url(server.baseUrl() + "/count")
+                    .method("POST")
+                    .ndjson(IntStream.range(0, count).mapToObj(Item::new))
+                    .build();
+            assertEquals(Ndjson.CONTENT_TYPE, request.getHeader("Content-Type"));
+            Response response = request.newCall().execute();
+            assertEquals(count + " " + expectedBytes, response.getBody());
+        }
+    }
+
+    private static ByteArrayInputStream input(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ========== 测试模型 ==========
+
+    static class Item {
+        int id;
+        String name;
+
+        Item() {
+        }
+
+        Item(int id) {
+            this.id = id;
+            this.name = "item-" + id;
+        }
+    }
+
+    static class Recorder implements Flow.Subscriber<ByteBuffer> {
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.jnet.core;
+
+import com.jnet.nio.NioTransport;
+import com.jnet.nio.Timings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NIO HTTP/1.1 传输层测试
+ * 针对进程内回环服务器，不依赖外网。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【NioTransport】NIO 传输层测试")
+public class TestNioTransport {
+    private static LoopbackHttpServer server;
+
+    private final List<Timings> timings = new CopyOnWriteArrayList<>();
+    private NioTransport transport;
+    private JNetClient client;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = LoopbackHttpServer.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @BeforeEach
+    void createClient() {
+        transport = NioTransport.newBuilder()
+                .maxConnectionsPerHost(2)
+                .timingListener((request, t) -> timings.add(t))
+                .build();
+        client = JNetClient.newBuilder().transport(transport).build();
+    }
+
+    @AfterEach
+    void closeTransport() {
+        transport.close();
+    }
+
+    @Test
+    @DisplayName("GET 经 NIO 传输层返回完整响应体和响应头")
+    void testGet() throws IOException {
+        Response response = client.newGet(server.bytesUrl(100_000)).build().newCall().execute();
+        assertEquals(200, response.getCode());
+        assertEquals(100_000, response.getBody().length());
+        // 响应头保留服务端的大小写（com.sun.net.httpserver 写出 Content-type）
+        assertTrue(response.getHeaders().entrySet().stream().anyMatch(e -> e.getKey().equalsIgnoreCase("Content-Type")
+                && e.getValue().equals("text/plain; charset=utf-8")));
+        assertSame(transport, client.getTransport());
+    }
+
+    @Test
+    @DisplayName("POST 请求体原样回显")
+    void testPost() throws IOException {
+        String body = "{\"name\":\"中文\"}";
+        Response response = client.newPost(server.baseUrl() + "/echo").body(body).build().newCall().execute();
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    @DisplayName("chunked 响应体")
+    void testChunked() throws IOException {
+        Response response = client.newGet(server.baseUrl() + "/chunked/5500").build().newCall().execute();
+        assertEquals(5500, response.getBody().length());
+    }
+
+    @Test
+    @DisplayName("keep-alive 连接被复用，复用时没有连接阶段耗时")
+    void testKeepAlive() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, client.newGet(server.bytesUrl(10)).build().newCall().execute().getCode());
+        }
+        URI uri = URI.create(server.baseUrl());
+        assertEquals(1, transport.getConnectionCount(uri));
+        assertEquals(1, transport.getIdleConnectionCount(uri));
+
+        assertEquals(3, timings.size());
+        assertFalse(timings.get(0).isConnectionReused());
+        assertTrue(timings.get(1).isConnectionReused());
+        assertTrue(timings.get(2).isConnectionReused());
+        assertEquals(Duration.ZERO, timings.get(2).getConnect());
+        assertTrue(timings.get(2).getTotal().compareTo(timings.get(2).getTimeToFirstByte()) >= 0);
+    }
+
+    @Test
+    @DisplayName("每主机连接数不超过上限，超出的请求等待归还")
+    void testMaxConnectionsPerHost() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(callers.submit(() -> client.newGet(server.delayUrl(100)).build().newCall().execute()));
+            }
+            for (Future<Response> future : futures) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS).getCode());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(2, transport.getConnectionCount(URI.create(server.baseUrl())));
+    }
+
+    @Test
+    @DisplayName("同源 GET 管线化，响应按顺序对应")
+    void testPipelined() throws IOException {
+        List<Request> requests = Arrays.asList(
+                client.newGet(server.bytesUrl(1)).build(),
+                client.newGet(server.bytesUrl(20)).build(),
+                client.newGet(server.baseUrl() + "/chunked/3000").build());
+        List<Response> responses = transport.executePipelined(requests, Duration.ofSeconds(10));
+        assertEquals(3, responses.size());
+        assertEquals(1, responses.get(0).getBody().length());
+        assertEquals(20, responses.get(1).getBody().length());
+        assertEquals(3000, responses.get(2).getBody().length());
+        assertSame(requests.get(1), responses.get(1).getRequest());
+    }
+
+    @Test
+    @DisplayName("管线化的最后一个响应带 Connection: close 时连接不回池")
+    void testPipelinedLastClose() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Void> served = CompletableFuture.runAsync(() -> {
+                try (Socket s = socket.accept()) {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+                    for (int blank = 0; blank < 2; ) {
+                        String line = in.readLine();
+                        if (line == null) {
+                            return;
+                        }
+                        if (line.isEmpty()) {
+                            blank++;
+                        }
+                    }
+                    s.getOutputStream().write(("HTTP/1.1 200 OK\r\nContent-Length: 1\r\n\r\na"
+                            + "HTTP/1.1 200 OK\r\nContent-Length: 1\r\nConnection: close\r\n\r\nb")
+                            .getBytes(StandardCharsets.ISO_8859_1));
+                    s.getOutputStream().flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            String url = "http://127.0.0.1:" + socket.getLocalPort() + "/";
+            List<Response> responses = transport.executePipelined(Arrays.asList(
+                    client.newGet(url + "a").build(), client.newGet(url + "b").build()), Duration.ofSeconds(10));
+            served.get(10, TimeUnit.SECONDS);
+            assertEquals("a", responses.get(0).getBody());
+            assertEquals("b", responses.get(1).getBody());
+            URI uri = URI.create(url);
+            assertEquals(0, transport.getIdleConnectionCount(uri));
+            assertEquals(0, transport.getConnectionCount(uri));
+        }
+    }
+
+    @Test
+    @DisplayName("管线化拒绝跨源和带请求体的请求")
+    void testPipelinedValidation() {
+        List<Request> crossOrigin = Arrays.asList(
+                client.newGet(server.bytesUrl(1)).build(),
+                client.newGet("http://localhost:1/bytes/1").build());
+        assertThrows(IllegalArgumentException.class, () -> transport.executePipelined(crossOrigin, null));
+
+        List<Request> post = Arrays.asList(client.newPost(server.baseUrl() + "/echo").body("x").build());
+        assertThrows(IllegalArgumentException.class, () -> transport.executePipelined(post, null));
+    }
+
+    @Test
+    @DisplayName("跟随重定向")
+    void testRedirect() throws IOException {
+        Response response = client.newGet(server.baseUrl() + "/redirect/42").build().newCall().execute();
+        assertEquals(200, response.getCode());
+        assertEquals(42, response.getBody().length());
+
+        NioTransport noFollow = NioTransport.newBuilder().followRedirects(false).build();
+        try {
+            JNetClient noFollowClient = JNetClient.newBuilder().transport(noFollow).build();
+            Response redirect = noFollowClient.newGet(server.baseUrl() + "/redirect/42").build().newCall().execute();
+            assertEquals(302, redirect.getCode());
+            assertEquals("/bytes/42", redirect.getHeader("Location"));
+        } finally {
+            noFollow.close();
+        }
+    }
+
+    @Test
+    @DisplayName("截止时间耗尽时抛出 DeadlineExceededException，超时的连接不回池")
+    void testDeadline() {
+        Request request = client.newGet(server.delayUrl(2_000)).timeout(Duration.ofMillis(200)).build();
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> request.newCall().execute());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_500);
+        assertEquals(0, transport.getIdleConnectionCount(URI.create(server.baseUrl())));
+    }
+
+    @Test
+    @DisplayName("连接被拒绝时抛出 IOException 并释放名额")
+    void testConnectRefused() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String url = "http://127.0.0.1:" + port + "/";
+        assertThrows(IOException.class, () -> client.newGet(url).build().newCall().execute());
+        assertEquals(0, transport.getConnectionCount(URI.create(url)));
+    }
+
+    @Test
+    @DisplayName("异步调用走默认的 executeAsync")
+    void testAsync() throws Exception {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        client.newGet(server.bytesUrl(64)).build().newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        assertEquals(64, future.get(10, TimeUnit.SECONDS).getBody().length());
+    }
+}
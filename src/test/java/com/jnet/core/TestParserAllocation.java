@@ -0,0 +1,214 @@
+package com.jnet.core;
+
+import com.jnet.core.org.json.JSONArray;
+import com.jnet.core.org.json.JSONObject;
+import com.jnet.core.org.json.JsonMapper;
+import com.jnet.core.org.json.JsonPath;
+import com.jnet.core.org.json.LazyJson;
+import com.jnet.core.org.json.JsonReader;
+import com.jnet.hls.M3U8Parser;
+import com.jnet.rtsp.RtspResponse;
+import com.jnet.rtsp.SdpParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 文本协议解析器的分配预算测试
+ * 通过 ThreadMXBean.getThreadAllocatedBytes 统计当前线程每次解析分配的字节数，
+ * 超过预算即失败，用于在 CI 中发现分配回归。
+ *
+ * <p>
+ * 预算为当前实现实测值的约 1.5 倍；有意降低分配的优化合入后应同步收紧预算。
+ * 语料与 JMH 基准（src/jmh，-Pjmh）共用 {@link ParserCorpus}。
+ * </p>
+ */
+@DisplayName("【Allocation】解析器分配预算测试")
+public class TestParserAllocation {
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 500;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    @BeforeAll
+    static void setUp() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "JVM 不支持线程分配统计");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "JVM 不支持线程分配统计");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    @DisplayName("JSONObject 解析 4KB")
+    void testJsonObjectParse() {
+        String source = ParserCorpus.json(4096);
+        assertBudget("JSONObject(4KB)", 85_000, () -> new JSONObject(source));
+    }
+
+    @Test
+    @DisplayName("JSONArray 解析 4KB")
+    void testJsonArrayParse() {
+        String source = ParserCorpus.jsonArray(4096);
+        assertBudget("JSONArray(4KB)", 72_000, () -> new JSONArray(source));
+    }
+
+    @Test
+    @DisplayName("JsonReader 从字节建树 4KB")
+    void testJsonReaderTree() {
+        byte[] source = ParserCorpus.json(4096).getBytes(StandardCharsets.UTF_8);
+        assertBudget("JsonReader tree(4KB)", 47_000, () -> {
+            try {
+                return new JsonReader(source).nextJSONObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("JsonReader 跳过 4KB 不建树")
+    void testJsonReaderSkip() {
+        byte[] source = ParserCorpus.json(4096).getBytes(StandardCharsets.UTF_8);
+        assertBudget("JsonReader skip(4KB)", 600, () -> {
+            try {
+                JsonReader reader = new JsonReader(source);
+                reader.skipValue();
+                return reader;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("JsonPath 从 4KB JSON 提取 id")
+    void testJsonPathSelect() {
+        byte[] source = ParserCorpus.json(4096).getBytes(StandardCharsets.UTF_8);
+        long[] sum = new long[1];
+        assertBudget("JsonPath $.items[*].id(4KB)", 11_500, () -> {
+            JsonPath.select(source, (path, value) -> sum[0] += ((Number) value).longValue(), "$.items[*].id");
+            return sum;
+        });
+    }
+
+    @Test
+    @DisplayName("LazyJson 解析 4KB JSON 并读取 id")
+    void testLazyJson() {
+        byte[] source = ParserCorpus.json(4096).getBytes(StandardCharsets.UTF_8);
+        assertBudget("LazyJson ids(4KB)", 16_000, () -> {
+            JSONArray items = LazyJson.parseObject(source).optJSONArray("items");
+            long sum = 0;
+            for (int i = 0; i < items.length(); i++) {
+                sum += items.getJSONObject(i).optLong("id", 0);
+            }
+            return sum;
+        });
+    }
+
+    @Test
+    @DisplayName("JNetUtils.toJsonString 序列化 10 个对象")
+    void testToJsonString() {
+        Map<String, Object> model = ParserCorpus.jsonModel(10);
+        assertBudget("toJsonString(10 items)", 22_000, () -> JNetUtils.toJsonString(model));
+    }
+
+    @Test
+    @DisplayName("JsonMapper.toJsonBytes 序列化 10 个对象")
+    void testToJsonBytes() {
+        Map<String, Object> model = ParserCorpus.jsonModel(10);
+        assertBudget("toJsonBytes(10 items)", 7_000, () -> JsonMapper.toJsonBytes(model));
+    }
+
+    @Test
+    @DisplayName("M3U8Parser 解析 1000 分片")
+    void testM3U8Parse() {
+        String playlist = ParserCorpus.vodPlaylist(1000);
+        assertBudget("M3U8Parser(1000 segments)", 870_000, () -> M3U8Parser.parse(playlist));
+    }
+
+    @Test
+    @DisplayName("SSE 解析 100 个 token 事件")
+    void testSSEParse() {
+        List<String> lines = ParserCorpus.sseTokenLines(100);
+        SSEClient.SSEListener listener = new SSEClient.SSEListener() {
+            @Override
+            public void onData(String data) {
+            }
+
+            @Override
+            public void onEvent(String event, String data) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(e);
+            }
+        };
+        assertBudget("SSESubscriber(100 tokens)", 95_000, () -> {
+            SSEClient.SSESubscriber subscriber = new SSEClient.SSESubscriber(listener);
+            for (String line : lines) {
+                subscriber.onNext(line);
+            }
+            return subscriber;
+        });
+    }
+
+    @Test
+    @DisplayName("RtspResponse 解析 DESCRIBE 响应")
+    void testRtspResponseParse() {
+        String response = ParserCorpus.rtspDescribeResponse();
+        assertBudget("RtspResponse(DESCRIBE)", 18_000, () -> RtspResponse.parse(response));
+    }
+
+    @Test
+    @DisplayName("SdpParser 解析摄像头 SDP")
+    void testSdpParse() {
+        String sdp = ParserCorpus.cameraSdp();
+        assertBudget("SdpParser(camera)", 30_000, () -> SdpParser.parse(sdp));
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 预热后测量每次操作的平均分配字节数，并与预算比较
+     */
+    private static void assertBudget(String name, long budgetBytes, Operation operation) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = operation.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = operation.run();
+        }
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+        assertNotNull(sink);
+
+        long bytesPerOp = (after - before) / ITERATIONS;
+        System.out.println(name + ": " + bytesPerOp + " B/op (budget " + budgetBytes + ")");
+        assertTrue(bytesPerOp <= budgetBytes,
+                name + " allocated " + bytesPerOp + " B/op, budget is " + budgetBytes + " B/op");
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run();
+    }
+}
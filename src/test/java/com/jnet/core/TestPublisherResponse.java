@@ -0,0 +1,433 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flow.Publisher 响应体与 BodyFlows 操作符测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【PublisherResponse】响应式响应体测试")
+public class TestPublisherResponse {
+
+    @Test
+    @DisplayName("gzip 逐字节拆分输入、多成员、带文件名头部均能解压")
+    void testGunzipByteByByte() throws Exception {
+        byte[] text = "hello publisher ".repeat(5000).getBytes(StandardCharsets.US_ASCII);
+        byte[] member = gzip(text);
+        // 手工设置 FNAME 标志并插入文件名
+        ByteArrayOutputStream named = new ByteArrayOutputStream();
+        named.write(member, 0, 3);
+        named.write(member[3] | 8);
+        named.write(member, 4, 6);
+        named.write("body.txt\0".getBytes(StandardCharsets.US_ASCII));
+        named.write(member, 10, member.length - 10);
+        byte[] input = concat(named.toByteArray(), member);
+
+        List<List<ByteBuffer>> items = new ArrayList<>();
+        for (byte b : input) {
+            items.add(Collections.singletonList(ByteBuffer.wrap(new byte[]{b})));
+        }
+        byte[] result = collect(BodyFlows.decompress(publisher(items), "gzip"));
+        assertArrayEquals(concat(text, text), result);
+    }
+
+    @Test
+    @DisplayName("deflate（zlib）解压，identity 原样返回，未知编码拒绝")
+    void testDeflateAndIdentity() throws Exception {
+        byte[] text = "zlib body".getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(text);
+        }
+        assertArrayEquals(text, collect(BodyFlows.decompress(chunks(out.toByteArray(), 3), "deflate")));
+
+        Flow.Publisher<List<ByteBuffer>> source = chunks(text, 4);
+        assertSame(source, BodyFlows.decompress(source, "identity"));
+        assertSame(source, BodyFlows.decompress(source, null));
+        assertThrows(IllegalArgumentException.class, () -> BodyFlows.decompress(source, "br"));
+    }
+
+    @Test
+    @DisplayName("截断或 CRC 错误的 gzip 以 ZipException 结束")
+    void testCorruptGzip() {
+        byte[] member = gzip("truncated".getBytes(StandardCharsets.US_ASCII));
+        byte[] truncated = Arrays.copyOf(member, member.length - 3);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> collect(BodyFlows.decompress(chunks(truncated, 5), "gzip")));
+        assertTrue(e.getCause() instanceof ZipException);
+
+        member[member.length - 8] ^= 1;
+        e = assertThrows(ExecutionException.class, () -> collect(BodyFlows.decompress(chunks(member, 64), "gzip")));
+        assertTrue(e.getCause().getMessage().contains("CRC"));
+    }
+
+    @Test
+    @DisplayName("操作符按下游需求向上游请求，不预读")
+    void testBackpressure() {
+        AtomicInteger requested = new AtomicInteger();
+        Flow.Publisher<List<ByteBuffer>> source = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet((int) n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        BodyFlows.map(source, b -> b).subscribe(new Flow.Subscriber<List<ByteBuffer>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(0, requested.get());
+        subscription[0].request(2);
+        assertEquals(2, requested.get());
+    }
+
+    @Test
+    @DisplayName("map 变换后异步写入文件")
+    void testMapAndWriteTo(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("out.txt");
+        Files.write(file, new byte[100]); // 已有内容会被截断
+        Flow.Publisher<List<ByteBuffer>> upper = BodyFlows.map(chunks("abcdefghij".getBytes(StandardCharsets.US_ASCII), 3),
+                buffer -> {
+                    for (int i = buffer.position(); i < buffer.limit(); i++) {
+                        buffer.put(i, (byte) Character.toUpperCase(buffer.get(i)));
+                    }
+                    return buffer;
+                });
+        assertEquals(10L, BodyFlows.writeTo(upper, file).get(5, TimeUnit.SECONDS));
+        assertEquals("ABCDEFGHIJ", new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("enqueue(PublisherCallback) 按需读取响应体并按 Content-Encoding 解压")
+    void testEnqueuePublisher(@TempDir Path dir) throws Exception {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            JNetClient client = JNetClient.newBuilder().build();
+
+            PublisherResponse gzipped = enqueue(client.newGet(server.baseUrl() + "/gzip/100000").build());
+            assertEquals(200, gzipped.getResponse().getCode());
+            assertNull(gzipped.getResponse().getBody());
+            assertEquals("gzip", gzipped.getContentEncoding());
+            byte[] decoded = collect(gzipped.getDecodedBody());
+            assertEquals(100_000, decoded.length);
+            assertEquals('x', decoded[99_999]);
+
+            Path file = dir.resolve("bytes.bin");
+            PublisherResponse large = enqueue(client.newGet(server.bytesUrl(1_000_000)).build());
+            assertEquals(1_000_000L, large.writeTo(file).get(10, TimeUnit.SECONDS));
+            assertEquals(1_000_000L, Files.size(file));
+        }
+    }
+
+    @Test
+    @DisplayName("请求体来自 Flow.Publisher，分别以 chunked 和 Content-Length 发送")
+    void testPublisherRequestBody() throws Exception {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            JNetClient client = JNetClient.newBuilder().build();
+            for (boolean knownLength : new boolean[]{false, true}) {
+                SubmissionPublisher<ByteBuffer> body = new SubmissionPublisher<>();
+                Request.Builder builder = client.newPost(server.baseUrl() + "/echo");
+                if (knownLength) {
+                    builder.body(body, 6);
+                } else {
+                    builder.body(body);
+                }
+                CompletableFuture<Response> result = new CompletableFuture<>();
+                builder.build().newCall().enqueue(new Call.Callback() {
+                    @Override
+                    public void onSuccess(Response response) {
+                        result.complete(response);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+                // 订阅发生在发送时，submit 会阻塞到订阅方请求为止
+                while (body.getNumberOfSubscribers() == 0 && !result.isDone()) {
+                    Thread.sleep(5);
+                }
+                body.submit(ByteBuffer.wrap("abc".getBytes(StandardCharsets.US_ASCII)));
+                body.submit(ByteBuffer.wrap("def".getBytes(StandardCharsets.US_ASCII)));
+                body.close();
+                assertEquals("abcdef", result.get(5, TimeUnit.SECONDS).getBody());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("非流式传输层的默认实现以单个元素发布")
+    void testDefaultTransportPublisher() throws Exception {
+        Transport transport = (request, timeout) -> Response.success(request).code(200).body("whole").build();
+        JNetClient client = JNetClient.newBuilder().transport(transport).build();
+        PublisherResponse response = enqueue(client.newGet("http://127.0.0.1:1/").build());
+        assertEquals("whole", new String(collect(response.getBody()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("收到响应头后、回调前取消，未交付的响应体被取消并关闭连接")
+    void testCancelAfterHeaders() throws Exception {
+        JNetClient client = JNetClient.newBuilder().build();
+        Transport jdk = client.getTransport();
+
+        // Call 层：传输层已交出响应，回调前调用被取消
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Boolean> closed = holdOpen(socket, new CountDownLatch(1), new CountDownLatch(0));
+            AtomicReference<Call> call = new AtomicReference<>();
+            Transport cancelling = new Transport() {
+                @Override
+                public Response execute(Request request, Duration timeout) throws IOException, InterruptedException {
+                    return jdk.execute(request, timeout);
+                }
+
+                @Override
+                public CompletableFuture<PublisherResponse> executePublisher(Request request, Duration timeout) {
+                    CompletableFuture<PublisherResponse> result = new CompletableFuture<PublisherResponse>() {
+                        @Override
+                        public boolean cancel(boolean mayInterruptIfRunning) {
+                            return false;
+                        }
+                    };
+                    jdk.executePublisher(request, timeout).whenComplete((response, throwable) -> {
+                        call.get().cancel();
+                        if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(response);
+                        }
+                    });
+                    return result;
+                }
+            };
+            JNetClient cancellingClient = JNetClient.newBuilder().transport(cancelling).build();
+            call.set(cancellingClient.newGet("http://127.0.0.1:" + socket.getLocalPort() + "/").build().newCall());
+            CompletableFuture<Exception> failure = new CompletableFuture<>();
+            call.get().enqueue(new Call.PublisherCallback() {
+                @Override
+                public void onResponse(PublisherResponse response) {
+                    failure.complete(null);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    failure.complete(e);
+                }
+            });
+            assertNotNull(failure.get(10, TimeUnit.SECONDS));
+            assertTrue(closed.get(10, TimeUnit.SECONDS), "连接应被关闭");
+        }
+
+        // 传输层：调用方在响应头到达前取消
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CountDownLatch received = new CountDownLatch(1);
+            CountDownLatch ready = new CountDownLatch(1);
+            CompletableFuture<Boolean> closed = holdOpen(socket, received, ready);
+            CompletableFuture<PublisherResponse> future = jdk.executePublisher(
+                    client.newGet("http://127.0.0.1:" + socket.getLocalPort() + "/").build(), Duration.ofSeconds(10));
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            future.cancel(true);
+            ready.countDown();
+            assertTrue(closed.get(10, TimeUnit.SECONDS), "连接应被关闭");
+        }
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 读完请求头后通知 received 并等待 ready，再发出响应头和部分响应体并保持连接；以客户端是否关闭连接完成
+     */
+    private static CompletableFuture<Boolean> holdOpen(ServerSocket socket, CountDownLatch received,
+                                                       CountDownLatch ready) {
+        // 独立线程，不受公共池中其他阻塞任务影响
+        return CompletableFuture.supplyAsync(() -> {
+            try (Socket s = socket.accept()) {
+                s.setSoTimeout(10_000);
+                InputStream in = s.getInputStream();
+                for (int matched = 0; matched < 4; ) {
+                    int b = in.read();
+                    if (b < 0) {
+                        return true;
+                    }
+                    matched = b == "\r\n\r\n".charAt(matched) ? matched + 1 : (b == '\r' ? 1 : 0);
+                }
+                received.countDown();
+                ready.await(10, TimeUnit.SECONDS);
+                OutputStream out = s.getOutputStream();
+                out.write("HTTP/1.1 200 OK\r\nContent-Length: 1000000\r\n\r\npartial"
+                        .getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                return in.read() < 0;
+            } catch (SocketException e) {
+                return true;
+            } catch (IOException | InterruptedException e) {
+                return false;
+            }
+        }, task -> new Thread(task, "holdOpen").start());
+    }
+
+    private static PublisherResponse enqueue(Request request) throws Exception {
+        CompletableFuture<PublisherResponse> result = new CompletableFuture<>();
+        request.newCall().enqueue(new Call.PublisherCallback() {
+            @Override
+            public void onResponse(PublisherResponse response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 每次请求一个元素，收集全部字节
+     */
+    private static byte[] collect(Flow.Publisher<List<ByteBuffer>> publisher) throws Exception {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<List<ByteBuffer>>() {
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+                for (ByteBuffer buffer : item) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    out.write(bytes, 0, bytes.length);
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(out.toByteArray());
+            }
+        });
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    private static Flow.Publisher<List<ByteBuffer>> chunks(byte[] data, int size) {
+        List<List<ByteBuffer>> items = new ArrayList<>();
+        for (int offset = 0; offset < data.length; offset += size) {
+            items.add(Collections.singletonList(
+                    ByteBuffer.wrap(Arrays.copyOfRange(data, offset, Math.min(data.length, offset + size)))));
+        }
+        return publisher(items);
+    }
+
+    /**
+     * 按需逐个发出元素的同步 Publisher
+     */
+    private static Flow.Publisher<List<ByteBuffer>> publisher(List<List<ByteBuffer>> items) {
+        return subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private int index;
+            private long demand;
+            private boolean emitting;
+
+            @Override
+            public void request(long n) {
+                demand += n;
+                if (emitting) {
+                    return; // 同步重入时由外层循环继续发出
+                }
+                emitting = true;
+                while (demand > 0 && index < items.size()) {
+                    demand--;
+                    subscriber.onNext(items.get(index++));
+                }
+                emitting = false;
+                if (index == items.size()) {
+                    index++;
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                index = items.size() + 1;
+            }
+        });
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
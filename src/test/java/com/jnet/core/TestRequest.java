@@ -2,6 +2,19 @@ package com.jnet.core;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -69,4 +82,113 @@ public class TestRequest {
         assertNotNull(request, "PUT 请求构建应该成功");
         assertEquals("PUT", request.getMethod(), "请求方法应该是 PUT");
     }
+
+    @Test
+    @DisplayName("二进制请求体：已知长度、可重放，toBuilder 保留请求体")
+    void testBinaryBodies() throws IOException {
+        byte[] bytes = "binary\u0000body".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer heap = ByteBuffer.allocate(32).put(new byte[]{9, 9}).put(bytes);
+        heap.flip().position(2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        direct.flip();
+        Path file = Files.createTempFile("jnet-body", ".bin");
+        try {
+            Files.write(file, bytes);
+            AtomicInteger opened = new AtomicInteger();
+            List<Request.Builder> builders = List.of(
+                    Request.newBuilder().body(bytes),
+                    Request.newBuilder().body(heap),
+                    Request.newBuilder().body(direct),
+                    Request.newBuilder().body(file),
+                    Request.newBuilder().body(() -> {
+                        opened.incrementAndGet();
+                        return new ByteArrayInputStream(bytes);
+                    }, bytes.length));
+            try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+                for (Request.Builder builder : builders) {
+                    Request request = builder.url(server.baseUrl() + "/echo").method("POST").build();
+                    assertTrue(request.isReplayable());
+                    assertEquals(bytes.length, request.getBodyPublisher().contentLength());
+                    // 同一请求发送两次（重试的情形），请求体完整且不走 chunked
+                    for (Request send : List.of(request, request.toBuilder().build())) {
+                        Response response = send.newCall().execute();
+                        assertEquals("binary\u0000body", response.getBody());
+                        assertEquals(String.valueOf(bytes.length), header(response, "X-Request-Length"));
+                    }
+                }
+            }
+            assertEquals(2, opened.get(), "每次发送都重新打开输入流");
+            assertEquals(2, heap.position(), "不改变缓冲区位置");
+        } finally {
+            Files.delete(file);
+        }
+        assertThrows(UncheckedIOException.class, () -> Request.newBuilder().body(Paths.get("/no/such/file")));
+        assertThrows(IllegalArgumentException.class,
+                () -> Request.newBuilder().body(() -> new ByteArrayInputStream(bytes), -1));
+        assertEquals(0, Request.newBuilder().url("http://localhost/").body(ByteArrayInputStream::nullInputStream, 0)
+                .build().getBodyPublisher().contentLength());
+    }
+
+    @Test
+    @DisplayName("只能发送一次的请求体不重试")
+    void testRetrySkipsOneShotBody() {
+        Request oneShot = Request.newBuilder().url("http://localhost/")
+                .body(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(new byte[1])))
+                .build();
+        Request replayable = oneShot.toBuilder().body("x").build();
+        assertFalse(oneShot.isReplayable());
+        assertFalse(oneShot.toBuilder().build().isReplayable());
+        assertTrue(replayable.isReplayable());
+        assertTrue(Request.newBuilder().url("http://localhost/").json(List.of(1)).build().isReplayable());
+
+        Interceptor retry = new Interceptor.RetryInterceptor(2, 1);
+        for (Request request : List.of(oneShot, replayable)) {
+            AtomicInteger attempts = new AtomicInteger();
+            assertThrows(IOException.class, () -> retry.intercept(new Interceptor.Chain() {
+                @Override
+                public Request request() {
+                    return request;
+                }
+
+                @Override
+                public Response proceed(Request r) throws IOException {
+                    attempts.incrementAndGet();
+                    throw new IOException("connection reset");
+                }
+            }));
+            assertEquals(request.isReplayable() ? 3 : 1, attempts.get());
+        }
+    }
+
+    @Test
+    @DisplayName("multipart 请求体以 Content-Length 上传，内容与发布者一致")
+    void testMultipartUpload() throws IOException {
+        Path file = Files.createTempFile("jnet-multipart", ".bin");
+        try {
+            Files.write(file, new byte[200_000]);
+            com.jnet.multipart.MultipartBody multipart = com.jnet.multipart.MultipartBody.newBuilder()
+                    .addFormField("name", "value")
+                    .addFilePart("file", file.toFile())
+                    .build();
+            try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+                Request request = Request.newBuilder().url(server.baseUrl() + "/echo").method("POST")
+                        .multipart(multipart).build();
+                assertTrue(request.isReplayable());
+                assertEquals(multipart.getContentType(), request.getHeader("Content-Type"));
+                Response response = request.newCall().execute();
+                assertEquals(String.valueOf(multipart.getContentLength()), header(response, "X-Request-Length"));
+                assertEquals(multipart.getContentLength(), response.getBody().length());
+                assertTrue(response.getBody().endsWith("--" + multipart.getBoundary() + "--\r\n"));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String header(Response response, String name) {
+        return response.getHeaders().entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(name))
+                .map(java.util.Map.Entry::getValue)
+                .findFirst().orElse(null);
+    }
 }
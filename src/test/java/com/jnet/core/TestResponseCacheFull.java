@@ -185,6 +185,24 @@ public class TestResponseCacheFull {
             Response cached = cache.get(req2);
             assertNotNull(cached);
         }
+
+        @Test
+        @DisplayName("二进制请求体不缓存，不同内容不会共用同一个键")
+        void testBinaryBodyNotCached() {
+            ResponseCache cache = new ResponseCache(60000);
+
+            Request req1 = client.newPost("https://example.com/test").body(new byte[]{1}).build();
+            Request req2 = client.newPost("https://example.com/test").body(new byte[]{2}).build();
+            Request req3 = client.newPost("https://example.com/test")
+                    .body(java.nio.ByteBuffer.wrap(new byte[]{3})).build();
+
+            cache.put(req1, Response.success(req1).code(200).body("response1").build());
+            cache.put(req3, Response.success(req3).code(200).body("response3").build());
+
+            assertEquals(0, cache.size());
+            assertNull(cache.get(req1));
+            assertNull(cache.get(req2));
+        }
     }
 
     // ========== TTL 过期 ==========
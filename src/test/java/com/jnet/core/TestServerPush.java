@@ -0,0 +1,205 @@
+package com.jnet.core;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP/2 服务端推送测试
+ * JDK 没有内置 HTTP/2 服务器，这里直接驱动 PushPromiseHandler，模拟 HttpClient 收到推送承诺的过程。
+ * 推送的 URL 指向未监听的端口，命中缓存时不会产生网络请求。
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+@DisplayName("【ServerPush】服务端推送测试")
+public class TestServerPush {
+    private static final String PAGE = "http://127.0.0.1:1/index.html";
+    private static final String STYLE = "http://127.0.0.1:1/style.css";
+
+    @Test
+    @DisplayName("默认不启用推送")
+    void testDisabledByDefault() {
+        assertNull(JNetClient.newBuilder().build().getServerPush());
+    }
+
+    @Test
+    @DisplayName("推送的 GET 响应存入缓存，后续请求直接命中")
+    void testPushedResponseServedLocally() throws Exception {
+        ResponseCache cache = new ResponseCache(60_000);
+        JNetClient client = JNetClient.newBuilder().serverPush(cache).build();
+        ServerPush push = client.getServerPush();
+        assertSame(cache, push.getCache());
+
+        CompletableFuture<HttpResponse<String>> delivered = promise(client, "GET", STYLE, 200, "body{}");
+        delivered.get(5, TimeUnit.SECONDS);
+        assertEquals(1, cache.size());
+
+        Response first = client.newGet(STYLE).build().newCall().execute();
+        assertEquals(200, first.getCode());
+        assertEquals("body{}", first.getBody());
+        Response second = client.newGet(STYLE).build().newCall().execute();
+        assertEquals("body{}", second.getBody());
+
+        ServerPush.Metrics metrics = push.getMetrics();
+        assertEquals(1, metrics.getPromised());
+        assertEquals(1, metrics.getAccepted());
+        assertEquals(1, metrics.getUsed(), "每个推送只计一次使用");
+        assertEquals(0, metrics.getFailed());
+    }
+
+    @Test
+    @DisplayName("异步调用同样命中推送缓存")
+    void testAsyncHit() throws Exception {
+        JNetClient client = JNetClient.newBuilder().serverPush(new ResponseCache()).build();
+        promise(client, "GET", STYLE, 200, "async").get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        client.newGet(STYLE).build().newCall().enqueue(new Call.Callback() {
+            @Override
+            public void onSuccess(Response response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        assertEquals("async", result.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, client.getServerPush().getMetrics().getUsed());
+    }
+
+    @Test
+    @DisplayName("非 GET 推送和已缓存的资源被拒绝，非 200 推送不入缓存")
+    void testRejectedAndFailed() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        JNetClient client = JNetClient.newBuilder().serverPush(cache).build();
+
+        assertNull(promise(client, "HEAD", STYLE, 200, ""));
+        promise(client, "GET", STYLE, 200, "a").get(5, TimeUnit.SECONDS);
+        assertNull(promise(client, "GET", STYLE, 200, "b"), "缓存中已有时拒绝");
+        promise(client, "GET", PAGE, 404, "missing").get(5, TimeUnit.SECONDS);
+
+        ServerPush.Metrics metrics = client.getServerPush().getMetrics();
+        assertEquals(4, metrics.getPromised());
+        assertEquals(2, metrics.getRejected());
+        assertEquals(2, metrics.getAccepted());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(1, cache.size());
+        assertEquals(0, metrics.getUsed());
+
+        // 未推送的资源照常走网络（端口未监听，连接失败）
+        assertThrows(IOException.class, () -> client.newGet(PAGE).build().newCall().execute());
+    }
+
+    @Test
+    @DisplayName("从未被请求的推送随缓存 TTL 过期并被清理")
+    void testUnusedPushesExpire() throws Exception {
+        ResponseCache cache = new ResponseCache(20);
+        JNetClient client = JNetClient.newBuilder().serverPush(cache).build();
+        ServerPush push = client.getServerPush();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                promise(client, "GET", "http://127.0.0.1:1/r" + round + "/" + i, 200, "x").get(5, TimeUnit.SECONDS);
+            }
+            Thread.sleep(30);
+        }
+        assertEquals(500, push.getMetrics().getAccepted());
+        assertTrue(push.pushedCount() < 300, "过期的推送记录应被清理: " + push.pushedCount());
+        assertTrue(cache.size() < 300, "过期的推送响应应移出缓存: " + cache.size());
+
+        // 过期的推送不再命中，请求照常走网络
+        assertThrows(IOException.class, () -> client.newGet("http://127.0.0.1:1/r4/0").build().newCall().execute());
+    }
+
+    // ========== 内部方法 ==========
+
+    /**
+     * 模拟一次推送承诺，返回推送响应体送达的 Future；推送被拒绝时返回 null
+     */
+    private static CompletableFuture<HttpResponse<String>> promise(JNetClient client, String method, String url,
+                                                                   int status, String body) {
+        Request initiating = client.newGet(PAGE).build();
+        HttpRequest pushRequest = HttpRequest.newBuilder(URI.create(url))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        AtomicReference<CompletableFuture<HttpResponse<String>>> delivered = new AtomicReference<>();
+        Function<HttpResponse.BodyHandler<String>, CompletableFuture<HttpResponse<String>>> acceptor = handler -> {
+            // 推送体已读完：ServerPush 注册的完成回调会在 applyPushPromise 返回前同步执行
+            delivered.set(CompletableFuture.completedFuture(new FakeResponse(pushRequest, status, body)));
+            return delivered.get();
+        };
+        client.getServerPush().handlerFor(initiating)
+                .applyPushPromise(HttpRequest.newBuilder(URI.create(PAGE)).build(), pushRequest, acceptor);
+        return delivered.get();
+    }
+
+    private static final class FakeResponse implements HttpResponse<String> {
+        private final HttpRequest request;
+        private final int status;
+        private final String body;
+
+        FakeResponse(HttpRequest request, int status, String body) {
+            this.request = request;
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of("content-type", List.of("text/css")), (k, v) -> true);
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_2;
+        }
+    }
+}
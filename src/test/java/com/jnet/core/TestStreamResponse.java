@@ -5,8 +5,11 @@ import org.junit.jupiter.api.DisplayName;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -117,4 +120,123 @@ class TestStreamResponse {
             assertEquals("", stream.readAll());
         }
     }
+
+    @Test
+    @DisplayName("StreamResponse: CRLF 与跨缓冲区的长行")
+    void testCrlfAndLongLines() throws IOException {
+        char[] longLine = new char[20_000];
+        Arrays.fill(longLine, 'x');
+        String content = "a\r\n" + new String(longLine) + "\r\nb\n\nc";
+
+        List<String> lines = new ArrayList<>();
+        try (StreamResponse stream = new StreamResponse(null, new ByteArrayInputStream(content.getBytes()))) {
+            stream.readLines(lines::add);
+        }
+        assertEquals(Arrays.asList("a", new String(longLine), "b", "", "c"), lines);
+    }
+
+    @Test
+    @DisplayName("StreamResponse: forEachLine 交出原始字节")
+    void testForEachLine() throws IOException {
+        String content = "中文,1\nascii,2\n";
+        List<String> lines = new ArrayList<>();
+        try (StreamResponse stream = new StreamResponse(null,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))) {
+            stream.forEachLine((bytes, offset, length) ->
+                    lines.add(new String(bytes, offset, length, StandardCharsets.UTF_8)));
+        }
+        assertEquals(Arrays.asList("中文,1", "ascii,2"), lines);
+    }
+
+    @Test
+    @DisplayName("StreamResponse: byteLines 复用缓冲区视图")
+    void testByteLines() throws IOException {
+        String content = "one\ntwo\r\nthree";
+        List<String> lines = new ArrayList<>();
+        try (StreamResponse stream = new StreamResponse(null, new ByteArrayInputStream(content.getBytes()))) {
+            for (ByteBuffer line : stream.byteLines()) {
+                lines.add(StandardCharsets.US_ASCII.decode(line).toString());
+            }
+        }
+        assertEquals(Arrays.asList("one", "two", "three"), lines);
+    }
+
+    @Test
+    @DisplayName("StreamResponse: read(ByteBuffer) 按块读取，先交出已缓冲的字节")
+    void testReadByteBuffer() throws IOException {
+        byte[] content = new byte[50_000];
+        Arrays.fill(content, (byte) 'z');
+        content[3] = '\n';
+        try (StreamResponse stream = new StreamResponse(null, new ByteArrayInputStream(content))) {
+            assertEquals("zzz", stream.readLine());
+            ByteBuffer chunk = ByteBuffer.allocateDirect(4096);
+            long total = 4;
+            int n;
+            while ((n = stream.read(chunk)) != -1) {
+                total += n;
+                chunk.clear();
+            }
+            assertEquals(content.length, total);
+        }
+    }
+
+    @Test
+    @DisplayName("StreamResponse: getInputStream 可与按行读取交替使用")
+    void testInputStreamAfterReadLine() throws IOException {
+        try (StreamResponse stream = new StreamResponse(null, new ByteArrayInputStream("head\nrest".getBytes()))) {
+            assertEquals("head", stream.readLine());
+            InputStream in = stream.getInputStream();
+            assertEquals("rest", new String(in.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @DisplayName("StreamResponse: UTF-16 退回按字符读取，字节行不可用")
+    void testUtf16() throws IOException {
+        byte[] content = "x\ny".getBytes(StandardCharsets.UTF_16LE);
+        try (StreamResponse stream = new StreamResponse(null, new ByteArrayInputStream(content),
+                StandardCharsets.UTF_16LE)) {
+            assertThrows(IllegalStateException.class, stream::byteLines);
+            assertEquals("x", stream.readLine());
+            assertEquals("y", stream.readAll());
+        }
+    }
+
+    @Test
+    @DisplayName("StreamResponse: executeStreaming 经客户端流式读取大响应体")
+    void testExecuteStreaming() throws IOException {
+        try (LoopbackHttpServer server = LoopbackHttpServer.start()) {
+            JNetClient client = JNetClient.newBuilder().build();
+            try (StreamResponse stream = client.newGet(server.bytesUrl(2_000_000)).build().newCall().executeStreaming()) {
+                assertEquals(200, stream.getResponse().getCode());
+                assertNull(stream.getResponse().getBody());
+                assertEquals(StandardCharsets.UTF_8, stream.getCharset());
+                ByteBuffer chunk = ByteBuffer.allocate(16 * 1024);
+                long total = 0;
+                int n;
+                while ((n = stream.read(chunk)) != -1) {
+                    total += n;
+                    chunk.clear();
+                }
+                assertEquals(2_000_000, total);
+            }
+
+            try (StreamResponse stream = client.newGet(server.baseUrl() + "/chunked/3000").build().newCall()
+                    .executeStreaming()) {
+                assertEquals(3000, stream.readAll().length());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("StreamResponse: 非流式传输层的默认实现")
+    void testDefaultTransportStreaming() throws IOException {
+        Transport transport = (request, timeout) -> Response.success(request).code(200).body("l1\nl2").build();
+        JNetClient client = JNetClient.newBuilder().transport(transport).build();
+        List<String> lines = new ArrayList<>();
+        try (StreamResponse stream = client.newGet("http://127.0.0.1:1/").build().newCall().executeStreaming()) {
+            stream.readLines(lines::add);
+        }
+        assertEquals(Arrays.asList("l1", "l2"), lines);
+    }
 }
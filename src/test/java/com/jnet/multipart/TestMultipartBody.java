@@ -5,9 +5,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -167,8 +172,10 @@ class TestMultipartBody {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         part.getInputStream().transferTo(out);
 
-        byte[] result = out.toByteArray();
-        assertTrue(result.length > content.length); // Headers + content
+        // Part 的输入流只含内容，部分头部由 getHeaders() 单独给出，MultipartBody 负责拼接
+        assertArrayEquals(content, out.toByteArray());
+        assertTrue(part.getHeaders().contains("filename=\"test.txt\""));
+        assertTrue(part.getHeaders().contains("Content-Type: text/plain"));
     }
 
     @Test
@@ -209,4 +216,147 @@ class TestMultipartBody {
 
         assertNotNull(body.toBodyPublisher());
     }
+
+    @Test
+    @DisplayName("MultipartPublisher: 字节与长度精确，可重复订阅")
+    void testPublisherBytes() throws Exception {
+        File file = tempDir.resolve("note.txt").toFile();
+        Files.writeString(file.toPath(), "file body", StandardCharsets.UTF_8);
+        MultipartBody body = MultipartBody.newBuilder()
+                .boundary("B")
+                .addFormField("name", "用户")
+                .addPart(new FilePart("upload", file, "text/plain"))
+                .addFilePart("raw", "r.bin", new byte[]{1, 2}, null)
+                .build();
+
+        String expected = "--B\r\nContent-Disposition: form-data; name=\"name\"\r\n\r\n用户\r\n"
+                + "--B\r\nContent-Disposition: form-data; name=\"upload\"; filename=\"note.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\nfile body\r\n"
+                + "--B\r\nContent-Disposition: form-data; name=\"raw\"; filename=\"r.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n\u0001\u0002\r\n--B--\r\n";
+        HttpRequest.BodyPublisher publisher = body.toBodyPublisher();
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, publisher.contentLength());
+        assertEquals(publisher.contentLength(), body.getContentLength());
+        for (int i = 0; i < 2; i++) {
+            Collector collector = Collector.drain(publisher, 1);
+            assertTrue(collector.completed);
+            assertEquals(expected, collector.bytes.toString(StandardCharsets.UTF_8));
+            assertEquals(1, collector.buffers.size(), "小片段合并为一块");
+        }
+    }
+
+    @Test
+    @DisplayName("MultipartPublisher: 大文件按映射窗口发出，小字段合并成块")
+    void testPublisherLargeFileAndManyFields() throws Exception {
+        Path large = tempDir.resolve("large.bin");
+        byte[] data = new byte[MultipartPublisher.MAP_WINDOW + 12345];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        Files.write(large, data);
+        MultipartBody.Builder builder = MultipartBody.newBuilder().boundary("B").addFilePart("big", large.toFile());
+        for (int i = 0; i < 10_000; i++) {
+            builder.addFormField("f" + i, "v" + i);
+        }
+        MultipartBody body = builder.build();
+
+        Collector collector = Collector.drain(body.toBodyPublisher(), 3);
+        assertTrue(collector.completed);
+        byte[] all = collector.bytes.toByteArray();
+        assertEquals(body.getContentLength(), all.length);
+        int start = indexOf(all, "\r\n\r\n".getBytes(StandardCharsets.US_ASCII)) + 4;
+        for (int i = 0; i < data.length; i++) {
+            if (all[start + i] != data[i]) {
+                fail("content differs at " + i);
+            }
+        }
+        assertTrue(new String(all, StandardCharsets.UTF_8).endsWith("name=\"f9999\"\r\n\r\nv9999\r\n--B--\r\n"));
+
+        long mapped = collector.buffers.stream().filter(ByteBuffer::isDirect).count();
+        assertEquals(2, mapped, "文件内容按两个映射窗口发出");
+        assertTrue(collector.buffers.size() < 2 + all.length / MultipartPublisher.CHUNK_SIZE + 4,
+                "一万个字段合并成块: " + collector.buffers.size());
+    }
+
+    @Test
+    @DisplayName("MultipartPublisher: 文件大小变化时以 onError 结束，取消后不再发出")
+    void testPublisherErrorsAndCancel() throws Exception {
+        Path file = tempDir.resolve("changing.bin");
+        Files.write(file, new byte[100]);
+        MultipartBody body = MultipartBody.newBuilder().addFilePart("f", file.toFile()).build();
+        Files.write(file, new byte[50]);
+        Collector failed = Collector.drain(body.toBodyPublisher(), Long.MAX_VALUE);
+        assertTrue(failed.error instanceof IOException, String.valueOf(failed.error));
+
+        MultipartBody many = MultipartBody.newBuilder()
+                .addFilePart("a", "a.bin", new byte[64 * 1024], null)
+                .addFilePart("b", "b.bin", new byte[64 * 1024], null)
+                .build();
+        Collector cancelled = new Collector();
+        many.toBodyPublisher().subscribe(cancelled);
+        cancelled.subscription.request(1);
+        cancelled.subscription.cancel();
+        cancelled.subscription.request(10);
+        assertEquals(1, cancelled.buffers.size());
+        assertFalse(cancelled.completed);
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    static class Collector implements Flow.Subscriber<ByteBuffer> {
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+        long batch;
+
+        /**
+         * 每次 onNext 后再请求 batch 个，直到结束
+         */
+        static Collector drain(HttpRequest.BodyPublisher publisher, long batch) {
+            Collector collector = new Collector();
+            collector.batch = batch;
+            publisher.subscribe(collector);
+            collector.subscription.request(batch);
+            return collector;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            buffers.add(item);
+            byte[] copy = new byte[item.remaining()];
+            item.duplicate().get(copy);
+            bytes.write(copy, 0, copy.length);
+            if (batch > 0 && batch != Long.MAX_VALUE) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
 }
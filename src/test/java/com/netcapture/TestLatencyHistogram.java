@@ -0,0 +1,80 @@
+package com.netcapture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram 与 bench 参数解析单元测试
+ *
+ * @author sanbo
+ * @version 3.0
+ */
+public class TestLatencyHistogram {
+
+    @Test
+    @DisplayName("测试小值精确记录")
+    void testExactBelow1024() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    @DisplayName("测试大值相对误差不超过 0.2%")
+    void testRelativeError() {
+        for (long value : new long[] {1024, 1500, 65_537, 1_000_000, 123_456_789L}) {
+            long upper = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value));
+            assertTrue(upper >= value, "桶上界应不小于原值: " + value);
+            assertTrue((upper - value) <= value * 0.002, "相对误差过大: " + value + " -> " + upper);
+        }
+    }
+
+    @Test
+    @DisplayName("测试长尾百分位")
+    void testTailPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9_990; i++) {
+            histogram.record(200);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(2_000_000);
+        }
+        assertEquals(200, histogram.getValueAtPercentile(99.9));
+        long p9999 = histogram.getValueAtPercentile(99.99);
+        assertTrue(p9999 >= 2_000_000 && p9999 <= 2_004_000, "p99.99 应落在长尾: " + p9999);
+    }
+
+    @Test
+    @DisplayName("测试空直方图")
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("测试 bench 参数解析")
+    void testParseOptions() {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[] {
+                "http://127.0.0.1:8080/", "--rate", "500", "--duration", "30s", "--warmup", "500ms"});
+        assertEquals(500, options.rate);
+        assertEquals(Duration.ofSeconds(30), options.duration);
+        assertEquals(Duration.ofMillis(500), options.warmup);
+        assertEquals(LoadGenerator.Target.HTTP, LoadGenerator.Target.of(options.uri));
+        assertEquals(LoadGenerator.Target.UDP, LoadGenerator.Target.of(java.net.URI.create("udp://127.0.0.1:9")));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[] {"--rate", "0"}));
+    }
+}